@@ -0,0 +1,115 @@
+package net.javaguids.lost_and_found;
+
+import net.javaguids.lost_and_found.analytics.HeavyHitters;
+import net.javaguids.lost_and_found.analytics.StatisticsCounters;
+import net.javaguids.lost_and_found.database.DatabaseManager;
+import net.javaguids.lost_and_found.database.LogRetention;
+import net.javaguids.lost_and_found.database.RollupRepository;
+import net.javaguids.lost_and_found.services.AsyncServices;
+import net.javaguids.lost_and_found.services.SessionManager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+// Starts and stops the application's shared services in one place, in a fixed order.
+//
+// start() connects to the database (upgrading the schema), seeds the in-memory analytics and
+// starts the background jobs. stop() shuts down in reverse: the background jobs first, so nothing
+// new is written; then the tasks registered with onStop(), newest first (async writers flushing
+// their queues, connection pools closing); then the write-ahead log is checkpointed and the
+// database connection closed last. Both are idempotent: stop() is called by
+// HelloApplication.stop() and again by the JVM shutdown hook, whichever comes first wins.
+// Uses singleton pattern to keep one instance
+public class ApplicationContainer {
+    private enum State { NEW, RUNNING, STOPPED }
+
+    private static volatile ApplicationContainer instance;
+
+    private final Deque<Runnable> stopTasks = new ArrayDeque<>();
+    private State state = State.NEW;
+    private Thread shutdownHook;
+
+    private ApplicationContainer() {
+    }
+
+    public static ApplicationContainer getInstance() {
+        ApplicationContainer result = instance;
+        if (result == null) {
+            synchronized (ApplicationContainer.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new ApplicationContainer();
+                }
+            }
+        }
+        return result;
+    }
+
+    public synchronized void start() {
+        if (state != State.NEW) {
+            return;
+        }
+        // Connect and bring the schema up to date before anything reads from it
+        DatabaseManager database = DatabaseManager.getInstance();
+        // Close the dashboards' read connections on stop, after the calls that use them
+        onStop(database.getReadPool()::close);
+        // Fill the top-N sketches with the last week before anything new is written
+        HeavyHitters.getInstance().load();
+        // Periodically check the dashboard counters against the tables and fix any drift
+        StatisticsCounters.getInstance().startReconciliation(15, TimeUnit.MINUTES);
+        // Sweep expired sessions out of the session table
+        SessionManager.getInstance().start();
+        // Delete activity logs past their retention once a day, starting shortly after launch
+        LogRetention.getInstance().start(5, 24 * 60, TimeUnit.MINUTES);
+        // Fold old trend rollups into coarser buckets every hour
+        RollupRepository.getInstance().start(1, 60, TimeUnit.MINUTES);
+        // Let background service calls in progress (e.g. a message being sent) finish on stop
+        onStop(AsyncServices.getInstance()::shutdown);
+        state = State.RUNNING;
+    }
+
+    // Registers work to do on stop, before the database is closed. Tasks run newest first,
+    // so a service registered after the one it depends on is stopped before it.
+    public synchronized void onStop(Runnable task) {
+        stopTasks.push(task);
+    }
+
+    // Makes the JVM run stop() when it exits, also on Ctrl+C or a kill signal
+    public synchronized void registerShutdownHook() {
+        if (shutdownHook != null) {
+            return;
+        }
+        shutdownHook = new Thread(this::stop, "application-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    public synchronized void stop() {
+        if (state != State.RUNNING) {
+            return;
+        }
+        state = State.STOPPED;
+
+        LogRetention.getInstance().stop();
+        RollupRepository.getInstance().stop();
+        StatisticsCounters.getInstance().stopReconciliation();
+        SessionManager.getInstance().stop();
+
+        while (!stopTasks.isEmpty()) {
+            try {
+                stopTasks.pop().run();
+            } catch (RuntimeException e) {
+                // one failing task must not keep the database from being closed
+                e.printStackTrace();
+            }
+        }
+
+        DatabaseManager database = DatabaseManager.getInstance();
+        database.checkpoint();
+        database.closeConnection();
+    }
+
+    public synchronized boolean isRunning() {
+        return state == State.RUNNING;
+    }
+}
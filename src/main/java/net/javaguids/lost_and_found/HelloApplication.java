@@ -13,6 +13,11 @@ public class HelloApplication extends Application {
     public void start(Stage stage) throws IOException {
         // Set the primary stage in NavigationManager for single-window navigation
         NavigationManager.setPrimaryStage(stage);
+        // Connect to the database and start the background services; they are shut down in
+        // order when the window closes, or by the shutdown hook if the JVM is stopped otherwise
+        ApplicationContainer container = ApplicationContainer.getInstance();
+        container.start();
+        container.registerShutdownHook();
 
         FXMLLoader fxmlLoader = new FXMLLoader(HelloApplication.class.getResource("login-view.fxml")); // Load the FXML file
         Scene scene = new Scene(fxmlLoader.load(), 400, 400); // Create a scene
@@ -20,4 +25,10 @@ public class HelloApplication extends Application {
         stage.setScene(scene); // Set the scene to the stage
         stage.show();
     }
+
+    @Override
+    // Called by JavaFX when the last window closes (or Platform.exit())
+    public void stop() {
+        ApplicationContainer.getInstance().stop();
+    }
 }
\ No newline at end of file
@@ -2,7 +2,6 @@ package net.javaguids.lost_and_found.analytics;
 
 import net.javaguids.lost_and_found.database.UserRepository;
 import net.javaguids.lost_and_found.database.MessageRepository;
-import net.javaguids.lost_and_found.model.users.User;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -24,6 +23,10 @@ public class ActivityLog {
     // Timestamp when the action occurred
     private LocalDateTime timestamp;
 
+    // Username of the user at the time of the action, stored with the log so that displaying
+    // and exporting logs needs no user lookups (and still works after the user is deleted)
+    private String actorName;
+
     // Creates a new activity log entry
     public ActivityLog(String logId, String userId, String action, String details) {
         this.logId = logId;
@@ -35,19 +38,26 @@ public class ActivityLog {
 
     // Static method to log a user action
     public static void log(String userId, String action, String details) {
+        MessageRepository.getInstance().saveActivityLog(create(userId, action, details));
+    }
+
+    // Builds the log entry that log() saves, without saving it (e.g. to save it in a transaction)
+    public static ActivityLog create(String userId, String action, String details) {
         String logId = UUID.randomUUID().toString();
 
-        // Get username for better logging
-        UserRepository userRepo = UserRepository.getInstance();
-        User user = userRepo.getUserById(userId);
-        String username = user != null ? user.getUsername() : "Unknown";
+        // Get username for better logging (from the identity cache, not a user query)
+        String username = UserRepository.getInstance().getUsername(userId);
+        if (username == null) {
+            username = "Unknown";
+        }
 
         // Format details to include username
         String formattedDetails = "[" + username + "] " + details;
 
-        // Create and save the activity log
+        // Create the activity log
         ActivityLog log = new ActivityLog(logId, userId, action, formattedDetails);
-        MessageRepository.getInstance().saveActivityLog(log);
+        log.setActorName(username);
+        return log;
     }
 
     // Getters and Setters
@@ -74,4 +84,12 @@ public class ActivityLog {
     public void setTimestamp(LocalDateTime timestamp) {
         this.timestamp = timestamp;
     }
-}
\ No newline at end of file
+
+    public String getActorName() {
+        return actorName;
+    }
+
+    public void setActorName(String actorName) {
+        this.actorName = actorName;
+    }
+}
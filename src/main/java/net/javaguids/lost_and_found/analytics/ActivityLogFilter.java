@@ -0,0 +1,54 @@
+package net.javaguids.lost_and_found.analytics;
+
+import java.time.LocalDateTime;
+
+// Filter for browsing activity logs. Every field is optional (null means "any");
+// MessageRepository turns the set fields into SQL conditions on indexed columns.
+public class ActivityLogFilter {
+    private String userId;
+    private String action;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    // Default constructor
+    public ActivityLogFilter() {
+    }
+
+    // Logs between from and to (inclusive)
+    public ActivityLogFilter(LocalDateTime from, LocalDateTime to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+}
@@ -0,0 +1,25 @@
+package net.javaguids.lost_and_found.analytics;
+
+// One entry of a top-N list: a key (user, location, category) and its estimated count
+public class HeavyHitter {
+    private final String key;
+    private final long count;
+
+    public HeavyHitter(String key, long count) {
+        this.key = key;
+        this.count = count;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return key + "=" + count;
+    }
+}
@@ -0,0 +1,120 @@
+package net.javaguids.lost_and_found.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Streaming top-N counter with fixed memory, for "who/what shows up most" questions.
+//
+// A Count-Min sketch (DEPTH rows of WIDTH counters, one hashed counter per row per key) estimates
+// how often any key was seen: the smallest of its counters, which never undercounts and overcounts
+// by at most e/WIDTH of the total with probability 1 - e^-DEPTH. Next to it a Space-Saving style
+// table keeps the CAPACITY keys with the highest estimates seen so far; a new key only takes the
+// place of the lowest one once its estimate is higher. Memory is the same for ten keys or a million.
+//
+// Two sketches of the same size are merged by adding their counters and re-ranking the union of
+// their candidates, so the sketches of several time buckets combine into one for a whole window.
+// Not thread safe; HeavyHitters synchronizes access.
+public class HeavyHitterSketch {
+    public static final int WIDTH = 512;
+    public static final int DEPTH = 4;
+    public static final int CAPACITY = 64;
+
+    private final long[][] counters = new long[DEPTH][WIDTH];
+    // monitored keys -> estimated count
+    private final Map<String, Long> candidates = new HashMap<>();
+    private long total;
+
+    public void add(String key) {
+        add(key, 1);
+    }
+
+    public void add(String key, long n) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int column = column(hash, row);
+            counters[row][column] += n;
+            estimate = Math.min(estimate, counters[row][column]);
+        }
+        total += n;
+        offer(key, estimate);
+    }
+
+    // Estimated number of times the key was added (never less than the true count)
+    public long estimate(String key) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters[row][column(hash, row)]);
+        }
+        return estimate;
+    }
+
+    public void merge(HeavyHitterSketch other) {
+        for (int row = 0; row < DEPTH; row++) {
+            for (int column = 0; column < WIDTH; column++) {
+                counters[row][column] += other.counters[row][column];
+            }
+        }
+        total += other.total;
+
+        // re-rank both candidate sets against the combined counters
+        List<String> keys = new ArrayList<>(candidates.keySet());
+        for (String key : other.candidates.keySet()) {
+            if (!candidates.containsKey(key)) {
+                keys.add(key);
+            }
+        }
+        candidates.clear();
+        for (String key : keys) {
+            offer(key, estimate(key));
+        }
+    }
+
+    // The n keys with the highest estimated counts, highest first (ties by key)
+    public List<HeavyHitter> top(int n) {
+        return candidates.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(n)
+                .map(entry -> new HeavyHitter(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    // Total of all counts added, so estimates can be read as shares
+    public long getTotal() {
+        return total;
+    }
+
+    // Largest amount any estimate can be over its true count (with probability 1 - e^-DEPTH)
+    public long getErrorBound() {
+        return (long) Math.ceil(Math.E * total / WIDTH);
+    }
+
+    private void offer(String key, long estimate) {
+        if (candidates.containsKey(key) || candidates.size() < CAPACITY) {
+            candidates.put(key, estimate);
+            return;
+        }
+        Map.Entry<String, Long> lowest = candidates.entrySet().stream()
+                .min(Comparator.comparingLong(Map.Entry::getValue))
+                .orElseThrow();
+        if (estimate > lowest.getValue()) {
+            candidates.remove(lowest.getKey());
+            candidates.put(key, estimate);
+        }
+    }
+
+    // Row-specific column for a key hash (64-bit finalizer of MurmurHash3, seeded per row)
+    private static int column(int hash, int row) {
+        long h = hash ^ (0x9E3779B97F4A7C15L * (row + 1));
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) WIDTH);
+    }
+}
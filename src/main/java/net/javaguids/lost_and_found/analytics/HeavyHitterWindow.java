@@ -0,0 +1,41 @@
+package net.javaguids.lost_and_found.analytics;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Time windows of the top-N lists. Each window is a ring of `buckets` sketches of `bucketMinutes`
+// each; a query merges the buckets still inside the window, so "last hour" covers the current
+// five minutes plus the eleven before them.
+public enum HeavyHitterWindow {
+    LAST_HOUR("Last hour", 5, 12),
+    LAST_DAY("Last day", 60, 24),
+    LAST_WEEK("Last week", 24 * 60, 7);
+
+    private final String label;
+    private final int bucketMinutes;
+    private final int buckets;
+
+    HeavyHitterWindow(String label, int bucketMinutes, int buckets) {
+        this.label = label;
+        this.bucketMinutes = bucketMinutes;
+        this.buckets = buckets;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public Duration getLength() {
+        return Duration.ofMinutes((long) bucketMinutes * buckets);
+    }
+
+    // Number of the bucket containing the given time, counted from 1970-01-01
+    public long bucketNumber(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC) / 60, bucketMinutes);
+    }
+}
@@ -0,0 +1,155 @@
+package net.javaguids.lost_and_found.analytics;
+
+import net.javaguids.lost_and_found.database.ItemRepository;
+import net.javaguids.lost_and_found.database.MessageRepository;
+import net.javaguids.lost_and_found.model.enums.ItemType;
+import net.javaguids.lost_and_found.model.items.Item;
+import net.javaguids.lost_and_found.search.LocationPath;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Near real-time top-N lists (most active users, busiest locations, most-lost categories) for the
+// last hour, day and week, fed by the repositories as they write, so no query ever groups over
+// the log or item history.
+//
+// Every dimension keeps one ring of HeavyHitterSketch buckets per window; an event goes into the
+// current bucket of each ring and a query merges the buckets still inside the window. Memory is
+// fixed: (12 + 24 + 7) sketches per dimension, whatever the traffic. Counts are estimates (see
+// HeavyHitterSketch) and start from the last week of the database on load().
+// Uses singleton pattern so every repository feeds the same sketches.
+public class HeavyHitters {
+    public enum Dimension {
+        ACTIVE_USERS,
+        LOCATIONS,
+        LOST_CATEGORIES
+    }
+
+    private static volatile HeavyHitters instance;
+
+    private final Map<Dimension, Map<HeavyHitterWindow, Ring>> rings = new EnumMap<>(Dimension.class);
+
+    public HeavyHitters() {
+        for (Dimension dimension : Dimension.values()) {
+            Map<HeavyHitterWindow, Ring> windows = new EnumMap<>(HeavyHitterWindow.class);
+            for (HeavyHitterWindow window : HeavyHitterWindow.values()) {
+                windows.put(window, new Ring(window));
+            }
+            rings.put(dimension, windows);
+        }
+    }
+
+    public static HeavyHitters getInstance() {
+        HeavyHitters result = instance;
+        if (result == null) {
+            synchronized (HeavyHitters.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new HeavyHitters();
+                }
+            }
+        }
+        return result;
+    }
+
+    // Seeds the sketches with the activity logs and items of the last week.
+    // Call once at startup, before anything is written.
+    public void load() {
+        LocalDateTime since = LocalDateTime.now().minus(HeavyHitterWindow.LAST_WEEK.getLength());
+        MessageRepository.getInstance().forEachActivityLog(new ActivityLogFilter(since, null), this::activityLogged);
+        ItemRepository.getInstance().forEachItemPostedSince(since, this::itemPosted);
+    }
+
+    // Counts the log's user as active (system entries are not a user)
+    public void activityLogged(ActivityLog log) {
+        if ("SYSTEM".equals(log.getUserId())) {
+            return;
+        }
+        String user = log.getActorName() != null ? log.getActorName() : log.getUserId();
+        record(Dimension.ACTIVE_USERS, user, log.getTimestamp());
+    }
+
+    // Counts a newly posted item's location, and its category if it was lost
+    public void itemPosted(Item item) {
+        LocationPath location = LocationPath.parse(item.getLocation());
+        if (!location.isEmpty()) {
+            record(Dimension.LOCATIONS, location.toDisplayString(), item.getDatePosted());
+        }
+        if (item.getType() == ItemType.LOST && item.getCategory() != null && !item.getCategory().isBlank()) {
+            record(Dimension.LOST_CATEGORIES, item.getCategory(), item.getDatePosted());
+        }
+    }
+
+    public synchronized void record(Dimension dimension, String key, LocalDateTime time) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Ring ring : rings.get(dimension).values()) {
+            ring.add(key, time, now);
+        }
+    }
+
+    // The n most frequent keys of the dimension within the window ending now, highest first
+    public List<HeavyHitter> top(Dimension dimension, HeavyHitterWindow window, int n) {
+        return top(dimension, window, n, LocalDateTime.now());
+    }
+
+    public synchronized List<HeavyHitter> top(Dimension dimension, HeavyHitterWindow window, int n, LocalDateTime now) {
+        return rings.get(dimension).get(window).merged(now).top(n);
+    }
+
+    // Drops every count (the next load() starts over)
+    public synchronized void clear() {
+        for (Map<HeavyHitterWindow, Ring> windows : rings.values()) {
+            for (Ring ring : windows.values()) {
+                ring.clear();
+            }
+        }
+    }
+
+    // Fixed array of bucket sketches; slot i holds the bucket whose number modulo the size is i.
+    // A slot still holding an older bucket is reset when the new one is first written.
+    private static class Ring {
+        private final HeavyHitterWindow window;
+        private final HeavyHitterSketch[] sketches;
+        private final long[] bucketNumbers;
+
+        Ring(HeavyHitterWindow window) {
+            this.window = window;
+            this.sketches = new HeavyHitterSketch[window.getBuckets()];
+            this.bucketNumbers = new long[window.getBuckets()];
+        }
+
+        void add(String key, LocalDateTime time, LocalDateTime now) {
+            long current = window.bucketNumber(now);
+            // clock skew: an event from the future counts as now rather than overwriting a live bucket
+            long bucket = Math.min(window.bucketNumber(time), current);
+            if (bucket <= current - sketches.length) {
+                return;
+            }
+            int slot = (int) Math.floorMod(bucket, (long) sketches.length);
+            if (sketches[slot] == null || bucketNumbers[slot] != bucket) {
+                sketches[slot] = new HeavyHitterSketch();
+                bucketNumbers[slot] = bucket;
+            }
+            sketches[slot].add(key);
+        }
+
+        HeavyHitterSketch merged(LocalDateTime now) {
+            long current = window.bucketNumber(now);
+            HeavyHitterSketch merged = new HeavyHitterSketch();
+            for (int slot = 0; slot < sketches.length; slot++) {
+                if (sketches[slot] != null && bucketNumbers[slot] > current - sketches.length
+                        && bucketNumbers[slot] <= current) {
+                    merged.merge(sketches[slot]);
+                }
+            }
+            return merged;
+        }
+
+        void clear() {
+            Arrays.fill(sketches, null);
+        }
+    }
+}
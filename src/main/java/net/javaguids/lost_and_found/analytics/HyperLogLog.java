@@ -0,0 +1,130 @@
+package net.javaguids.lost_and_found.analytics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Estimates how many distinct values were added (e.g. distinct users active on a day) in a fixed
+// REGISTERS bytes, however many values there are.
+//
+// Each value is hashed to 64 bits; the first PRECISION bits pick a register and the register keeps
+// the longest run of leading zeros seen in the remaining bits. The harmonic mean of the registers
+// gives the estimate, with a standard error of about 1.04 / sqrt(REGISTERS) (1.6%). Small counts
+// use linear counting over the empty registers, which is close to exact.
+//
+// Merging takes the maximum of each register, which gives the sketch of the union: daily sketches
+// combine into weekly or monthly distinct counts without double counting anyone.
+public class HyperLogLog {
+    public static final int PRECISION = 12;
+    public static final int REGISTERS = 1 << PRECISION;
+    // Standard error of estimate()
+    public static final double RELATIVE_ERROR = 1.04 / Math.sqrt(REGISTERS);
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    // Restores a sketch stored with toBytes()
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length != REGISTERS) {
+            throw new IllegalArgumentException("Expected " + REGISTERS + " registers but got " + bytes.length);
+        }
+        return new HyperLogLog(bytes.clone());
+    }
+
+    public byte[] toBytes() {
+        return registers.clone();
+    }
+
+    // Adds a value. Returns true if the sketch changed; repeat values never change it, so a stored
+    // sketch only needs writing again after a true.
+    public boolean add(String value) {
+        long hash = hash(value);
+        int index = index(hash);
+        byte rank = rank(hash);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+            return true;
+        }
+        return false;
+    }
+
+    // True if adding the value would not change the sketch (e.g. it was added before)
+    public boolean covers(String value) {
+        long hash = hash(value);
+        return rank(hash) <= registers[index(hash)];
+    }
+
+    private static int index(long hash) {
+        return (int) (hash >>> (64 - PRECISION));
+    }
+
+    // leading zeros of the remaining bits, plus one; a guard bit caps it when they are all zero
+    private static byte rank(long hash) {
+        return (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+        }
+    }
+
+    // Estimated number of distinct values added
+    public long estimate() {
+        double sum = 0;
+        int empty = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                empty++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && empty > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / empty);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, then the MurmurHash3 finalizer to spread the bits
+    static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof HyperLogLog && Arrays.equals(registers, ((HyperLogLog) o).registers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(registers);
+    }
+}
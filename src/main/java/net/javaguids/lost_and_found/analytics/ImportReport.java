@@ -0,0 +1,52 @@
+package net.javaguids.lost_and_found.analytics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of one bulk import (see BulkTransfer): how many rows were written, in how many
+// batches, and which rows were skipped because they clashed with a different existing row.
+public class ImportReport {
+    // Skipped rows described individually; beyond this they are only counted
+    public static final int MAX_REPORTED_CONFLICTS = 100;
+
+    private long rowsImported;
+    private long rowsSkipped;
+    private int batchCount;
+    private final List<String> conflicts = new ArrayList<>();
+
+    public void addBatch(int imported) {
+        rowsImported += imported;
+        batchCount++;
+    }
+
+    public void addConflict(String description) {
+        rowsSkipped++;
+        if (conflicts.size() < MAX_REPORTED_CONFLICTS) {
+            conflicts.add(description);
+        }
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsSkipped() {
+        return rowsSkipped;
+    }
+
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    // The first MAX_REPORTED_CONFLICTS skipped rows, as "<primary key>: <reason>"
+    public List<String> getConflicts() {
+        return Collections.unmodifiableList(conflicts);
+    }
+
+    @Override
+    public String toString() {
+        return "imported " + rowsImported + " rows in " + batchCount + " batches, skipped " + rowsSkipped +
+                " conflicting rows";
+    }
+}
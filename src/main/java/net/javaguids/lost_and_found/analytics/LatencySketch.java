@@ -0,0 +1,99 @@
+package net.javaguids.lost_and_found.analytics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Streaming quantile sketch for latencies (in minutes), in the style of an HDR histogram:
+// values are counted in logarithmic buckets whose width grows with the value, so every
+// quantile is returned within RELATIVE_ACCURACY of the true value, whatever the range
+// (one minute or one year), and the memory used only depends on that range, not on the count.
+//
+// Two sketches are merged by adding bucket counts, so daily sketches can be stored separately
+// and combined for any window of days.
+public class LatencySketch {
+    // Returned quantiles are within 1% of the exact value
+    public static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    // bucket index -> number of values; bucket 0 holds everything up to one minute
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long count;
+
+    // Bucket i > 0 covers (GAMMA^(i-1), GAMMA^i]
+    public static int bucketIndex(double value) {
+        if (value <= 1.0) {
+            return 0;
+        }
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    // Value reported for a bucket: the point with equal relative distance to both bucket bounds
+    public static double bucketValue(int index) {
+        if (index == 0) {
+            return 1.0;
+        }
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    public void add(double value) {
+        addToBucket(bucketIndex(value), 1);
+    }
+
+    // Adds stored counts back into the sketch (used when loading from the database)
+    public void addToBucket(int index, long n) {
+        buckets.merge(index, n, Long::sum);
+        count += n;
+    }
+
+    public void merge(LatencySketch other) {
+        other.buckets.forEach(this::addToBucket);
+    }
+
+    // Returns the q-quantile (0.0 - 1.0), or NaN if the sketch is empty
+    public double quantile(double q) {
+        if (q < 0.0 || q > 1.0) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                return bucketValue(bucket.getKey());
+            }
+        }
+        return bucketValue(buckets.lastKey());
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Map<Integer, Long> getBuckets() {
+        return Collections.unmodifiableMap(buckets);
+    }
+
+    // "n=12 p50=3.2h p90=1.5d p99=6.0d"
+    public String generateSummary() {
+        if (count == 0) {
+            return "n=0";
+        }
+        return String.format("n=%d p50=%s p90=%s p99=%s", count,
+                formatMinutes(quantile(0.5)), formatMinutes(quantile(0.9)), formatMinutes(quantile(0.99)));
+    }
+
+    private static String formatMinutes(double minutes) {
+        if (minutes < 60) {
+            return String.format("%.0fm", minutes);
+        }
+        if (minutes < 60 * 24) {
+            return String.format("%.1fh", minutes / 60);
+        }
+        return String.format("%.1fd", minutes / (60 * 24));
+    }
+}
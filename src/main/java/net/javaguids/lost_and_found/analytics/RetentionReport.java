@@ -0,0 +1,58 @@
+package net.javaguids.lost_and_found.analytics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of one activity log retention run (see LogRetention): how many rows were deleted,
+// how long each delete batch held the write lock, and how much space the vacuum gave back.
+public class RetentionReport {
+    private long rowsDeleted;
+    private final List<Long> batchPauseMillis = new ArrayList<>();
+    private long bytesReclaimed;
+    private long vacuumMillis;
+
+    public void addBatch(int rows, long pauseMillis) {
+        rowsDeleted += rows;
+        batchPauseMillis.add(pauseMillis);
+    }
+
+    public long getRowsDeleted() {
+        return rowsDeleted;
+    }
+
+    public int getBatchCount() {
+        return batchPauseMillis.size();
+    }
+
+    // Time each batch held the write lock, in order
+    public List<Long> getBatchPauseMillis() {
+        return Collections.unmodifiableList(batchPauseMillis);
+    }
+
+    public long getMaxPauseMillis() {
+        return batchPauseMillis.stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    public long getBytesReclaimed() {
+        return bytesReclaimed;
+    }
+
+    public void setBytesReclaimed(long bytesReclaimed) {
+        this.bytesReclaimed = bytesReclaimed;
+    }
+
+    public long getVacuumMillis() {
+        return vacuumMillis;
+    }
+
+    public void setVacuumMillis(long vacuumMillis) {
+        this.vacuumMillis = vacuumMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "deleted " + rowsDeleted + " logs in " + getBatchCount() + " batches (max pause " +
+                getMaxPauseMillis() + " ms), reclaimed " + bytesReclaimed + " bytes in " + vacuumMillis + " ms";
+    }
+}
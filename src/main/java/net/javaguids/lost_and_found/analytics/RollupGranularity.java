@@ -0,0 +1,40 @@
+package net.javaguids.lost_and_found.analytics;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// Bucket sizes of the activity rollups, finest first.
+// Bucket keys are the truncated LocalDateTime.toString() ("2025-11-20T14:05"), so they sort by time.
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    // Start of the bucket containing the given time
+    public LocalDateTime truncate(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    // Bucket key stored in activity_rollups.bucket_start
+    public String bucketKey(LocalDateTime time) {
+        return truncate(time).toString();
+    }
+
+    // SQL expression that maps a bucket key of this or any finer granularity to this granularity
+    public String sqlBucket(String column) {
+        switch (this) {
+            case HOUR:
+                return "substr(" + column + ", 1, 13) || ':00'";
+            case DAY:
+                return "substr(" + column + ", 1, 10) || 'T00:00'";
+            default:
+                return column;
+        }
+    }
+}
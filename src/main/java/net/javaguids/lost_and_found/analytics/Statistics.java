@@ -9,10 +9,14 @@ public class Statistics {
     private int totalLostItems;
     private int totalFoundItems;
     private int successfulMatches;
+    private int totalMessages;
+    private int totalConversations;
     private Map<String, Integer> itemsByCategory;
+    private Map<String, Integer> itemsByStatus;
 
     public Statistics() {
         this.itemsByCategory = new HashMap<>();
+        this.itemsByStatus = new HashMap<>();
     }
 
     public String generateReport() {
@@ -23,6 +27,12 @@ public class Statistics {
         report.append("Lost Items: ").append(totalLostItems).append("\n");
         report.append("Found Items: ").append(totalFoundItems).append("\n");
         report.append("Successful Matches: ").append(successfulMatches).append("\n");
+        report.append("Messages: ").append(totalMessages).append("\n");
+        report.append("Conversations: ").append(totalConversations).append("\n");
+        report.append("\nItems by Status:\n");
+        for (String status : itemsByStatus.keySet()) {
+            report.append("  ").append(status).append(": ").append(itemsByStatus.get(status)).append("\n");
+        }
         report.append("\nItems by Category:\n");
         for (String category : itemsByCategory.keySet()) {
             int count = itemsByCategory.get(category);
@@ -75,6 +85,30 @@ public class Statistics {
         this.successfulMatches = successfulMatches;
     }
 
+    public int getTotalMessages() {
+        return totalMessages;
+    }
+
+    public void setTotalMessages(int totalMessages) {
+        this.totalMessages = totalMessages;
+    }
+
+    public int getTotalConversations() {
+        return totalConversations;
+    }
+
+    public void setTotalConversations(int totalConversations) {
+        this.totalConversations = totalConversations;
+    }
+
+    public Map<String, Integer> getItemsByStatus() {
+        return itemsByStatus;
+    }
+
+    public void setItemsByStatus(Map<String, Integer> itemsByStatus) {
+        this.itemsByStatus = itemsByStatus;
+    }
+
     public Map<String, Integer> getItemsByCategory() {
         return itemsByCategory;
     }
@@ -0,0 +1,310 @@
+package net.javaguids.lost_and_found.analytics;
+
+import net.javaguids.lost_and_found.database.MessageRepository;
+import net.javaguids.lost_and_found.model.enums.ItemStatus;
+import net.javaguids.lost_and_found.model.enums.ItemType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Live counters behind the dashboard statistics, kept up to date by the repositories as they write,
+// so reading a Statistics snapshot never scans the tables.
+//
+// The counters are seeded once from a full count (MessageRepository.countStatistics) and then only
+// adjusted. Writes that touch many rows at once (deleting a user and everything they posted) call
+// invalidate() instead, and the next read re-seeds. reconcile() compares the counters with a fresh
+// full count, reports any drift and resets to the counted values.
+//
+// A write and its counter updates run together inside counted(); a full count and the reset to it
+// run inside exclusively(). So a count never sees a committed write whose counters have not moved
+// yet (or the other way round), and a reset cannot wipe out an update made while it counted.
+// counted() is taken before the write's transaction, never inside one: a transaction waiting for
+// it could otherwise hold up the writers an exclusive() caller is waiting for.
+// Uses singleton pattern so every repository updates the same counters.
+public class StatisticsCounters {
+    // Work run while holding the counters' lock; may throw the caller's checked exception
+    @FunctionalInterface
+    public interface CountedWork<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    private static volatile StatisticsCounters instance;
+
+    private final LongAdder users = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private final Map<ItemType, LongAdder> itemsByType = new EnumMap<>(ItemType.class);
+    private final Map<ItemStatus, LongAdder> itemsByStatus = new EnumMap<>(ItemStatus.class);
+    private final ConcurrentHashMap<String, LongAdder> itemsByCategory = new ConcurrentHashMap<>();
+    // messages per conversation (user pair), so the number of conversations is the map size
+    private final ConcurrentHashMap<String, Long> messagesByConversation = new ConcurrentHashMap<>();
+    // shared by writes and their counter updates, exclusive for count-and-reset (fair, so a
+    // reconciliation is not starved by a steady stream of writes)
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+    private volatile boolean loaded;
+    private ScheduledExecutorService reconciler;
+
+    public StatisticsCounters() {
+        // enum maps are filled once and never change shape, so concurrent reads are safe
+        for (ItemType type : ItemType.values()) {
+            itemsByType.put(type, new LongAdder());
+        }
+        for (ItemStatus status : ItemStatus.values()) {
+            itemsByStatus.put(status, new LongAdder());
+        }
+    }
+
+    public static StatisticsCounters getInstance() {
+        StatisticsCounters result = instance;
+        if (result == null) {
+            synchronized (StatisticsCounters.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new StatisticsCounters();
+                }
+            }
+        }
+        return result;
+    }
+
+    // True once the counters have been seeded from the database and not invalidated since
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Runs a write and its counter updates; any number of these run at once, but not while a full
+    // count and reset runs (see exclusively). Call it outside the write's transaction.
+    public <T, E extends Exception> T counted(CountedWork<T, E> work) throws E {
+        lock.readLock().lock();
+        try {
+            return work.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Runs a full count and the reset/reconcile to it with no counted() write in progress
+    public <T, E extends Exception> T exclusively(CountedWork<T, E> work) throws E {
+        lock.writeLock().lock();
+        try {
+            return work.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Marks the counters as out of date; the next read re-seeds them from a full count. Ordered
+    // with count-and-reset like any counter update, so a reset counted before the caller's
+    // write committed cannot mark the counters loaded again afterwards.
+    public void invalidate() {
+        counted(() -> loaded = false);
+    }
+
+    // Replaces every counter with the values of a full count. Count inside exclusively() too.
+    public void reset(Statistics counted, Map<String, Integer> messagesPerConversation) {
+        exclusively(() -> {
+            resetTo(counted, messagesPerConversation);
+            return null;
+        });
+    }
+
+    private void resetTo(Statistics counted, Map<String, Integer> messagesPerConversation) {
+        users.reset();
+        users.add(counted.getTotalUsers());
+        messages.reset();
+        messages.add(counted.getTotalMessages());
+
+        itemsByType.get(ItemType.LOST).reset();
+        itemsByType.get(ItemType.LOST).add(counted.getTotalLostItems());
+        itemsByType.get(ItemType.FOUND).reset();
+        itemsByType.get(ItemType.FOUND).add(counted.getTotalFoundItems());
+        for (ItemStatus status : ItemStatus.values()) {
+            itemsByStatus.get(status).reset();
+            itemsByStatus.get(status).add(counted.getItemsByStatus().getOrDefault(status.name(), 0));
+        }
+
+        itemsByCategory.clear();
+        counted.getItemsByCategory().forEach((category, count) -> adder(itemsByCategory, category).add(count));
+        messagesByConversation.clear();
+        messagesPerConversation.forEach((key, count) -> messagesByConversation.put(key, (long) count));
+        loaded = true;
+    }
+
+    // Compares the counters with a full count, resets them to the counted values and returns
+    // one line per counter that had drifted (empty when everything matched). Count inside
+    // exclusively() too, or writes in between show up as drift.
+    public List<String> reconcile(Statistics counted, Map<String, Integer> messagesPerConversation) {
+        return exclusively(() -> reconcileTo(counted, messagesPerConversation));
+    }
+
+    private List<String> reconcileTo(Statistics counted, Map<String, Integer> messagesPerConversation) {
+        List<String> drift = new ArrayList<>();
+        if (loaded) {
+            Statistics live = snapshot();
+            compare(drift, "users", live.getTotalUsers(), counted.getTotalUsers());
+            compare(drift, "items", live.getTotalItems(), counted.getTotalItems());
+            compare(drift, "lost items", live.getTotalLostItems(), counted.getTotalLostItems());
+            compare(drift, "found items", live.getTotalFoundItems(), counted.getTotalFoundItems());
+            compare(drift, "messages", live.getTotalMessages(), counted.getTotalMessages());
+            compare(drift, "conversations", live.getTotalConversations(), messagesPerConversation.size());
+            for (ItemStatus status : ItemStatus.values()) {
+                compare(drift, "status " + status,
+                        live.getItemsByStatus().getOrDefault(status.name(), 0),
+                        counted.getItemsByStatus().getOrDefault(status.name(), 0));
+            }
+            Map<String, Integer> categories = new HashMap<>(live.getItemsByCategory());
+            counted.getItemsByCategory().forEach((category, count) -> categories.putIfAbsent(category, 0));
+            for (String category : categories.keySet()) {
+                compare(drift, "category " + category,
+                        live.getItemsByCategory().getOrDefault(category, 0),
+                        counted.getItemsByCategory().getOrDefault(category, 0));
+            }
+        }
+        resetTo(counted, messagesPerConversation);
+        return drift;
+    }
+
+    // Starts a background job that reconciles the counters against the tables every `period`.
+    // Drift means some write path is not updating the counters and is reported on stderr.
+    public synchronized void startReconciliation(long period, TimeUnit unit) {
+        if (reconciler != null) {
+            return;
+        }
+        reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "statistics-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(() -> {
+            try {
+                List<String> drift = MessageRepository.getInstance().reconcileStatistics();
+                if (!drift.isEmpty()) {
+                    System.err.println("WARNING: statistics counters drifted and were corrected: " + drift);
+                }
+            } catch (RuntimeException e) {
+                // keep the schedule alive; the next run will try again
+                e.printStackTrace();
+            }
+        }, period, period, unit);
+    }
+
+    public synchronized void stopReconciliation() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+            awaitTermination(reconciler);
+            reconciler = null;
+        }
+    }
+
+    // Lets a reconciliation that is already running finish before the caller closes the database
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("WARNING: statistics reconciliation did not stop within 10 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void compare(List<String> drift, String name, int live, int counted) {
+        if (live != counted) {
+            drift.add(name + ": counter " + live + ", actual " + counted);
+        }
+    }
+
+    // Reads the current counters. Cost depends only on the number of categories, not on table sizes.
+    public Statistics snapshot() {
+        Statistics stats = new Statistics();
+        stats.setTotalUsers(users.intValue());
+        stats.setTotalMessages(messages.intValue());
+        stats.setTotalConversations(messagesByConversation.size());
+
+        int lost = itemsByType.get(ItemType.LOST).intValue();
+        int found = itemsByType.get(ItemType.FOUND).intValue();
+        stats.setTotalLostItems(lost);
+        stats.setTotalFoundItems(found);
+        stats.setTotalItems(lost + found);
+
+        Map<String, Integer> byStatus = new HashMap<>();
+        itemsByStatus.forEach((status, count) -> byStatus.put(status.name(), count.intValue()));
+        stats.setItemsByStatus(byStatus);
+        stats.setSuccessfulMatches(byStatus.get(ItemStatus.RESOLVED.name()));
+
+        Map<String, Integer> byCategory = new HashMap<>();
+        itemsByCategory.forEach((category, count) -> {
+            if (count.intValue() != 0) {
+                byCategory.put(category, count.intValue());
+            }
+        });
+        stats.setItemsByCategory(byCategory);
+        return stats;
+    }
+
+    public void userAdded() {
+        users.increment();
+    }
+
+    public void userRemoved() {
+        users.decrement();
+    }
+
+    public void itemAdded(ItemType type, ItemStatus status, String category) {
+        itemsByType.get(type).increment();
+        itemsByStatus.get(status).increment();
+        adder(itemsByCategory, categoryKey(category)).increment();
+    }
+
+    public void itemRemoved(ItemType type, ItemStatus status, String category) {
+        itemsByType.get(type).decrement();
+        itemsByStatus.get(status).decrement();
+        adder(itemsByCategory, categoryKey(category)).decrement();
+    }
+
+    // Moves an item between status/category counters after an edit (type never changes)
+    public void itemChanged(ItemStatus oldStatus, String oldCategory, ItemStatus newStatus, String newCategory) {
+        if (oldStatus != newStatus) {
+            itemsByStatus.get(oldStatus).decrement();
+            itemsByStatus.get(newStatus).increment();
+        }
+        if (!categoryKey(oldCategory).equals(categoryKey(newCategory))) {
+            adder(itemsByCategory, categoryKey(oldCategory)).decrement();
+            adder(itemsByCategory, categoryKey(newCategory)).increment();
+        }
+    }
+
+    public void messageAdded(String senderId, String receiverId) {
+        messages.increment();
+        messagesByConversation.merge(conversationKey(senderId, receiverId), 1L, Long::sum);
+    }
+
+    public void messageRemoved(String senderId, String receiverId) {
+        messages.decrement();
+        // one atomic step per key: the last message of the conversation gone removes the entry,
+        // so an add racing with it either lands first or starts a new entry
+        messagesByConversation.computeIfPresent(conversationKey(senderId, receiverId),
+                (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    // Same pairing as the moderator dashboard: all messages between two users are one conversation
+    public static String conversationKey(String user1, String user2) {
+        return user1.compareTo(user2) < 0 ? user1 + "_" + user2 : user2 + "_" + user1;
+    }
+
+    private static String categoryKey(String category) {
+        return category == null ? "" : category;
+    }
+
+    private static LongAdder adder(ConcurrentHashMap<String, LongAdder> map, String key) {
+        return map.computeIfAbsent(key, k -> new LongAdder());
+    }
+}
@@ -0,0 +1,27 @@
+package net.javaguids.lost_and_found.analytics;
+
+import java.time.LocalDateTime;
+
+// One point of a trend chart: how many times a metric happened in the bucket starting at bucketStart
+public class TrendPoint {
+    private final LocalDateTime bucketStart;
+    private final long count;
+
+    public TrendPoint(LocalDateTime bucketStart, long count) {
+        this.bucketStart = bucketStart;
+        this.count = count;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return bucketStart + "=" + count;
+    }
+}
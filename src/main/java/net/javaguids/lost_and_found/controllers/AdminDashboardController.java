@@ -1,5 +1,6 @@
 package net.javaguids.lost_and_found.controllers;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -9,10 +10,21 @@ import javafx.scene.control.*;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import net.javaguids.lost_and_found.analytics.ActivityLog;
+import net.javaguids.lost_and_found.analytics.ActivityLogFilter;
+import net.javaguids.lost_and_found.analytics.HeavyHitter;
+import net.javaguids.lost_and_found.analytics.HeavyHitterWindow;
+import net.javaguids.lost_and_found.analytics.HeavyHitters;
+import net.javaguids.lost_and_found.analytics.LatencySketch;
+import net.javaguids.lost_and_found.analytics.RollupGranularity;
 import net.javaguids.lost_and_found.analytics.Statistics; 
+import net.javaguids.lost_and_found.analytics.TrendPoint;
+import net.javaguids.lost_and_found.database.ActiveUserRepository;
+import net.javaguids.lost_and_found.database.DatabaseManager;
 import net.javaguids.lost_and_found.database.UserRepository;
 import net.javaguids.lost_and_found.database.ItemRepository;
 import net.javaguids.lost_and_found.database.MessageRepository;
+import net.javaguids.lost_and_found.database.ResolutionRepository;
+import net.javaguids.lost_and_found.database.RollupRepository;
 import net.javaguids.lost_and_found.model.items.Item;
 import net.javaguids.lost_and_found.model.items.LostItem;
 import net.javaguids.lost_and_found.model.items.FoundItem;
@@ -22,7 +34,12 @@ import net.javaguids.lost_and_found.model.users.RegularUser;
 import net.javaguids.lost_and_found.model.users.Moderator;
 import net.javaguids.lost_and_found.model.enums.UserRole;
 import net.javaguids.lost_and_found.model.enums.ItemType;
+import net.javaguids.lost_and_found.services.AsyncServices;
 import net.javaguids.lost_and_found.services.AuthService;
+import net.javaguids.lost_and_found.services.DashboardLoader;
+import net.javaguids.lost_and_found.services.ItemService;
+import net.javaguids.lost_and_found.services.LoginThrottle;
+import net.javaguids.lost_and_found.services.MessageService;
 import net.javaguids.lost_and_found.utils.FileHandler;
 import net.javaguids.lost_and_found.utils.NavigationManager;
 import net.javaguids.lost_and_found.utils.AlertUtil;
@@ -33,8 +50,16 @@ import net.javaguids.lost_and_found.context.EditUserContext;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 // Contoller for the admin dashboard view
 // Functionalities: user and item management tables with edit/delete actions, activity logs display with export functionality
@@ -47,7 +72,25 @@ public class AdminDashboardController {
     private TableView<Item> itemsTable;
 
     @FXML
-    private TextArea logsArea; 
+    private TableView<ActivityLog> logsTable;
+
+    @FXML
+    private TextField logUserField;
+
+    @FXML
+    private ComboBox<String> logActionBox;
+
+    @FXML
+    private ComboBox<String> logWindowBox;
+
+    @FXML
+    private Label logsPageLabel;
+
+    @FXML
+    private Button newerLogsButton;
+
+    @FXML
+    private Button olderLogsButton;
 
     @FXML
     private Label totalUsersLabel;
@@ -58,6 +101,32 @@ public class AdminDashboardController {
     private UserRepository userRepository;
     private ItemRepository itemRepository;
     private MessageRepository messageRepository;
+    private RollupRepository rollupRepository;
+    // Deletes go through ItemService, under the item's lock
+    private ItemService itemService;
+    // Loads the tables, logs and counters in parallel, each on its own read connection
+    private final DashboardLoader dashboard = new DashboardLoader("admin");
+
+    // log viewer: rows per page and the time windows offered in the filter
+    private static final int LOGS_PAGE_SIZE = 100;
+    private static final String ALL_ACTIONS = "All actions";
+    private static final Map<String, Duration> LOG_WINDOWS = new LinkedHashMap<>();
+    static {
+        LOG_WINDOWS.put("Last 24 hours", Duration.ofDays(1));
+        LOG_WINDOWS.put("Last 7 days", Duration.ofDays(7));
+        LOG_WINDOWS.put("Last 30 days", Duration.ofDays(30));
+        LOG_WINDOWS.put("Last 90 days", Duration.ofDays(90));
+    }
+    private static final String DEFAULT_LOG_WINDOW = "Last 30 days";
+    private static final DateTimeFormatter LOG_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // current log filter and where each earlier page started (keyset paging, null = newest)
+    private ActivityLogFilter logFilter;
+    private final List<ActivityLog> previousLogPages = new ArrayList<>();
+    private ActivityLog currentLogPageStart;
+    private List<ActivityLog> currentLogPage = new ArrayList<>();
+    private int logsPageNumber;
+    private int matchingLogCount;
 
     // Initializes the controller, sets up tables, and loads data
     @FXML
@@ -66,16 +135,21 @@ public class AdminDashboardController {
         userRepository = UserRepository.getInstance();
         itemRepository = ItemRepository.getInstance();
         messageRepository = MessageRepository.getInstance();
+        rollupRepository = RollupRepository.getInstance();
+        itemService = new ItemService();
 
         // configure table structures and columns
         setupUsersTable();
         setupItemsTable();
+        setupLogsViewer();
 
-        // load initial data into tables and logs
+        // load initial data into tables and logs; the panels load at the same time and each
+        // fills in as soon as its data arrives
         loadUsers();
         loadItems();
         loadLogs();
         loadStatistics();
+        dashboard.whenLoaded();
     }
 
     // Configures the users table with columns and action buttons
@@ -173,10 +247,9 @@ public class AdminDashboardController {
         userCol.setPrefWidth(100);
         userCol.setCellValueFactory(cellData -> {
             // resolve user ID to username for readability
-            String userId = cellData.getValue().getPostedByUserId();
-            User user = userRepository.getUserById(userId);
-            String username = user != null ? user.getUsername() : "Unknown";
-            return new javafx.beans.property.SimpleStringProperty(username);
+            // (cached by loadItems, so drawing a row does not query)
+            String username = userRepository.getUsername(cellData.getValue().getPostedByUserId());
+            return new javafx.beans.property.SimpleStringProperty(username != null ? username : "Unknown");
         });
 
         //type column (LOST/FOUND)
@@ -229,38 +302,151 @@ public class AdminDashboardController {
         itemsTable.getColumns().addAll(titleCol, categoryCol, locationCol, userCol, typeCol, statusCol, actionsCol);
     }
 
-    // Loads activity logs from the repository and displays them in the logs area
+    // Configures the log table and its filter controls. The TableView only creates cells for the
+    // rows on screen, and holds one page of logs at a time.
+    private void setupLogsViewer() {
+        logsTable.getColumns().clear();
+
+        TableColumn<ActivityLog, String> timeCol = new TableColumn<>("Time");
+        timeCol.setPrefWidth(160);
+        timeCol.setCellValueFactory(cellData ->
+            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getTimestamp().format(LOG_TIME_FORMAT)));
+
+        TableColumn<ActivityLog, String> userCol = new TableColumn<>("User");
+        userCol.setPrefWidth(120);
+        userCol.setCellValueFactory(cellData ->
+            new javafx.beans.property.SimpleStringProperty(getLogUsername(cellData.getValue())));
+
+        TableColumn<ActivityLog, String> actionCol = new TableColumn<>("Action");
+        actionCol.setPrefWidth(130);
+        actionCol.setCellValueFactory(cellData ->
+            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getAction()));
+
+        TableColumn<ActivityLog, String> detailsCol = new TableColumn<>("Details");
+        detailsCol.setPrefWidth(400);
+        detailsCol.setCellValueFactory(cellData ->
+            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getDetails()));
+
+        logsTable.getColumns().addAll(timeCol, userCol, actionCol, detailsCol);
+
+        logActionBox.getItems().setAll(ALL_ACTIONS);
+        dashboard.panel("logActions", messageRepository::getActivityLogActions,
+            actions -> logActionBox.getItems().addAll(actions));
+        logActionBox.setValue(ALL_ACTIONS);
+        logWindowBox.getItems().setAll(LOG_WINDOWS.keySet());
+        logWindowBox.setValue(DEFAULT_LOG_WINDOW);
+    }
+
+    // Applies the filter controls and shows the first page of matching logs.
+    // The controls are read here; the username lookup, count and page are read in the background.
     private void loadLogs() {
-        // define time range for log retrieval (last 30 days)
-        LocalDateTime from = LocalDateTime.now().minusDays(30);
+        String window = logWindowBox.getValue() != null ? logWindowBox.getValue() : DEFAULT_LOG_WINDOW;
+        String action = logActionBox.getValue();
+        String username = logUserField.getText() != null ? logUserField.getText().trim() : "";
+
+        // the background part returns the UI update to apply with its results
+        dashboard.panel("logs", () -> {
+            ActivityLogFilter filter = buildLogFilter(window, action, username);
+            int matching = filter == null ? 0 : messageRepository.countActivityLogs(filter);
+            List<ActivityLog> page = readLogPage(filter, null);
+            return (Runnable) () -> {
+                logFilter = filter;
+                previousLogPages.clear();
+                currentLogPageStart = null;
+                logsPageNumber = 1;
+                matchingLogCount = matching;
+                showLogPage(page);
+            };
+        }, Runnable::run);
+    }
+
+    // Builds the SQL-side filter from the control values; null if the username does not exist
+    private ActivityLogFilter buildLogFilter(String window, String action, String username) {
         LocalDateTime to = LocalDateTime.now();
-        List<ActivityLog> logs = messageRepository.getActivityLogs(from, to);
-
-        // build formatted log text for display
-        StringBuilder logsText = new StringBuilder();
-        logsText.append("Activity Logs (Last 30 Days)\n");
-        logsText.append("=".repeat(50)).append("\n\n");
-
-        // process each log entry with username 
-        for (ActivityLog log : logs) {
-            String userName;
-            if (log.getUserId().equals("SYSTEM")) {
-                userName = "SYSTEM";
-            } else {
-                // resolve user ID to username for better readability
-                User user = userRepository.getUserById(log.getUserId());
-                userName = user != null ? user.getUsername() : "Unknown User";
+        ActivityLogFilter filter = new ActivityLogFilter(to.minus(LOG_WINDOWS.get(window)), to);
+
+        if (action != null && !action.equals(ALL_ACTIONS)) {
+            filter.setAction(action);
+        }
+
+        if (username.equalsIgnoreCase("SYSTEM")) {
+            filter.setUserId("SYSTEM");
+        } else if (!username.isEmpty()) {
+            User user = userRepository.getUserByUsername(username);
+            if (user == null) {
+                return null;
             }
+            filter.setUserId(user.getUserId());
+        }
+        return filter;
+    }
+
+    // Loads the page starting after currentLogPageStart in the background and shows it
+    private void loadLogPage() {
+        ActivityLogFilter filter = logFilter;
+        ActivityLog pageStart = currentLogPageStart;
+        // while the page loads, paging again would page from the wrong place
+        newerLogsButton.setDisable(true);
+        olderLogsButton.setDisable(true);
+        AsyncServices.getInstance().load("logs.page", () -> readLogPage(filter, pageStart), this::showLogPage);
+    }
+
+    // One extra row is read to know whether an older page exists
+    private List<ActivityLog> readLogPage(ActivityLogFilter filter, ActivityLog pageStart) {
+        return filter == null ? new ArrayList<>()
+                : messageRepository.getActivityLogsPage(filter, pageStart, LOGS_PAGE_SIZE + 1);
+    }
 
-            // format log entry: timestamp - [username] action: details
-            logsText.append(log.getTimestamp()).append(" - ")
-                    .append("[").append(userName).append("] ")
-                    .append(log.getAction()).append(": ")
-                    .append(log.getDetails()).append("\n");
+    private void showLogPage(List<ActivityLog> page) {
+        boolean hasOlder = page.size() > LOGS_PAGE_SIZE;
+        currentLogPage = hasOlder ? new ArrayList<>(page.subList(0, LOGS_PAGE_SIZE)) : page;
+
+        logsTable.setItems(FXCollections.observableArrayList(currentLogPage));
+        newerLogsButton.setDisable(previousLogPages.isEmpty());
+        olderLogsButton.setDisable(!hasOlder);
+        if (logFilter == null) {
+            logsPageLabel.setText("No user named \"" + logUserField.getText().trim() + "\"");
+        } else if (currentLogPage.isEmpty()) {
+            logsPageLabel.setText("No activity logs match the filter");
+        } else {
+            int first = (logsPageNumber - 1) * LOGS_PAGE_SIZE + 1;
+            logsPageLabel.setText("Logs " + first + "-" + (first + currentLogPage.size() - 1) +
+                    " of " + matchingLogCount);
         }
+    }
+
+    // the username is stored with each log when it is written; no lookup needed
+    private static String getLogUsername(ActivityLog log) {
+        return log.getActorName() != null ? log.getActorName() : "Unknown User";
+    }
 
-        // display formatted logs in the text area
-        logsArea.setText(logsText.toString());
+    // handles the Apply button of the log filter
+    @FXML
+    public void handleApplyLogFilter() {
+        loadLogs();
+    }
+
+    // shows the next (older) page of logs
+    @FXML
+    public void handleOlderLogs() {
+        if (currentLogPage.isEmpty()) {
+            return;
+        }
+        previousLogPages.add(currentLogPageStart);
+        currentLogPageStart = currentLogPage.get(currentLogPage.size() - 1);
+        logsPageNumber++;
+        loadLogPage();
+    }
+
+    // shows the previous (newer) page of logs
+    @FXML
+    public void handleNewerLogs() {
+        if (previousLogPages.isEmpty()) {
+            return;
+        }
+        currentLogPageStart = previousLogPages.remove(previousLogPages.size() - 1);
+        logsPageNumber--;
+        loadLogPage();
     }
 
     // handles exporting activity logs to a CSV file
@@ -269,35 +455,112 @@ public class AdminDashboardController {
         // configure file chooser for CSV export
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Export Logs");
-        fileChooser.getExtensionFilters().add(
-            new FileChooser.ExtensionFilter("CSV Files", "*.csv")
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+            new FileChooser.ExtensionFilter("Compressed CSV Files", "*.csv.gz")
         );
 
         // show save dialog
-        Stage stage = (Stage) logsArea.getScene().getWindow();
+        Stage stage = (Stage) logsTable.getScene().getWindow();
         File file = fileChooser.showSaveDialog(stage);
 
         if (file != null) {
-            // retrieve logs for the last 30 days
-            LocalDateTime from = LocalDateTime.now().minusDays(30);
-            LocalDateTime to = LocalDateTime.now();
-            List<ActivityLog> logs = messageRepository.getActivityLogs(from, to);
-
-            // attempt to export logs to the selected CSV file
-            boolean success = FileHandler.exportLogsToCSV(logs, file.getAbsolutePath());
-            if (success) {
-                AlertUtil.showAlert("Success", "Logs exported successfully", Alert.AlertType.INFORMATION);
-            } else {
-                AlertUtil.showAlert("Error", "Failed to export logs", Alert.AlertType.ERROR);
-            }
+            // stream the logs matching the viewer's filter straight from the database into the file
+            ActivityLogFilter filter = logFilter != null ? logFilter
+                    : new ActivityLogFilter(LocalDateTime.now().minusDays(30), LocalDateTime.now());
+            boolean gzip = file.getName().endsWith(".gz");
+
+            // a large export takes a while; it runs in the background with no timeout, reading on a
+            // pooled read connection so the shared one stays free for the app's writes
+            AsyncServices.getInstance().supply("logs.export", () -> DatabaseManager.getInstance().getReadPool()
+                    .withConnection(() -> FileHandler.exportLogsToCSV(
+                        action -> {
+                            if (!messageRepository.forEachActivityLog(filter, action)) {
+                                throw new UncheckedIOException(new IOException("Failed to read activity logs"));
+                            }
+                        },
+                        // the row count is shown in the alert once the export is done
+                        file.getAbsolutePath(), gzip, null)),
+                    Duration.ofDays(1))
+                .whenComplete((exported, error) -> Platform.runLater(() -> {
+                    if (error == null && exported >= 0) {
+                        AlertUtil.showAlert("Success", "Exported " + exported + " logs successfully", Alert.AlertType.INFORMATION);
+                    } else {
+                        AlertUtil.showAlert("Error", "Failed to export logs", Alert.AlertType.ERROR);
+                    }
+                }));
         }
     }
 
-    // Handles viewing statistics 
+    // Handles viewing statistics; the report is put together in the background
     @FXML
     public void handleViewStatistics() {
-        //Statistics stats = messageRepository.generateStatistics();
-        //AlertUtil.showAlert("Statistics", stats.generateReport(), Alert.AlertType.INFORMATION);
+        AsyncServices.getInstance().load("admin.statistics", this::buildStatisticsReport,
+            report -> AlertUtil.showAlert("Statistics", report, Alert.AlertType.INFORMATION));
+    }
+
+    private String buildStatisticsReport() {
+        Statistics stats = messageRepository.generateStatistics();
+        StringBuilder report = new StringBuilder(stats.generateReport());
+
+        // daily trend for the last week, read from the activity rollups (a handful of rows per metric)
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.toLocalDate().minusDays(6).atStartOfDay();
+        report.append("\nLast 7 Days (per day):\n");
+        String[][] metrics = {
+            {"Posts", RollupRepository.ITEM_POSTED},
+            {"Resolved", RollupRepository.ITEM_RESOLVED},
+            {"Logins", "LOGIN"},
+            {"Messages", RollupRepository.MESSAGE_SENT}
+        };
+        for (String[] metric : metrics) {
+            report.append("  ").append(metric[0]).append(": ");
+            List<TrendPoint> series = rollupRepository.getSeries(metric[1], null, from, to, RollupGranularity.DAY);
+            report.append(series.stream()
+                    .map(point -> point.getBucketStart().toLocalDate().getDayOfMonth() + "=" + point.getCount())
+                    .collect(Collectors.joining(", ")));
+            report.append("\n");
+        }
+
+        // time from posting to resolution, merged from the daily sketches of the last 30 days
+        LatencySketch resolution = ResolutionRepository.getInstance()
+                .getLatencySketch(ResolutionRepository.ALL, to.toLocalDate().minusDays(29), to.toLocalDate());
+        report.append("\nTime to Resolution (Last 30 Days): ").append(resolution.generateSummary()).append("\n");
+
+        // distinct active users, merged from the daily HyperLogLog sketches
+        ActiveUserRepository activeUsers = ActiveUserRepository.getInstance();
+        LocalDate today = to.toLocalDate();
+        report.append("\nActive Users (estimated): today ").append(activeUsers.countActiveUsers(today, today))
+                .append(", last 7 days ").append(activeUsers.countActiveUsers(today.minusDays(6), today))
+                .append(", last 30 days ").append(activeUsers.countActiveUsers(today.minusDays(29), today))
+                .append("\n");
+
+        // top 5 per window from the streaming sketches (estimates, kept up to date on every write)
+        Object[][] rankings = {
+            {"Most Active Users", HeavyHitters.Dimension.ACTIVE_USERS},
+            {"Busiest Locations", HeavyHitters.Dimension.LOCATIONS},
+            {"Most-Lost Categories", HeavyHitters.Dimension.LOST_CATEGORIES}
+        };
+        for (Object[] ranking : rankings) {
+            report.append("\n").append(ranking[0]).append(":\n");
+            for (HeavyHitterWindow window : HeavyHitterWindow.values()) {
+                List<HeavyHitter> top = HeavyHitters.getInstance().top((HeavyHitters.Dimension) ranking[1], window, 5);
+                report.append("  ").append(window.getLabel()).append(": ");
+                report.append(top.isEmpty() ? "-" : top.stream().map(HeavyHitter::toString).collect(Collectors.joining(", ")));
+                report.append("\n");
+            }
+        }
+
+        report.append(String.format("%nPassword Hashing: %d hashes, avg %.0f ms, max %.0f ms (%d iterations)%n",
+                PasswordUtil.getHashCount(), PasswordUtil.getAverageHashMillis(), PasswordUtil.getMaxHashMillis(),
+                PasswordUtil.getIterations()));
+        report.append("Login Throttling: ").append(LoginThrottle.getInstance().generateSummary()).append("\n");
+        report.append("Item Locks: ").append(ItemService.generateLockSummary()).append("\n");
+        report.append("Conversation Locks: ").append(MessageService.generateLockSummary()).append("\n");
+        report.append("\nBackground Calls:\n  ")
+                .append(AsyncServices.getInstance().generateSummary().replace("\n", "\n  ")).append("\n");
+
+        return report.toString();
     }
 
     // Handles going back to the previous view using NavigationManager
@@ -310,6 +573,7 @@ public class AdminDashboardController {
     // clears the current session and navigates back to the login view
     @FXML
     public void handleLogout() {
+        dashboard.cancel();
         AuthService.logout();
         NavigationManager.navigateTo("login-view.fxml", "Lost and Found - Login");
     }
@@ -332,16 +596,18 @@ public class AdminDashboardController {
             confirmation.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
                     // perform deletion and refresh data upon success
-                    boolean success = userRepository.deleteUser(user.getUserId());
-                    if (success) {
-                        AlertUtil.showAlert("Success", "User deleted successfully", Alert.AlertType.INFORMATION);
-                        // refresh all related data
-                        loadUsers();
-                        loadItems(); // items might be affected by user deletion
-                        loadStatistics();
-                    } else {
-                        AlertUtil.showAlert("Error", "Failed to delete user", Alert.AlertType.ERROR);
-                    }
+                    AsyncServices.getInstance().write("users.delete", () -> userRepository.deleteUser(user.getUserId()),
+                        success -> {
+                            if (success) {
+                                AlertUtil.showAlert("Success", "User deleted successfully", Alert.AlertType.INFORMATION);
+                                // refresh all related data
+                                loadUsers();
+                                loadItems(); // items might be affected by user deletion
+                                loadStatistics();
+                            } else {
+                                AlertUtil.showAlert("Error", "Failed to delete user", Alert.AlertType.ERROR);
+                            }
+                        });
                 }
             });
         }
@@ -359,39 +625,51 @@ public class AdminDashboardController {
             confirmation.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
                     // delete and refresh data
-                    boolean success = itemRepository.deleteItem(item.getItemId());
-                    if (success) {
-                        AlertUtil.showAlert("Success", "Item deleted successfully", Alert.AlertType.INFORMATION);
-                        loadItems(); // refresh items table
-                    } else {
-                        AlertUtil.showAlert("Error", "Failed to delete item", Alert.AlertType.ERROR);
-                    }
+                    AsyncServices.getInstance().write("items.delete", () -> itemService.deleteItem(item.getItemId()),
+                        success -> {
+                            if (success) {
+                                AlertUtil.showAlert("Success", "Item deleted successfully", Alert.AlertType.INFORMATION);
+                                loadItems(); // refresh items table
+                            } else {
+                                AlertUtil.showAlert("Error", "Failed to delete item", Alert.AlertType.ERROR);
+                            }
+                        });
                 }
             });
         }
     }
     
-    // load all users from the database and populate the users table
+    // load all users from the database (in the background) and populate the users table
     // convert the user list to an observable list for JavaFX table compatibility
     private void loadUsers() {
-        List<User> users = userRepository.getAllUsers();
-        ObservableList<User> observableUsers = FXCollections.observableArrayList(users);
-        usersTable.setItems(observableUsers);
+        dashboard.panel("users", userRepository::getAllUsers, users -> {
+            ObservableList<User> observableUsers = FXCollections.observableArrayList(users);
+            usersTable.setItems(observableUsers);
+        });
     }
 
 
-    // load all items from the database and populate the items table
+    // load all items from the database (in the background) and populate the items table
     private void loadItems() {
-        List<Item> items = itemRepository.searchItems(null);
-        ObservableList<Item> observableItems = FXCollections.observableArrayList(items);
-        itemsTable.setItems(observableItems);
+        dashboard.panel("items", () -> {
+            List<Item> items = itemRepository.searchItems(null);
+            // fill the username cache the "Posted By" column reads from
+            for (Item item : items) {
+                userRepository.getUsername(item.getPostedByUserId());
+            }
+            return items;
+        }, items -> {
+            ObservableList<Item> observableItems = FXCollections.observableArrayList(items);
+            itemsTable.setItems(observableItems);
+        });
     }
 
     // load statistics such as total users and total items
     private void loadStatistics() {
-        Statistics stats = messageRepository.generateStatistics();
-        totalUsersLabel.setText("Total Users: " + stats.getTotalUsers());
-        totalItemsLabel.setText("Total Items: " + stats.getTotalItems());
+        dashboard.panel("counters", messageRepository::generateStatistics, stats -> {
+            totalUsersLabel.setText("Total Users: " + stats.getTotalUsers());
+            totalItemsLabel.setText("Total Items: " + stats.getTotalItems());
+        });
     }
 
     // Handles the create user button click to navigate to the create user view
@@ -405,14 +683,15 @@ public class AdminDashboardController {
     @FXML
     public void handleCreateItem() {
         // Safety check: ensure at least one user exists before allowing to create items
-        List<User> allUsers = userRepository.getAllUsers();
-        if (allUsers.isEmpty()) {
-            AlertUtil.showAlert("No Users Available", "You must create at least one user before creating items.", Alert.AlertType.WARNING);
-            return;
-        }
+        AsyncServices.getInstance().load("users.all", userRepository::getAllUsers, allUsers -> {
+            if (allUsers.isEmpty()) {
+                AlertUtil.showAlert("No Users Available", "You must create at least one user before creating items.", Alert.AlertType.WARNING);
+                return;
+            }
 
-        NavigationContext.setPreviousPage("admin-dashboard-view.fxml", "Lost and Found - Admin Dashboard");
-        NavigationManager.navigateTo("post-item-view.fxml", "Create New Item");
+            NavigationContext.setPreviousPage("admin-dashboard-view.fxml", "Lost and Found - Admin Dashboard");
+            NavigationManager.navigateTo("post-item-view.fxml", "Create New Item");
+        });
     }
 
     // Handles editing a user by navigating to the edit user view with the selected user's data
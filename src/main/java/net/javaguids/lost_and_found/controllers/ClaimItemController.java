@@ -10,6 +10,7 @@ import javafx.stage.Stage;
 import net.javaguids.lost_and_found.database.UserRepository;
 import net.javaguids.lost_and_found.database.ItemRepository;
 import net.javaguids.lost_and_found.database.MessageRepository;
+import net.javaguids.lost_and_found.exceptions.ItemConflictException;
 import net.javaguids.lost_and_found.model.items.Item;
 import net.javaguids.lost_and_found.model.users.User;
 import net.javaguids.lost_and_found.services.AuthService;
@@ -191,29 +192,15 @@ public class ClaimItemController {
         }
 
         try {
-            //TODO:FIX
-            // Mark current item as resolved
-            currentItem.setStatus(net.javaguids.lost_and_found.model.enums.ItemStatus.RESOLVED);
-            boolean itemUpdated = itemRepository.updateItem(currentItem);
+            // Mark the current item, and the matching item if one was selected, as resolved.
+            // Both are saved together: if either fails, neither is resolved.
+            boolean resolved = itemService.resolveMatch(currentItem, selectedItemWrapper.getItem());
 
-            if (!itemUpdated) {
-                AlertUtil.showAlert("Error", "Failed to update current item", Alert.AlertType.ERROR);
+            if (!resolved) {
+                AlertUtil.showAlert("Error", "Failed to resolve the items", Alert.AlertType.ERROR);
                 return;
             }
 
-            // If a matching item was selected, mark it as resolved too
-            if (selectedItemWrapper.getItem() != null) {
-                Item matchingItem = selectedItemWrapper.getItem();
-                matchingItem.setStatus(net.javaguids.lost_and_found.model.enums.ItemStatus.RESOLVED);
-                //TODO: FIX
-                boolean matchingItemUpdated = itemRepository.updateItem(matchingItem);
-
-                if (!matchingItemUpdated) {
-                    AlertUtil.showAlert("Error", "Failed to update matching item", Alert.AlertType.ERROR);
-                    return;
-                }
-            }
-
             AlertUtil.showAlert("Success", "Item claimed successfully!", Alert.AlertType.INFORMATION);
 
             // Refresh parent controller's items list
@@ -224,6 +211,9 @@ public class ClaimItemController {
             // Navigate back to dashboard
             NavigationManager.goBack();
 
+        } catch (ItemConflictException e) {
+            AlertUtil.showAlert("Error", "This item was changed by someone else in the meantime. " +
+                    "Please reopen it and try again.", Alert.AlertType.ERROR);
         } catch (Exception e) {
             e.printStackTrace();
             AlertUtil.showAlert("Error", "Failed to claim item: " + e.getMessage(), Alert.AlertType.ERROR);
@@ -4,12 +4,15 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
-import net.javaguids.lost_and_found.model.users.User;
+import net.javaguids.lost_and_found.exceptions.AuthException;
 import net.javaguids.lost_and_found.model.enums.UserRole;
+import net.javaguids.lost_and_found.services.AsyncServices;
 import net.javaguids.lost_and_found.services.AuthService;
 import net.javaguids.lost_and_found.utils.NavigationManager;
 import net.javaguids.lost_and_found.utils.AlertUtil;
 
+import java.util.concurrent.CompletionException;
+
 public class LoginController {
     @FXML
     private TextField usernameField;
@@ -28,21 +31,32 @@ public class LoginController {
             return;
         }
 
-        // try to authenticate the user
-        User user = AuthService.login(username, password);
-
-        if (user != null) {
-            // redirect based on what kind of user it is
-            if (user.getRole() == UserRole.ADMIN) {
-                NavigationManager.navigateTo("admin-dashboard-view.fxml", "Lost and Found - Admin Dashboard");
-            } else if (user.getRole() == UserRole.MODERATOR) {
-                NavigationManager.navigateTo("moderator-dashboard-view.fxml", "Lost and Found - Moderator Dashboard");
+        // try to authenticate the user off the FX thread (the user lookup, the password check and
+        // the login log all take time); the result or the AuthException comes back on it
+        AsyncServices.getInstance().load("auth.login", () -> AuthService.login(username, password).join(), user -> {
+            if (user != null) {
+                // redirect based on what kind of user it is
+                if (user.getRole() == UserRole.ADMIN) {
+                    NavigationManager.navigateTo("admin-dashboard-view.fxml", "Lost and Found - Admin Dashboard");
+                } else if (user.getRole() == UserRole.MODERATOR) {
+                    NavigationManager.navigateTo("moderator-dashboard-view.fxml", "Lost and Found - Moderator Dashboard");
+                } else {
+                    NavigationManager.navigateTo("user-dashboard-view.fxml", "Lost and Found - Dashboard");
+                }
             } else {
-                NavigationManager.navigateTo("user-dashboard-view.fxml", "Lost and Found - Dashboard");
+                // login didn't work, show error
+                AlertUtil.showAlert("Login Failed", "Invalid username or password", Alert.AlertType.ERROR);
             }
+        }, this::showLoginFailure);
+    }
+
+    private void showLoginFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof AuthException) {
+            AlertUtil.showAlert("Login Failed", cause.getMessage(), Alert.AlertType.ERROR);
         } else {
-            // login didn't work, show error
-            AlertUtil.showAlert("Login Failed", "Invalid username or password", Alert.AlertType.ERROR);
+            cause.printStackTrace();
+            AlertUtil.showAlert("Login Failed", "Could not log in, please try again", Alert.AlertType.ERROR);
         }
     }
 
@@ -12,6 +12,7 @@ import javafx.util.Duration;
 import net.javaguids.lost_and_found.messaging.Message;
 import net.javaguids.lost_and_found.model.users.User;
 import net.javaguids.lost_and_found.model.items.Item;
+import net.javaguids.lost_and_found.services.AsyncServices;
 import net.javaguids.lost_and_found.services.AuthService;
 import net.javaguids.lost_and_found.services.MessageService;
 import net.javaguids.lost_and_found.services.ItemService;
@@ -20,6 +21,7 @@ import net.javaguids.lost_and_found.utils.NavigationManager;
 import net.javaguids.lost_and_found.utils.AlertUtil;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class MessagesController {
@@ -49,6 +51,10 @@ public class MessagesController {
     private boolean isModeratorView = false;
     private int initialMessageCount = 0;
     private String autoOpenedUserId = null;
+    // background loads in progress (see refresh and loadConversationMessages)
+    private CompletableFuture<Runnable> pendingRefresh;
+    private CompletableFuture<List<Message>> pendingMessages;
+    private boolean reselecting = false;
 
     private static class ConversationItem {
         String displayName;
@@ -87,7 +93,8 @@ public class MessagesController {
             loadConversations();
 
             conversationsList.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
-                if (newVal != null) {
+                // a refresh re-selecting the open conversation shows the messages it already loaded
+                if (newVal != null && !reselecting) {
                     selectedUserId = newVal.userId;
                     selectedItemId = newVal.itemId;
                     loadConversationMessages(newVal);
@@ -112,14 +119,14 @@ public class MessagesController {
                 if (empty || message == null) {
                     setText(null);
                 } else {
-                    UserRepository userRepo = UserRepository.getInstance();
                     String senderName;
 
                     if (message.getSenderId().equals("SYSTEM")) {
                         senderName = "Lost and Found Team";
                     } else {
-                        User sender = userRepo.getUserById(message.getSenderId());
-                        senderName = sender != null ? sender.getUsername() : "Unknown";
+                        // cached when the conversation was loaded, so drawing a cell does not query
+                        String sender = UserRepository.getInstance().getUsername(message.getSenderId());
+                        senderName = sender != null ? sender : "Unknown";
                     }
 
                     String prefix = message.getSenderId().equals(currentUser.getUserId()) ? "You" : senderName;
@@ -131,25 +138,47 @@ public class MessagesController {
 
         // Auto-refresh messages every 2 seconds (but not in moderator view since no new messages will be sent)
         if (!isModeratorView) {
-            Timeline timeline = new Timeline(new KeyFrame(Duration.seconds(2), event -> {
-                ConversationItem selected = conversationsList.getSelectionModel().getSelectedItem();
-                loadConversations();
+            Timeline timeline = new Timeline(new KeyFrame(Duration.seconds(2), event -> refresh()));
+            timeline.setCycleCount(Animation.INDEFINITE);
+            timeline.play();
+        }
+    }
+
+    // Reloads the conversations and the open conversation in one background call.
+    // A tick is skipped while the previous refresh is still running, so a slow database
+    // never queues up refreshes.
+    private void refresh() {
+        if (pendingRefresh != null && !pendingRefresh.isDone()) {
+            return;
+        }
+        ConversationItem selected = conversationsList.getSelectionModel().getSelectedItem();
+        // Conversations are now grouped by user only, so we only check the user ID
+        String reselectUserId = selected != null && selectedUserId != null ? selected.userId : null;
+
+        // the background part returns the UI update to apply with its results
+        pendingRefresh = AsyncServices.getInstance().load("messages.poll", () -> {
+            List<ConversationItem> conversations = fetchConversations();
+            List<Message> messages = reselectUserId != null ? fetchMessages(currentUser.getUserId(), reselectUserId) : null;
+            return (Runnable) () -> {
+                showConversations(conversations);
 
                 // Re-select the previously selected conversation after refresh
-                // Conversations are now grouped by user only, so we only check the user ID
-                if (selected != null && selectedUserId != null) {
+                if (reselectUserId != null) {
                     for (ConversationItem item : conversationsList.getItems()) {
-                        if (item.userId.equals(selected.userId)) {
-                            conversationsList.getSelectionModel().select(item);
-                            loadConversationMessages(item);
+                        if (item.userId.equals(reselectUserId)) {
+                            reselecting = true;
+                            try {
+                                conversationsList.getSelectionModel().select(item);
+                            } finally {
+                                reselecting = false;
+                            }
+                            showMessages(messages);
                             break;
                         }
                     }
                 }
-            }));
-            timeline.setCycleCount(Animation.INDEFINITE);
-            timeline.play();
-        }
+            };
+        }, Runnable::run);
     }
 
     /**
@@ -160,54 +189,56 @@ public class MessagesController {
         // Track that this conversation was auto-opened
         autoOpenedUserId = userId;
 
-        // Count initial messages in this conversation
-        List<Message> existingMessages = messageService.getConversation(
-            currentUser.getUserId(),
-            userId,
-            null
-        );
-        initialMessageCount = existingMessages.size();
-
-        // First, ensure conversations are loaded
-        loadConversations();
+        AsyncServices.getInstance().load("messages.open", () -> {
+            // Count initial messages in this conversation
+            int existingMessages = messageService.getConversation(currentUser.getUserId(), userId, null).size();
+            // First, ensure conversations are loaded
+            List<ConversationItem> conversations = fetchConversations();
+            boolean exists = conversations.stream().anyMatch(conversation -> conversation.userId.equals(userId));
+            String otherUsername = exists ? null : UserRepository.getInstance().getUsername(userId);
+
+            return (Runnable) () -> {
+                initialMessageCount = existingMessages;
+                showConversations(conversations);
+                openConversation(userId, exists, otherUsername);
+            };
+        }, Runnable::run);
+    }
 
+    // Selects the conversation with the user, or adds an empty one if there are no messages yet
+    private void openConversation(String userId, boolean exists, String otherUsername) {
         // Find the matching conversation in the list
-        // Conversations are now grouped by user only, so we only check the user ID
-        boolean found = false;
-        for (ConversationItem conversation : conversationsList.getItems()) {
-            if (conversation.userId.equals(userId)) {
-                // Select this conversation
-                conversationsList.getSelectionModel().select(conversation);
-                conversationsList.scrollTo(conversation);
-                found = true;
-                break;
+        if (exists) {
+            for (ConversationItem conversation : conversationsList.getItems()) {
+                if (conversation.userId.equals(userId)) {
+                    // Select this conversation
+                    conversationsList.getSelectionModel().select(conversation);
+                    conversationsList.scrollTo(conversation);
+                    return;
+                }
             }
         }
 
         // If conversation doesn't exist (no messages yet), create a new entry and select it
-        if (!found) {
-            UserRepository userRepo = UserRepository.getInstance();
-            User otherUser = userRepo.getUserById(userId);
-            String displayName = otherUser != null ? otherUser.getUsername() : "Unknown User";
-
-            ConversationItem newConversation = new ConversationItem(displayName, userId, null);
-            newConversation.lastMessageTime = java.time.LocalDateTime.now();
-
-            // Get current items as a regular list, add the new conversation, and reset
-            List<ConversationItem> currentConversations = new ArrayList<>(conversationsList.getItems());
-            currentConversations.add(newConversation);
-            ObservableList<ConversationItem> updatedList = FXCollections.observableArrayList(currentConversations);
-            conversationsList.setItems(updatedList);
-
-            // Select it
-            conversationsList.getSelectionModel().select(newConversation);
-            conversationsList.scrollTo(newConversation);
-
-            // Manually trigger the selection to load the (empty) conversation
-            selectedUserId = userId;
-            selectedItemId = null;
-            loadConversationMessages(newConversation);
-        }
+        String displayName = otherUsername != null ? otherUsername : "Unknown User";
+
+        ConversationItem newConversation = new ConversationItem(displayName, userId, null);
+        newConversation.lastMessageTime = java.time.LocalDateTime.now();
+
+        // Get current items as a regular list, add the new conversation, and reset
+        List<ConversationItem> currentConversations = new ArrayList<>(conversationsList.getItems());
+        currentConversations.add(newConversation);
+        ObservableList<ConversationItem> updatedList = FXCollections.observableArrayList(currentConversations);
+        conversationsList.setItems(updatedList);
+
+        // Select it
+        conversationsList.getSelectionModel().select(newConversation);
+        conversationsList.scrollTo(newConversation);
+
+        // Manually trigger the selection to load the (empty) conversation
+        selectedUserId = userId;
+        selectedItemId = null;
+        loadConversationMessages(newConversation);
     }
 
     /**
@@ -227,28 +258,22 @@ public class MessagesController {
         sendMessageButton.setVisible(false);
         sendMessageButton.setManaged(false);
 
-        // Get messages between the two users (load all messages between them, regardless of item)
-        List<Message> messages = messageService.getConversation(user1Id, user2Id, null);
-        messages.sort(Comparator.comparing(Message::getTimestamp));
-
-        // Set the conversation label with both user names only
-        User user1 = net.javaguids.lost_and_found.database.UserRepository.getInstance().getUserById(user1Id);
-        User user2 = net.javaguids.lost_and_found.database.UserRepository.getInstance().getUserById(user2Id);
-        String user1Name = user1 != null ? user1.getUsername() : "Unknown";
-        String user2Name = user2 != null ? user2.getUsername() : "Unknown";
-
-        String labelText = "Conversation between " + user1Name + " and " + user2Name;
-        conversationLabel.setText(labelText);
-
-        // Display messages
-        ObservableList<Message> observableMessages = FXCollections.observableArrayList(messages);
-        messagesListView.setItems(observableMessages);
-
-        if (!messages.isEmpty()) {
-            javafx.application.Platform.runLater(() -> {
-                messagesListView.scrollTo(messages.size() - 1);
-            });
-        }
+        AsyncServices.getInstance().load("messages.moderate", () -> {
+            // Get messages between the two users (load all messages between them, regardless of item)
+            List<Message> messages = messageService.getConversation(user1Id, user2Id, null);
+            messages.sort(Comparator.comparing(Message::getTimestamp));
+
+            // Set the conversation label with both user names only
+            User user1 = UserRepository.getInstance().getUserById(user1Id);
+            User user2 = UserRepository.getInstance().getUserById(user2Id);
+            String user1Name = user1 != null ? user1.getUsername() : "Unknown";
+            String user2Name = user2 != null ? user2.getUsername() : "Unknown";
+
+            return (Runnable) () -> {
+                conversationLabel.setText("Conversation between " + user1Name + " and " + user2Name);
+                showMessages(messages);
+            };
+        }, Runnable::run);
     }
 
     /**
@@ -260,6 +285,11 @@ public class MessagesController {
     }
 
     private void loadConversations() {
+        AsyncServices.getInstance().load("messages.inbox", this::fetchConversations, this::showConversations);
+    }
+
+    // Groups the inbox into one entry per other user, newest first (runs in the background)
+    private List<ConversationItem> fetchConversations() {
         List<Message> allMessages = messageService.getInbox(currentUser.getUserId());
 
         Map<String, Message> conversationsMap = new HashMap<>();
@@ -302,7 +332,10 @@ public class MessagesController {
 
         // Sort conversations by last message timestamp (newest first)
         conversations.sort((a, b) -> b.lastMessageTime.compareTo(a.lastMessageTime));
+        return conversations;
+    }
 
+    private void showConversations(List<ConversationItem> conversations) {
         ObservableList<ConversationItem> observableConversations = FXCollections.observableArrayList(conversations);
         conversationsList.setItems(observableConversations);
     }
@@ -310,15 +343,26 @@ public class MessagesController {
     private void loadConversationMessages(ConversationItem conversation) {
         conversationLabel.setText("Conversation with " + conversation.displayName);
 
-        // Load all messages between the two users (no item filter)
-        List<Message> messages = messageService.getConversation(
-                currentUser.getUserId(),
-                conversation.userId,
-                null
-        );
+        // Load all messages between the two users (no item filter); a conversation opened
+        // before this one finished loading is dropped
+        if (pendingMessages != null) {
+            pendingMessages.cancel(true);
+        }
+        String userId = currentUser.getUserId();
+        pendingMessages = AsyncServices.getInstance().load("messages.conversation",
+                () -> fetchMessages(userId, conversation.userId), this::showMessages);
+    }
 
+    // Messages between the two users, oldest first (runs in the background)
+    private List<Message> fetchMessages(String userId, String otherUserId) {
+        List<Message> messages = messageService.getConversation(userId, otherUserId, null);
         messages.sort(Comparator.comparing(Message::getTimestamp));
+        // warm the username cache the message cells read from
+        UserRepository.getInstance().getUsername(otherUserId);
+        return messages;
+    }
 
+    private void showMessages(List<Message> messages) {
         ObservableList<Message> observableMessages = FXCollections.observableArrayList(messages);
         messagesListView.setItems(observableMessages);
 
@@ -334,17 +378,20 @@ public class MessagesController {
     public void handleGoBack() {
         // Check if we need to clean up an empty auto-opened conversation
         if (autoOpenedUserId != null) {
-            // Get current message count
-            java.util.List<Message> currentMessages = messageService.getConversation(
-                currentUser.getUserId(),
-                autoOpenedUserId,
-                null
-            );
-
-            // If no new messages were sent, delete the empty conversation
-            if (currentMessages.size() == initialMessageCount && initialMessageCount == 0) {
-                messageService.deleteEmptyConversation(currentUser.getUserId(), autoOpenedUserId);
-            }
+            String userId = currentUser.getUserId();
+            String otherUserId = autoOpenedUserId;
+            int messagesWhenOpened = initialMessageCount;
+            // runs in the background; the view does not wait for it
+            AsyncServices.getInstance().supplyWrite("messages.cleanup", () -> {
+                // Get current message count
+                List<Message> currentMessages = messageService.getConversation(userId, otherUserId, null);
+
+                // If no new messages were sent, delete the empty conversation
+                if (currentMessages.size() == messagesWhenOpened && messagesWhenOpened == 0) {
+                    messageService.deleteEmptyConversation(userId, otherUserId);
+                }
+                return null;
+            });
         }
 
         NavigationManager.goBack();
@@ -367,16 +414,22 @@ public class MessagesController {
         String messageId = UUID.randomUUID().toString();
         Message message = new Message(messageId, currentUser.getUserId(), selectedUserId, content);
 
-        boolean success = messageService.sendMessage(message);
-
-        if (success) {
-            messageTextArea.clear();
-            ConversationItem selectedConversation = conversationsList.getSelectionModel().getSelectedItem();
-            if (selectedConversation != null) {
-                loadConversationMessages(selectedConversation);
+        sendMessageButton.setDisable(true);
+        AsyncServices.getInstance().write("messages.send", () -> messageService.sendMessage(message), success -> {
+            sendMessageButton.setDisable(false);
+            if (success) {
+                messageTextArea.clear();
+                ConversationItem selectedConversation = conversationsList.getSelectionModel().getSelectedItem();
+                if (selectedConversation != null) {
+                    loadConversationMessages(selectedConversation);
+                }
+            } else {
+                AlertUtil.showAlert("Error", "Failed to send message", Alert.AlertType.ERROR);
             }
-        } else {
+        }, error -> {
+            sendMessageButton.setDisable(false);
+            error.printStackTrace();
             AlertUtil.showAlert("Error", "Failed to send message", Alert.AlertType.ERROR);
-        }
+        });
     }
-}
\ No newline at end of file
+}
@@ -7,13 +7,17 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
+import net.javaguids.lost_and_found.analytics.Statistics;
 import net.javaguids.lost_and_found.database.UserRepository;
 import net.javaguids.lost_and_found.database.ItemRepository;
 import net.javaguids.lost_and_found.database.MessageRepository;
 import net.javaguids.lost_and_found.messaging.Message;
 import net.javaguids.lost_and_found.model.items.Item;
 import net.javaguids.lost_and_found.model.users.User;
+import net.javaguids.lost_and_found.services.AsyncServices;
 import net.javaguids.lost_and_found.services.AuthService;
+import net.javaguids.lost_and_found.services.DashboardLoader;
+import net.javaguids.lost_and_found.services.ItemService;
 import net.javaguids.lost_and_found.utils.NavigationManager;
 import net.javaguids.lost_and_found.utils.AlertUtil;
 import net.javaguids.lost_and_found.context.ModeratorConversationContext;
@@ -39,6 +43,10 @@ public class ModeratorDashboardController {
     private UserRepository userRepository;
     private ItemRepository itemRepository;
     private MessageRepository messageRepository;
+    // Deletes go through ItemService, under the item's lock
+    private ItemService itemService;
+    // Loads the items, conversations and counters in parallel, each on its own read connection
+    private final DashboardLoader dashboard = new DashboardLoader("moderator");
 
     private static class ConversationRow {
         String conversationName;
@@ -60,9 +68,19 @@ public class ModeratorDashboardController {
 
     @FXML
     public void initialize() {
-        userRepository = UserRepository.getInstance();
-        itemRepository = ItemRepository.getInstance();
-        messageRepository = MessageRepository.getInstance();
+        // keep repositories that were set before initialize() (tests inject them)
+        if (userRepository == null) {
+            userRepository = UserRepository.getInstance();
+        }
+        if (itemRepository == null) {
+            itemRepository = ItemRepository.getInstance();
+        }
+        if (messageRepository == null) {
+            messageRepository = MessageRepository.getInstance();
+        }
+        if (itemService == null) {
+            itemService = new ItemService();
+        }
 
         setupItemsTable();
         setupMessagesTable();
@@ -70,6 +88,7 @@ public class ModeratorDashboardController {
         loadItems();
         loadConversations();
         loadStatistics();
+        dashboard.whenLoaded();
     }
 
     private void setupItemsTable() {
@@ -98,9 +117,9 @@ public class ModeratorDashboardController {
         TableColumn<Item, String> postedByCol = new TableColumn<>("Posted By");
         postedByCol.setPrefWidth(120);
         postedByCol.setCellValueFactory(cellData -> {
-            User user = userRepository.getUserById(cellData.getValue().getPostedByUserId());
-            String username = user != null ? user.getUsername() : "Unknown";
-            return new javafx.beans.property.SimpleStringProperty(username);
+            // cached by loadItems, so drawing a row does not query
+            String username = userRepository.getUsername(cellData.getValue().getPostedByUserId());
+            return new javafx.beans.property.SimpleStringProperty(username != null ? username : "Unknown");
         });
 
         TableColumn<Item, String> statusCol = new TableColumn<>("Status");
@@ -187,14 +206,29 @@ public class ModeratorDashboardController {
         messagesTable.getColumns().addAll(conversationCol, lastMessageCol, timestampCol, actionsCol);
     }
 
+    // Loads run in the background at the same time (see DashboardLoader) and fill their table when done
     private void loadItems() {
-        //TODO: FIX
-        List<Item> items = itemRepository.searchItems(null);
-        ObservableList<Item> observableItems = FXCollections.observableArrayList(items);
-        itemsTable.setItems(observableItems);
+        dashboard.panel("items", () -> {
+            List<Item> items = itemRepository.searchItems(null);
+            for (Item item : items) {
+                userRepository.getUsername(item.getPostedByUserId());
+            }
+            return items;
+        }, items -> {
+            ObservableList<Item> observableItems = FXCollections.observableArrayList(items);
+            itemsTable.setItems(observableItems);
+        });
     }
 
     private void loadConversations() {
+        dashboard.panel("conversations", this::fetchConversations, conversations -> {
+            ObservableList<ConversationRow> observableConversations = FXCollections.observableArrayList(conversations);
+            messagesTable.setItems(observableConversations);
+        });
+    }
+
+    // One row per pair of users with their latest message, newest first
+    private List<ConversationRow> fetchConversations() {
         List<Message> allMessages = messageRepository.getAllMessages();
 
         Map<String, Message> conversationsMap = new HashMap<>();
@@ -236,9 +270,7 @@ public class ModeratorDashboardController {
 
         // Sort by timestamp (newest first)
         conversations.sort((a, b) -> b.timestamp.compareTo(a.timestamp));
-
-        ObservableList<ConversationRow> observableConversations = FXCollections.observableArrayList(conversations);
-        messagesTable.setItems(observableConversations);
+        return conversations;
     }
 
     private String createConversationKey(String user1, String user2, String itemId) {
@@ -256,21 +288,11 @@ public class ModeratorDashboardController {
     }
 
     private void loadStatistics() {
-        //TODO: FIX
-        List<Item> items = itemRepository.searchItems(null);
-        totalItemsLabel.setText("Total Items: " + items.size());
-
-        List<Message> allMessages = messageRepository.getAllMessages();
-        Set<String> uniqueConversations = new HashSet<>();
-
-        for (Message msg : allMessages) {
-            String user1 = msg.getSenderId();
-            String user2 = msg.getReceiverId();
-            String key = createConversationKey(user1, user2, null);
-            uniqueConversations.add(key);
-        }
-
-        totalChatsLabel.setText("Total Conversations: " + uniqueConversations.size());
+        // counters are maintained on every write, so this does not load items or messages
+        dashboard.panel("counters", messageRepository::generateStatistics, stats -> {
+            totalItemsLabel.setText("Total Items: " + stats.getTotalItems());
+            totalChatsLabel.setText("Total Conversations: " + stats.getTotalConversations());
+        });
     }
 
     private void handleDeleteItem(Item item) {
@@ -283,15 +305,17 @@ public class ModeratorDashboardController {
 
         confirmation.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                boolean success = itemRepository.deleteItem(item.getItemId());
-                if (success) {
-                    AlertUtil.showAlert("Success", "Item deleted successfully", Alert.AlertType.INFORMATION);
-                    loadItems();
-                    loadConversations();
-                    loadStatistics();
-                } else {
-                    AlertUtil.showAlert("Error", "Failed to delete item", Alert.AlertType.ERROR);
-                }
+                AsyncServices.getInstance().write("items.delete", () -> itemService.deleteItem(item.getItemId()),
+                    success -> {
+                        if (success) {
+                            AlertUtil.showAlert("Success", "Item deleted successfully", Alert.AlertType.INFORMATION);
+                            loadItems();
+                            loadConversations();
+                            loadStatistics();
+                        } else {
+                            AlertUtil.showAlert("Error", "Failed to delete item", Alert.AlertType.ERROR);
+                        }
+                    });
             }
         });
     }
@@ -309,6 +333,7 @@ public class ModeratorDashboardController {
 
     @FXML
     public void handleLogout() {
+        dashboard.cancel();
         AuthService.logout();
         NavigationManager.navigateTo("login-view.fxml", "Lost and Found - Login");
     }
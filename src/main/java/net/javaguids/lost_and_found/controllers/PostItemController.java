@@ -5,6 +5,7 @@ import javafx.scene.control.*;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import net.javaguids.lost_and_found.database.UserRepository;
+import net.javaguids.lost_and_found.exceptions.ItemConflictException;
 import net.javaguids.lost_and_found.model.items.FoundItem;
 import net.javaguids.lost_and_found.model.items.Item;
 import net.javaguids.lost_and_found.model.items.LostItem;
@@ -426,8 +427,16 @@ public class PostItemController {
                 } else if (editingItem.getImagePath() != null) {
                     newItem.setImagePath(editingItem.getImagePath());
                 }
+                // the replacement saves over the row the form was opened with
+                newItem.setVersion(editingItem.getVersion());
                 // Update item via service
-                boolean success = itemService.updateItem(newItem);
+                boolean success;
+                try {
+                    success = itemService.updateItem(newItem);
+                } catch (ItemConflictException e) {
+                    showEditConflict();
+                    return;
+                }
                 if (success) {
                     AlertUtil.showAlert("Success", "Item updated successfully", Alert.AlertType.INFORMATION);
                     if (dashboardController != null) {
@@ -470,7 +479,13 @@ public class PostItemController {
                     editingItem.setStatus(net.javaguids.lost_and_found.model.enums.ItemStatus.valueOf(statusComboBox.getValue()));
                 }
                 // update item via service
-                boolean success = itemService.updateItem(editingItem);
+                boolean success;
+                try {
+                    success = itemService.updateItem(editingItem);
+                } catch (ItemConflictException e) {
+                    showEditConflict();
+                    return;
+                }
                 if (success) {
                     AlertUtil.showAlert("Success", "Item updated successfully", Alert.AlertType.INFORMATION);
                     if (dashboardController != null) {
@@ -546,6 +561,13 @@ public class PostItemController {
         }
     }
 
+    // Someone else (e.g. the owner claiming it) saved the item while this form was open;
+    // their change is kept rather than overwritten
+    private void showEditConflict() {
+        AlertUtil.showAlert("Item Changed", "This item was changed by someone else while you were editing it. " +
+                "Please reopen it and make your changes again.", Alert.AlertType.WARNING);
+    }
+
     // Handles UPLOAD IMAGE button click to select and save an image file
     @FXML
     public void handleUploadImage() {
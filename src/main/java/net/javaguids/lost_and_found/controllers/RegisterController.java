@@ -3,11 +3,13 @@ package net.javaguids.lost_and_found.controllers;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import net.javaguids.lost_and_found.exceptions.AuthException;
-import net.javaguids.lost_and_found.model.users.User;
+import net.javaguids.lost_and_found.services.AsyncServices;
 import net.javaguids.lost_and_found.services.AuthService;
 import net.javaguids.lost_and_found.utils.NavigationManager;
 import net.javaguids.lost_and_found.utils.AlertUtil;
 
+import java.util.concurrent.CompletionException;
+
 public class RegisterController {
     @FXML
     private TextField usernameField;
@@ -40,19 +42,28 @@ public class RegisterController {
             return;
         }
 
-        try {
-            // attempt to create the new account
-            User newUser = AuthService.register(username, email, password);
-
-            // registration worked, let them know
-            AlertUtil.showAlert("Success", "Registration successful! You can now login.", Alert.AlertType.INFORMATION);
+        // attempt to create the new account off the FX thread (hashing the password and saving the
+        // user); the result or the AuthException comes back on it
+        AsyncServices.getInstance().write("auth.register", () -> AuthService.register(username, email, password).join(),
+                newUser -> {
+                    // registration worked, let them know
+                    AlertUtil.showAlert("Success", "Registration successful! You can now login.",
+                            Alert.AlertType.INFORMATION);
 
-            // take them back to login so they can sign in
-            handleBackToLogin();
+                    // take them back to login so they can sign in
+                    handleBackToLogin();
+                }, this::showRegistrationFailure);
+    }
 
-        } catch (AuthException e) {
-            // something went wrong during registration
-            AlertUtil.showAlert("Registration Failed", e.getMessage(), Alert.AlertType.ERROR);
+    // something went wrong during registration
+    private void showRegistrationFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof AuthException) {
+            AlertUtil.showAlert("Registration Failed", cause.getMessage(), Alert.AlertType.ERROR);
+        } else {
+            cause.printStackTrace();
+            AlertUtil.showAlert("Registration Failed", "Could not create the account, please try again",
+                    Alert.AlertType.ERROR);
         }
     }
 
@@ -7,16 +7,20 @@ import javafx.scene.control.*;
 import net.javaguids.lost_and_found.model.enums.ItemType;
 import net.javaguids.lost_and_found.model.items.Item;
 import net.javaguids.lost_and_found.search.SearchCriteria;
+import net.javaguids.lost_and_found.search.SearchResults;
+import net.javaguids.lost_and_found.services.AsyncServices;
 import net.javaguids.lost_and_found.services.ItemService;
 import net.javaguids.lost_and_found.utils.NavigationManager;
 import net.javaguids.lost_and_found.context.ItemDetailsContext;
 import net.javaguids.lost_and_found.context.NavigationContext;
 
 import java.io.IOException;
-import java.util.List;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.CompletableFuture;
 
 // Controller for the search view, handling user input and displaying search results.
-// Features: multi-cirteria search (keywords, category, location, type), table display of search results, double-click navigation to item details and navigation back to previous view.
+// Features: multi-cirteria search (keywords, category, location, type, date range), table display of search results, double-click navigation to item details and navigation back to previous view.
 
 public class SearchController {
     // FMXL UI COMPONENTS 
@@ -37,10 +41,21 @@ public class SearchController {
     @FXML
     private ComboBox<String> typeCombo;
 
+    // date pickers limiting results to items lost/found between two days (both optional)
+    @FXML
+    private DatePicker dateFromPicker;
+
+    @FXML
+    private DatePicker dateToPicker;
+
     // table for displaying search results
     @FXML
     private TableView<Item> resultsTable;
 
+    // label showing per-category/location/type/status counts for the current results
+    @FXML
+    private Label facetsLabel;
+
 
     // TABLE COLUMNS 
 
@@ -65,6 +80,9 @@ public class SearchController {
     // Service for handling item related operations
     private ItemService itemService;
 
+    // Search currently running in the background, if any
+    private CompletableFuture<SearchResults> pendingSearch;
+
     // Initialization method called after FXML components are loaded
     // Sets up UI components, populates dropdown menus, configures table columns, and sets up event handlers for user interactions.
     @FXML
@@ -142,14 +160,41 @@ public class SearchController {
             criteria.setType(ItemType.valueOf(type));
         }
 
+        // Limit to items lost/found in the selected days (from start of the first day to end of the last)
+        LocalDate dateFrom = dateFromPicker.getValue();
+        if (dateFrom != null) {
+            criteria.setDateFrom(dateFrom.atStartOfDay());
+        }
+        LocalDate dateTo = dateToPicker.getValue();
+        if (dateTo != null) {
+            criteria.setDateTo(dateTo.atTime(LocalTime.MAX));
+        }
+
         // Ger current user ID to exclude their items from search results
         String currentUserId = net.javaguids.lost_and_found.services.AuthService.getCurrentUser().getUserId();
-        // Perform search using item service
-        List<Item> results = itemService.searchItemsExcludingUser(criteria, currentUserId);
+        // A new search replaces one still running, so an older result never overwrites a newer one
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+        }
+        facetsLabel.setText("Searching...");
+        // Perform search using item service off the UI thread (results come back with their facet counts)
+        pendingSearch = AsyncServices.getInstance().load("items.search",
+            () -> itemService.searchWithFacetsExcludingUser(criteria, currentUserId),
+            this::showResults,
+            error -> {
+                error.printStackTrace();
+                facetsLabel.setText("Search failed, please try again");
+            });
+    }
+
+    // Shows the results of a search in the table (on the UI thread)
+    private void showResults(SearchResults results) {
         // convert results to observable list for table binding 
-        ObservableList<Item> observableResults = FXCollections.observableArrayList(results);
+        ObservableList<Item> observableResults = FXCollections.observableArrayList(results.getItems());
         // update table with search results
         resultsTable.setItems(observableResults);
+        // show how the results break down so users can narrow the next search
+        facetsLabel.setText(results.size() + " result(s)  " + results.getFacets().generateSummary());
     }
 
     // Handles viewing item details when an item is double-clicked in the results table
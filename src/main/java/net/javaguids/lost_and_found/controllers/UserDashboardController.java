@@ -10,6 +10,7 @@ import javafx.scene.control.*;
 import javafx.util.Duration;
 import net.javaguids.lost_and_found.model.items.Item;
 import net.javaguids.lost_and_found.model.users.User;
+import net.javaguids.lost_and_found.services.AsyncServices;
 import net.javaguids.lost_and_found.services.AuthService;
 import net.javaguids.lost_and_found.services.ItemService; 
 import net.javaguids.lost_and_found.utils.NavigationManager;
@@ -19,6 +20,7 @@ import net.javaguids.lost_and_found.context.ClaimItemContext;
 import net.javaguids.lost_and_found.context.NavigationContext;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 // Controller for the user dashboard view
 // Manages user's items with auto refresh and item management actions.
@@ -32,6 +34,7 @@ public class UserDashboardController {
 
     private ItemService itemService; // service for item operations
     private User currentUser; // currently logged-in user
+    private CompletableFuture<List<Item>> pendingLoad; // item refresh running in the background
 
 
     // Initializes the controller after FXML loading
@@ -88,69 +91,79 @@ public class UserDashboardController {
     }
 
     // Loads and displays the current user's items in the ListView.
+    // The query runs in the background; a refresh still running is replaced by the new one.
     public void loadMyItems() {
         if (currentUser != null) {
-            List<Item> items = itemService.getItemsByUser(currentUser.getUserId());
-            ObservableList<Item> observableItems = FXCollections.observableArrayList(items);
-            myItemsList.setItems(observableItems);
-
-            myItemsList.setCellFactory(param -> new ListCell<Item>() {
-                // Updates the cell content for each item in the ListView
-                @Override
-                protected void updateItem(Item item, boolean empty) {
-                    super.updateItem(item, empty);
-
-                    // handle empty cells
-                    if (empty || item == null) {
-                        setText(null);
-                        setGraphic(null);
-                    } else {
-                        // Create item info label
-                        Label itemLabel = new Label(item.getTitle() + " - " + item.getType() + " - " + item.getStatus());
+            String userId = currentUser.getUserId();
+            if (pendingLoad != null) {
+                pendingLoad.cancel(true);
+            }
+            pendingLoad = AsyncServices.getInstance().load("items.byUser",
+                () -> itemService.getItemsByUser(userId), this::showMyItems);
+        }
+    }
 
-                        javafx.scene.layout.HBox buttons;
+    // Shows the user's items in the ListView (on the UI thread)
+    private void showMyItems(List<Item> items) {
+        ObservableList<Item> observableItems = FXCollections.observableArrayList(items);
+        myItemsList.setItems(observableItems);
+
+        myItemsList.setCellFactory(param -> new ListCell<Item>() {
+            // Updates the cell content for each item in the ListView
+            @Override
+            protected void updateItem(Item item, boolean empty) {
+                super.updateItem(item, empty);
+
+                // handle empty cells
+                if (empty || item == null) {
+                    setText(null);
+                    setGraphic(null);
+                } else {
+                    // Create item info label
+                    Label itemLabel = new Label(item.getTitle() + " - " + item.getType() + " - " + item.getStatus());
 
-                        // For resolved items, only show delete button
-                        if (item.getStatus() == net.javaguids.lost_and_found.model.enums.ItemStatus.RESOLVED) {
-                            Button deleteBtn = new Button("Delete");
-                            deleteBtn.setStyle("-fx-background-color: #f44336; -fx-text-fill: white;");
-                            deleteBtn.setOnAction(e -> handleDeleteItem(item));
+                    javafx.scene.layout.HBox buttons;
 
-                            buttons = new javafx.scene.layout.HBox(5, deleteBtn);
-                        } else {
-                            // For active items, show all buttons
-                            Button editBtn = new Button("Edit");
-                            editBtn.setOnAction(e -> handleEditItem(item));
+                    // For resolved items, only show delete button
+                    if (item.getStatus() == net.javaguids.lost_and_found.model.enums.ItemStatus.RESOLVED) {
+                        Button deleteBtn = new Button("Delete");
+                        deleteBtn.setStyle("-fx-background-color: #f44336; -fx-text-fill: white;");
+                        deleteBtn.setOnAction(e -> handleDeleteItem(item));
+
+                        buttons = new javafx.scene.layout.HBox(5, deleteBtn);
+                    } else {
+                        // For active items, show all buttons
+                        Button editBtn = new Button("Edit");
+                        editBtn.setOnAction(e -> handleEditItem(item));
 
-                            Button claimBtn = new Button("Claim");
-                            claimBtn.setStyle("-fx-background-color: #FF9800; -fx-text-fill: white;");
-                            claimBtn.setOnAction(e -> handleClaimItem(item));
+                        Button claimBtn = new Button("Claim");
+                        claimBtn.setStyle("-fx-background-color: #FF9800; -fx-text-fill: white;");
+                        claimBtn.setOnAction(e -> handleClaimItem(item));
 
-                            Button deleteBtn = new Button("Delete");
-                            deleteBtn.setStyle("-fx-background-color: #f44336; -fx-text-fill: white;");
-                            deleteBtn.setOnAction(e -> handleDeleteItem(item));
+                        Button deleteBtn = new Button("Delete");
+                        deleteBtn.setStyle("-fx-background-color: #f44336; -fx-text-fill: white;");
+                        deleteBtn.setOnAction(e -> handleDeleteItem(item));
 
-                            buttons = new javafx.scene.layout.HBox(5, editBtn, claimBtn, deleteBtn);
-                        }
+                        buttons = new javafx.scene.layout.HBox(5, editBtn, claimBtn, deleteBtn);
+                    }
 
-                        // Create spacer to push buttons to the right
-                        javafx.scene.layout.Region spacer = new javafx.scene.layout.Region();
+                    // Create spacer to push buttons to the right
+                    javafx.scene.layout.Region spacer = new javafx.scene.layout.Region();
 
-                        // Create main container with item label on left and buttons on right
-                        javafx.scene.layout.HBox container = new javafx.scene.layout.HBox(10, itemLabel, spacer, buttons);
+                    // Create main container with item label on left and buttons on right
+                    javafx.scene.layout.HBox container = new javafx.scene.layout.HBox(10, itemLabel, spacer, buttons);
 
-                        
-                        javafx.scene.layout.HBox.setHgrow(spacer, javafx.scene.layout.Priority.ALWAYS);
-                        javafx.scene.layout.HBox.setHgrow(itemLabel, javafx.scene.layout.Priority.NEVER);
-                        javafx.scene.layout.HBox.setHgrow(buttons, javafx.scene.layout.Priority.NEVER);
-                        container.setStyle("-fx-alignment: center;");
+                    
+                    javafx.scene.layout.HBox.setHgrow(spacer, javafx.scene.layout.Priority.ALWAYS);
+                    javafx.scene.layout.HBox.setHgrow(itemLabel, javafx.scene.layout.Priority.NEVER);
+                    javafx.scene.layout.HBox.setHgrow(buttons, javafx.scene.layout.Priority.NEVER);
+                    container.setStyle("-fx-alignment: center;");
 
-                        setText(null);
-                        setGraphic(container);
-                    }
+                    setText(null);
+                    setGraphic(container);
                 }
-            });
-        }
+            }
+        });
     }
 
     // Sets up edit context and navigates to the post item view for editing.
@@ -178,13 +191,15 @@ public class UserDashboardController {
         // show dialog and handle response
         confirmation.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                boolean success = itemService.deleteItem(item.getItemId());
-                if (success) {
-                    AlertUtil.showAlert("Success", "Item deleted successfully", Alert.AlertType.INFORMATION);
-                    loadMyItems();
-                } else {
-                    AlertUtil.showAlert("Error", "Failed to delete item", Alert.AlertType.ERROR);
-                }
+                AsyncServices.getInstance().write("items.delete", () -> itemService.deleteItem(item.getItemId()),
+                    success -> {
+                        if (success) {
+                            AlertUtil.showAlert("Success", "Item deleted successfully", Alert.AlertType.INFORMATION);
+                            loadMyItems();
+                        } else {
+                            AlertUtil.showAlert("Error", "Failed to delete item", Alert.AlertType.ERROR);
+                        }
+                    });
             }
             // if user cancels, do nothing
         });
@@ -0,0 +1,106 @@
+package net.javaguids.lost_and_found.database;
+
+import net.javaguids.lost_and_found.analytics.HyperLogLog;
+
+import java.sql.*;
+import java.time.LocalDate;
+
+// Distinct active users per day, kept as one HyperLogLog sketch per day in active_user_sketches.
+//
+// Every activity log adds its user to the sketch of its day; the row is only rewritten when the
+// sketch actually changes, which stops happening once a user has been seen that day. Active users
+// over any range of days (DAU, WAU, MAU) merge the daily sketches: at most one 4 KB row per day,
+// never a DISTINCT over activity_logs, and unaffected by LogRetention deleting old raw logs.
+// Uses singleton pattern to keep one instance
+public class ActiveUserRepository {
+    private static volatile ActiveUserRepository instance;
+    private final Connection connection;
+    private final WriteConnectionPool writePool;
+    // sketch of the day most recently written to, so each log does not re-read the row
+    private long cachedDay = Long.MIN_VALUE;
+    private HyperLogLog cachedSketch;
+
+    private ActiveUserRepository() {
+        DatabaseManager database = DatabaseManager.getInstance();
+        this.connection = database.getConnection();
+        this.writePool = database.getWritePool();
+    }
+
+    public static ActiveUserRepository getInstance() {
+        ActiveUserRepository result = instance;
+        if (result == null) {
+            synchronized (ActiveUserRepository.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new ActiveUserRepository();
+                }
+            }
+        }
+        return result;
+    }
+
+    // Counts the user as active on the given day. The cached sketch is guarded by this object's
+    // monitor; a write takes the database write lock (its transaction) before the monitor, the
+    // order every writer takes them in, and the check that skips the write holds the monitor only.
+    public boolean recordActivity(String userId, LocalDate date) {
+        long day = date.toEpochDay();
+        synchronized (this) {
+            if (day == cachedDay && cachedSketch.covers(userId)) {
+                return true;
+            }
+        }
+        String query = "INSERT INTO active_user_sketches (day, registers) VALUES (?, ?) " +
+                "ON CONFLICT (day) DO UPDATE SET registers = excluded.registers";
+        try {
+            return writePool.inTransaction(tx -> {
+                synchronized (this) {
+                    if (day != cachedDay) {
+                        cachedSketch = getSketch(tx, date, date);
+                        cachedDay = day;
+                    }
+                    if (cachedSketch.add(userId)) {
+                        try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+                            pstmt.setLong(1, day);
+                            pstmt.setBytes(2, cachedSketch.toBytes());
+                            pstmt.executeUpdate();
+                        }
+                    }
+                    return true;
+                }
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+            synchronized (this) {
+                // the stored row is behind the cache now; re-read it on the next write
+                cachedDay = Long.MIN_VALUE;
+            }
+            return false;
+        }
+    }
+
+    // Estimated number of distinct users active between two days (inclusive)
+    public long countActiveUsers(LocalDate from, LocalDate to) {
+        return getSketch(from, to).estimate();
+    }
+
+    // Union of the daily sketches between two days (inclusive)
+    public HyperLogLog getSketch(LocalDate from, LocalDate to) {
+        return getSketch(connection, from, to);
+    }
+
+    private HyperLogLog getSketch(Connection source, LocalDate from, LocalDate to) {
+        HyperLogLog merged = new HyperLogLog();
+        String query = "SELECT registers FROM active_user_sketches WHERE day BETWEEN ? AND ?";
+        try (PreparedStatement pstmt = source.prepareStatement(query)) {
+            pstmt.setLong(1, from.toEpochDay());
+            pstmt.setLong(2, to.toEpochDay());
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                merged.merge(HyperLogLog.fromBytes(rs.getBytes("registers")));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,533 @@
+package net.javaguids.lost_and_found.database;
+
+import net.javaguids.lost_and_found.utils.FileHandler;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// File formats for bulk export/import of table rows (see BulkTransfer).
+// Rows are plain column values as text (null allowed); SQLite converts numeric text back into
+// numbers for REAL/INTEGER columns on insert, so every table goes through the same code.
+//
+// CSV    - RFC 4180 with a header row. An empty unquoted field is NULL, a quoted "" is an empty string.
+// JSONL  - one flat JSON object per line, e.g. {"user_id":"u1","details":null}
+// BINARY - length-prefixed UTF-8 values after a small header; the fastest to write and read back
+public enum BulkFormat {
+    CSV(".csv") {
+        @Override
+        public RowWriter openWriter(OutputStream out, List<String> columns) throws IOException {
+            return new CsvRowWriter(out, columns);
+        }
+
+        @Override
+        public RowReader openReader(InputStream in) throws IOException {
+            return new CsvRowReader(in);
+        }
+    },
+    JSONL(".jsonl") {
+        @Override
+        public RowWriter openWriter(OutputStream out, List<String> columns) {
+            return new JsonRowWriter(out, columns);
+        }
+
+        @Override
+        public RowReader openReader(InputStream in) throws IOException {
+            return new JsonRowReader(in);
+        }
+    },
+    BINARY(".bin") {
+        @Override
+        public RowWriter openWriter(OutputStream out, List<String> columns) throws IOException {
+            return new BinaryRowWriter(out, columns);
+        }
+
+        @Override
+        public RowReader openReader(InputStream in) throws IOException {
+            return new BinaryRowReader(in);
+        }
+    };
+
+    // Stream buffer size for every format
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String extension;
+
+    BulkFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public abstract RowWriter openWriter(OutputStream out, List<String> columns) throws IOException;
+
+    public abstract RowReader openReader(InputStream in) throws IOException;
+
+    // Picks the format from a file name such as "items.jsonl"; null if the extension is unknown
+    public static BulkFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase();
+        for (BulkFormat format : values()) {
+            if (lower.endsWith(format.extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    // Writes rows with a fixed set of columns; values are in column order
+    public interface RowWriter extends Closeable {
+        void write(String[] values) throws IOException;
+    }
+
+    // Reads rows back; getColumns() comes from the file itself
+    public interface RowReader extends Closeable {
+        List<String> getColumns();
+
+        // Next row's values in column order, or null at the end of the file
+        String[] next() throws IOException;
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out, List<String> columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writeLine(columns.toArray(new String[0]));
+        }
+
+        @Override
+        public void write(String[] values) throws IOException {
+            writeLine(values);
+        }
+
+        private void writeLine(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] == null) {
+                    continue;
+                }
+                // quote empty strings so they read back as "" rather than NULL
+                writer.write(values[i].isEmpty() ? "\"\"" : FileHandler.escapeCsv(values[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static class CsvRowReader implements RowReader {
+        private final Reader reader;
+        private final List<String> columns;
+        // one character of look-ahead, -2 when nothing is buffered
+        private int peeked = -2;
+
+        CsvRowReader(InputStream in) throws IOException {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+            String[] header = readRecord();
+            if (header == null) {
+                throw new IOException("CSV file has no header row");
+            }
+            this.columns = Collections.unmodifiableList(Arrays.asList(header));
+        }
+
+        @Override
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        @Override
+        public String[] next() throws IOException {
+            String[] values = readRecord();
+            if (values != null && values.length != columns.size()) {
+                throw new IOException("CSV row has " + values.length + " fields, expected " + columns.size());
+            }
+            return values;
+        }
+
+        // Parses one record, allowing quoted fields to contain commas, quotes and line breaks
+        private String[] readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (c == '"' && field.length() == 0 && !quoted) {
+                    quoted = true;
+                    readQuoted(field);
+                    c = read();
+                    continue;
+                }
+                if (c == ',' || c == '\n' || c == '\r' || c == -1) {
+                    fields.add(field.length() == 0 && !quoted ? null : field.toString());
+                    field.setLength(0);
+                    quoted = false;
+                    if (c == ',') {
+                        c = read();
+                        continue;
+                    }
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') {
+                            peeked = next;
+                        }
+                    }
+                    return fields.toArray(new String[0]);
+                }
+                field.append((char) c);
+                c = read();
+            }
+        }
+
+        // Reads a quoted field up to its closing quote; "" inside is one quote
+        private void readQuoted(StringBuilder field) throws IOException {
+            while (true) {
+                int c = read();
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted CSV field");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next != '"') {
+                        peeked = next;
+                        return;
+                    }
+                }
+                field.append((char) c);
+            }
+        }
+
+        private int read() throws IOException {
+            if (peeked != -2) {
+                int c = peeked;
+                peeked = -2;
+                return c;
+            }
+            return reader.read();
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static class JsonRowWriter implements RowWriter {
+        private final Writer writer;
+        // column names already quoted and escaped, e.g. "\"user_id\":"
+        private final String[] keys;
+
+        JsonRowWriter(OutputStream out, List<String> columns) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            this.keys = new String[columns.size()];
+            for (int i = 0; i < keys.length; i++) {
+                StringBuilder key = new StringBuilder();
+                appendJsonString(key, columns.get(i));
+                keys[i] = key.append(':').toString();
+            }
+        }
+
+        @Override
+        public void write(String[] values) throws IOException {
+            StringBuilder line = new StringBuilder(128);
+            line.append('{');
+            for (int i = 0; i < keys.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append(keys[i]);
+                if (values[i] == null) {
+                    line.append("null");
+                } else {
+                    appendJsonString(line, values[i]);
+                }
+            }
+            line.append("}\n");
+            writer.write(line.toString());
+        }
+
+        private static void appendJsonString(StringBuilder out, String value) {
+            out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"': out.append("\\\""); break;
+                    case '\\': out.append("\\\\"); break;
+                    case '\n': out.append("\\n"); break;
+                    case '\r': out.append("\\r"); break;
+                    case '\t': out.append("\\t"); break;
+                    default:
+                        if (c < 0x20) {
+                            out.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.append(c);
+                        }
+                }
+            }
+            out.append('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    // Reads the flat objects written by JsonRowWriter. Columns are the keys of the first line;
+    // later lines are matched by key, so their key order does not matter.
+    private static class JsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final List<String> columns;
+        private String[] pending;
+        private int lineNumber;
+
+        JsonRowReader(InputStream in) throws IOException {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+            List<String> keys = new ArrayList<>();
+            List<String> values = new ArrayList<>();
+            String line = nextLine();
+            if (line != null) {
+                parseObject(line, keys, values);
+                pending = values.toArray(new String[0]);
+            }
+            this.columns = Collections.unmodifiableList(keys);
+        }
+
+        @Override
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        @Override
+        public String[] next() throws IOException {
+            if (pending != null) {
+                String[] first = pending;
+                pending = null;
+                return first;
+            }
+            String line = nextLine();
+            if (line == null) {
+                return null;
+            }
+            List<String> keys = new ArrayList<>(columns.size());
+            List<String> values = new ArrayList<>(columns.size());
+            parseObject(line, keys, values);
+            String[] row = new String[columns.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                int column = columns.indexOf(keys.get(i));
+                if (column < 0) {
+                    throw new IOException("Line " + lineNumber + ": unknown key " + keys.get(i));
+                }
+                row[column] = values.get(i);
+            }
+            return row;
+        }
+
+        // Skips blank lines
+        private String nextLine() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+            return line;
+        }
+
+        private void parseObject(String line, List<String> keys, List<String> values) throws IOException {
+            int[] pos = {skipWhitespace(line, 0)};
+            expect(line, pos, '{');
+            pos[0] = skipWhitespace(line, pos[0]);
+            if (pos[0] < line.length() && line.charAt(pos[0]) == '}') {
+                return;
+            }
+            while (true) {
+                pos[0] = skipWhitespace(line, pos[0]);
+                keys.add(parseString(line, pos));
+                pos[0] = skipWhitespace(line, pos[0]);
+                expect(line, pos, ':');
+                pos[0] = skipWhitespace(line, pos[0]);
+                values.add(parseValue(line, pos));
+                pos[0] = skipWhitespace(line, pos[0]);
+                if (pos[0] < line.length() && line.charAt(pos[0]) == ',') {
+                    pos[0]++;
+                    continue;
+                }
+                expect(line, pos, '}');
+                return;
+            }
+        }
+
+        // Strings and null; numbers and booleans are kept as their text
+        private String parseValue(String line, int[] pos) throws IOException {
+            if (pos[0] < line.length() && line.charAt(pos[0]) == '"') {
+                return parseString(line, pos);
+            }
+            int start = pos[0];
+            while (pos[0] < line.length() && ",} \t".indexOf(line.charAt(pos[0])) < 0) {
+                pos[0]++;
+            }
+            String literal = line.substring(start, pos[0]);
+            if (literal.isEmpty()) {
+                throw new IOException("Line " + lineNumber + ": missing value");
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String parseString(String line, int[] pos) throws IOException {
+            expect(line, pos, '"');
+            StringBuilder value = new StringBuilder();
+            while (pos[0] < line.length()) {
+                char c = line.charAt(pos[0]++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos[0] >= line.length()) {
+                    break;
+                }
+                char escaped = line.charAt(pos[0]++);
+                switch (escaped) {
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'u':
+                        if (pos[0] + 4 > line.length()) {
+                            throw new IOException("Line " + lineNumber + ": bad \\u escape");
+                        }
+                        value.append((char) Integer.parseInt(line.substring(pos[0], pos[0] + 4), 16));
+                        pos[0] += 4;
+                        break;
+                    default: value.append(escaped);
+                }
+            }
+            throw new IOException("Line " + lineNumber + ": unterminated string");
+        }
+
+        private void expect(String line, int[] pos, char expected) throws IOException {
+            if (pos[0] >= line.length() || line.charAt(pos[0]) != expected) {
+                throw new IOException("Line " + lineNumber + ": expected '" + expected + "' at column " + (pos[0] + 1));
+            }
+            pos[0]++;
+        }
+
+        private static int skipWhitespace(String line, int pos) {
+            while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+                pos++;
+            }
+            return pos;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    // Layout: MAGIC, column count, column names; then per row a ROW marker and each value as
+    // its UTF-8 length (-1 for NULL) and bytes; END marker after the last row
+    private static final int MAGIC = 0x4C464231; // "LFB1"
+    private static final byte ROW = 1;
+    private static final byte END = 0;
+
+    private static class BinaryRowWriter implements RowWriter {
+        private final DataOutputStream out;
+
+        BinaryRowWriter(OutputStream out, List<String> columns) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+            this.out.writeInt(MAGIC);
+            this.out.writeShort(columns.size());
+            for (String column : columns) {
+                this.out.writeUTF(column);
+            }
+        }
+
+        @Override
+        public void write(String[] values) throws IOException {
+            out.writeByte(ROW);
+            for (String value : values) {
+                if (value == null) {
+                    out.writeInt(-1);
+                } else {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                out.writeByte(END);
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    private static class BinaryRowReader implements RowReader {
+        private final DataInputStream in;
+        private final List<String> columns;
+
+        BinaryRowReader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+            if (this.in.readInt() != MAGIC) {
+                throw new IOException("Not a bulk export file");
+            }
+            int count = this.in.readUnsignedShort();
+            List<String> names = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                names.add(this.in.readUTF());
+            }
+            this.columns = Collections.unmodifiableList(names);
+        }
+
+        @Override
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        @Override
+        public String[] next() throws IOException {
+            byte marker = in.readByte();
+            if (marker == END) {
+                return null;
+            }
+            if (marker != ROW) {
+                throw new IOException("Corrupt bulk export file");
+            }
+            String[] values = new String[columns.size()];
+            for (int i = 0; i < values.length; i++) {
+                int length = in.readInt();
+                if (length >= 0) {
+                    byte[] bytes = new byte[length];
+                    in.readFully(bytes);
+                    values[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
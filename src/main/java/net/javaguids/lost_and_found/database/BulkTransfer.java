@@ -0,0 +1,364 @@
+package net.javaguids.lost_and_found.database;
+
+import net.javaguids.lost_and_found.analytics.ImportReport;
+import net.javaguids.lost_and_found.analytics.StatisticsCounters;
+import net.javaguids.lost_and_found.search.LocationPath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+// Bulk export and import of whole tables (users, items, messages, activity_logs) in any BulkFormat.
+//
+// Exports stream rows off a forward-only cursor into the file, so memory use does not grow with
+// the table. Imports upsert BATCH_SIZE rows per transaction on a write connection (see
+// WriteConnectionPool), so other writers get in between batches; a failing batch is rolled back
+// and stops the import, batches before it stay imported. Rows are matched on the primary key only:
+// a row that clashes with a different existing row on another unique column (e.g. a username
+// taken by another user) is skipped and reported, never written over it. The table's non-unique
+// secondary indexes are dropped for the import and rebuilt once at the end, which is much
+// cheaper than updating them per row (DatabaseInitializer recreates them should that fail).
+//
+// Command line (same database as the app, see DatabaseManager):
+//   BulkTransfer export <table> <file>    e.g. export items items.jsonl
+//   BulkTransfer import <table> <file>    format is taken from the file extension
+// Uses singleton pattern to keep one instance
+public class BulkTransfer {
+    // Tables that can be exported and imported
+    public static final List<String> TABLES = List.of("users", "items", "messages", "activity_logs");
+
+    // Rows imported per transaction
+    static final int BATCH_SIZE = 10_000;
+    // Rows fetched from the cursor at a time when exporting
+    private static final int FETCH_SIZE = 1_000;
+    // Page cache during imports (negative = KiB). Primary keys are random UUIDs, so inserts touch
+    // pages all over the key index; a bigger cache keeps more of it in memory than the 2 MB default.
+    private static final int IMPORT_CACHE_SIZE = -256 * 1024;
+    private static final int DEFAULT_CACHE_SIZE = -2000;
+
+    private static volatile BulkTransfer instance;
+    private final Connection connection;
+    private final WriteConnectionPool writePool;
+
+    private BulkTransfer() {
+        DatabaseManager database = DatabaseManager.getInstance();
+        this.connection = database.getConnection();
+        this.writePool = database.getWritePool();
+    }
+
+    public static BulkTransfer getInstance() {
+        BulkTransfer result = instance;
+        if (result == null) {
+            synchronized (BulkTransfer.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new BulkTransfer();
+                }
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 3 || !(args[0].equals("export") || args[0].equals("import"))) {
+            System.err.println("Usage: BulkTransfer export|import <table> <file>");
+            System.exit(1);
+        }
+        BulkFormat format = BulkFormat.fromFileName(args[2]);
+        if (format == null) {
+            System.err.println("ERROR: Unknown file type, use .csv, .jsonl or .bin");
+            System.exit(1);
+        }
+
+        long start = System.nanoTime();
+        BulkTransfer transfer = getInstance();
+        if (args[0].equals("export")) {
+            long rows = transfer.exportTable(args[1], Paths.get(args[2]), format);
+            if (rows < 0) {
+                System.err.println("ERROR: export failed");
+                System.exit(1);
+            }
+            System.out.printf(Locale.ROOT, "exported %d rows in %.1fs%n", rows, (System.nanoTime() - start) / 1e9);
+        } else {
+            ImportReport report = transfer.importTable(args[1], Paths.get(args[2]), format);
+            if (report == null) {
+                System.err.println("ERROR: import failed");
+                System.exit(1);
+            }
+            System.out.printf(Locale.ROOT, "%s in %.1fs%n", report, (System.nanoTime() - start) / 1e9);
+            for (String conflict : report.getConflicts()) {
+                System.out.println("  skipped " + conflict);
+            }
+        }
+    }
+
+    // Writes every row of the table to the file. Returns the number of rows, or -1 on failure.
+    public long exportTable(String table, Path file, BulkFormat format) {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            return exportTable(table, out, format);
+        } catch (IOException | SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    public long exportTable(String table, OutputStream out, BulkFormat format) throws IOException, SQLException {
+        List<String> columns = getColumns(table);
+        String query = "SELECT " + String.join(", ", columns) + " FROM " + table + " ORDER BY rowid";
+        long rows = 0;
+        try (Statement stmt = connection.createStatement();
+             BulkFormat.RowWriter writer = format.openWriter(out, columns)) {
+            stmt.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery(query)) {
+                String[] values = new String[columns.size()];
+                while (rs.next()) {
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = rs.getString(i + 1);
+                    }
+                    writer.write(values);
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Imports every row of the file into the table: new primary keys are inserted, existing ones
+    // updated in place (items also get their version bumped, so edits in progress conflict). The
+    // file's columns must all exist in the table and include the primary key; missing ones are left
+    // NULL on insert and unchanged on update. Returns the report, or null on failure (batches before
+    // the failing one stay imported then).
+    public ImportReport importTable(String table, Path file, BulkFormat format) {
+        try (InputStream in = Files.newInputStream(file)) {
+            return importTable(table, in, format);
+        } catch (IOException | SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public ImportReport importTable(String table, InputStream in, BulkFormat format) throws IOException, SQLException {
+        List<String> tableColumns = getColumns(table);
+        List<String> primaryKey = getPrimaryKey(table);
+        ImportReport report = new ImportReport();
+        try (BulkFormat.RowReader reader = format.openReader(in)) {
+            List<String> columns = new ArrayList<>(reader.getColumns());
+            for (String column : columns) {
+                if (!tableColumns.contains(column)) {
+                    throw new IOException("Column '" + column + "' does not exist in table " + table);
+                }
+            }
+            if (columns.isEmpty()) {
+                return report;
+            }
+            if (!columns.containsAll(primaryKey)) {
+                throw new IOException("Import into " + table + " needs the primary key column(s) " + primaryKey);
+            }
+
+            // items carry columns derived from others, as ItemRepository.saveItem writes them
+            boolean items = table.equals("items");
+            int dateColumn = items ? columns.indexOf("date_lost_found") : -1;
+            int locationColumn = items ? columns.indexOf("location") : -1;
+            int dayBucketColumn = dateColumn < 0 ? -1 : indexOrAdd(columns, "day_bucket");
+            int locationPathColumn = locationColumn < 0 ? -1 : indexOrAdd(columns, "location_path");
+            int[] keyColumns = primaryKey.stream().mapToInt(columns::indexOf).toArray();
+            String query = upsertQuery(table, columns, primaryKey, tableColumns.contains("version"));
+
+            List<String> droppedIndexes = writePool.inTransaction(tx -> dropSecondaryIndexes(tx, table));
+            try {
+                boolean more = true;
+                while (more) {
+                    more = writePool.inTransaction(tx -> {
+                        setCacheSize(tx, IMPORT_CACHE_SIZE);
+                        try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+                            int read = 0;
+                            int imported = 0;
+                            String[] values;
+                            while (read < BATCH_SIZE && (values = reader.next()) != null) {
+                                read++;
+                                String[] row = Arrays.copyOf(values, columns.size());
+                                if (dayBucketColumn >= 0) {
+                                    row[dayBucketColumn] = dayBucket(row[dateColumn]);
+                                }
+                                if (locationPathColumn >= 0) {
+                                    row[locationPathColumn] = LocationPath.parse(row[locationColumn]).getKey();
+                                }
+                                for (int i = 0; i < row.length; i++) {
+                                    pstmt.setString(i + 1, row[i]);
+                                }
+                                try {
+                                    pstmt.executeUpdate();
+                                    imported++;
+                                } catch (SQLException e) {
+                                    if (!isUniqueConflict(e)) {
+                                        throw e;
+                                    }
+                                    // only this row's statement failed; the batch carries on
+                                    report.addConflict(describeKey(row, keyColumns) + ": " + e.getMessage());
+                                }
+                            }
+                            if (read > 0) {
+                                report.addBatch(imported);
+                            }
+                            return read == BATCH_SIZE;
+                        } finally {
+                            setCacheSize(tx, DEFAULT_CACHE_SIZE);
+                        }
+                    });
+                }
+            } finally {
+                writePool.inTransaction(tx -> {
+                    recreateIndexes(tx, droppedIndexes);
+                    return null;
+                });
+                // rows changed behind the repositories' backs, also when only some batches got in
+                afterImport(table);
+            }
+        }
+        return report;
+    }
+
+    // Drops anything the repositories derived from the imported table
+    private static void afterImport(String table) {
+        StatisticsCounters.getInstance().invalidate();
+        if (table.equals("items")) {
+            ItemRepository.getInstance().markItemsChanged();
+        } else if (table.equals("users")) {
+            UserRepository.getInstance().clearUsernameCache();
+        }
+    }
+
+    // INSERT that updates the row with the same primary key instead, and fails on any other
+    // unique constraint (unlike INSERT OR REPLACE, which deletes whichever row is in the way)
+    private static String upsertQuery(String table, List<String> columns, List<String> primaryKey, boolean versioned) {
+        List<String> assignments = new ArrayList<>();
+        for (String column : columns) {
+            if (!primaryKey.contains(column) && !column.equals("version")) {
+                assignments.add(column + " = excluded." + column);
+            }
+        }
+        if (versioned) {
+            assignments.add("version = version + 1");
+        }
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" +
+                String.join(", ", Collections.nCopies(columns.size(), "?")) + ") ON CONFLICT(" +
+                String.join(", ", primaryKey) + ") DO " +
+                (assignments.isEmpty() ? "NOTHING" : "UPDATE SET " + String.join(", ", assignments));
+    }
+
+    private static int indexOrAdd(List<String> columns, String column) {
+        int index = columns.indexOf(column);
+        if (index < 0) {
+            columns.add(column);
+            index = columns.size() - 1;
+        }
+        return index;
+    }
+
+    private static String dayBucket(String dateLostFound) throws IOException {
+        if (dateLostFound == null) {
+            return null;
+        }
+        try {
+            return String.valueOf(ItemRepository.toDayBucket(LocalDateTime.parse(dateLostFound)));
+        } catch (DateTimeParseException e) {
+            throw new IOException("Invalid date_lost_found: " + dateLostFound, e);
+        }
+    }
+
+    // Same check as UserRepository: SQLite names the constraint in the message
+    private static boolean isUniqueConflict(SQLException e) {
+        return e.getMessage() != null && e.getMessage().contains("UNIQUE constraint failed");
+    }
+
+    private static String describeKey(String[] row, int[] keyColumns) {
+        List<String> key = new ArrayList<>();
+        for (int column : keyColumns) {
+            key.add(row[column]);
+        }
+        return String.join(", ", key);
+    }
+
+    private static void setCacheSize(Connection tx, int size) throws SQLException {
+        try (Statement stmt = tx.createStatement()) {
+            stmt.execute("PRAGMA cache_size = " + size);
+        }
+    }
+
+    // Column names of an importable table, in table order
+    List<String> getColumns(String table) throws SQLException {
+        if (!TABLES.contains(table)) {
+            throw new SQLException("Unknown table: " + table);
+        }
+        List<String> columns = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name"));
+            }
+        }
+        return columns;
+    }
+
+    // Primary key columns of an importable table (each of them has a single-column key today)
+    List<String> getPrimaryKey(String table) throws SQLException {
+        if (!TABLES.contains(table)) {
+            throw new SQLException("Unknown table: " + table);
+        }
+        List<String> key = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (rs.getInt("pk") > 0) {
+                    key.add(rs.getString("name"));
+                }
+            }
+        }
+        return key;
+    }
+
+    // Drops the table's explicitly created, non-unique indexes and returns their CREATE statements.
+    // Unique indexes stay so the import cannot bring in duplicates.
+    private static List<String> dropSecondaryIndexes(Connection tx, String table) throws SQLException {
+        List<String> names = new ArrayList<>();
+        List<String> definitions = new ArrayList<>();
+        String query = "SELECT name, sql FROM sqlite_master WHERE type = 'index' AND tbl_name = ? AND sql IS NOT NULL";
+        try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String sql = rs.getString("sql");
+                    if (!sql.toUpperCase(Locale.ROOT).startsWith("CREATE UNIQUE")) {
+                        names.add(rs.getString("name"));
+                        definitions.add(sql);
+                    }
+                }
+            }
+        }
+        try (Statement stmt = tx.createStatement()) {
+            for (String name : names) {
+                stmt.execute("DROP INDEX " + name);
+            }
+        }
+        return definitions;
+    }
+
+    private static void recreateIndexes(Connection tx, List<String> definitions) throws SQLException {
+        try (Statement stmt = tx.createStatement()) {
+            for (String sql : definitions) {
+                stmt.execute(sql);
+            }
+        }
+    }
+}
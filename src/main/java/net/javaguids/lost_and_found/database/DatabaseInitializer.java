@@ -1,16 +1,21 @@
 package net.javaguids.lost_and_found.database;
 
+import net.javaguids.lost_and_found.analytics.HyperLogLog;
 import net.javaguids.lost_and_found.model.users.Admin;
+import net.javaguids.lost_and_found.search.LocationPath;
 import net.javaguids.lost_and_found.utils.PasswordUtil;
 
 import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 // Database initialization script that creates all necessary tables.
 // Run this once before starting the application if the database doesn't exist.
 
 public class DatabaseInitializer {
-    private static final String DB_URL = "jdbc:sqlite:lostandfound.db";
+    private static final String DB_URL = "jdbc:sqlite:" +
+            System.getProperty(DatabaseManager.DB_PATH_PROPERTY, "lostandfound.db");
 
     public static void main(String[] args) {
         System.out.println("INITIALIZING LOST AND FOUND DATABASE");
@@ -27,10 +32,14 @@ public class DatabaseInitializer {
         }
     }
 
-    private static void createTables(Connection connection) throws SQLException {
+    public static void createTables(Connection connection) throws SQLException {
         System.out.println("Creating tables...");
 
         try (Statement stmt = connection.createStatement()) {
+            // Let LogRetention give deleted pages back to the file system in small steps.
+            // Only takes effect on a new, empty database; older ones are converted by upgradeSchema.
+            stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+
             // Create users table
             stmt.execute("CREATE TABLE IF NOT EXISTS users (" +
                     "user_id TEXT PRIMARY KEY," +
@@ -56,6 +65,9 @@ public class DatabaseInitializer {
                     "type TEXT NOT NULL," +
                     "date_lost_found TEXT," +
                     "reward REAL," +
+                    "day_bucket INTEGER," +
+                    "location_path TEXT," +
+                    "version INTEGER NOT NULL DEFAULT 0," +
                     "FOREIGN KEY (posted_by_user_id) REFERENCES users(user_id)" +
                     ")");
             System.out.println("Created 'items' table");
@@ -79,10 +91,264 @@ public class DatabaseInitializer {
                     "action TEXT NOT NULL," +
                     "details TEXT," +
                     "timestamp TEXT NOT NULL," +
+                    "actor_name TEXT," +
                     "FOREIGN KEY (user_id) REFERENCES users(user_id)" +
                     ")");
             System.out.println("Created 'activity_logs' table");
         }
+
+        createRollupTable(connection);
+        createResolutionTables(connection);
+        createMatchTable(connection);
+        createActiveUserTable(connection);
+        createIndexes(connection);
+    }
+
+    // Brings a database created by an older version up to the current schema.
+    // Safe to run on every start: only missing columns and indexes are added.
+    public static void upgradeSchema(Connection connection) throws SQLException {
+        if (!hasColumn(connection, "items", "day_bucket")) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("ALTER TABLE items ADD COLUMN day_bucket INTEGER");
+                // Backfill: days since 1970-01-01 of the date lost/found (same as LocalDate.toEpochDay)
+                stmt.execute("UPDATE items SET day_bucket = " +
+                        "CAST(julianday(substr(date_lost_found, 1, 10)) - 2440587.5 AS INTEGER) " +
+                        "WHERE date_lost_found IS NOT NULL");
+            }
+            System.out.println("Added 'day_bucket' column to 'items'");
+        }
+
+        if (!hasColumn(connection, "items", "location_path")) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("ALTER TABLE items ADD COLUMN location_path TEXT");
+            }
+            backfillLocationPaths(connection);
+            System.out.println("Added 'location_path' column to 'items'");
+        }
+
+        if (!hasColumn(connection, "items", "version")) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("ALTER TABLE items ADD COLUMN version INTEGER NOT NULL DEFAULT 0");
+            }
+            System.out.println("Added 'version' column to 'items'");
+        }
+
+        if (!hasColumn(connection, "activity_logs", "actor_name")) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("ALTER TABLE activity_logs ADD COLUMN actor_name TEXT");
+                // Backfill from the users that still exist; logs of deleted users stay NULL
+                stmt.execute("UPDATE activity_logs SET actor_name = CASE WHEN user_id = 'SYSTEM' THEN 'SYSTEM' " +
+                        "ELSE (SELECT username FROM users WHERE users.user_id = activity_logs.user_id) END");
+            }
+            System.out.println("Added 'actor_name' column to 'activity_logs'");
+        }
+
+        if (!hasTable(connection, "activity_rollups")) {
+            createRollupTable(connection);
+            // Seed the rollups with the activity logged so far; compaction folds the old minutes away
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("INSERT INTO activity_rollups (granularity, bucket_start, metric, dimension, count) " +
+                        "SELECT 'MINUTE', substr(timestamp, 1, 16), action, '', COUNT(*) FROM activity_logs " +
+                        "GROUP BY substr(timestamp, 1, 16), action");
+            }
+            System.out.println("Created 'activity_rollups' table");
+        }
+
+        if (!hasTable(connection, "active_user_sketches")) {
+            createActiveUserTable(connection);
+            backfillActiveUsers(connection);
+            System.out.println("Created 'active_user_sketches' table");
+        }
+
+        createResolutionTables(connection);
+        createMatchTable(connection);
+        createIndexes(connection);
+        enableIncrementalVacuum(connection);
+    }
+
+    // LogRetention gives deleted pages back in bounded incremental_vacuum steps, which needs
+    // auto_vacuum = INCREMENTAL. SQLite only applies that to an existing database with one full
+    // VACUUM, which rewrites the whole file, so it is done here, once, before anything else uses
+    // the connection rather than in the middle of a retention run.
+    private static void enableIncrementalVacuum(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            // 0 = none, 1 = full, 2 = incremental
+            try (ResultSet rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+                if (rs.next() && rs.getInt(1) == 2) {
+                    return;
+                }
+            }
+            stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            stmt.execute("VACUUM");
+        }
+        System.out.println("Switched the database to incremental auto_vacuum");
+    }
+
+    // Per-minute/hour/day event counts for trend charts (see RollupRepository)
+    private static void createRollupTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS activity_rollups (" +
+                    "granularity TEXT NOT NULL," +
+                    "bucket_start TEXT NOT NULL," +
+                    "metric TEXT NOT NULL," +
+                    "dimension TEXT NOT NULL DEFAULT ''," +
+                    "count INTEGER NOT NULL," +
+                    "PRIMARY KEY (granularity, bucket_start, metric, dimension)" +
+                    ")");
+        }
+    }
+
+    // Resolution events and their daily time-to-resolution sketches (see ResolutionRepository)
+    private static void createResolutionTables(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS resolution_events (" +
+                    "item_id TEXT NOT NULL," +
+                    "category TEXT," +
+                    "location_path TEXT," +
+                    "posted_at TEXT NOT NULL," +
+                    "resolved_at TEXT NOT NULL," +
+                    "latency_minutes REAL NOT NULL" +
+                    ")");
+            stmt.execute("CREATE TABLE IF NOT EXISTS resolution_sketches (" +
+                    "day INTEGER NOT NULL," +
+                    "dimension TEXT NOT NULL," +
+                    "bucket INTEGER NOT NULL," +
+                    "count INTEGER NOT NULL," +
+                    "PRIMARY KEY (day, dimension, bucket)" +
+                    ")");
+        }
+    }
+
+    // Pairs of items resolved together, e.g. a lost item and the found item that was returned
+    // for it (see ItemRepository.resolveMatch)
+    private static void createMatchTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS item_matches (" +
+                    "match_id TEXT PRIMARY KEY," +
+                    "item_id TEXT NOT NULL," +
+                    "matched_item_id TEXT NOT NULL," +
+                    "resolved_by_user_id TEXT NOT NULL," +
+                    "resolved_at TEXT NOT NULL" +
+                    ")");
+        }
+    }
+
+    // One HyperLogLog of the distinct active users per day (see ActiveUserRepository)
+    private static void createActiveUserTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS active_user_sketches (" +
+                    "day INTEGER PRIMARY KEY," +
+                    "registers BLOB NOT NULL" +
+                    ")");
+        }
+    }
+
+    private static void createIndexes(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            // Date-range searches only read the day buckets inside the range
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_items_day_bucket ON items(day_bucket)");
+            // Location subtree searches are a key range over location_path
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_items_location_path ON items(location_path)");
+            // Seeding the top-N sketches reads only the items of the last week
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_items_date_posted ON items(date_posted)");
+            // Trend queries read one metric over a time range
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_rollups_metric_bucket ON activity_rollups(metric, bucket_start)");
+            // The log viewer pages by time, optionally for one user or one action
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_activity_logs_timestamp ON activity_logs(timestamp, log_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_activity_logs_user ON activity_logs(user_id, timestamp)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_activity_logs_action ON activity_logs(action, timestamp)");
+            // Percentile queries read one dimension over a range of days
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_resolution_sketches_dimension ON resolution_sketches(dimension, day)");
+        }
+        // Registration relies on these to reject a username or email that differs only in case
+        createUniqueIndex(connection, "idx_users_username_nocase", "users(username COLLATE NOCASE)");
+        createUniqueIndex(connection, "idx_users_email_nocase", "users(email COLLATE NOCASE)");
+    }
+
+    // A database that already holds case-only duplicates cannot get the index; it keeps working
+    // with the plain (case-sensitive) UNIQUE constraints until the duplicates are cleaned up
+    private static void createUniqueIndex(Connection connection, String name, String target) {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + name + " ON " + target);
+        } catch (SQLException e) {
+            System.err.println("Could not create unique index " + name + ": " + e.getMessage());
+        }
+    }
+
+    // Computes location_path for rows written before the column existed (in one transaction)
+    private static void backfillLocationPaths(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement select = connection.createStatement();
+             ResultSet rs = select.executeQuery("SELECT item_id, location FROM items");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE items SET location_path = ? WHERE item_id = ?")) {
+            while (rs.next()) {
+                update.setString(1, LocationPath.parse(rs.getString("location")).getKey());
+                update.setString(2, rs.getString("item_id"));
+                update.addBatch();
+            }
+            update.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    // Builds the daily active-user sketches from the activity logged so far (in one transaction)
+    private static void backfillActiveUsers(Connection connection) throws SQLException {
+        Map<Long, HyperLogLog> sketches = new HashMap<>();
+        String query = "SELECT DISTINCT CAST(julianday(substr(timestamp, 1, 10)) - 2440587.5 AS INTEGER) AS day, user_id " +
+                "FROM activity_logs WHERE user_id <> 'SYSTEM'";
+        try (Statement select = connection.createStatement();
+             ResultSet rs = select.executeQuery(query)) {
+            while (rs.next()) {
+                sketches.computeIfAbsent(rs.getLong("day"), day -> new HyperLogLog()).add(rs.getString("user_id"));
+            }
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO active_user_sketches (day, registers) VALUES (?, ?)")) {
+            for (Map.Entry<Long, HyperLogLog> entry : sketches.entrySet()) {
+                insert.setLong(1, entry.getKey());
+                insert.setBytes(2, entry.getValue().toBytes());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static boolean hasTable(Connection connection, String table) throws SQLException {
+        String query = "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?";
+        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     private static void createDefaultAdmin(Connection connection) throws SQLException {
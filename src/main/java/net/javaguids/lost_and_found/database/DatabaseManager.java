@@ -10,15 +10,22 @@ import java.sql.*;
 // the database.
 
 // The database file is expected to be at: lostandfound.db
+// (override with -Dlostandfound.db.path=... e.g. to point benchmarks at a scratch database)
 public class DatabaseManager {
-    // Singleton instance of DatabaseManager
-    private static DatabaseManager instance;
+    // Singleton instance of DatabaseManager (volatile: see getInstance)
+    private static volatile DatabaseManager instance;
     // SQLite database connection
     private Connection connection;
-    // Database URL for JDBC connection
-    private static final String DB_URL = "jdbc:sqlite:lostandfound.db";
+    // Read-only connections for reads that run in parallel (see ReadConnectionPool)
+    private final ReadConnectionPool readPool;
+    // Connections that transactions run on (see WriteConnectionPool)
+    private final WriteConnectionPool writePool;
+    // System property that overrides the database file location
+    public static final String DB_PATH_PROPERTY = "lostandfound.db.path";
     // Database file name
-    private static final String DB_FILE = "lostandfound.db";
+    private static final String DB_FILE = System.getProperty(DB_PATH_PROPERTY, "lostandfound.db");
+    // Database URL for JDBC connection
+    private static final String DB_URL = "jdbc:sqlite:" + DB_FILE;
 
     // Private constructor to prevent external instantiation (Singleton pattern)
     private DatabaseManager() {
@@ -36,6 +43,22 @@ public class DatabaseManager {
             connection = DriverManager.getConnection(DB_URL);
             System.out.println("Connected to database: " + DB_FILE);
 
+            // Write-ahead logging: readers are not blocked by a writer, and a commit appends to
+            // the log instead of rewriting pages. The log is checkpointed back into the database
+            // file on shutdown (see checkpoint()). The setting is stored in the database file.
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA synchronous = NORMAL");
+                // a write waits for another connection's transaction instead of failing at once
+                stmt.execute("PRAGMA busy_timeout = " + WriteConnectionPool.BUSY_TIMEOUT_MILLIS);
+            }
+
+            // Add any columns/indexes introduced since the database was created
+            DatabaseInitializer.upgradeSchema(connection);
+
+            readPool = new ReadConnectionPool(DB_URL, Integer.getInteger(ReadConnectionPool.SIZE_PROPERTY, 4));
+            writePool = new WriteConnectionPool(DB_URL, Integer.getInteger(WriteConnectionPool.SIZE_PROPERTY, 4));
+
         } catch (SQLException e) {
             System.err.println("ERROR: Failed to connect to database");
             e.printStackTrace();
@@ -44,22 +67,81 @@ public class DatabaseManager {
     }
 
     // Returns the singleton instance of DatabaseManager
-    // Creates a new instance if one doesn't exist
+    // Creates a new instance if one doesn't exist. Threads racing on first use block until one of
+    // them has connected, so only one connection is ever opened; once it exists this is a
+    // volatile read. If connecting fails, the next call tries again.
     public static DatabaseManager getInstance() {
-        if (instance == null) {
-            instance = new DatabaseManager();
+        DatabaseManager result = instance;
+        if (result == null) {
+            synchronized (DatabaseManager.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new DatabaseManager();
+                }
+            }
         }
-        return instance;
+        return result;
     }
 
-    // Returns the active database connection
+    // Sets the shared instance and returns the previous one, closing neither. For tests: start
+    // from no instance (the next getInstance() connects again), then put the shared one back.
+    static DatabaseManager replaceInstance(DatabaseManager replacement) {
+        synchronized (DatabaseManager.class) {
+            DatabaseManager previous = instance;
+            instance = replacement;
+            return previous;
+        }
+    }
+
+    // Returns the active database connection. Every thread shares it, for reads only: writes go
+    // through inTransaction(), each on a connection of its own (see WriteConnectionPool), so no
+    // transaction is ever open on this one and it never waits for a writer. A thread waiting here
+    // for the write lock would hold up every other thread's reads on it.
+    // Reads do not wait for writers; long ones should use the read pool.
     public Connection getConnection() {
         return connection;
     }
 
+    // Returns the pool of read-only connections, for reads that should not queue on the shared one
+    public ReadConnectionPool getReadPool() {
+        return readPool;
+    }
+
+    // Returns the pool of connections that transactions run on
+    public WriteConnectionPool getWritePool() {
+        return writePool;
+    }
+
+    // Runs the work in a transaction on a write connection (see WriteConnectionPool.inTransaction)
+    public <T, E extends Exception> T inTransaction(WriteConnectionPool.ConnectionWork<T, E> work)
+            throws E, SQLException {
+        return writePool.inTransaction(work);
+    }
+
+    // Copies the write-ahead log back into the database file and truncates it, so the file is
+    // complete on its own (e.g. for a backup). Returns false if readers kept part of it busy.
+    public boolean checkpoint() {
+        // on a write connection: it waits (busy_timeout) for the transaction in progress, if any
+        try {
+            return writePool.withConnection(writer -> {
+                try (Statement stmt = writer.createStatement();
+                     ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(TRUNCATE)")) {
+                    // columns: busy flag, log pages, pages checkpointed
+                    return rs.next() && rs.getInt(1) == 0;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("ERROR: Failed to checkpoint the write-ahead log");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     // Closes the database connection.
     // Should be called when the application shuts down.
     public void closeConnection() {
+        readPool.close();
+        writePool.close();
         if (connection != null) {
             try {
                 connection.close();
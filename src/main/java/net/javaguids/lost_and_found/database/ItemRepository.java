@@ -1,38 +1,77 @@
 package net.javaguids.lost_and_found.database;
 
+import net.javaguids.lost_and_found.analytics.ActivityLog;
+import net.javaguids.lost_and_found.analytics.HeavyHitters;
+import net.javaguids.lost_and_found.analytics.StatisticsCounters;
+import net.javaguids.lost_and_found.exceptions.ItemConflictException;
 import net.javaguids.lost_and_found.model.items.Item;
 import net.javaguids.lost_and_found.model.items.LostItem;
 import net.javaguids.lost_and_found.model.items.FoundItem;
 import net.javaguids.lost_and_found.model.enums.ItemStatus;
+import net.javaguids.lost_and_found.search.LocationPath;
 import net.javaguids.lost_and_found.search.SearchCriteria;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 // Handles saving and loading items from the database
 // Uses singleton pattern to keep one instance
 public class ItemRepository {
-    private static ItemRepository instance;
+    private static volatile ItemRepository instance;
     private final Connection connection;
+    private final WriteConnectionPool writePool;
+    // Max number of IDs bound into one "IN (...)" lookup
+    private static final int ID_BATCH_SIZE = 500;
+    // Bumped on every item insert, update or delete; search caches compare against it
+    private final AtomicLong writeGeneration = new AtomicLong();
 
     private ItemRepository() {
-        this.connection = DatabaseManager.getInstance().getConnection();
+        DatabaseManager database = DatabaseManager.getInstance();
+        this.connection = database.getConnection();
+        this.writePool = database.getWritePool();
     }
 
     public static ItemRepository getInstance() {
-        if (instance == null) {
-            instance = new ItemRepository();
+        ItemRepository result = instance;
+        if (result == null) {
+            synchronized (ItemRepository.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new ItemRepository();
+                }
+            }
         }
-        return instance;
+        return result;
+    }
+
+    // Pooled read connection bound to this thread (see ReadConnectionPool), else the shared one
+    private Connection readConnection() {
+        return ReadConnectionPool.boundOr(connection);
+    }
+
+    // Returns the current item write generation (changes whenever any item row changes)
+    public long getWriteGeneration() {
+        return writeGeneration.get();
     }
 
-    // Gets an item by ID, returns null if not found
+    // Marks the items table as changed. Called after our own writes, and by other
+    // repositories that delete items directly (e.g. when a user is deleted).
+    public void markItemsChanged() {
+        writeGeneration.incrementAndGet();
+    }
+
+    // Gets an item by ID, returns null if not found. Inside a transaction it reads on the
+    // transaction's connection, so it sees what the transaction has written so far.
     public Item getItemById(String itemId) {
         String query = "SELECT * FROM items WHERE item_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (PreparedStatement pstmt = WriteConnectionPool.boundOr(readConnection()).prepareStatement(query)) {
             pstmt.setString(1, itemId);
             ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
@@ -47,31 +86,48 @@ public class ItemRepository {
     // Saves a new item to the database
     public boolean saveItem(Item item) {
         String query = "INSERT INTO items (item_id, title, description, category, location, date_posted, status, " +
-                "posted_by_user_id, image_path, type, date_lost_found, reward) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setString(1, item.getItemId());
-            pstmt.setString(2, item.getTitle());
-            pstmt.setString(3, item.getDescription());
-            pstmt.setString(4, item.getCategory());
-            pstmt.setString(5, item.getLocation());
-            pstmt.setString(6, item.getDatePosted().toString());
-            pstmt.setString(7, item.getStatus().toString());
-            pstmt.setString(8, item.getPostedByUserId());
-            pstmt.setString(9, item.getImagePath());
-            pstmt.setString(10, item.getType().toString());
-
-            if (item instanceof LostItem) {
-                LostItem lostItem = (LostItem) item;
-                pstmt.setString(11, lostItem.getDateLost().toString());
-                pstmt.setDouble(12, lostItem.getReward());
-            } else if (item instanceof FoundItem) {
-                FoundItem foundItem = (FoundItem) item;
-                pstmt.setString(11, foundItem.getDateFound().toString());
-                pstmt.setDouble(12, 0.0);
-            }
-
-            pstmt.executeUpdate();
+                "posted_by_user_id, image_path, type, date_lost_found, reward, day_bucket, location_path) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        StatisticsCounters counters = StatisticsCounters.getInstance();
+        try {
+            // the counters move with the write, as one step for a recount (see StatisticsCounters)
+            counters.counted(() -> {
+                writePool.inTransaction(tx -> {
+                    try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+                        pstmt.setString(1, item.getItemId());
+                        pstmt.setString(2, item.getTitle());
+                        pstmt.setString(3, item.getDescription());
+                        pstmt.setString(4, item.getCategory());
+                        pstmt.setString(5, item.getLocation());
+                        pstmt.setString(6, item.getDatePosted().toString());
+                        pstmt.setString(7, item.getStatus().toString());
+                        pstmt.setString(8, item.getPostedByUserId());
+                        pstmt.setString(9, item.getImagePath());
+                        pstmt.setString(10, item.getType().toString());
+
+                        if (item instanceof LostItem) {
+                            LostItem lostItem = (LostItem) item;
+                            pstmt.setString(11, lostItem.getDateLost().toString());
+                            pstmt.setDouble(12, lostItem.getReward());
+                        } else if (item instanceof FoundItem) {
+                            FoundItem foundItem = (FoundItem) item;
+                            pstmt.setString(11, foundItem.getDateFound().toString());
+                            pstmt.setDouble(12, 0.0);
+                        }
+                        setDayBucket(pstmt, 13, item.getDateLostFound());
+                        pstmt.setString(14, LocationPath.parse(item.getLocation()).getKey());
+
+                        pstmt.executeUpdate();
+                    }
+                    RollupRepository.getInstance().record(RollupRepository.ITEM_POSTED, item.getCategory(),
+                            item.getDatePosted());
+                    return null;
+                });
+                counters.itemAdded(item.getType(), item.getStatus(), item.getCategory());
+                return null;
+            });
+            markItemsChanged();
+            HeavyHitters.getInstance().itemPosted(item);
             return true;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -79,30 +135,75 @@ public class ItemRepository {
         }
     }
 
-    // Updates an existing item
-    public boolean updateItem(Item item) {
+    // Updates an existing item, but only if the stored row is still at the version the item was
+    // read at (compare-and-set on the version column, no lock held between the read and the write).
+    // On success the version is bumped in the row and in `item`. Returns false if the item does
+    // not exist or the update fails; throws ItemConflictException if someone else updated it first.
+    public boolean updateItem(Item item) throws ItemConflictException {
+        // the stored status/category are needed to move the statistics counters
+        Item before = getItemById(item.getItemId());
+        if (before == null) {
+            return false;
+        }
+        if (before.getVersion() != item.getVersion()) {
+            throw new ItemConflictException(item.getItemId());
+        }
         String query = "UPDATE items SET title = ?, description = ?, category = ?, location = ?, " +
-                "status = ?, image_path = ?, date_lost_found = ?, reward = ? WHERE item_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setString(1, item.getTitle());
-            pstmt.setString(2, item.getDescription());
-            pstmt.setString(3, item.getCategory());
-            pstmt.setString(4, item.getLocation());
-            pstmt.setString(5, item.getStatus().toString());
-            pstmt.setString(6, item.getImagePath());
-
-            if (item instanceof LostItem) {
-                LostItem lostItem = (LostItem) item;
-                pstmt.setString(7, lostItem.getDateLost().toString());
-                pstmt.setDouble(8, lostItem.getReward());
-            } else if (item instanceof FoundItem) {
-                FoundItem foundItem = (FoundItem) item;
-                pstmt.setString(7, foundItem.getDateFound().toString());
-                pstmt.setDouble(8, 0.0);
+                "status = ?, image_path = ?, date_lost_found = ?, reward = ?, day_bucket = ?, location_path = ?, " +
+                "version = version + 1 WHERE item_id = ? AND version = ?";
+        boolean resolving = before.getStatus() != ItemStatus.RESOLVED && item.getStatus() == ItemStatus.RESOLVED;
+        StatisticsCounters counters = StatisticsCounters.getInstance();
+        try {
+            // the counters move with the write, as one step for a recount (see StatisticsCounters)
+            boolean updated = counters.counted(() -> {
+                boolean written = writePool.inTransaction(tx -> {
+                    try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+                        pstmt.setString(1, item.getTitle());
+                        pstmt.setString(2, item.getDescription());
+                        pstmt.setString(3, item.getCategory());
+                        pstmt.setString(4, item.getLocation());
+                        pstmt.setString(5, item.getStatus().toString());
+                        pstmt.setString(6, item.getImagePath());
+
+                        if (item instanceof LostItem) {
+                            LostItem lostItem = (LostItem) item;
+                            pstmt.setString(7, lostItem.getDateLost().toString());
+                            pstmt.setDouble(8, lostItem.getReward());
+                        } else if (item instanceof FoundItem) {
+                            FoundItem foundItem = (FoundItem) item;
+                            pstmt.setString(7, foundItem.getDateFound().toString());
+                            pstmt.setDouble(8, 0.0);
+                        }
+                        setDayBucket(pstmt, 9, item.getDateLostFound());
+                        pstmt.setString(10, LocationPath.parse(item.getLocation()).getKey());
+
+                        pstmt.setString(11, item.getItemId());
+                        pstmt.setLong(12, item.getVersion());
+                        if (pstmt.executeUpdate() == 0) {
+                            // another update committed between the read above and this one
+                            return false;
+                        }
+                    }
+                    if (resolving) {
+                        LocalDateTime resolvedAt = LocalDateTime.now();
+                        RollupRepository.getInstance().record(RollupRepository.ITEM_RESOLVED, item.getCategory(), resolvedAt);
+                        if (!ResolutionRepository.getInstance().recordResolution(item, before.getDatePosted(), resolvedAt)) {
+                            throw new SQLException("Failed to record the resolution of " + item.getItemId());
+                        }
+                    }
+                    return true;
+                });
+                if (written) {
+                    // the version matched, so `before` is exactly the row this update replaced
+                    counters.itemChanged(before.getStatus(), before.getCategory(), item.getStatus(), item.getCategory());
+                }
+                return written;
+            });
+            if (!updated) {
+                throw new ItemConflictException(item.getItemId());
             }
-
-            pstmt.setString(9, item.getItemId());
-            pstmt.executeUpdate();
+            item.setVersion(item.getVersion() + 1);
+            markItemsChanged();
             return true;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -110,12 +211,143 @@ public class ItemRepository {
         }
     }
 
+    // Marks an item and the item it was matched with RESOLVED, records the match and saves the
+    // audit log, all in one transaction: a failure part-way leaves neither item resolved, and the
+    // whole claim costs one commit instead of one per write. `match` may be null to resolve the
+    // item on its own. Like updateItem, both items must still be at the version they were read at,
+    // otherwise nothing is saved and ItemConflictException is thrown. On success their status and
+    // version are updated in place. Returns false if an item does not exist or a write fails.
+    public boolean resolveMatch(Item item, Item match, ActivityLog audit) throws ItemConflictException {
+        LocalDateTime resolvedAt = LocalDateTime.now();
+        StatisticsCounters counters = StatisticsCounters.getInstance();
+        // the counters move with the write, as one step for a recount (see StatisticsCounters)
+        boolean resolved = counters.counted(() -> {
+            Item[] before;
+            try {
+                // the rows are read in the transaction too (see getItemById), so `before` is
+                // exactly what it replaces
+                before = writePool.inTransaction(tx -> {
+                    Item itemBefore = getItemById(item.getItemId());
+                    Item matchBefore = match == null ? null : getItemById(match.getItemId());
+                    if (itemBefore == null || (match != null && matchBefore == null)) {
+                        return null;
+                    }
+                    markResolved(tx, item, itemBefore, resolvedAt);
+                    if (match != null) {
+                        markResolved(tx, match, matchBefore, resolvedAt);
+                        insertMatch(tx, item, match, audit.getUserId(), resolvedAt);
+                    }
+                    // joins this transaction
+                    if (!MessageRepository.getInstance().saveActivityLog(audit)) {
+                        throw new SQLException("Failed to save the audit log");
+                    }
+                    return new Item[] {itemBefore, matchBefore};
+                });
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return false;
+            }
+            if (before == null) {
+                return false;
+            }
+            resolved(item, before[0]);
+            if (match != null) {
+                resolved(match, before[1]);
+            }
+            return true;
+        });
+        if (resolved) {
+            markItemsChanged();
+        }
+        return resolved;
+    }
+
+    // Compare-and-set of the status, as in updateItem; also stores the resolution for the
+    // time-to-resolution sketches, in the caller's transaction
+    private void markResolved(Connection tx, Item item, Item before, LocalDateTime resolvedAt)
+            throws SQLException, ItemConflictException {
+        if (before.getVersion() != item.getVersion()) {
+            throw new ItemConflictException(item.getItemId());
+        }
+        String query = "UPDATE items SET status = ?, version = version + 1 WHERE item_id = ? AND version = ?";
+        try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+            pstmt.setString(1, ItemStatus.RESOLVED.toString());
+            pstmt.setString(2, item.getItemId());
+            pstmt.setLong(3, item.getVersion());
+            if (pstmt.executeUpdate() == 0) {
+                throw new ItemConflictException(item.getItemId());
+            }
+        }
+        if (before.getStatus() != ItemStatus.RESOLVED) {
+            RollupRepository.getInstance().record(RollupRepository.ITEM_RESOLVED, before.getCategory(), resolvedAt);
+            if (!ResolutionRepository.getInstance().recordResolution(before, before.getDatePosted(), resolvedAt)) {
+                throw new SQLException("Failed to record the resolution of " + item.getItemId());
+            }
+        }
+    }
+
+    private static void insertMatch(Connection tx, Item item, Item match, String resolvedByUserId,
+                                    LocalDateTime resolvedAt) throws SQLException {
+        String query = "INSERT INTO item_matches (match_id, item_id, matched_item_id, resolved_by_user_id, resolved_at) " +
+                "VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+            pstmt.setString(1, UUID.randomUUID().toString());
+            pstmt.setString(2, item.getItemId());
+            pstmt.setString(3, match.getItemId());
+            pstmt.setString(4, resolvedByUserId);
+            pstmt.setString(5, resolvedAt.toString());
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Brings the caller's copy and the counters up to date after resolveMatch committed (inside
+    // its counted() section)
+    private void resolved(Item item, Item before) {
+        item.setStatus(ItemStatus.RESOLVED);
+        item.setVersion(item.getVersion() + 1);
+        StatisticsCounters.getInstance().itemChanged(before.getStatus(), before.getCategory(),
+                ItemStatus.RESOLVED, before.getCategory());
+    }
+
+    // Returns the match recorded for an item (in either position), or null if it was not matched
+    public String getMatchedItemId(String itemId) {
+        String query = "SELECT item_id, matched_item_id FROM item_matches WHERE item_id = ? OR matched_item_id = ?";
+        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+            pstmt.setString(1, itemId);
+            pstmt.setString(2, itemId);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                String first = rs.getString("item_id");
+                return first.equals(itemId) ? rs.getString("matched_item_id") : first;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
     // Deletes an item by ID
     public boolean deleteItem(String itemId) {
         String query = "DELETE FROM items WHERE item_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setString(1, itemId);
-            pstmt.executeUpdate();
+        StatisticsCounters counters = StatisticsCounters.getInstance();
+        try {
+            // the counters move with the write, as one step for a recount (see StatisticsCounters)
+            counters.counted(() -> {
+                // the row read for the counters is the row deleted: both in one transaction
+                Item before = writePool.inTransaction(tx -> {
+                    Item row = getItemById(itemId);
+                    try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+                        pstmt.setString(1, itemId);
+                        // a concurrent delete of the same item finds no row and leaves the counters alone
+                        return pstmt.executeUpdate() > 0 ? row : null;
+                    }
+                });
+                if (before != null) {
+                    counters.itemRemoved(before.getType(), before.getStatus(), before.getCategory());
+                }
+                return null;
+            });
+            markItemsChanged();
             return true;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -126,20 +358,115 @@ public class ItemRepository {
     // Searches items using the given criteria (keyword, location, status, type)
     public List<Item> searchItems(SearchCriteria criteria) {
         List<Item> items = new ArrayList<>();
+        forEachMatchingItem(criteria, items::add);
+        return items;
+    }
+
+    // Streams every item matching the criteria to the consumer, one row at a time,
+    // so callers that only keep a few results (e.g. top-K ranking) never hold the full list.
+    // Filters that have an index are pushed down to SQL so only candidate rows are read:
+    // a date range uses day_bucket, a location path uses a key range over location_path.
+    // matches() then applies the exact bounds and the other filters.
+    public void forEachMatchingItem(SearchCriteria criteria, Consumer<Item> consumer) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (criteria != null && criteria.getDateFrom() != null) {
+            conditions.add("day_bucket >= ?");
+            params.add(toDayBucket(criteria.getDateFrom()));
+        }
+        if (criteria != null && criteria.getDateTo() != null) {
+            conditions.add("day_bucket <= ?");
+            params.add(toDayBucket(criteria.getDateTo()));
+        }
+        if (criteria != null && criteria.getLocationPath() != null) {
+            String key = LocationPath.parse(criteria.getLocationPath()).getKey();
+            if (!key.isEmpty()) {
+                // the location itself, or anything below it
+                conditions.add("(location_path = ? OR (location_path >= ? AND location_path < ?))");
+                params.add(key);
+                params.add(LocationPath.getSubtreeLowerBound(key));
+                params.add(LocationPath.getSubtreeUpperBound(key));
+            }
+        }
+
         String query = "SELECT * FROM items";
+        if (!conditions.isEmpty()) {
+            query += " WHERE " + String.join(" AND ", conditions);
+        }
 
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (PreparedStatement pstmt = readConnection().prepareStatement(query)) {
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
                 Item item = extractItemFromResultSet(rs);
                 // Use the Searchable interface's matches() method to filter items
                 if (item.matches(criteria)) {
-                    items.add(item);
+                    consumer.accept(item);
                 }
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
+    }
+
+    // Streams the items posted at or after `since` (used to seed HeavyHitters)
+    public void forEachItemPostedSince(LocalDateTime since, Consumer<Item> consumer) {
+        String query = "SELECT * FROM items WHERE date_posted >= ?";
+        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+            pstmt.setString(1, since.toString());
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                consumer.accept(extractItemFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Day bucket of a date: the number of days since 1970-01-01
+    static long toDayBucket(LocalDateTime date) {
+        return date.toLocalDate().toEpochDay();
+    }
+
+    private static void setDayBucket(PreparedStatement pstmt, int index, LocalDateTime date) throws SQLException {
+        if (date == null) {
+            pstmt.setNull(index, Types.INTEGER);
+        } else {
+            pstmt.setLong(index, toDayBucket(date));
+        }
+    }
+
+    // Loads items by primary key, keeping the order of the given IDs.
+    // IDs that no longer exist are skipped. Used to rebuild cached search results.
+    public List<Item> getItemsByIds(List<String> itemIds) {
+        Map<String, Item> found = new HashMap<>();
+        for (int start = 0; start < itemIds.size(); start += ID_BATCH_SIZE) {
+            List<String> batch = itemIds.subList(start, Math.min(start + ID_BATCH_SIZE, itemIds.size()));
+            String placeholders = String.join(",", java.util.Collections.nCopies(batch.size(), "?"));
+            String query = "SELECT * FROM items WHERE item_id IN (" + placeholders + ")";
+            try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+                for (int i = 0; i < batch.size(); i++) {
+                    pstmt.setString(i + 1, batch.get(i));
+                }
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    Item item = extractItemFromResultSet(rs);
+                    found.put(item.getItemId(), item);
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+
+        List<Item> items = new ArrayList<>(found.size());
+        for (String itemId : itemIds) {
+            Item item = found.get(itemId);
+            if (item != null) {
+                items.add(item);
+            }
+        }
         return items;
     }
 
@@ -182,6 +509,11 @@ public class ItemRepository {
 
         item.setStatus(ItemStatus.valueOf(rs.getString("status")));
         item.setImagePath(rs.getString("image_path"));
+        item.setVersion(rs.getLong("version"));
+        String datePosted = rs.getString("date_posted");
+        if (datePosted != null) {
+            item.setDatePosted(LocalDateTime.parse(datePosted));
+        }
         return item;
     }
     // Possible statuses for items
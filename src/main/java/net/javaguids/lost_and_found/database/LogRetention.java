@@ -0,0 +1,165 @@
+package net.javaguids.lost_and_found.database;
+
+import net.javaguids.lost_and_found.analytics.RetentionReport;
+
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Retention for activity_logs: raw logs are kept for RAW_RETENTION, older ones are deleted.
+//
+// Nothing is lost by deleting them: every log is counted into activity_rollups when it is written
+// (and the rollups were seeded from the existing logs when that table was created), so trends
+// for old periods keep working from the rollups alone.
+//
+// Deletes run in batches of BATCH_SIZE rows, each its own short transaction on a write connection
+// (see WriteConnectionPool), so other writers get in between batches and never wait for the
+// whole purge. Freed pages are then returned to the file system
+// with incremental vacuum, also in bounded steps; the database is switched to incremental
+// auto_vacuum at startup (see DatabaseInitializer.upgradeSchema), never during a run.
+// Uses singleton pattern to keep one instance
+public class LogRetention {
+    // How long raw activity logs are kept
+    public static final Duration RAW_RETENTION = Duration.ofDays(90);
+    // Rows deleted per transaction
+    public static final int BATCH_SIZE = 5_000;
+    // Pages released per incremental_vacuum step
+    private static final int VACUUM_STEP_PAGES = 1_000;
+
+    private static volatile LogRetention instance;
+    private final Connection connection;
+    private final WriteConnectionPool writePool;
+    private ScheduledExecutorService scheduler;
+
+    private LogRetention() {
+        DatabaseManager database = DatabaseManager.getInstance();
+        this.connection = database.getConnection();
+        this.writePool = database.getWritePool();
+    }
+
+    public static LogRetention getInstance() {
+        LogRetention result = instance;
+        if (result == null) {
+            synchronized (LogRetention.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new LogRetention();
+                }
+            }
+        }
+        return result;
+    }
+
+    // Deletes logs older than RAW_RETENTION and vacuums the freed space
+    public RetentionReport run(LocalDateTime now) {
+        RetentionReport report = purgeBefore(now.minus(RAW_RETENTION), BATCH_SIZE);
+        System.out.println("Activity log retention: " + report);
+        return report;
+    }
+
+    // Deletes logs with a timestamp before the cutoff, batchSize rows per transaction
+    public RetentionReport purgeBefore(LocalDateTime cutoff, int batchSize) {
+        RetentionReport report = new RetentionReport();
+        String delete = "DELETE FROM activity_logs WHERE rowid IN " +
+                "(SELECT rowid FROM activity_logs WHERE timestamp < ? LIMIT ?)";
+        try {
+            int deleted;
+            do {
+                long start = System.nanoTime();
+                deleted = writePool.inTransaction(tx -> {
+                    try (PreparedStatement pstmt = tx.prepareStatement(delete)) {
+                        pstmt.setString(1, cutoff.toString());
+                        pstmt.setInt(2, batchSize);
+                        return pstmt.executeUpdate();
+                    }
+                });
+                report.addBatch(deleted, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } while (deleted == batchSize);
+
+            if (report.getRowsDeleted() > 0) {
+                vacuum(report);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return report;
+    }
+
+    // Returns free pages to the file system with incremental vacuum, VACUUM_STEP_PAGES at a time.
+    // DatabaseInitializer.upgradeSchema switches the database to incremental auto_vacuum at
+    // startup; if that has not happened, the pages stay free and are reused by later writes.
+    private void vacuum(RetentionReport report) throws SQLException {
+        long start = System.nanoTime();
+        long reclaimed = 0;
+        long free;
+        while (isIncrementalVacuum() && (free = pragma(connection, "freelist_count")) > 0) {
+            long step = Math.min(free, VACUUM_STEP_PAGES);
+            // one step per transaction; the pages are counted in it too, so writes by others in
+            // between do not show up as negative reclaimed space
+            reclaimed += writePool.inTransaction(tx -> {
+                long before = pragma(tx, "page_count");
+                try (Statement stmt = tx.createStatement()) {
+                    stmt.execute("PRAGMA incremental_vacuum(" + step + ")");
+                }
+                return before - pragma(tx, "page_count");
+            });
+        }
+        report.setBytesReclaimed(reclaimed * pragma(connection, "page_size"));
+        report.setVacuumMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public boolean isIncrementalVacuum() throws SQLException {
+        // 0 = none, 1 = full, 2 = incremental
+        return pragma(connection, "auto_vacuum") == 2;
+    }
+
+    private static long pragma(Connection source, String name) throws SQLException {
+        try (Statement stmt = source.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + name)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // Runs retention in the background, first after `initialDelay`, then every `period`
+    public synchronized void start(long initialDelay, long period, TimeUnit unit) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                run(LocalDateTime.now());
+            } catch (RuntimeException e) {
+                // keep the schedule alive; the next run will try again
+                e.printStackTrace();
+            }
+        }, initialDelay, period, unit);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            awaitTermination(scheduler);
+            scheduler = null;
+        }
+    }
+
+    // A run in progress may be mid-transaction; wait for it rather than close the database under it
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("WARNING: log retention did not stop within 10 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,7 +2,10 @@ package net.javaguids.lost_and_found.database;
 
 import net.javaguids.lost_and_found.messaging.Message;
 import net.javaguids.lost_and_found.analytics.ActivityLog;
+import net.javaguids.lost_and_found.analytics.ActivityLogFilter;
 import net.javaguids.lost_and_found.analytics.Statistics;
+import net.javaguids.lost_and_found.analytics.HeavyHitters;
+import net.javaguids.lost_and_found.analytics.StatisticsCounters;
 
 import java.sql.*;
 import java.time.LocalDateTime;
@@ -10,37 +13,73 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 // Handles database operations for messages and activity logs
 // Uses singleton pattern to keep one instance
 public class MessageRepository {
-    private static MessageRepository instance;
+    private static volatile MessageRepository instance;
+    // Rows fetched from the cursor at a time when streaming activity logs
+    private static final int LOG_FETCH_SIZE = 500;
     private final Connection connection;
+    private final WriteConnectionPool writePool;
 
     private MessageRepository() {
-        this.connection = DatabaseManager.getInstance().getConnection();
+        DatabaseManager database = DatabaseManager.getInstance();
+        this.connection = database.getConnection();
+        this.writePool = database.getWritePool();
     }
 
     public static MessageRepository getInstance() {
-        if (instance == null) {
-            instance = new MessageRepository();
+        MessageRepository result = instance;
+        if (result == null) {
+            synchronized (MessageRepository.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new MessageRepository();
+                }
+            }
         }
-        return instance;
+        return result;
+    }
+
+    // Pooled read connection bound to this thread (see ReadConnectionPool), else the shared one
+    private Connection readConnection() {
+        return ReadConnectionPool.boundOr(connection);
     }
 
     // Saves a message to the database (INSERT OR REPLACE handles both new and updates)
     public boolean saveMessage(Message message) {
         String query = "INSERT OR REPLACE INTO messages (message_id, sender_id, receiver_id, content, timestamp) " +
                       "VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setString(1, message.getMessageId());
-            pstmt.setString(2, message.getSenderId());
-            pstmt.setString(3, message.getReceiverId());
-            pstmt.setString(4, message.getContent());
-            pstmt.setString(5, message.getTimestamp().toString());
-
-            pstmt.executeUpdate();
-            return true;
+        StatisticsCounters counters = StatisticsCounters.getInstance();
+        try {
+            // the counters move with the write, as one step for a recount (see StatisticsCounters)
+            return counters.counted(() -> {
+                // the lookup is in the same transaction, so a concurrent save or delete of the same
+                // message cannot slip in between
+                String[] replaced = writePool.inTransaction(tx -> {
+                    String[] previous = getParticipants(tx, message.getMessageId());
+                    try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+                        pstmt.setString(1, message.getMessageId());
+                        pstmt.setString(2, message.getSenderId());
+                        pstmt.setString(3, message.getReceiverId());
+                        pstmt.setString(4, message.getContent());
+                        pstmt.setString(5, message.getTimestamp().toString());
+                        pstmt.executeUpdate();
+                    }
+                    if (previous == null) {
+                        RollupRepository.getInstance().record(RollupRepository.MESSAGE_SENT, "", message.getTimestamp());
+                    }
+                    return previous;
+                });
+                // a replaced message must not be counted twice
+                if (replaced != null) {
+                    counters.messageRemoved(replaced[0], replaced[1]);
+                }
+                counters.messageAdded(message.getSenderId(), message.getReceiverId());
+                return true;
+            });
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -79,7 +118,7 @@ public class MessageRepository {
     public List<Message> getAllMessages() {
         List<Message> messages = new ArrayList<>();
         String query = "SELECT * FROM messages ORDER BY timestamp DESC";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (PreparedStatement pstmt = readConnection().prepareStatement(query)) {
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
                 String messageId = rs.getString("message_id");
@@ -104,16 +143,41 @@ public class MessageRepository {
     // Deletes a message by ID
     public boolean deleteMessage(String messageId) {
         String query = "DELETE FROM messages WHERE message_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setString(1, messageId);
-            pstmt.executeUpdate();
-            return true;
+        StatisticsCounters counters = StatisticsCounters.getInstance();
+        try {
+            return counters.counted(() -> {
+                String[] deleted = writePool.inTransaction(tx -> {
+                    String[] participants = getParticipants(tx, messageId);
+                    try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+                        pstmt.setString(1, messageId);
+                        return pstmt.executeUpdate() > 0 ? participants : null;
+                    }
+                });
+                // only the delete that actually removed the row updates the counters
+                if (deleted != null) {
+                    counters.messageRemoved(deleted[0], deleted[1]);
+                }
+                return true;
+            });
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
 
+    // Returns {sender_id, receiver_id} of a stored message, or null if there is no such message
+    private String[] getParticipants(Connection tx, String messageId) throws SQLException {
+        String query = "SELECT sender_id, receiver_id FROM messages WHERE message_id = ?";
+        try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+            pstmt.setString(1, messageId);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return new String[] {rs.getString("sender_id"), rs.getString("receiver_id")};
+            }
+        }
+        return null;
+    }
+
     // Gets list of user IDs that this user has messaged with (excludes SYSTEM)
     public List<String> getUsersFromConversations(String userId) {
         List<String> users = new ArrayList<>();
@@ -145,15 +209,30 @@ public class MessageRepository {
 
     // Saves an activity log to the database
     public boolean saveActivityLog(ActivityLog log) {
-        String query = "INSERT INTO activity_logs (log_id, user_id, action, details, timestamp) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setString(1, log.getLogId());
-            pstmt.setString(2, log.getUserId());
-            pstmt.setString(3, log.getAction());
-            pstmt.setString(4, log.getDetails());
-            pstmt.setString(5, log.getTimestamp().toString());
-
-            pstmt.executeUpdate();
+        String query = "INSERT INTO activity_logs (log_id, user_id, action, details, timestamp, actor_name) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+        // the username is stored with the log, so reading logs never needs a user lookup
+        if (log.getActorName() == null) {
+            log.setActorName(UserRepository.getInstance().getUsername(log.getUserId()));
+        }
+        try {
+            // joins the caller's transaction if there is one (e.g. ItemRepository.resolveMatch)
+            writePool.inTransaction(tx -> {
+                try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+                    pstmt.setString(1, log.getLogId());
+                    pstmt.setString(2, log.getUserId());
+                    pstmt.setString(3, log.getAction());
+                    pstmt.setString(4, log.getDetails());
+                    pstmt.setString(5, log.getTimestamp().toString());
+                    pstmt.setString(6, log.getActorName());
+                    return pstmt.executeUpdate();
+                }
+            });
+            RollupRepository.getInstance().record(log.getAction(), "", log.getTimestamp());
+            HeavyHitters.getInstance().activityLogged(log);
+            if (!"SYSTEM".equals(log.getUserId())) {
+                ActiveUserRepository.getInstance().recordActivity(log.getUserId(), log.getTimestamp().toLocalDate());
+            }
             return true;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -164,20 +243,64 @@ public class MessageRepository {
     // Gets activity logs within a time range
     public List<ActivityLog> getActivityLogs(LocalDateTime from, LocalDateTime to) {
         List<ActivityLog> logs = new ArrayList<>();
-        String query = "SELECT * FROM activity_logs WHERE timestamp BETWEEN ? AND ? ORDER BY timestamp DESC";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setString(1, from.toString());
-            pstmt.setString(2, to.toString());
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                String logId = rs.getString("log_id");
-                String userId = rs.getString("user_id");
-                String action = rs.getString("action");
-                String details = rs.getString("details");
-
-                ActivityLog log = new ActivityLog(logId, userId, action, details);
-                log.setTimestamp(LocalDateTime.parse(rs.getString("timestamp")));
-                logs.add(log);
+        forEachActivityLog(from, to, logs::add);
+        return logs;
+    }
+
+    // Streams the logs between from and to (newest first) to `consumer`, one row at a time, straight
+    // off a forward-only cursor, so callers such as the CSV export never hold the whole range.
+    // Returns false if the query failed.
+    public boolean forEachActivityLog(LocalDateTime from, LocalDateTime to, Consumer<ActivityLog> consumer) {
+        return forEachActivityLog(new ActivityLogFilter(from, to), consumer);
+    }
+
+    // Same as above for any filter (user, action and/or time window). Inside
+    // ReadConnectionPool.withConnection (as in the CSV export) the cursor stays on a pooled read
+    // connection, however long the consumer takes.
+    public boolean forEachActivityLog(ActivityLogFilter filter, Consumer<ActivityLog> consumer) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        addLogConditions(filter, conditions, params);
+        String query = "SELECT * FROM activity_logs" + where(conditions) + " ORDER BY timestamp DESC, log_id DESC";
+        try (PreparedStatement pstmt = readConnection().prepareStatement(query)) {
+            setParams(pstmt, params);
+            pstmt.setFetchSize(LOG_FETCH_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(extractActivityLog(rs));
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // One page of logs matching the filter, newest first. Pages are keyed by the last log of the
+    // previous page (null for the first page) rather than an OFFSET, so every page is an index
+    // seek plus `limit` rows, however deep the admin pages.
+    public List<ActivityLog> getActivityLogsPage(ActivityLogFilter filter, ActivityLog after, int limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        addLogConditions(filter, conditions, params);
+        if (after != null) {
+            conditions.add("(timestamp < ? OR (timestamp = ? AND log_id < ?))");
+            params.add(after.getTimestamp().toString());
+            params.add(after.getTimestamp().toString());
+            params.add(after.getLogId());
+        }
+        String query = "SELECT * FROM activity_logs" + where(conditions) +
+                " ORDER BY timestamp DESC, log_id DESC LIMIT ?";
+        params.add(limit);
+
+        List<ActivityLog> logs = new ArrayList<>();
+        try (PreparedStatement pstmt = readConnection().prepareStatement(query)) {
+            setParams(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    logs.add(extractActivityLog(rs));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -185,47 +308,157 @@ public class MessageRepository {
         return logs;
     }
 
-    // TODO: Need to implement Statistics class first
+    // Number of logs matching the filter
+    public int countActivityLogs(ActivityLogFilter filter) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        addLogConditions(filter, conditions, params);
+        String query = "SELECT COUNT(*) AS count FROM activity_logs" + where(conditions);
+        try (PreparedStatement pstmt = readConnection().prepareStatement(query)) {
+            setParams(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("count");
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    // Distinct actions that have been logged, for the log viewer's action filter
+    public List<String> getActivityLogActions() {
+        List<String> actions = new ArrayList<>();
+        String query = "SELECT DISTINCT action FROM activity_logs ORDER BY action";
+        try (Statement stmt = readConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                actions.add(rs.getString("action"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return actions;
+    }
+
+    private static void addLogConditions(ActivityLogFilter filter, List<String> conditions, List<Object> params) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getUserId() != null) {
+            conditions.add("user_id = ?");
+            params.add(filter.getUserId());
+        }
+        if (filter.getAction() != null) {
+            conditions.add("action = ?");
+            params.add(filter.getAction());
+        }
+        if (filter.getFrom() != null) {
+            conditions.add("timestamp >= ?");
+            params.add(filter.getFrom().toString());
+        }
+        if (filter.getTo() != null) {
+            conditions.add("timestamp <= ?");
+            params.add(filter.getTo().toString());
+        }
+    }
+
+    private static String where(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static void setParams(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    private static ActivityLog extractActivityLog(ResultSet rs) throws SQLException {
+        ActivityLog log = new ActivityLog(rs.getString("log_id"), rs.getString("user_id"),
+                rs.getString("action"), rs.getString("details"));
+        log.setTimestamp(LocalDateTime.parse(rs.getString("timestamp")));
+        log.setActorName(rs.getString("actor_name"));
+        return log;
+    }
+
+    // Returns the dashboard statistics from the live counters (no table scans).
+    // The counters are seeded from a full count the first time, or after invalidate().
     public Statistics generateStatistics() {
+        StatisticsCounters counters = StatisticsCounters.getInstance();
+        if (!counters.isLoaded()) {
+            counters.reset(countStatistics(), countMessagesPerConversation());
+        }
+        return counters.snapshot();
+    }
+
+    // Recounts everything from the tables and corrects the live counters.
+    // Returns the counters that had drifted (empty if they were all correct).
+    public List<String> reconcileStatistics() {
+        return StatisticsCounters.getInstance().reconcile(countStatistics(), countMessagesPerConversation());
+    }
+
+    // Full count of users, items and messages straight from the tables.
+    // Used to seed and reconcile the counters, not on every dashboard refresh.
+    public Statistics countStatistics() {
         Statistics stats = new Statistics();
-        
-         try (Statement stmt = connection.createStatement()) {
-             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as count FROM users");
-             if (rs.next()) {
-                 stats.setTotalUsers(rs.getInt("count"));
-             }
-        
-             rs = stmt.executeQuery("SELECT COUNT(*) as count FROM items");
-             if (rs.next()) {
-                 stats.setTotalItems(rs.getInt("count"));
-             }
-        
-             rs = stmt.executeQuery("SELECT COUNT(*) as count FROM items WHERE type = 'LOST'");
-             if (rs.next()) {
-                 stats.setTotalLostItems(rs.getInt("count"));
-             }
-        
-             rs = stmt.executeQuery("SELECT COUNT(*) as count FROM items WHERE type = 'FOUND'");
-             if (rs.next()) {
-                 stats.setTotalFoundItems(rs.getInt("count"));
-             }
-        
-             rs = stmt.executeQuery("SELECT COUNT(*) as count FROM items WHERE status = 'RESOLVED'");
-             if (rs.next()) {
-                 stats.setSuccessfulMatches(rs.getInt("count"));
-             }
-        
-             Map<String, Integer> itemsByCategory = new HashMap<>();
-             rs = stmt.executeQuery("SELECT category, COUNT(*) as count FROM items GROUP BY category");
-             while (rs.next()) {
-                 itemsByCategory.put(rs.getString("category"), rs.getInt("count"));
-             }
-             stats.setItemsByCategory(itemsByCategory);
-        
-         } catch (SQLException e) {
-             e.printStackTrace();
-         }
-        
-         return stats;
+
+        try (Statement stmt = connection.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as count FROM users");
+            if (rs.next()) {
+                stats.setTotalUsers(rs.getInt("count"));
+            }
+
+            rs = stmt.executeQuery("SELECT COUNT(*) as count FROM messages");
+            if (rs.next()) {
+                stats.setTotalMessages(rs.getInt("count"));
+            }
+
+            // one pass over items for type, status and category
+            int lost = 0;
+            int found = 0;
+            Map<String, Integer> itemsByStatus = new HashMap<>();
+            Map<String, Integer> itemsByCategory = new HashMap<>();
+            rs = stmt.executeQuery("SELECT type, status, category, COUNT(*) as count FROM items " +
+                    "GROUP BY type, status, category");
+            while (rs.next()) {
+                int count = rs.getInt("count");
+                if ("LOST".equals(rs.getString("type"))) {
+                    lost += count;
+                } else {
+                    found += count;
+                }
+                itemsByStatus.merge(rs.getString("status"), count, Integer::sum);
+                String category = rs.getString("category");
+                itemsByCategory.merge(category == null ? "" : category, count, Integer::sum);
+            }
+            stats.setTotalLostItems(lost);
+            stats.setTotalFoundItems(found);
+            stats.setTotalItems(lost + found);
+            stats.setItemsByStatus(itemsByStatus);
+            stats.setSuccessfulMatches(itemsByStatus.getOrDefault("RESOLVED", 0));
+            stats.setItemsByCategory(itemsByCategory);
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return stats;
+    }
+
+    // Number of messages per conversation (user pair), keyed like StatisticsCounters.conversationKey
+    private Map<String, Integer> countMessagesPerConversation() {
+        Map<String, Integer> counts = new HashMap<>();
+        String query = "SELECT sender_id, receiver_id, COUNT(*) as count FROM messages GROUP BY sender_id, receiver_id";
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                String key = StatisticsCounters.conversationKey(rs.getString("sender_id"), rs.getString("receiver_id"));
+                counts.merge(key, rs.getInt("count"), Integer::sum);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return counts;
     }
 }
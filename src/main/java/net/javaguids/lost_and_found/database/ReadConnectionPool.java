@@ -0,0 +1,110 @@
+package net.javaguids.lost_and_found.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+// A small pool of read-only connections to the database, so several reads can run at the same
+// time (e.g. the panels of a dashboard, see DashboardLoader). With write-ahead logging readers
+// do not block each other or the writer; on the one shared connection they would run one after
+// another. A pooled connection sees the last committed data, never a transaction in progress.
+//
+// withConnection() binds a connection to the calling thread while the work runs; repository
+// read methods pick it up through boundOr() and otherwise use the shared connection as before.
+// Connections are opened on first use, up to the pool size, and kept until close().
+public class ReadConnectionPool {
+    // System property that overrides the number of read connections
+    public static final String SIZE_PROPERTY = "lostandfound.db.readers";
+
+    private static final ThreadLocal<Connection> BOUND = new ThreadLocal<>();
+
+    private final String url;
+    private final Semaphore permits;
+    private final ConcurrentLinkedQueue<Connection> idle = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    public ReadConnectionPool(String url, int size) {
+        this.url = url;
+        this.permits = new Semaphore(size, true);
+    }
+
+    // Runs the work with a pooled connection bound to this thread, waiting for one if all are
+    // in use. Work already running with a pooled connection keeps the one it has.
+    public <T> T withConnection(Callable<T> work) throws Exception {
+        if (BOUND.get() != null) {
+            return work.call();
+        }
+        permits.acquire();
+        Connection connection = null;
+        try {
+            connection = borrow();
+            BOUND.set(connection);
+            return work.call();
+        } finally {
+            BOUND.remove();
+            if (connection != null) {
+                release(connection);
+            }
+            permits.release();
+        }
+    }
+
+    // The pooled connection bound to the calling thread, or `fallback` outside withConnection()
+    public static Connection boundOr(Connection fallback) {
+        Connection bound = BOUND.get();
+        return bound != null ? bound : fallback;
+    }
+
+    private Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Read connection pool is closed");
+        }
+        Connection connection = idle.poll();
+        return connection != null ? connection : open();
+    }
+
+    private Connection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement stmt = connection.createStatement()) {
+            // a read that tries to write fails instead of taking the write lock
+            stmt.execute("PRAGMA query_only = ON");
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    private void release(Connection connection) {
+        if (closed) {
+            closeQuietly(connection);
+            return;
+        }
+        idle.offer(connection);
+        // close() may have drained the queue between the check and the offer
+        if (closed && idle.remove(connection)) {
+            closeQuietly(connection);
+        }
+    }
+
+    // Closes the idle connections; the ones in use are closed when their work finishes
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            closeQuietly(connection);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
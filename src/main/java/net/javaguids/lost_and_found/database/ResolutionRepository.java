@@ -0,0 +1,127 @@
+package net.javaguids.lost_and_found.database;
+
+import net.javaguids.lost_and_found.analytics.LatencySketch;
+import net.javaguids.lost_and_found.model.items.Item;
+import net.javaguids.lost_and_found.search.LocationPath;
+
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Records when items are resolved and how long it took (time from posting to resolution).
+//
+// Each resolution is stored once in resolution_events, and counted into one LatencySketch per
+// day and dimension in resolution_sketches (overall, the category, and every level of the
+// location path). Percentiles for any window of days merge the daily sketches, so reading them
+// costs days x buckets rows, never the full event history.
+// Uses singleton pattern to keep one instance
+public class ResolutionRepository {
+    // Dimension covering every resolution
+    public static final String ALL = "all";
+
+    private static volatile ResolutionRepository instance;
+    private final Connection connection;
+    private final WriteConnectionPool writePool;
+
+    private ResolutionRepository() {
+        DatabaseManager database = DatabaseManager.getInstance();
+        this.connection = database.getConnection();
+        this.writePool = database.getWritePool();
+    }
+
+    public static ResolutionRepository getInstance() {
+        ResolutionRepository result = instance;
+        if (result == null) {
+            synchronized (ResolutionRepository.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new ResolutionRepository();
+                }
+            }
+        }
+        return result;
+    }
+
+    public static String categoryDimension(String category) {
+        return "category:" + (category == null ? "" : category);
+    }
+
+    // Accepts free text or a normalized location; matched by location path key
+    public static String locationDimension(String location) {
+        return "location:" + LocationPath.parse(location).getKey();
+    }
+
+    // Dimensions a resolution is counted under: overall, its category, and each location level,
+    // so "p90 for anything in building X" is a single sketch lookup
+    static List<String> dimensionsFor(Item item) {
+        List<String> dimensions = new ArrayList<>();
+        dimensions.add(ALL);
+        dimensions.add(categoryDimension(item.getCategory()));
+        List<String> segments = LocationPath.parse(item.getLocation()).getSegments();
+        for (int depth = 1; depth <= segments.size(); depth++) {
+            dimensions.add(locationDimension(String.join("/", segments.subList(0, depth))));
+        }
+        return dimensions;
+    }
+
+    // Stores a resolution event and adds its latency to the daily sketches.
+    // Runs in its own transaction unless the caller is in one already, which it then joins.
+    public boolean recordResolution(Item item, LocalDateTime postedAt, LocalDateTime resolvedAt) {
+        double latencyMinutes = Math.max(0, Duration.between(postedAt, resolvedAt).getSeconds()) / 60.0;
+        int bucket = LatencySketch.bucketIndex(latencyMinutes);
+        long day = resolvedAt.toLocalDate().toEpochDay();
+
+        String insertEvent = "INSERT INTO resolution_events (item_id, category, location_path, posted_at, " +
+                "resolved_at, latency_minutes) VALUES (?, ?, ?, ?, ?, ?)";
+        String upsertBucket = "INSERT INTO resolution_sketches (day, dimension, bucket, count) VALUES (?, ?, ?, 1) " +
+                "ON CONFLICT (day, dimension, bucket) DO UPDATE SET count = count + 1";
+        try {
+            return writePool.inTransaction(tx -> {
+                try (PreparedStatement pstmt = tx.prepareStatement(insertEvent)) {
+                    pstmt.setString(1, item.getItemId());
+                    pstmt.setString(2, item.getCategory());
+                    pstmt.setString(3, LocationPath.parse(item.getLocation()).getKey());
+                    pstmt.setString(4, postedAt.toString());
+                    pstmt.setString(5, resolvedAt.toString());
+                    pstmt.setDouble(6, latencyMinutes);
+                    pstmt.executeUpdate();
+                }
+                try (PreparedStatement pstmt = tx.prepareStatement(upsertBucket)) {
+                    for (String dimension : dimensionsFor(item)) {
+                        pstmt.setLong(1, day);
+                        pstmt.setString(2, dimension);
+                        pstmt.setInt(3, bucket);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                return true;
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Merged time-to-resolution sketch of one dimension for resolutions between two days (inclusive)
+    public LatencySketch getLatencySketch(String dimension, LocalDate from, LocalDate to) {
+        LatencySketch sketch = new LatencySketch();
+        String query = "SELECT bucket, SUM(count) AS total FROM resolution_sketches " +
+                "WHERE dimension = ? AND day BETWEEN ? AND ? GROUP BY bucket";
+        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+            pstmt.setString(1, dimension);
+            pstmt.setLong(2, from.toEpochDay());
+            pstmt.setLong(3, to.toEpochDay());
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                sketch.addToBucket(rs.getInt("bucket"), rs.getLong("total"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return sketch;
+    }
+}
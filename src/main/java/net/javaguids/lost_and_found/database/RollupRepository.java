@@ -0,0 +1,222 @@
+package net.javaguids.lost_and_found.database;
+
+import net.javaguids.lost_and_found.analytics.RollupGranularity;
+import net.javaguids.lost_and_found.analytics.TrendPoint;
+
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Time-series rollups of activity for the trend dashboards, stored in the activity_rollups table.
+//
+// Every event is counted into its MINUTE bucket as it is written (one upsert per event).
+// Older buckets are compacted to coarser ones: minute rows older than MINUTE_RETENTION are
+// folded into HOUR rows, and hour rows older than HOUR_RETENTION into DAY rows. So a year of
+// one metric is at most ~365 day rows + the hour and minute rows of the recent past,
+// instead of one row per event. Compaction runs on a background schedule (see start()), never
+// on the write path, so no write waits for it.
+// Uses singleton pattern to keep one instance
+public class RollupRepository {
+    // Metrics recorded from item and message writes (activity log actions are recorded by name)
+    public static final String ITEM_POSTED = "ITEM_POSTED";
+    public static final String ITEM_RESOLVED = "ITEM_RESOLVED";
+    public static final String MESSAGE_SENT = "MESSAGE_SENT";
+
+    // How long each granularity is kept before being folded into the next coarser one
+    public static final Duration MINUTE_RETENTION = Duration.ofDays(2);
+    public static final Duration HOUR_RETENTION = Duration.ofDays(90);
+
+    private static volatile RollupRepository instance;
+    private final Connection connection;
+    private final WriteConnectionPool writePool;
+    private ScheduledExecutorService scheduler;
+
+    private RollupRepository() {
+        DatabaseManager database = DatabaseManager.getInstance();
+        this.connection = database.getConnection();
+        this.writePool = database.getWritePool();
+    }
+
+    public static RollupRepository getInstance() {
+        RollupRepository result = instance;
+        if (result == null) {
+            synchronized (RollupRepository.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new RollupRepository();
+                }
+            }
+        }
+        return result;
+    }
+
+    // Counts one occurrence of a metric at the given time. The dimension breaks the metric down
+    // further (e.g. the item category); use "" when there is none.
+    public void record(String metric, String dimension, LocalDateTime at) {
+        String query = "INSERT INTO activity_rollups (granularity, bucket_start, metric, dimension, count) " +
+                "VALUES (?, ?, ?, ?, 1) " +
+                "ON CONFLICT (granularity, bucket_start, metric, dimension) DO UPDATE SET count = count + 1";
+        // joins the caller's transaction if there is one (e.g. ItemRepository.resolveMatch)
+        try {
+            writePool.inTransaction(tx -> {
+                try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+                    pstmt.setString(1, RollupGranularity.MINUTE.name());
+                    pstmt.setString(2, RollupGranularity.MINUTE.bucketKey(at));
+                    pstmt.setString(3, metric);
+                    pstmt.setString(4, dimension == null ? "" : dimension);
+                    return pstmt.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Folds buckets that are past their retention into the next coarser granularity.
+    // Cutoffs are aligned to the coarser bucket so only whole hours/days are folded.
+    // Returns the number of finer rows that were folded.
+    public int compact(LocalDateTime now) {
+        String hourCutoff = RollupGranularity.HOUR.bucketKey(now.minus(MINUTE_RETENTION));
+        String dayCutoff = RollupGranularity.DAY.bucketKey(now.minus(HOUR_RETENTION));
+        try {
+            return writePool.inTransaction(tx ->
+                    fold(tx, RollupGranularity.MINUTE, RollupGranularity.HOUR, hourCutoff)
+                            + fold(tx, RollupGranularity.HOUR, RollupGranularity.DAY, dayCutoff));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    // Runs compaction in the background, first after `initialDelay`, then every `period`
+    public synchronized void start(long initialDelay, long period, TimeUnit unit) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rollup-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                compact(LocalDateTime.now());
+            } catch (RuntimeException e) {
+                // keep the schedule alive; the next run will try again
+                e.printStackTrace();
+            }
+        }, initialDelay, period, unit);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            // a run in progress may be mid-transaction; wait for it rather than close the database under it
+            try {
+                if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                    System.err.println("WARNING: rollup compaction did not stop within 10 seconds");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+        }
+    }
+
+    // Adds the `from` rows before the cutoff into `to` rows, then deletes them
+    private int fold(Connection tx, RollupGranularity from, RollupGranularity to, String cutoff)
+            throws SQLException {
+        String merge = "INSERT INTO activity_rollups (granularity, bucket_start, metric, dimension, count) " +
+                "SELECT ?, " + to.sqlBucket("bucket_start") + ", metric, dimension, SUM(count) " +
+                "FROM activity_rollups WHERE granularity = ? AND bucket_start < ? " +
+                "GROUP BY 2, metric, dimension " +
+                "ON CONFLICT (granularity, bucket_start, metric, dimension) DO UPDATE SET count = count + excluded.count";
+        try (PreparedStatement pstmt = tx.prepareStatement(merge)) {
+            pstmt.setString(1, to.name());
+            pstmt.setString(2, from.name());
+            pstmt.setString(3, cutoff);
+            pstmt.executeUpdate();
+        }
+
+        String delete = "DELETE FROM activity_rollups WHERE granularity = ? AND bucket_start < ?";
+        try (PreparedStatement pstmt = tx.prepareStatement(delete)) {
+            pstmt.setString(1, from.name());
+            pstmt.setString(2, cutoff);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    // Returns the metric per bucket between from (inclusive) and to (exclusive), oldest first.
+    // Rows of every granularity are folded into the requested one, so recent data that is not
+    // compacted yet is included. Buckets finer than what is still stored (e.g. hours of last
+    // year) come back as one point at the start of the coarser bucket.
+    // A null dimension sums over all dimensions.
+    public List<TrendPoint> getSeries(String metric, String dimension, LocalDateTime from, LocalDateTime to,
+                                      RollupGranularity granularity) {
+        String bucket = granularity.sqlBucket("bucket_start");
+        String query = "SELECT " + bucket + " AS bucket, SUM(count) AS total FROM activity_rollups " +
+                "WHERE metric = ? AND bucket_start >= ? AND bucket_start < ?" +
+                (dimension == null ? "" : " AND dimension = ?") +
+                " GROUP BY bucket ORDER BY bucket";
+        List<TrendPoint> points = new ArrayList<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+            pstmt.setString(1, metric);
+            pstmt.setString(2, granularity.bucketKey(from));
+            pstmt.setString(3, to.toString());
+            if (dimension != null) {
+                pstmt.setString(4, dimension);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                points.add(new TrendPoint(LocalDateTime.parse(rs.getString("bucket")), rs.getLong("total")));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return points;
+    }
+
+    // Totals of a metric per dimension (e.g. posts per category) between from and to, largest first.
+    // `from` is rounded down to the start of its day so compacted day rows are counted whole.
+    public Map<String, Long> getTotalsByDimension(String metric, LocalDateTime from, LocalDateTime to) {
+        String query = "SELECT dimension, SUM(count) AS total FROM activity_rollups " +
+                "WHERE metric = ? AND bucket_start >= ? AND bucket_start < ? " +
+                "GROUP BY dimension ORDER BY total DESC";
+        Map<String, Long> totals = new LinkedHashMap<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+            pstmt.setString(1, metric);
+            pstmt.setString(2, RollupGranularity.DAY.bucketKey(from));
+            pstmt.setString(3, to.toString());
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                totals.put(rs.getString("dimension"), rs.getLong("total"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return totals;
+    }
+
+    // Number of stored rows of one granularity for a metric (used to check compaction)
+    int countRows(RollupGranularity granularity, String metric) {
+        String query = "SELECT COUNT(*) AS count FROM activity_rollups WHERE granularity = ? AND metric = ?";
+        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+            pstmt.setString(1, granularity.name());
+            pstmt.setString(2, metric);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt("count");
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+}
@@ -1,5 +1,8 @@
 package net.javaguids.lost_and_found.database;
 
+import net.javaguids.lost_and_found.analytics.StatisticsCounters;
+import net.javaguids.lost_and_found.exceptions.DatabaseException;
+import net.javaguids.lost_and_found.exceptions.DuplicateUserException;
 import net.javaguids.lost_and_found.model.users.User;
 import net.javaguids.lost_and_found.model.users.RegularUser;
 import net.javaguids.lost_and_found.model.users.Admin;
@@ -9,6 +12,7 @@ import net.javaguids.lost_and_found.model.enums.UserRole;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Repository class for managing User entities in the database.
@@ -20,29 +24,92 @@ import java.util.List;
  */
 public class UserRepository {
     // Singleton instance - only one UserRepository exists in the application
-    private static UserRepository instance;
+    private static volatile UserRepository instance;
     // Database connection obtained from DatabaseManager
     private final Connection connection;
+    // Connections that writes run on (see WriteConnectionPool)
+    private final WriteConnectionPool writePool;
+    // Identity cache: user ID -> username, kept current by saveUser/updateUser/deleteUser
+    private final ConcurrentHashMap<String, String> usernames = new ConcurrentHashMap<>();
 
     /**
      * Private constructor to enforce Singleton pattern.
      * Initializes the database connection through DatabaseManager.
      */
     private UserRepository() {
-        this.connection = DatabaseManager.getInstance().getConnection();
+        DatabaseManager database = DatabaseManager.getInstance();
+        this.connection = database.getConnection();
+        this.writePool = database.getWritePool();
     }
 
     /**
      * Returns the singleton instance of UserRepository.
-     * Creates a new instance if one doesn't exist (lazy initialization).
+     * Creates a new instance if one doesn't exist (lazy initialization). The field is
+     * volatile and creation is locked, so threads racing on first use share one instance.
      * 
      * @return The single instance of UserRepository
      */
     public static UserRepository getInstance() {
-        if (instance == null) {
-            instance = new UserRepository();
+        UserRepository result = instance;
+        if (result == null) {
+            synchronized (UserRepository.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new UserRepository();
+                }
+            }
         }
-        return instance;
+        return result;
+    }
+
+    /**
+     * Connection for the read methods: the pooled read connection bound to this thread when
+     * running inside ReadConnectionPool.withConnection(), otherwise the shared connection.
+     */
+    private Connection readConnection() {
+        return ReadConnectionPool.boundOr(connection);
+    }
+
+    /**
+     * Returns the username for a user ID from the identity cache, reading only the username
+     * column on a miss. Used when writing activity logs, so logging never loads a whole user.
+     * The pseudo-user "SYSTEM" maps to itself.
+     *
+     * @param userId The unique identifier of the user
+     * @return The username, or null if no such user exists
+     */
+    public String getUsername(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        if (userId.equals("SYSTEM")) {
+            return "SYSTEM";
+        }
+        String cached = usernames.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        String query = "SELECT username FROM users WHERE user_id = ?";
+        try (PreparedStatement pstmt = readConnection().prepareStatement(query)) {
+            pstmt.setString(1, userId);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                String username = rs.getString("username");
+                usernames.put(userId, username);
+                return username;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Empties the identity cache, for when users were written without going through this
+     * repository (e.g. a bulk import); names are read again on the next lookup.
+     */
+    public void clearUsernameCache() {
+        usernames.clear();
     }
 
     /**
@@ -53,7 +120,7 @@ public class UserRepository {
      */
     public User getUserById(String userId) {
         String query = "SELECT * FROM users WHERE user_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (PreparedStatement pstmt = readConnection().prepareStatement(query)) {
             pstmt.setString(1, userId);
             ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
@@ -74,7 +141,7 @@ public class UserRepository {
      */
     public User getUserByUsername(String username) {
         String query = "SELECT * FROM users WHERE username = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (PreparedStatement pstmt = readConnection().prepareStatement(query)) {
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
@@ -115,18 +182,87 @@ public class UserRepository {
      * @return true if user was successfully saved, false if database operation failed
      */
     public boolean saveUser(User user) {
+        try {
+            createUser(user);
+            return true;
+        } catch (DatabaseException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Inserts a new user, relying on the unique indexes to reject a taken username or email.
+     * The uniqueness check and the insert are one statement, so two concurrent registrations
+     * of the same name cannot both succeed, and no lookup query is needed beforehand.
+     * Usernames and emails are compared ignoring case (see DatabaseInitializer.createIndexes).
+     * 
+     * @param user The User object containing all user information to save
+     * @throws DuplicateUserException if the username or email is already registered
+     * @throws DatabaseException if the insert failed for any other reason
+     */
+    public void createUser(User user) throws DatabaseException {
         String query = "INSERT INTO users (user_id, username, email, password_hash, role, created_at) " +
                       "VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setString(1, user.getUserId());
-            pstmt.setString(2, user.getUsername());
-            pstmt.setString(3, user.getEmail());
-            pstmt.setString(4, user.getPasswordHash());
-            pstmt.setString(5, user.getRole().toString());
-            pstmt.setString(6, user.getCreatedAt().toString());
+        StatisticsCounters counters = StatisticsCounters.getInstance();
+        try {
+            // the counter moves with the insert, as one step for a recount (see StatisticsCounters)
+            counters.counted(() -> {
+                writePool.inTransaction(tx -> {
+                    try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+                        pstmt.setString(1, user.getUserId());
+                        pstmt.setString(2, user.getUsername());
+                        pstmt.setString(3, user.getEmail());
+                        pstmt.setString(4, user.getPasswordHash());
+                        pstmt.setString(5, user.getRole().toString());
+                        pstmt.setString(6, user.getCreatedAt().toString());
+                        return pstmt.executeUpdate();
+                    }
+                });
+                counters.userAdded();
+                return null;
+            });
+        } catch (SQLException e) {
+            throw translateInsertFailure(e);
+        }
+        usernames.put(user.getUserId(), user.getUsername());
+    }
 
-            pstmt.executeUpdate();
-            return true;
+    /**
+     * Maps a failed user insert to an exception naming the cause. SQLite reports a unique
+     * violation as "UNIQUE constraint failed: users.username" (or users.email), for the
+     * column constraint and for the case-insensitive index alike.
+     */
+    private static DatabaseException translateInsertFailure(SQLException e) {
+        String message = e.getMessage() == null ? "" : e.getMessage();
+        if (message.contains("UNIQUE constraint failed")) {
+            if (message.contains("users.username")) {
+                return new DuplicateUserException("Username already exists", false);
+            }
+            if (message.contains("users.email")) {
+                return new DuplicateUserException("Email already exists", true);
+            }
+        }
+        return new DatabaseException("Failed to save user: " + message);
+    }
+
+    /**
+     * Replaces a user's stored password hash, e.g. when a login upgrades it to the current scheme.
+     * 
+     * @param userId The ID of the user
+     * @param passwordHash The new hash (from PasswordUtil.hashPassword)
+     * @return true if the hash was updated, false if database operation failed
+     */
+    public boolean updatePasswordHash(String userId, String passwordHash) {
+        String query = "UPDATE users SET password_hash = ? WHERE user_id = ?";
+        try {
+            return writePool.inTransaction(tx -> {
+                try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+                    pstmt.setString(1, passwordHash);
+                    pstmt.setString(2, userId);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -146,69 +282,85 @@ public class UserRepository {
      * @return true if user was successfully updated, false if database operation failed
      */
     public boolean updateUser(User user) {
+        StatisticsCounters counters = StatisticsCounters.getInstance();
         try {
-            // Get the old user to check if role changed
-            User oldUser = getUserById(user.getUserId());
-            // Check if user is being promoted from USER to MODERATOR or ADMIN
-            boolean roleChanged = oldUser != null &&
-                                 oldUser.getRole() == UserRole.USER &&
-                                 (user.getRole() == UserRole.MODERATOR || user.getRole() == UserRole.ADMIN);
-
-            // Start transaction if role changed to moderator/admin
-            // This ensures all deletions happen atomically (all or nothing)
-            if (roleChanged) {
-                connection.setAutoCommit(false);
+            // the role check and the writes are one transaction, on a connection of its own
+            // (see WriteConnectionPool), so no other write can land in between
+            boolean roleChanged = counters.counted(() -> {
+                boolean promoted = writePool.inTransaction(tx -> {
+                    // Check if user is being promoted from USER to MODERATOR or ADMIN
+                    UserRole oldRole = getRole(tx, user.getUserId());
+                    boolean promotion = oldRole == UserRole.USER &&
+                                        (user.getRole() == UserRole.MODERATOR || user.getRole() == UserRole.ADMIN);
 
-                // Delete user's items when promoted to moderator/admin
-                // Moderators and admins shouldn't have personal lost/found items
-                String deleteItems = "DELETE FROM items WHERE posted_by_user_id = ?";
-                try (PreparedStatement pstmt = connection.prepareStatement(deleteItems)) {
-                    pstmt.setString(1, user.getUserId());
-                    pstmt.executeUpdate();
-                }
+                    if (promotion) {
+                        // Delete user's items when promoted to moderator/admin
+                        // Moderators and admins shouldn't have personal lost/found items
+                        String deleteItems = "DELETE FROM items WHERE posted_by_user_id = ?";
+                        try (PreparedStatement pstmt = tx.prepareStatement(deleteItems)) {
+                            pstmt.setString(1, user.getUserId());
+                            pstmt.executeUpdate();
+                        }
 
-                // Delete user's messages when promoted to moderator/admin
-                // Clean up personal messages when role changes
-                String deleteMessages = "DELETE FROM messages WHERE sender_id = ? OR receiver_id = ?";
-                try (PreparedStatement pstmt = connection.prepareStatement(deleteMessages)) {
-                    pstmt.setString(1, user.getUserId());
-                    pstmt.setString(2, user.getUserId());
-                    pstmt.executeUpdate();
-                }
-            }
+                        // Delete user's messages when promoted to moderator/admin
+                        // Clean up personal messages when role changes
+                        String deleteMessages = "DELETE FROM messages WHERE sender_id = ? OR receiver_id = ?";
+                        try (PreparedStatement pstmt = tx.prepareStatement(deleteMessages)) {
+                            pstmt.setString(1, user.getUserId());
+                            pstmt.setString(2, user.getUserId());
+                            pstmt.executeUpdate();
+                        }
+                    }
 
-            // Update user information in the database
-            String query = "UPDATE users SET username = ?, email = ?, password_hash = ?, role = ? WHERE user_id = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-                pstmt.setString(1, user.getUsername());
-                pstmt.setString(2, user.getEmail());
-                pstmt.setString(3, user.getPasswordHash());
-                pstmt.setString(4, user.getRole().toString());
-                pstmt.setString(5, user.getUserId());
+                    // Update user information in the database
+                    String query = "UPDATE users SET username = ?, email = ?, password_hash = ?, role = ? WHERE user_id = ?";
+                    try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+                        pstmt.setString(1, user.getUsername());
+                        pstmt.setString(2, user.getEmail());
+                        pstmt.setString(3, user.getPasswordHash());
+                        pstmt.setString(4, user.getRole().toString());
+                        pstmt.setString(5, user.getUserId());
 
-                pstmt.executeUpdate();
-            }
+                        pstmt.executeUpdate();
+                    }
+                    return promotion;
+                });
+                if (promoted) {
+                    // many rows changed at once; recount statistics on the next read
+                    counters.invalidate();
+                }
+                return promoted;
+            });
 
-            // Commit transaction if role changed (saves all changes atomically)
             if (roleChanged) {
-                connection.commit();
-                connection.setAutoCommit(true);
+                // the user's items were removed, so cached item searches are stale
+                ItemRepository.getInstance().markItemsChanged();
             }
+            // the username may have changed; update the cache only once the change is committed
+            usernames.put(user.getUserId(), user.getUsername());
 
             return true;
         } catch (SQLException e) {
-            // Rollback transaction on error to maintain data consistency
-            try {
-                connection.rollback();
-                connection.setAutoCommit(true);
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
+            // the transaction was rolled back, so nothing changed
             e.printStackTrace();
             return false;
         }
     }
 
+    /**
+     * Reads a user's stored role on the given connection, e.g. inside a transaction.
+     *
+     * @return The role, or null if no such user exists
+     */
+    private static UserRole getRole(Connection source, String userId) throws SQLException {
+        String query = "SELECT role FROM users WHERE user_id = ?";
+        try (PreparedStatement pstmt = source.prepareStatement(query)) {
+            pstmt.setString(1, userId);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? UserRole.valueOf(rs.getString("role")) : null;
+        }
+    }
+
     /**
      * Deletes a user from the database and all associated data.
      * 
@@ -224,50 +376,51 @@ public class UserRepository {
      * @return true if user was successfully deleted, false if database operation failed
      */
     public boolean deleteUser(String userId) {
+        StatisticsCounters counters = StatisticsCounters.getInstance();
         try {
-            // Start transaction
-            connection.setAutoCommit(false);
+            counters.counted(() -> {
+                writePool.inTransaction(tx -> {
+                    // Delete user's messages (both sent and received)
+                    String deleteMessages = "DELETE FROM messages WHERE sender_id = ? OR receiver_id = ?";
+                    try (PreparedStatement pstmt = tx.prepareStatement(deleteMessages)) {
+                        pstmt.setString(1, userId);
+                        pstmt.setString(2, userId);
+                        pstmt.executeUpdate();
+                    }
 
-            // Delete user's messages (both sent and received)
-            String deleteMessages = "DELETE FROM messages WHERE sender_id = ? OR receiver_id = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(deleteMessages)) {
-                pstmt.setString(1, userId);
-                pstmt.setString(2, userId);
-                pstmt.executeUpdate();
-            }
+                    // Delete user's items
+                    String deleteItems = "DELETE FROM items WHERE posted_by_user_id = ?";
+                    try (PreparedStatement pstmt = tx.prepareStatement(deleteItems)) {
+                        pstmt.setString(1, userId);
+                        pstmt.executeUpdate();
+                    }
 
-            // Delete user's items
-            String deleteItems = "DELETE FROM items WHERE posted_by_user_id = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(deleteItems)) {
-                pstmt.setString(1, userId);
-                pstmt.executeUpdate();
-            }
+                    // Delete activity logs for this user
+                    String deleteLogs = "DELETE FROM activity_logs WHERE user_id = ?";
+                    try (PreparedStatement pstmt = tx.prepareStatement(deleteLogs)) {
+                        pstmt.setString(1, userId);
+                        pstmt.executeUpdate();
+                    }
 
-            // Delete activity logs for this user
-            String deleteLogs = "DELETE FROM activity_logs WHERE user_id = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(deleteLogs)) {
-                pstmt.setString(1, userId);
-                pstmt.executeUpdate();
-            }
-
-            // Finally delete the user
-            String deleteUser = "DELETE FROM users WHERE user_id = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(deleteUser)) {
-                pstmt.setString(1, userId);
-                pstmt.executeUpdate();
-            }
+                    // Finally delete the user
+                    String deleteUser = "DELETE FROM users WHERE user_id = ?";
+                    try (PreparedStatement pstmt = tx.prepareStatement(deleteUser)) {
+                        pstmt.setString(1, userId);
+                        pstmt.executeUpdate();
+                    }
+                    return null;
+                });
+                // many rows changed at once; recount statistics on the next read
+                counters.invalidate();
+                return null;
+            });
 
-            // Commit transaction
-            connection.commit();
-            connection.setAutoCommit(true);
+            usernames.remove(userId);
+            // the user's items were removed, so cached item searches are stale
+            ItemRepository.getInstance().markItemsChanged();
             return true;
         } catch (SQLException e) {
-            try {
-                connection.rollback();
-                connection.setAutoCommit(true);
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
+            // the transaction was rolled back, so nothing was deleted
             e.printStackTrace();
             return false;
         }
@@ -282,7 +435,7 @@ public class UserRepository {
     public List<User> getAllUsers() {
         List<User> users = new ArrayList<>();
         String query = "SELECT * FROM users";
-        try (Statement stmt = connection.createStatement();
+        try (Statement stmt = readConnection().createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
                 users.add(extractUserFromResultSet(rs));
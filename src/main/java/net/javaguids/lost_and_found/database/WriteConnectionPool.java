@@ -0,0 +1,183 @@
+package net.javaguids.lost_and_found.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+// Connections that writes run on. Every write, a single statement or several that must commit
+// together, runs in a transaction on a connection of its own from this pool, started with
+// BEGIN IMMEDIATE: that takes SQLite's write lock up front, so a second writer waits for the
+// commit (busy_timeout) instead of failing half-way or landing inside someone else's transaction.
+// SQLite still lets one transaction write at a time, but no lock in the application is held while
+// it does, and the shared connection only reads, so it never waits for a writer either.
+//
+// inTransaction() binds the connection to the calling thread until it commits or rolls back;
+// repository methods called inside it pick it up through boundOr() and join the transaction
+// (and read what it has written so far). Connections are opened on first use, up to the pool
+// size, and kept until close().
+public class WriteConnectionPool {
+    // System property that overrides the number of write connections
+    public static final String SIZE_PROPERTY = "lostandfound.db.writers";
+    // How long a write waits for another connection's transaction before it fails
+    public static final int BUSY_TIMEOUT_MILLIS = 10_000;
+
+    // Work run with a write connection; besides SQLException it may throw its own checked exception
+    @FunctionalInterface
+    public interface ConnectionWork<T, E extends Exception> {
+        T run(Connection connection) throws E, SQLException;
+    }
+
+    private static final ThreadLocal<Connection> BOUND = new ThreadLocal<>();
+
+    private final String url;
+    private final Semaphore permits;
+    private final ConcurrentLinkedQueue<Connection> idle = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    public WriteConnectionPool(String url, int size) {
+        this.url = url;
+        this.permits = new Semaphore(size, true);
+    }
+
+    // Runs the work in a transaction on a pooled connection: commits if it returns, rolls back if
+    // it throws. Work already running in a transaction joins it (it commits with the outer one).
+    public <T, E extends Exception> T inTransaction(ConnectionWork<T, E> work) throws E, SQLException {
+        Connection bound = BOUND.get();
+        if (bound != null) {
+            return work.run(bound);
+        }
+        acquire();
+        Connection connection = null;
+        boolean clean = false;
+        try {
+            connection = borrow();
+            execute(connection, "BEGIN IMMEDIATE");
+            BOUND.set(connection);
+            try {
+                T result = work.run(connection);
+                execute(connection, "COMMIT");
+                clean = true;
+                return result;
+            } finally {
+                BOUND.remove();
+                if (!clean) {
+                    clean = rollback(connection);
+                }
+            }
+        } finally {
+            if (connection != null) {
+                if (clean) {
+                    release(connection);
+                } else {
+                    // BEGIN failed or the transaction could not be ended: don't hand it out again
+                    closeQuietly(connection);
+                }
+            }
+            permits.release();
+        }
+    }
+
+    // Runs the work with a pooled connection outside any transaction and without binding it, for
+    // statements that cannot run in one (e.g. a checkpoint). Waits for a connection if all are in use.
+    public <T, E extends Exception> T withConnection(ConnectionWork<T, E> work) throws E, SQLException {
+        acquire();
+        Connection connection = null;
+        try {
+            connection = borrow();
+            return work.run(connection);
+        } finally {
+            if (connection != null) {
+                release(connection);
+            }
+            permits.release();
+        }
+    }
+
+    // The transaction's connection bound to the calling thread, or `fallback` outside inTransaction()
+    public static Connection boundOr(Connection fallback) {
+        Connection bound = BOUND.get();
+        return bound != null ? bound : fallback;
+    }
+
+    // Whether the calling thread is inside inTransaction()
+    public static boolean inTransaction() {
+        return BOUND.get() != null;
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a write connection", e);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private static boolean rollback(Connection connection) {
+        try {
+            execute(connection, "ROLLBACK");
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Write connection pool is closed");
+        }
+        Connection connection = idle.poll();
+        return connection != null ? connection : open();
+    }
+
+    private Connection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA synchronous = NORMAL");
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    private void release(Connection connection) {
+        if (closed) {
+            closeQuietly(connection);
+            return;
+        }
+        idle.offer(connection);
+        // close() may have drained the queue between the check and the offer
+        if (closed && idle.remove(connection)) {
+            closeQuietly(connection);
+        }
+    }
+
+    // Closes the idle connections; the ones in use are closed when their transaction ends
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            closeQuietly(connection);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
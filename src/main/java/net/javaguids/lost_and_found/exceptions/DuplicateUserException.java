@@ -0,0 +1,16 @@
+package net.javaguids.lost_and_found.exceptions;
+
+// Thrown when a new user would share a username or email (ignoring case) with an existing one
+public class DuplicateUserException extends DatabaseException {
+    private final boolean emailTaken;
+
+    public DuplicateUserException(String message, boolean emailTaken) {
+        super(message);
+        this.emailTaken = emailTaken;
+    }
+
+    // true if the email was taken, false if the username was
+    public boolean isEmailTaken() {
+        return emailTaken;
+    }
+}
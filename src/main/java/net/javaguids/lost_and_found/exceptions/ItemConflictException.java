@@ -0,0 +1,16 @@
+package net.javaguids.lost_and_found.exceptions;
+
+// Thrown when an item was changed by someone else after it was read, so saving this copy would
+// overwrite their change. Re-read the item and apply the change again (see ItemService.modifyItem).
+public class ItemConflictException extends DatabaseException {
+    private final String itemId;
+
+    public ItemConflictException(String itemId) {
+        super("Item was changed by someone else: " + itemId);
+        this.itemId = itemId;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+}
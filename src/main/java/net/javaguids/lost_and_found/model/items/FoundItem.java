@@ -21,6 +21,11 @@ public class FoundItem extends Item {
         return ItemType.FOUND;
     }
 
+    @Override
+    public LocalDateTime getDateLostFound() {
+        return dateFound;
+    }
+
     public LocalDateTime getDateFound() {
         return dateFound;
     }
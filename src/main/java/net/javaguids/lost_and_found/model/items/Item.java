@@ -3,6 +3,7 @@ package net.javaguids.lost_and_found.model.items;
 import net.javaguids.lost_and_found.model.enums.ItemStatus;
 import net.javaguids.lost_and_found.model.enums.ItemType;
 import net.javaguids.lost_and_found.model.interfaces.Searchable;
+import net.javaguids.lost_and_found.search.LocationPath;
 import net.javaguids.lost_and_found.search.SearchCriteria;
 import java.time.LocalDateTime;
 
@@ -17,6 +18,8 @@ public abstract class Item implements Searchable {
     protected ItemStatus status;
     protected String postedByUserId;
     protected String imagePath;
+    // Version of the stored row this copy was read at; an update only succeeds if it is unchanged
+    protected long version;
 
     // Constructor to initialize an item with required fields
     // Automatically sets datePosted to current time and status to ACTIVE
@@ -36,6 +39,10 @@ public abstract class Item implements Searchable {
     // Must be implemented by subclasses
     public abstract ItemType getType();
 
+    // Returns the date the item was lost (LostItem) or found (FoundItem)
+    // Used by date-range searches
+    public abstract LocalDateTime getDateLostFound();
+
     // Getters and setters for item properties
     public String getItemId() {
         return itemId;
@@ -77,6 +84,11 @@ public abstract class Item implements Searchable {
         return datePosted;
     }
 
+    // Restores the original posting time when an item is loaded from storage
+    public void setDatePosted(LocalDateTime datePosted) {
+        this.datePosted = datePosted;
+    }
+
     public ItemStatus getStatus() {
         return status;
     }
@@ -97,6 +109,15 @@ public abstract class Item implements Searchable {
         this.imagePath = imagePath;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    // Set when the item is loaded from storage, and after each successful update
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // Checks if this item matches the given search criteria
     // Returns true if the item matches all non-null criteria fields
     // If criteria is null, returns true (matches everything)
@@ -131,6 +152,13 @@ public abstract class Item implements Searchable {
             }
         }
 
+        // Check if the location lies in the requested part of the hierarchy (e.g. anywhere in a building)
+        if (criteria.getLocationPath() != null) {
+            if (!LocationPath.parse(location).isWithin(LocationPath.parse(criteria.getLocationPath()))) {
+                return false;
+            }
+        }
+
         // Check if item type matches
         if (criteria.getType() != null) {
             if (getType() != criteria.getType()) {
@@ -138,6 +166,20 @@ public abstract class Item implements Searchable {
             }
         }
 
+        // Check if the date lost/found falls inside the requested range (both ends inclusive)
+        if (criteria.getDateFrom() != null || criteria.getDateTo() != null) {
+            LocalDateTime date = getDateLostFound();
+            if (date == null) {
+                return false;
+            }
+            if (criteria.getDateFrom() != null && date.isBefore(criteria.getDateFrom())) {
+                return false;
+            }
+            if (criteria.getDateTo() != null && date.isAfter(criteria.getDateTo())) {
+                return false;
+            }
+        }
+
         // All criteria matched
         return true;
     }
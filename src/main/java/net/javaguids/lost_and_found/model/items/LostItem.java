@@ -22,6 +22,11 @@ public class LostItem extends Item {
         return ItemType.LOST;
     }
 
+    @Override
+    public LocalDateTime getDateLostFound() {
+        return dateLost;
+    }
+
     public LocalDateTime getDateLost() {
         return dateLost;
     }
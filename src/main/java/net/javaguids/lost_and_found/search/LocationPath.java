@@ -0,0 +1,101 @@
+package net.javaguids.lost_and_found.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// A location split into a hierarchy, most general part first: campus > building > room.
+// Free text such as "North Campus, Science Building / Room 12" is split on '>', '/', ',' and '|',
+// trimmed and whitespace-collapsed, giving "North Campus > Science Building > Room 12".
+//
+// Every path has a key ("north campus/science building/room 12") that is stored in the
+// indexed items.location_path column. All locations under a path have keys that are equal to
+// it or start with it plus '/', so "anything in building X" is one range scan over the index.
+public final class LocationPath {
+    // campus > building > room; anything deeper is folded into the last level
+    public static final int MAX_DEPTH = 3;
+    public static final String DISPLAY_SEPARATOR = " > ";
+    public static final char KEY_SEPARATOR = '/';
+
+    private final List<String> segments;
+    private final String key;
+
+    private LocationPath(List<String> segments) {
+        this.segments = Collections.unmodifiableList(segments);
+        this.key = String.join(String.valueOf(KEY_SEPARATOR), segments).toLowerCase();
+    }
+
+    // Parses free-text location input. Null or blank input gives the empty (root) path.
+    public static LocationPath parse(String location) {
+        List<String> segments = new ArrayList<>();
+        if (location != null) {
+            for (String part : location.split("[>/,|]")) {
+                String segment = part.trim().replaceAll("\\s+", " ");
+                if (!segment.isEmpty()) {
+                    segments.add(segment);
+                }
+            }
+        }
+        // fold anything below room level into the room, e.g. "Room 12 > Desk 3" -> "Room 12 Desk 3"
+        while (segments.size() > MAX_DEPTH) {
+            String last = segments.remove(segments.size() - 1);
+            segments.set(segments.size() - 1, segments.get(segments.size() - 1) + " " + last);
+        }
+        return new LocationPath(segments);
+    }
+
+    // Normalized form shown to users and stored in items.location
+    public String toDisplayString() {
+        return String.join(DISPLAY_SEPARATOR, segments);
+    }
+
+    // Case-insensitive key stored in items.location_path
+    public String getKey() {
+        return key;
+    }
+
+    public List<String> getSegments() {
+        return segments;
+    }
+
+    public int getDepth() {
+        return segments.size();
+    }
+
+    public boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    // True if this location is the given one or anywhere below it
+    public boolean isWithin(LocationPath ancestor) {
+        if (ancestor.isEmpty()) {
+            return true;
+        }
+        return key.equals(ancestor.key) || key.startsWith(getSubtreeLowerBound(ancestor.key));
+    }
+
+    // Keys strictly below `key` fall in [getSubtreeLowerBound(key), getSubtreeUpperBound(key)),
+    // because '0' is the character right after '/'
+    public static String getSubtreeLowerBound(String key) {
+        return key + KEY_SEPARATOR;
+    }
+
+    public static String getSubtreeUpperBound(String key) {
+        return key + (char) (KEY_SEPARATOR + 1);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof LocationPath && key.equals(((LocationPath) o).key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toDisplayString();
+    }
+}
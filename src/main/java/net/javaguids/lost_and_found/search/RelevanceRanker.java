@@ -0,0 +1,134 @@
+package net.javaguids.lost_and_found.search;
+
+import net.javaguids.lost_and_found.model.enums.ItemStatus;
+import net.javaguids.lost_and_found.model.items.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Scores items against a search and keeps only the best K of them.
+//
+// Score = term frequency weighted by field (title > description > location)
+//       + a recency bonus that halves every week since the item was posted
+//       + a flat boost for items that are still ACTIVE.
+//
+// Items are offered one at a time and kept in a min-heap of size K, so ranking n matches
+// costs O(n log K) and only K items are held in memory instead of sorting the full result.
+public class RelevanceRanker {
+    // Field weights for each occurrence of a search term
+    static final double TITLE_WEIGHT = 3.0;
+    static final double DESCRIPTION_WEIGHT = 2.0;
+    static final double LOCATION_WEIGHT = 1.0;
+
+    // Recency bonus for an item posted right now, halved every RECENCY_HALF_LIFE_DAYS
+    static final double RECENCY_WEIGHT = 2.0;
+    static final double RECENCY_HALF_LIFE_DAYS = 7.0;
+
+    // Flat bonus for items that can still be claimed
+    static final double ACTIVE_BOOST = 1.5;
+
+    // Lowest score first, ties broken so that the older item is evicted first
+    private static final Comparator<ScoredItem> HEAP_ORDER =
+            Comparator.comparingDouble(ScoredItem::getScore)
+                    .thenComparing(scored -> scored.getItem().getDatePosted(),
+                            Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final String[] terms;
+    private final LocalDateTime now;
+    private final int limit;
+    private final PriorityQueue<ScoredItem> heap;
+    private int offeredCount;
+
+    public RelevanceRanker(SearchCriteria criteria, LocalDateTime now, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        this.terms = extractTerms(criteria);
+        this.now = now;
+        this.limit = limit;
+        this.heap = new PriorityQueue<>(limit + 1, HEAP_ORDER);
+    }
+
+    // Splits the criteria keywords into lower-case search terms
+    private static String[] extractTerms(SearchCriteria criteria) {
+        if (criteria == null || criteria.getKeywords() == null || criteria.getKeywords().trim().isEmpty()) {
+            return new String[0];
+        }
+        return criteria.getKeywords().trim().toLowerCase().split("\\s+");
+    }
+
+    // Scores the item and keeps it if it is among the best K seen so far
+    public void offer(Item item) {
+        offeredCount++;
+        double score = score(item);
+        if (heap.size() < limit) {
+            heap.add(new ScoredItem(item, score));
+            return;
+        }
+        // replace the weakest kept item only if the candidate beats it
+        ScoredItem candidate = new ScoredItem(item, score);
+        if (HEAP_ORDER.compare(candidate, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(candidate);
+        }
+    }
+
+    // Returns the kept items, best first. Only K items are sorted here.
+    public List<ScoredItem> getResults() {
+        List<ScoredItem> results = new ArrayList<>(heap);
+        results.sort(HEAP_ORDER.reversed());
+        return results;
+    }
+
+    // Number of items offered to the ranker (the size of the candidate set)
+    public int getOfferedCount() {
+        return offeredCount;
+    }
+
+    // Computes the relevance score of one item for this search
+    public double score(Item item) {
+        double score = 0.0;
+        if (terms.length > 0) {
+            String title = lower(item.getTitle());
+            String description = lower(item.getDescription());
+            String location = lower(item.getLocation());
+            for (String term : terms) {
+                score += TITLE_WEIGHT * countOccurrences(title, term);
+                score += DESCRIPTION_WEIGHT * countOccurrences(description, term);
+                score += LOCATION_WEIGHT * countOccurrences(location, term);
+            }
+        }
+
+        if (item.getDatePosted() != null) {
+            double ageDays = Math.max(0, Duration.between(item.getDatePosted(), now).toMinutes()) / (60.0 * 24.0);
+            score += RECENCY_WEIGHT * Math.pow(0.5, ageDays / RECENCY_HALF_LIFE_DAYS);
+        }
+
+        if (item.getStatus() == ItemStatus.ACTIVE) {
+            score += ACTIVE_BOOST;
+        }
+        return score;
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+
+    // Counts non-overlapping occurrences of term in text
+    static int countOccurrences(String text, String term) {
+        if (term.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        int index = text.indexOf(term);
+        while (index >= 0) {
+            count++;
+            index = text.indexOf(term, index + term.length());
+        }
+        return count;
+    }
+}
@@ -0,0 +1,27 @@
+package net.javaguids.lost_and_found.search;
+
+import net.javaguids.lost_and_found.model.items.Item;
+
+// An item together with the relevance score it got for a particular search
+public class ScoredItem {
+    private final Item item;
+    private final double score;
+
+    public ScoredItem(Item item, double score) {
+        this.item = item;
+        this.score = score;
+    }
+
+    public Item getItem() {
+        return item;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.2f %s", score, item);
+    }
+}
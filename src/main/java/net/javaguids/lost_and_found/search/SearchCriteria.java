@@ -8,6 +8,8 @@ public class SearchCriteria {
     private String keywords;
     private String category;
     private String location;
+    // Hierarchical location filter: matches this location and everything below it
+    private String locationPath;
     private ItemType type;
     private LocalDateTime dateFrom;
     private LocalDateTime dateTo;
@@ -17,9 +19,28 @@ public class SearchCriteria {
     }
 
     // Validates that at least one search criterion is provided
-    // Returns true if at least one of keywords, category, location, or type is set
+    // Returns true if at least one of keywords, category, location, location path, or type is set
     public boolean validate() {
-        return keywords != null || category != null || location != null || type != null;
+        return keywords != null || category != null || location != null || locationPath != null || type != null;
+    }
+
+    // Builds a normalized key for this criteria so that equivalent searches
+    // ("Phone", "phone", "PHONE") share one entry in the search result cache.
+    // Only differences that Item.matches() ignores are folded: letter case of the
+    // keywords and location, and empty strings, which count as unset fields.
+    public String toCacheKey() {
+        return "k=" + normalize(keywords) +
+               "|c=" + (category == null || category.isEmpty() ? "" : category) +
+               "|l=" + normalize(location) +
+               "|lp=" + (locationPath == null ? "" : LocationPath.parse(locationPath).getKey()) +
+               "|t=" + (type == null ? "" : type.name()) +
+               "|f=" + (dateFrom == null ? "" : dateFrom.toString()) +
+               "|to=" + (dateTo == null ? "" : dateTo.toString());
+    }
+
+    // Lower-cases a free-text field, returning "" for null values
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase();
     }
 
     // Getters and setters for search criteria fields
@@ -47,6 +68,14 @@ public class SearchCriteria {
         this.location = location;
     }
 
+    public String getLocationPath() {
+        return locationPath;
+    }
+
+    public void setLocationPath(String locationPath) {
+        this.locationPath = locationPath;
+    }
+
     public ItemType getType() {
         return type;
     }
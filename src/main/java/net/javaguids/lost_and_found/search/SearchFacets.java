@@ -0,0 +1,105 @@
+package net.javaguids.lost_and_found.search;
+
+import net.javaguids.lost_and_found.model.enums.ItemStatus;
+import net.javaguids.lost_and_found.model.enums.ItemType;
+import net.javaguids.lost_and_found.model.items.Item;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Facet counts (category, location, type and status) for one set of search results.
+// Counters are bumped as each result is accepted, so the facets come out of the same
+// pass that builds the result list instead of a second scan over the items.
+public class SearchFacets {
+    private final Map<String, Integer> categoryCounts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Integer> locationCounts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<ItemType, Integer> typeCounts = new EnumMap<>(ItemType.class);
+    private final Map<ItemStatus, Integer> statusCounts = new EnumMap<>(ItemStatus.class);
+    private int totalCount;
+
+    // Counts one result item towards every facet
+    public void add(Item item) {
+        if (item == null) {
+            return;
+        }
+        increment(categoryCounts, item.getCategory());
+        increment(locationCounts, item.getLocation());
+        if (item.getType() != null) {
+            typeCounts.merge(item.getType(), 1, Integer::sum);
+        }
+        if (item.getStatus() != null) {
+            statusCounts.merge(item.getStatus(), 1, Integer::sum);
+        }
+        totalCount++;
+    }
+
+    // Blank values are not counted so the facet lists only show real filter options
+    private static void increment(Map<String, Integer> counts, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return;
+        }
+        counts.merge(value.trim(), 1, Integer::sum);
+    }
+
+    public Map<String, Integer> getCategoryCounts() {
+        return Collections.unmodifiableMap(categoryCounts);
+    }
+
+    public Map<String, Integer> getLocationCounts() {
+        return Collections.unmodifiableMap(locationCounts);
+    }
+
+    public Map<ItemType, Integer> getTypeCounts() {
+        return Collections.unmodifiableMap(typeCounts);
+    }
+
+    public Map<ItemStatus, Integer> getStatusCounts() {
+        return Collections.unmodifiableMap(statusCounts);
+    }
+
+    public int getCategoryCount(String category) {
+        return category == null ? 0 : categoryCounts.getOrDefault(category, 0);
+    }
+
+    public int getTypeCount(ItemType type) {
+        return typeCounts.getOrDefault(type, 0);
+    }
+
+    public int getStatusCount(ItemStatus status) {
+        return statusCounts.getOrDefault(status, 0);
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    // Formats the facets for display, e.g. "Category: Keys (2), Wallets (1) | Type: LOST (3)"
+    public String generateSummary() {
+        StringBuilder summary = new StringBuilder();
+        appendFacet(summary, "Category", categoryCounts);
+        appendFacet(summary, "Location", locationCounts);
+        appendFacet(summary, "Type", typeCounts);
+        appendFacet(summary, "Status", statusCounts);
+        return summary.toString();
+    }
+
+    private static void appendFacet(StringBuilder summary, String name, Map<?, Integer> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        if (summary.length() > 0) {
+            summary.append(" | ");
+        }
+        summary.append(name).append(": ");
+        boolean first = true;
+        for (Map.Entry<?, Integer> entry : counts.entrySet()) {
+            if (!first) {
+                summary.append(", ");
+            }
+            summary.append(entry.getKey()).append(" (").append(entry.getValue()).append(")");
+            first = false;
+        }
+    }
+}
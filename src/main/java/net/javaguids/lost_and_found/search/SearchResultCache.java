@@ -0,0 +1,154 @@
+package net.javaguids.lost_and_found.search;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Bounded LRU cache of search results, keyed by SearchCriteria.toCacheKey().
+// Only item IDs are cached (items are mutable and shared with the UI), the caller
+// reloads the rows by primary key on a hit instead of scanning the whole items table.
+//
+// Invalidation uses the item write generation kept by ItemRepository: every entry remembers
+// the generation it was filled at, and any insert/update/delete bumps the generation,
+// so entries filled before a write are never served after it.
+// Uses singleton pattern so every ItemService shares the same cache.
+public class SearchResultCache {
+    // Maximum number of distinct searches kept in memory
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    // Rough per-reference and per-ID sizes used for the memory estimate
+    private static final long ENTRY_OVERHEAD_BYTES = 96;
+    private static final long ID_REFERENCE_BYTES = 8;
+    private static final long STRING_OVERHEAD_BYTES = 40;
+
+    private static volatile SearchResultCache instance;
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, CacheEntry> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long staleDrops;
+
+    // One cached search: the matching IDs in result order and the generation they were read at
+    private static class CacheEntry {
+        final List<String> itemIds;
+        final long generation;
+        final long estimatedBytes;
+
+        CacheEntry(String key, List<String> itemIds, long generation) {
+            this.itemIds = itemIds;
+            this.generation = generation;
+            this.estimatedBytes = estimateBytes(key, itemIds);
+        }
+    }
+
+    public SearchResultCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        // access-order LinkedHashMap gives LRU eviction for free
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                if (size() > SearchResultCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static SearchResultCache getInstance() {
+        SearchResultCache result = instance;
+        if (result == null) {
+            synchronized (SearchResultCache.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new SearchResultCache(DEFAULT_MAX_ENTRIES);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Returns the cached item IDs for the key, or null on a miss.
+    // An entry filled before the current write generation is dropped and counted as a miss.
+    public synchronized List<String> get(String key, long currentGeneration) {
+        CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.generation != currentGeneration) {
+            entries.remove(key);
+            staleDrops++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.itemIds;
+    }
+
+    // Stores the IDs of a search result. The generation must be read BEFORE running the
+    // query, so a write that lands while the query runs makes this entry stale immediately.
+    public synchronized void put(String key, List<String> itemIds, long generation) {
+        entries.put(key, new CacheEntry(key, Collections.unmodifiableList(itemIds), generation));
+    }
+
+    // Drops every cached search
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getStaleDrops() {
+        return staleDrops;
+    }
+
+    // Fraction of lookups answered from the cache (0.0 when nothing was looked up yet)
+    public synchronized double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    // Approximate heap used by the cached keys and ID lists
+    public synchronized long getEstimatedMemoryBytes() {
+        long total = 0;
+        for (CacheEntry entry : entries.values()) {
+            total += entry.estimatedBytes;
+        }
+        return total;
+    }
+
+    // Formats the cache metrics for logs or the admin dashboard
+    public synchronized String generateReport() {
+        return String.format("Search cache: %d/%d entries, hit ratio %.1f%% (%d hits, %d misses), " +
+                        "%d evictions, %d stale, ~%d KB",
+                entries.size(), maxEntries, getHitRatio() * 100, hits, misses,
+                evictions, staleDrops, getEstimatedMemoryBytes() / 1024);
+    }
+
+    private static long estimateBytes(String key, List<String> itemIds) {
+        long bytes = ENTRY_OVERHEAD_BYTES + STRING_OVERHEAD_BYTES + 2L * key.length();
+        for (String id : itemIds) {
+            bytes += ID_REFERENCE_BYTES + STRING_OVERHEAD_BYTES + (id == null ? 0 : id.length());
+        }
+        return bytes;
+    }
+}
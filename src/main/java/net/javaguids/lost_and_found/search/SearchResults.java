@@ -0,0 +1,28 @@
+package net.javaguids.lost_and_found.search;
+
+import net.javaguids.lost_and_found.model.items.Item;
+
+import java.util.List;
+
+// Result of a faceted search: the matching items plus the facet counts for exactly those items
+public class SearchResults {
+    private final List<Item> items;
+    private final SearchFacets facets;
+
+    public SearchResults(List<Item> items, SearchFacets facets) {
+        this.items = items;
+        this.facets = facets;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public SearchFacets getFacets() {
+        return facets;
+    }
+
+    public int size() {
+        return items.size();
+    }
+}
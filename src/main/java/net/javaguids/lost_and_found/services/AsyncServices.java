@@ -0,0 +1,285 @@
+package net.javaguids.lost_and_found.services;
+
+import javafx.application.Platform;
+import net.javaguids.lost_and_found.analytics.LatencySketch;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+// Runs service and repository calls (ItemService, MessageService, AuthService, ...) off the
+// JavaFX Application Thread, so a slow query never freezes the window.
+//
+// supply() runs the work on a virtual thread (one per call: the work mostly waits on JDBC,
+// which costs a virtual thread almost nothing) and returns a CompletableFuture. load() does the
+// same and hands the result, or the error, back on the FX thread through Platform.runLater.
+// Every call has a timeout (DEFAULT_TIMEOUT unless given). Cancelling the future, or the timeout
+// firing, interrupts the worker and drops the UI callback, so a view can cancel its previous
+// load before starting the next one. Calls are timed per name (see generateSummary()).
+//
+// Work that writes goes through supplyWrite()/write() instead: those run on one writer thread, in
+// the order they were submitted. SQLite takes one write transaction at a time anyway (see
+// WriteConnectionPool); queuing writes here keeps them in order and stops them from piling up as
+// virtual threads waiting for its write lock. Reads still fan out.
+//
+// load() and write() called from any thread other than the FX thread (tests, background jobs) run
+// the work inline: that thread is not drawing the UI, and its callbacks have run when they return.
+// Uses singleton pattern so every controller shares the executors and the metrics.
+public class AsyncServices {
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    // How long shutdown() lets calls in progress (e.g. a message being sent) finish
+    private static final long SHUTDOWN_WAIT_SECONDS = 5;
+
+    private static volatile AsyncServices instance;
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("async-service-", 0).factory());
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("async-writer").factory());
+    private final ConcurrentHashMap<String, CallStats> stats = new ConcurrentHashMap<>();
+
+    AsyncServices() {
+    }
+
+    public static AsyncServices getInstance() {
+        AsyncServices result = instance;
+        if (result == null) {
+            synchronized (AsyncServices.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new AsyncServices();
+                }
+            }
+        }
+        return result;
+    }
+
+    // Runs the work on a virtual thread; `name` groups the call in the metrics ("items.search")
+    public <T> CompletableFuture<T> supply(String name, Callable<T> work) {
+        return supply(name, work, DEFAULT_TIMEOUT);
+    }
+
+    public <T> CompletableFuture<T> supply(String name, Callable<T> work, Duration timeout) {
+        return submit(executor, name, work, timeout);
+    }
+
+    // Like supply(), for work that writes: runs on the writer thread, after the writes before it
+    public <T> CompletableFuture<T> supplyWrite(String name, Callable<T> work) {
+        return submit(writer, name, work, DEFAULT_TIMEOUT);
+    }
+
+    private <T> CompletableFuture<T> submit(ExecutorService pool, String name, Callable<T> work,
+                                            Duration timeout) {
+        CompletableFuture<T> outcome = new CompletableFuture<>();
+        long start = System.nanoTime();
+        Future<?> task = pool.submit(() -> {
+            try {
+                outcome.complete(work.call());
+            } catch (Throwable e) {
+                outcome.completeExceptionally(e);
+            }
+        });
+        // the caller's future completes once the call is recorded, so the metrics already
+        // include it when the caller sees the result
+        CompletableFuture<T> result = new CompletableFuture<>();
+        outcome.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        outcome.whenComplete((value, error) -> {
+            if (error != null) {
+                // timed out or cancelled: stop the worker if it is still running
+                task.cancel(true);
+            }
+            record(name, System.nanoTime() - start, error);
+            if (error == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(error);
+            }
+        });
+        // cancelling the caller's future cancels the call
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                outcome.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // Runs the work off the FX thread and passes the result to onSuccess on the FX thread.
+    // Errors (including a timeout) are printed; use the other overload to show them.
+    public <T> CompletableFuture<T> load(String name, Callable<T> work, Consumer<T> onSuccess) {
+        return load(name, work, onSuccess, Throwable::printStackTrace);
+    }
+
+    // Same, passing the cause of a failure or timeout to onFailure on the FX thread.
+    // Neither callback runs if the returned future is cancelled first.
+    public <T> CompletableFuture<T> load(String name, Callable<T> work, Consumer<T> onSuccess,
+                                         Consumer<Throwable> onFailure) {
+        return deliver(executor, name, work, onSuccess, onFailure);
+    }
+
+    // Like load(), for work that writes (see supplyWrite)
+    public <T> CompletableFuture<T> write(String name, Callable<T> work, Consumer<T> onSuccess) {
+        return write(name, work, onSuccess, Throwable::printStackTrace);
+    }
+
+    public <T> CompletableFuture<T> write(String name, Callable<T> work, Consumer<T> onSuccess,
+                                          Consumer<Throwable> onFailure) {
+        return deliver(writer, name, work, onSuccess, onFailure);
+    }
+
+    private <T> CompletableFuture<T> deliver(ExecutorService pool, String name, Callable<T> work,
+                                             Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        if (!Platform.isFxApplicationThread()) {
+            return loadInline(name, work, onSuccess, onFailure);
+        }
+        CompletableFuture<T> result = submit(pool, name, work, DEFAULT_TIMEOUT);
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                return;
+            }
+            Platform.runLater(() -> {
+                if (error == null) {
+                    onSuccess.accept(value);
+                } else {
+                    onFailure.accept(unwrap(error));
+                }
+            });
+        });
+        return result;
+    }
+
+    private <T> CompletableFuture<T> loadInline(String name, Callable<T> work, Consumer<T> onSuccess,
+                                                Consumer<Throwable> onFailure) {
+        long start = System.nanoTime();
+        T value;
+        try {
+            value = work.call();
+        } catch (Exception e) {
+            record(name, System.nanoTime() - start, e);
+            onFailure.accept(e);
+            return CompletableFuture.failedFuture(e);
+        }
+        record(name, System.nanoTime() - start, null);
+        onSuccess.accept(value);
+        return CompletableFuture.completedFuture(value);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    void record(String name, long elapsedNanos, Throwable error) {
+        stats.computeIfAbsent(name, key -> new CallStats()).record(elapsedNanos, unwrap(error));
+    }
+
+    // Metrics of the calls made under this name, or null if there were none
+    public CallStats getStats(String name) {
+        return stats.get(name);
+    }
+
+    // One line per call name, e.g. "items.search: 42 calls, p50 3 ms, p99 20 ms, max 51 ms, 1 timed out"
+    public String generateSummary() {
+        if (stats.isEmpty()) {
+            return "no calls yet";
+        }
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, CallStats> entry : new TreeMap<>(stats).entrySet()) {
+            if (!summary.isEmpty()) {
+                summary.append("\n");
+            }
+            summary.append(entry.getKey()).append(": ").append(entry.getValue().generateSummary());
+        }
+        return summary.toString();
+    }
+
+    // Stops taking calls and waits briefly for the ones in progress, then interrupts the rest
+    public void shutdown() {
+        executor.shutdown();
+        writer.shutdown();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_WAIT_SECONDS);
+            for (ExecutorService service : new ExecutorService[] {writer, executor}) {
+                if (!service.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    service.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Call count, outcomes and latency distribution (in milliseconds) of one kind of call
+    public static class CallStats {
+        private final LatencySketch latencies = new LatencySketch();
+        private long failed;
+        private long timedOut;
+        private long cancelled;
+        private double maxMillis;
+
+        synchronized void record(long elapsedNanos, Throwable error) {
+            double millis = elapsedNanos / 1_000_000.0;
+            latencies.add(millis);
+            maxMillis = Math.max(maxMillis, millis);
+            if (error instanceof TimeoutException) {
+                timedOut++;
+            } else if (error instanceof CancellationException) {
+                cancelled++;
+            } else if (error != null) {
+                failed++;
+            }
+        }
+
+        public synchronized long getCount() {
+            return latencies.getCount();
+        }
+
+        public synchronized long getFailed() {
+            return failed;
+        }
+
+        public synchronized long getTimedOut() {
+            return timedOut;
+        }
+
+        public synchronized long getCancelled() {
+            return cancelled;
+        }
+
+        // q-quantile of the latency in milliseconds (values under 1 ms are reported as 1 ms)
+        public synchronized double getLatencyMillis(double q) {
+            return latencies.quantile(q);
+        }
+
+        public synchronized double getMaxMillis() {
+            return maxMillis;
+        }
+
+        synchronized String generateSummary() {
+            String line = String.format("%d calls, p50 %.0f ms, p99 %.0f ms, max %.0f ms",
+                    getCount(), latencies.quantile(0.5), latencies.quantile(0.99), maxMillis);
+            if (failed > 0) {
+                line += ", " + failed + " failed";
+            }
+            if (timedOut > 0) {
+                line += ", " + timedOut + " timed out";
+            }
+            if (cancelled > 0) {
+                line += ", " + cancelled + " cancelled";
+            }
+            return line;
+        }
+    }
+}
@@ -8,90 +8,210 @@ import net.javaguids.lost_and_found.utils.PasswordUtil;
 import net.javaguids.lost_and_found.utils.ValidationUtil;
 import net.javaguids.lost_and_found.analytics.ActivityLog;
 import net.javaguids.lost_and_found.exceptions.AuthException;
+import net.javaguids.lost_and_found.exceptions.DatabaseException;
+import net.javaguids.lost_and_found.exceptions.DuplicateUserException;
 
+import javafx.application.Platform;
+
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 // Service class for user authentication and registration. Manages user login, registration, logout, and session tracking.
+// Logged-in users are sessions in SessionManager; the "current user" is the user of the session
+// in SessionContext (bound to the thread, or the desktop client's default).
+//
+// Login and registration hash passwords, which takes 100 ms or more, so they return a
+// CompletableFuture instead of waiting: the hashing runs on PasswordUtil's executor and the rest
+// of the call continues there. Failures (wrong input, throttling) complete the future with an
+// AuthException. Called from the FX thread, the future completes on the FX thread, so callbacks
+// on it can update the window.
 public class AuthService {
+    // Checked in place of a stored hash when the username does not exist (see dummyHash())
+    private static volatile String dummyHash;
+
+    // Logs in the desktop client's user: starts a session and makes it the default one.
+    // The session lasts until logout, like the single logged-in user before sessions.
+    // Completes with the user, with null if the credentials are wrong, or with an AuthException if
+    // there were too many attempts or logins are already being verified.
+    public static CompletableFuture<User> login(String username, String password) {
+        return onCallerThread(authenticate(username, password, LoginThrottle.LOCAL_CLIENT).thenApply(user -> {
+            if (user != null) {
+                Session session = SessionManager.getInstance().createSession(user, Duration.ZERO, Duration.ZERO);
+                SessionManager.getInstance().invalidate(SessionContext.getDefaultToken());
+                SessionContext.setDefaultToken(session.getToken());
+            }
+            return user;
+        }));
+    }
 
-    // Currently logged-in user (null if no user is logged in)
-    private static User currentUser;
+    // Logs in one of many concurrent users (e.g. behind a server) and completes with the new
+    // session, with SessionManager's idle and absolute timeouts, or null if the credentials are wrong.
+    // Callers bind its token with SessionContext.runAs() while handling that user's requests;
+    // `client` (e.g. the remote address) is what attempts are throttled by besides the username.
+    public static CompletableFuture<Session> startSession(String username, String password, String client) {
+        return onCallerThread(authenticate(username, password, client).thenApply(user ->
+                user == null ? null : SessionManager.getInstance().createSession(user)));
+    }
+
+    // Checks the credentials and logs the login; completes with the user, or null if they are wrong
+    private static CompletableFuture<User> authenticate(String username, String password, String client) {
+        try {
+            // refuse bursts before any database or hashing work
+            LoginThrottle.getInstance().checkAttempt(username, client);
+        } catch (AuthException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
-    // Authenticates a user with username and password.
-    public static User login(String username, String password) {
         UserRepository userRepo = UserRepository.getInstance();
         User user = userRepo.getUserByUsername(username);
+        // an unknown username is checked against a dummy hash, so it takes as long as a wrong
+        // password and the response time does not reveal which usernames exist
+        String storedHash = user != null ? user.getPasswordHash() : dummyHash();
+
+        CompletableFuture<Boolean> verification;
+        try {
+            // password hashing is CPU-heavy, so it runs on PasswordUtil's bounded executor
+            verification = PasswordUtil.verifyPasswordAsync(password, storedHash);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new AuthException("Too many login attempts in progress, please try again"));
+        }
+        return verification.thenCompose(valid -> {
+            if (user == null || !valid) {
+                return CompletableFuture.completedFuture(null);
+            }
+            // legacy or outdated hash: store one with the current scheme while the password is known
+            CompletableFuture<Void> rehash = PasswordUtil.needsRehash(user.getPasswordHash())
+                    ? rehash(user, password) : CompletableFuture.completedFuture(null);
+            return rehash.thenApply(ignored -> {
+                ActivityLog.log(user.getUserId(), "LOGIN", "User logged in");
+                return user;
+            });
+        });
+    }
 
-        if (user != null && PasswordUtil.verifyPassword(password, user.getPasswordHash())) {
-            currentUser = user;
-            ActivityLog.log(user.getUserId(), "LOGIN", "User logged in");
-            return user;
+    // Replaces the user's stored hash. Best effort: if the executor is full, or the update fails,
+    // the old hash stays and the next login tries again.
+    private static CompletableFuture<Void> rehash(User user, String password) {
+        CompletableFuture<String> hashing;
+        try {
+            hashing = PasswordUtil.hashPasswordAsync(password);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(null);
         }
+        return hashing.thenAccept(passwordHash -> {
+            if (UserRepository.getInstance().updatePasswordHash(user.getUserId(), passwordHash)) {
+                user.setPasswordHash(passwordHash);
+            }
+        });
+    }
 
-        return null;
+    // On the FX thread, completes the returned future there (through Platform.runLater) once the
+    // work is done; other threads get the work's future as it is
+    private static <T> CompletableFuture<T> onCallerThread(CompletableFuture<T> work) {
+        if (!Platform.isFxApplicationThread()) {
+            return work;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        work.whenComplete((value, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(error);
+            }
+        }));
+        return result;
     }
 
-    // Registers a new user account with validation.
-    public static User register(String username, String email, String password) throws AuthException {
+    // Hash of a random password with the current iterations, made on first use. Threads racing on
+    // first use may each make one; any of them will do.
+    private static String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            dummyHash = hash = PasswordUtil.hashPassword(UUID.randomUUID().toString());
+        }
+        return hash;
+    }
+
+    // Registers a new user account with validation; completes with the new user, or with an
+    // AuthException saying what was wrong.
+    // Username and email are trimmed; the unique indexes on users reject ones already taken
+    // (ignoring case) in the same statement as the insert, so there is no lookup beforehand and
+    // concurrent registrations of one name cannot both succeed.
+    public static CompletableFuture<User> register(String username, String email, String password) {
         // Validate username
         if (username == null || username.trim().isEmpty()) {
-            throw new AuthException("Username cannot be empty");
+            return CompletableFuture.failedFuture(new AuthException("Username cannot be empty"));
         }
+        String trimmedUsername = username.trim();
 
         // Validate email format
-        if (email == null || !ValidationUtil.isValidEmail(email)) {
-            throw new AuthException("Invalid email address");
+        if (email == null || !ValidationUtil.isValidEmail(email.trim())) {
+            return CompletableFuture.failedFuture(new AuthException("Invalid email address"));
         }
+        String trimmedEmail = email.trim();
 
         // Validate password strength
         if (password == null || !ValidationUtil.isValidPassword(password)) {
-            throw new AuthException("Password must be at least 8 characters long");
+            return CompletableFuture.failedFuture(new AuthException("Password must be at least 8 characters long"));
         }
 
-        UserRepository userRepo = UserRepository.getInstance();
-
-        // Check if username already exists
-        if (userRepo.getUserByUsername(username) != null) {
-            throw new AuthException("Username already exists");
+        // Hash the password on PasswordUtil's executor, then save the user from there
+        CompletableFuture<String> hashing;
+        try {
+            hashing = PasswordUtil.hashPasswordAsync(password);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new AuthException("Too many registrations in progress, please try again"));
         }
-
-        // Create new user with hashed password
-        String userId = UUID.randomUUID().toString();
-        String passwordHash = PasswordUtil.hashPassword(password);
-
-        RegularUser newUser = new RegularUser(userId, username, email, passwordHash);
-
-        // Save user to database
-        boolean success = userRepo.saveUser(newUser);
-
-        if (!success) {
-            throw new AuthException("Failed to create user account");
-        }
-
-        ActivityLog.log(userId, "REGISTER", "New user registered: " + username);
-        return newUser;
+        return onCallerThread(hashing.thenCompose(passwordHash -> {
+            String userId = UUID.randomUUID().toString();
+            RegularUser newUser = new RegularUser(userId, trimmedUsername, trimmedEmail, passwordHash);
+
+            // Save user to database; a taken username or email is reported as such
+            try {
+                UserRepository.getInstance().createUser(newUser);
+            } catch (DuplicateUserException e) {
+                return CompletableFuture.failedFuture(new AuthException(e.getMessage()));
+            } catch (DatabaseException e) {
+                e.printStackTrace();
+                return CompletableFuture.failedFuture(new AuthException("Failed to create user account"));
+            }
+
+            ActivityLog.log(userId, "REGISTER", "New user registered: " + trimmedUsername);
+            return CompletableFuture.completedFuture(newUser);
+        }));
     }
 
-    // Logs out the current user and clears the session
+    // Logs out the current user and ends their session
     public static void logout() {
-        if (currentUser != null) {
-            ActivityLog.log(currentUser.getUserId(), "LOGOUT", "User logged out");
-            currentUser = null;
+        String token = SessionContext.getToken();
+        Session session = SessionManager.getInstance().getSession(token);
+        if (session != null) {
+            ActivityLog.log(session.getUser().getUserId(), "LOGOUT", "User logged out");
+            SessionManager.getInstance().invalidate(token);
+        }
+        if (token != null && token.equals(SessionContext.getDefaultToken())) {
+            SessionContext.setDefaultToken(null);
         }
     }
 
-    // Gets the currently logged-in user.
+    // Gets the currently logged-in user (of the current session).
     public static User getCurrentUser() {
-        return currentUser;
+        Session session = SessionContext.getSession();
+        return session == null ? null : session.getUser();
     }
 
     // Checks if the current user has admin privileges.
     public static boolean isAdmin() {
+        User currentUser = getCurrentUser();
         return currentUser != null && currentUser.getRole() == UserRole.ADMIN;
     }
 
     // Checks if a user is currently authenticated.
     public static boolean isAuthenticated() {
-        return currentUser != null;
+        return getCurrentUser() != null;
     }
 }
\ No newline at end of file
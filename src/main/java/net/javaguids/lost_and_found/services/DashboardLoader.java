@@ -0,0 +1,73 @@
+package net.javaguids.lost_and_found.services;
+
+import net.javaguids.lost_and_found.database.DatabaseManager;
+import net.javaguids.lost_and_found.database.ReadConnectionPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// Loads the independent panels of a dashboard (users, items, logs, counters, ...) at the same
+// time, each on its own virtual thread with its own read connection from the ReadConnectionPool,
+// and fills each panel as soon as its data arrives. Opening the dashboard then takes as long as
+// its slowest panel instead of all of them one after another.
+//
+// The loader owns the panel loads it started: cancel() stops the ones still running (e.g. when
+// the view is left), and whenLoaded() completes when all of them have finished, recording the
+// time to open the whole dashboard under "dashboard.<name>" in the AsyncServices metrics.
+// Each panel is timed under "<name>.<panel>"; one failing panel does not stop the others.
+// Like AsyncServices.load(), panels started off the FX thread (tests) load inline, in turn.
+public class DashboardLoader {
+    private final String name;
+    private final AsyncServices async;
+    private final List<CompletableFuture<?>> panels = new ArrayList<>();
+    private long startNanos;
+
+    public DashboardLoader(String name) {
+        this(name, AsyncServices.getInstance());
+    }
+
+    DashboardLoader(String name, AsyncServices async) {
+        this.name = name;
+        this.async = async;
+    }
+
+    // Starts loading one panel; onLoaded receives the result on the FX thread
+    public <T> CompletableFuture<T> panel(String panel, Callable<T> work, Consumer<T> onLoaded) {
+        return panel(panel, work, onLoaded, Throwable::printStackTrace);
+    }
+
+    public synchronized <T> CompletableFuture<T> panel(String panel, Callable<T> work, Consumer<T> onLoaded,
+                                                       Consumer<Throwable> onFailure) {
+        // forget finished panels; the dashboard opens again once nothing is loading
+        panels.removeIf(CompletableFuture::isDone);
+        if (panels.isEmpty()) {
+            startNanos = System.nanoTime();
+        }
+        ReadConnectionPool pool = DatabaseManager.getInstance().getReadPool();
+        CompletableFuture<T> result = async.load(name + "." + panel, () -> pool.withConnection(work),
+                onLoaded, onFailure);
+        panels.add(result);
+        return result;
+    }
+
+    // Completes once every panel started so far has loaded, failed or been cancelled
+    public synchronized CompletableFuture<Void> whenLoaded() {
+        long start = startNanos;
+        CompletableFuture<?>[] started = panels.stream()
+                .map(panel -> panel.handle((value, error) -> null))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(started)
+                .thenRun(() -> async.record("dashboard." + name, System.nanoTime() - start, null));
+    }
+
+    // Cancels the panel loads still running; their callbacks are dropped
+    public synchronized void cancel() {
+        for (CompletableFuture<?> panel : panels) {
+            panel.cancel(true);
+        }
+        panels.clear();
+    }
+}
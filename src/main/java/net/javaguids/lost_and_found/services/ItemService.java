@@ -1,19 +1,43 @@
 package net.javaguids.lost_and_found.services;
 
 import net.javaguids.lost_and_found.model.items.Item;
+import net.javaguids.lost_and_found.search.LocationPath;
+import net.javaguids.lost_and_found.search.RelevanceRanker;
+import net.javaguids.lost_and_found.search.ScoredItem;
 import net.javaguids.lost_and_found.search.SearchCriteria;
+import net.javaguids.lost_and_found.search.SearchFacets;
+import net.javaguids.lost_and_found.search.SearchResultCache;
+import net.javaguids.lost_and_found.search.SearchResults;
 import net.javaguids.lost_and_found.database.ItemRepository;
+import net.javaguids.lost_and_found.exceptions.ItemConflictException;
+import net.javaguids.lost_and_found.exceptions.ItemNotFoundException;
+import net.javaguids.lost_and_found.utils.StripedLocks;
 import net.javaguids.lost_and_found.utils.ValidationUtil;
 import net.javaguids.lost_and_found.analytics.ActivityLog;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 // Service class for managing lost and found items. Handles item posting, searching, updating, and deletion operations.
 public class ItemService {
+    // How long modifyItem keeps re-reading and re-applying a change that lost a race before giving up
+    static final Duration UPDATE_RETRY_LIMIT = Duration.ofSeconds(5);
+    // Per-item locks for delete and resolve, which read the item and then write it (updates are
+    // compare-and-set on the version instead, see updateItem), shared by every ItemService:
+    // controllers and background calls each create their own. Work on different items runs in
+    // parallel; the only shared point left is SQLite's write lock, held for each transaction
+    // (see WriteConnectionPool). LockStripingBenchmark measures them against one global lock.
+    private static final StripedLocks ITEM_LOCKS = new StripedLocks(64);
+
     private ItemRepository itemRepository;
+    private SearchResultCache searchCache;
 
     public ItemService() {
         this.itemRepository = ItemRepository.getInstance();
+        this.searchCache = SearchResultCache.getInstance();
     }
 
     // Posts a new item to the system after validation.
@@ -21,6 +45,7 @@ public class ItemService {
         if (!ValidationUtil.isValidItem(item)) {
             return false;
         }
+        normalizeLocation(item);
 
         boolean success = itemRepository.saveItem(item);
         if (success) {
@@ -30,32 +55,80 @@ public class ItemService {
     }
 
     // Searches for items based on the provided criteria.
+    // Popular searches are answered from the shared result cache (see cachedSearch).
     public List<Item> searchItems(SearchCriteria criteria) {
-        return itemRepository.searchItems(criteria);
+        return cachedSearch(criteria);
+    }
+
+    // Runs a search through the result cache. On a hit only the cached IDs are
+    // reloaded by primary key; on a miss the full search runs and its IDs are cached.
+    private List<Item> cachedSearch(SearchCriteria criteria) {
+        String key = criteria == null ? "*" : criteria.toCacheKey();
+        // read the generation before querying so a concurrent write invalidates this fill
+        long generation = itemRepository.getWriteGeneration();
+
+        List<String> cachedIds = searchCache.get(key, generation);
+        if (cachedIds != null) {
+            return itemRepository.getItemsByIds(cachedIds);
+        }
+
+        List<Item> items = itemRepository.searchItems(criteria);
+        List<String> itemIds = new java.util.ArrayList<>(items.size());
+        for (Item item : items) {
+            itemIds.add(item.getItemId());
+        }
+        searchCache.put(key, itemIds, generation);
+        return items;
+    }
+
+    // Returns the best `limit` matches for the criteria, most relevant first.
+    // Matches are streamed from the repository into a bounded heap, so only `limit`
+    // items are kept and sorted no matter how many rows match.
+    public List<ScoredItem> searchRanked(SearchCriteria criteria, int limit) {
+        RelevanceRanker ranker = new RelevanceRanker(criteria, LocalDateTime.now(), limit);
+        itemRepository.forEachMatchingItem(criteria, ranker::offer);
+        return ranker.getResults();
     }
 
     // Searches for items excluding those posted by a specific user and resolved items.
     public List<Item> searchItemsExcludingUser(SearchCriteria criteria, String userId) {
-        List<Item> allItems = itemRepository.searchItems(criteria);
+        return searchWithFacetsExcludingUser(criteria, userId).getItems();
+    }
+
+    // Searches for items and returns them together with category/location/type/status counts.
+    public SearchResults searchWithFacets(SearchCriteria criteria) {
+        return collectResults(cachedSearch(criteria), null);
+    }
+
+    // Same as searchItemsExcludingUser, but also returns facet counts for the filtered results.
+    public SearchResults searchWithFacetsExcludingUser(SearchCriteria criteria, String userId) {
+        return collectResults(cachedSearch(criteria), userId);
+    }
+
+    // Filters the raw search results and tallies the facets in the same pass,
+    // so facet counts never need a second query or a second walk over the items.
+    private SearchResults collectResults(List<Item> allItems, String excludedUserId) {
         List<Item> filteredItems = new java.util.ArrayList<>();
+        SearchFacets facets = new SearchFacets();
 
-        // Go through each item and keep only items that match our criteria
         for (Item item : allItems) {
-            // Skip items posted by the current user
-            if (item.getPostedByUserId().equals(userId)) {
-                continue;
-            }
-
-            // Skip items that are RESOLVED
-            if (item.getStatus() == net.javaguids.lost_and_found.model.enums.ItemStatus.RESOLVED) {
-                continue;
+            if (excludedUserId != null) {
+                // Skip items posted by the current user
+                if (item.getPostedByUserId().equals(excludedUserId)) {
+                    continue;
+                }
+
+                // Skip items that are RESOLVED
+                if (item.getStatus() == net.javaguids.lost_and_found.model.enums.ItemStatus.RESOLVED) {
+                    continue;
+                }
             }
 
-            // Add the item if it passed both checks
             filteredItems.add(item);
+            facets.add(item);
         }
 
-        return filteredItems;
+        return new SearchResults(filteredItems, facets);
     }
 
     // Retrieves a specific item by its unique identifier.
@@ -69,7 +142,10 @@ public class ItemService {
     }
 
     // Updates an existing item's information.
-    public boolean updateItem(Item item) {
+    // Throws ItemConflictException if the item was changed since `item` was read; nothing is saved then.
+    // No lock is taken: the version check in the repository is the only guard.
+    public boolean updateItem(Item item) throws ItemConflictException {
+        normalizeLocation(item);
         boolean success = itemRepository.updateItem(item);
         if (success) {
             ActivityLog.log(item.getPostedByUserId(), "UPDATE_ITEM", "Updated item: " + item.getTitle());
@@ -77,13 +153,83 @@ public class ItemService {
         return success;
     }
 
+    // Resolves an item together with the item it was matched with (itemB may be null), e.g. a lost
+    // item and the found item that was returned for it. Both status changes, the match and the
+    // audit log are saved in one transaction. Throws ItemConflictException, saving nothing, if
+    // either item was changed since it was read.
+    public boolean resolveMatch(Item itemA, Item itemB) throws ItemConflictException {
+        String details = "Resolved item: " + itemA.getTitle() + (itemB != null ? " with " + itemB.getTitle() : "");
+        ActivityLog audit = ActivityLog.create(itemA.getPostedByUserId(), "RESOLVE_ITEM", details);
+        if (itemB == null) {
+            return ITEM_LOCKS.withLock(itemA.getItemId(), () -> itemRepository.resolveMatch(itemA, null, audit));
+        }
+        return ITEM_LOCKS.withLocks(itemA.getItemId(), itemB.getItemId(),
+                () -> itemRepository.resolveMatch(itemA, itemB, audit));
+    }
+
+    // Applies `change` to the latest stored copy of the item and saves it, optimistically: no lock
+    // is held between the read and the save, which only succeeds if the item is still at the
+    // version that was read (see updateItem). If someone else saved it in between, the fresh copy
+    // is read and the change applied again, after a short random pause that grows with each
+    // attempt, for up to UPDATE_RETRY_LIMIT. The change must therefore be safe to run more than
+    // once. Returns the saved item; throws ItemConflictException if it still lost the race then.
+    public Item modifyItem(String itemId, Consumer<Item> change)
+            throws ItemNotFoundException, ItemConflictException {
+        long deadline = System.nanoTime() + UPDATE_RETRY_LIMIT.toNanos();
+        for (int attempt = 1; ; attempt++) {
+            Item item = itemRepository.getItemById(itemId);
+            if (item == null) {
+                throw new ItemNotFoundException("Item not found: " + itemId);
+            }
+            change.accept(item);
+            try {
+                if (!updateItem(item)) {
+                    // deleted since the read above, or the update failed
+                    throw new ItemNotFoundException("Item not found or could not be updated: " + itemId);
+                }
+                return item;
+            } catch (ItemConflictException e) {
+                if (System.nanoTime() - deadline >= 0) {
+                    throw e;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    // Sleeps up to 2^attempt milliseconds (capped at 64), chosen at random, so writers that
+    // collided do not retry in lockstep
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(1 << Math.min(attempt, 6)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Rewrites free-text location input into its hierarchy form ("Campus > Building > Room"),
+    // so equal places are stored the same way and can be searched by subtree.
+    private void normalizeLocation(Item item) {
+        if (item.getLocation() != null) {
+            item.setLocation(LocationPath.parse(item.getLocation()).toDisplayString());
+        }
+    }
+
     // Deletes an item from the system and logs the action.
+    // The item is read and deleted under its lock, so an update cannot slip in between.
     public boolean deleteItem(String itemId) {
-        Item item = itemRepository.getItemById(itemId);
-        boolean success = itemRepository.deleteItem(itemId);
-        if (success && item != null) {
-            ActivityLog.log(item.getPostedByUserId(), "DELETE_ITEM", "Deleted item: " + item.getTitle());
-        }
-        return success;
+        return ITEM_LOCKS.withLock(itemId, () -> {
+            Item item = itemRepository.getItemById(itemId);
+            boolean success = itemRepository.deleteItem(itemId);
+            if (success && item != null) {
+                ActivityLog.log(item.getPostedByUserId(), "DELETE_ITEM", "Deleted item: " + item.getTitle());
+            }
+            return success;
+        });
+    }
+
+    // Contention of the per-item locks, for the statistics report
+    public static String generateLockSummary() {
+        return ITEM_LOCKS.generateSummary();
     }
 }
\ No newline at end of file
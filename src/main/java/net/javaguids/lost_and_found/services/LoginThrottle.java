@@ -0,0 +1,66 @@
+package net.javaguids.lost_and_found.services;
+
+import net.javaguids.lost_and_found.exceptions.AuthException;
+import net.javaguids.lost_and_found.utils.RateLimiter;
+
+import java.time.Duration;
+import java.util.Locale;
+
+// Limits login attempts before the expensive password check runs, per client and per username,
+// so a credential-stuffing burst is refused cheaply instead of saturating the CPU and database.
+//
+// Limits are attempts per minute (successful or not) and can be overridden with system properties:
+//   lostandfound.login.perUser   (default 5)    attempts per username
+//   lostandfound.login.perClient (default 30)   attempts per client (address, or "local" on the desktop)
+// Each limiter tracks at most MAX_KEYS keys; see RateLimiter for what happens beyond that.
+// Uses singleton pattern so all logins share the same counters.
+public class LoginThrottle {
+    public static final String PER_USER_PROPERTY = "lostandfound.login.perUser";
+    public static final String PER_CLIENT_PROPERTY = "lostandfound.login.perClient";
+    // Client used by the desktop application, which has no remote address
+    public static final String LOCAL_CLIENT = "local";
+
+    private static final Duration PERIOD = Duration.ofMinutes(1);
+    private static final int MAX_KEYS = 100_000;
+    // Untracked keys together get this many times one key's limit while the maps are full
+    private static final int OVERFLOW_FACTOR = 10;
+
+    private static volatile LoginThrottle instance;
+
+    private final RateLimiter perUser;
+    private final RateLimiter perClient;
+
+    public LoginThrottle(int perUserLimit, int perClientLimit) {
+        this.perUser = new RateLimiter(perUserLimit, PERIOD, MAX_KEYS, perUserLimit * OVERFLOW_FACTOR);
+        this.perClient = new RateLimiter(perClientLimit, PERIOD, MAX_KEYS, perClientLimit * OVERFLOW_FACTOR);
+    }
+
+    public static LoginThrottle getInstance() {
+        LoginThrottle result = instance;
+        if (result == null) {
+            synchronized (LoginThrottle.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new LoginThrottle(Integer.getInteger(PER_USER_PROPERTY, 5),
+                            Integer.getInteger(PER_CLIENT_PROPERTY, 30));
+                }
+            }
+        }
+        return result;
+    }
+
+    // Takes one attempt for the client and the username, or throws if either is over its limit.
+    // A client over its limit does not use up the username's attempts.
+    public void checkAttempt(String username, String client) throws AuthException {
+        if (!perClient.tryAcquire(client) || !perUser.tryAcquire(username.toLowerCase(Locale.ROOT))) {
+            throw new AuthException("Too many login attempts, please wait a minute and try again");
+        }
+    }
+
+    // "allowed 120, rejected 4, tracking 35 users / 3 clients"
+    public String generateSummary() {
+        return String.format("allowed %d, rejected %d, tracking %d users / %d clients",
+                perUser.getAllowed(), perClient.getRejected() + perUser.getRejected(),
+                perUser.getTrackedKeys(), perClient.getTrackedKeys());
+    }
+}
@@ -4,6 +4,8 @@ import net.javaguids.lost_and_found.messaging.Message;
 import net.javaguids.lost_and_found.database.UserRepository;
 import net.javaguids.lost_and_found.database.MessageRepository;
 import net.javaguids.lost_and_found.analytics.ActivityLog;
+import net.javaguids.lost_and_found.analytics.StatisticsCounters;
+import net.javaguids.lost_and_found.utils.StripedLocks;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -11,6 +13,12 @@ import java.util.ArrayList;
 // Service layer for messaging functionality.
 public class MessageService {
 
+    // Per-conversation locks, so clearing a conversation (read its messages, then delete them)
+    // cannot interleave with a message being sent in it. Shared by every MessageService. Nothing
+    // else serializes the callers: each write is its own transaction (see WriteConnectionPool),
+    // so sends and clears in different conversations only meet at SQLite's write lock.
+    private static final StripedLocks CONVERSATION_LOCKS = new StripedLocks(64);
+
     // Repository for user data access */
     private UserRepository userRepository;
 
@@ -25,7 +33,8 @@ public class MessageService {
 
     // Sends a message from one user to another and logs the action.
     public boolean sendMessage(Message message) {
-        boolean success = messageRepository.saveMessage(message);
+        String conversation = StatisticsCounters.conversationKey(message.getSenderId(), message.getReceiverId());
+        boolean success = CONVERSATION_LOCKS.withLock(conversation, () -> messageRepository.saveMessage(message));
 
         if (success) {
             // Get receiver's username for better logging
@@ -90,6 +99,11 @@ public class MessageService {
 
     // Deletes an empty conversation between two users.
     public boolean deleteEmptyConversation(String userId1, String userId2) {
+        return CONVERSATION_LOCKS.withLock(StatisticsCounters.conversationKey(userId1, userId2),
+                () -> deleteConversation(userId1, userId2));
+    }
+
+    private boolean deleteConversation(String userId1, String userId2) {
         // Get all messages between these two users
         List<Message> conversation = getConversation(userId1, userId2, null);
 
@@ -109,4 +123,9 @@ public class MessageService {
 
         return allSuccess;
     }
+
+    // Contention of the per-conversation locks, for the statistics report
+    public static String generateLockSummary() {
+        return CONVERSATION_LOCKS.generateSummary();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package net.javaguids.lost_and_found.services;
+
+import net.javaguids.lost_and_found.model.users.User;
+
+// A logged-in user, identified by an opaque random token (see SessionManager).
+// Expires after a period without use (idle timeout) or a fixed time after login (absolute timeout),
+// whichever comes first. A timeout of zero never expires.
+public class Session {
+    private final String token;
+    private final User user;
+    private final long createdAtMillis;
+    private final long idleTimeoutMillis;
+    private final long absoluteDeadlineMillis;
+    // written on every lookup; a plain volatile store, nothing allocated
+    private volatile long lastAccessMillis;
+
+    Session(String token, User user, long nowMillis, long idleTimeoutMillis, long absoluteTimeoutMillis) {
+        this.token = token;
+        this.user = user;
+        this.createdAtMillis = nowMillis;
+        this.lastAccessMillis = nowMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis > 0 ? idleTimeoutMillis : Long.MAX_VALUE;
+        this.absoluteDeadlineMillis = absoluteTimeoutMillis > 0 ? nowMillis + absoluteTimeoutMillis : Long.MAX_VALUE;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    public long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    void touch(long nowMillis) {
+        lastAccessMillis = nowMillis;
+    }
+
+    // Time at which the session expires unless it is used again before
+    long getDeadlineMillis() {
+        long idleDeadline = idleTimeoutMillis == Long.MAX_VALUE ? Long.MAX_VALUE : lastAccessMillis + idleTimeoutMillis;
+        return Math.min(idleDeadline, absoluteDeadlineMillis);
+    }
+
+    boolean isExpired(long nowMillis) {
+        return nowMillis >= getDeadlineMillis();
+    }
+}
@@ -0,0 +1,49 @@
+package net.javaguids.lost_and_found.services;
+
+// Which session the running code acts for, so AuthService.getCurrentUser() works without
+// passing a token through every call.
+//
+// A server binds the token of each request to the thread handling it with runAs(). The desktop
+// client has one user at a time: its login sets a default token, used by any thread that has
+// nothing bound.
+public final class SessionContext {
+    private static final ThreadLocal<String> boundToken = new ThreadLocal<>();
+    private static volatile String defaultToken;
+
+    private SessionContext() {
+    }
+
+    // Runs the action with the token bound to the current thread, restoring the previous binding after
+    public static void runAs(String token, Runnable action) {
+        String previous = boundToken.get();
+        boundToken.set(token);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                boundToken.remove();
+            } else {
+                boundToken.set(previous);
+            }
+        }
+    }
+
+    // Token of the current session: the one bound to this thread, else the default (may be null)
+    public static String getToken() {
+        String token = boundToken.get();
+        return token != null ? token : defaultToken;
+    }
+
+    public static String getDefaultToken() {
+        return defaultToken;
+    }
+
+    public static void setDefaultToken(String token) {
+        defaultToken = token;
+    }
+
+    // The live session for the current token, or null if there is none or it expired
+    public static Session getSession() {
+        return SessionManager.getInstance().getSession(getToken());
+    }
+}
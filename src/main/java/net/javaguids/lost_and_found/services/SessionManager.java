@@ -0,0 +1,155 @@
+package net.javaguids.lost_and_found.services;
+
+import net.javaguids.lost_and_found.model.users.User;
+import net.javaguids.lost_and_found.utils.TimerWheel;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Table of logged-in sessions, keyed by an opaque random token, so one process can serve any
+// number of users at once (AuthService reads the user of the current session via SessionContext).
+//
+// getSession() is a ConcurrentHashMap lookup plus a timestamp write and allocates nothing.
+// Expiry is checked there, and a single background thread also sweeps expired sessions out of
+// the table using a TimerWheel: each session sits in the slot of its deadline; when the slot
+// comes due, the session is dropped if it really expired, or re-filed under its new deadline if
+// it was used in the meantime. Lookups never touch the wheel.
+// Uses singleton pattern so every caller sees the same sessions.
+public class SessionManager {
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    public static final Duration DEFAULT_ABSOLUTE_TIMEOUT = Duration.ofHours(12);
+    // Expiry resolution: sessions are removed at most one tick after their deadline
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SLOTS = 512;
+    private static final int TOKEN_BYTES = 32;
+
+    private static volatile SessionManager instance;
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final LongSupplier clock;
+    private final long idleTimeoutMillis;
+    private final long absoluteTimeoutMillis;
+    private final TimerWheel<Session> expiries;
+    private ScheduledExecutorService sweeper;
+
+    public SessionManager(Duration idleTimeout, Duration absoluteTimeout, LongSupplier clock) {
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.absoluteTimeoutMillis = absoluteTimeout.toMillis();
+        this.clock = clock;
+        this.expiries = new TimerWheel<>(TICK_MILLIS, WHEEL_SLOTS, clock.getAsLong());
+    }
+
+    public static SessionManager getInstance() {
+        SessionManager result = instance;
+        if (result == null) {
+            synchronized (SessionManager.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new SessionManager(DEFAULT_IDLE_TIMEOUT, DEFAULT_ABSOLUTE_TIMEOUT, System::currentTimeMillis);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Starts a session for the user and returns it; its token is the only way to find it again
+    public Session createSession(User user) {
+        return createSession(user, idleTimeoutMillis, absoluteTimeoutMillis);
+    }
+
+    // Same with its own timeouts; Duration.ZERO never expires (only invalidate() ends it)
+    public Session createSession(User user, Duration idleTimeout, Duration absoluteTimeout) {
+        return createSession(user, idleTimeout.toMillis(), absoluteTimeout.toMillis());
+    }
+
+    private Session createSession(User user, long idleMillis, long absoluteMillis) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Session session = new Session(token, user, clock.getAsLong(), idleMillis, absoluteMillis);
+        sessions.put(token, session);
+        if (session.getDeadlineMillis() != Long.MAX_VALUE) {
+            expiries.schedule(session, session.getDeadlineMillis());
+        }
+        return session;
+    }
+
+    // The live session with this token, marking it as used; null if unknown or expired
+    public Session getSession(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        if (session.isExpired(now)) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    // Ends the session (logout); unknown tokens are ignored
+    public void invalidate(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    // Removes the sessions whose deadline has passed; the others that came due are re-filed
+    public void expireSessions() {
+        long now = clock.getAsLong();
+        for (Session session : expiries.advance(now)) {
+            if (sessions.get(session.getToken()) != session) {
+                // already logged out or removed on lookup
+                continue;
+            }
+            if (session.isExpired(now)) {
+                sessions.remove(session.getToken(), session);
+            } else {
+                expiries.schedule(session, session.getDeadlineMillis());
+            }
+        }
+    }
+
+    // Starts the background thread that sweeps expired sessions once per tick
+    public synchronized void start() {
+        if (sweeper != null) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                expireSessions();
+            } catch (RuntimeException e) {
+                // keep the schedule alive; the next tick will try again
+                e.printStackTrace();
+            }
+        }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+}
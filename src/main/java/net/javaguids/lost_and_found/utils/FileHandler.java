@@ -3,12 +3,19 @@ package net.javaguids.lost_and_found.utils;
 import net.javaguids.lost_and_found.analytics.ActivityLog;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
 
 // Utility class for file operations including CSV export and image handling.
 public class FileHandler {
@@ -19,29 +26,102 @@ public class FileHandler {
     // Date formatter for CSV timestamp exports
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
-    // Exports a list of activity logs to a CSV file. Creates a CSV with columns: LogID, UserID, Action, Details, Timestamp.
+    // Buffer between the CSV writer and the file; rows are written to disk in 64 KB chunks
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    // Progress is reported every this many rows
+    public static final int EXPORT_PROGRESS_INTERVAL = 1000;
+
+    private static final String CSV_HEADER = "LogID,UserID,Action,Details,Timestamp,Username";
+
+    // RFC 4180 line terminator
+    private static final String CSV_LINE_END = "\r\n";
+
+    // Exports a list of activity logs to a CSV file. Creates a CSV with columns: LogID, UserID, Action, Details, Timestamp, Username.
     public static boolean exportLogsToCSV(List<ActivityLog> logs, String filePath) {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
-            // Write CSV header
-            bw.write("LogID,UserID,Action,Details,Timestamp\n");
-
-            // Write each log entry as a CSV row
-            for (ActivityLog log : logs) {
-                StringBuilder line = new StringBuilder();
-                line.append(log.getLogId()).append(",");
-                line.append(log.getUserId()).append(",");
-                line.append(log.getAction()).append(",");
-                line.append(log.getDetails()).append(",");
-                line.append(log.getTimestamp().format(DATE_FORMATTER));
-                line.append("\n");
-                bw.write(line.toString());
-            }
+        return exportLogsToCSV(logs::forEach, filePath, false, null) >= 0;
+    }
 
-            return true;
-        } catch (IOException e) {
+    // Streams activity logs into a CSV file without collecting them first. `source` is called once
+    // with the row writer (e.g. action -> messageRepository.forEachActivityLog(from, to, action)),
+    // so memory use stays the same however many rows are exported.
+    // Output is gzip-compressed when `gzip` is true. `progress` (optional) receives the number of
+    // rows written every EXPORT_PROGRESS_INTERVAL rows and once at the end.
+    // Returns the number of rows written, or -1 if the file could not be written.
+    public static long exportLogsToCSV(Consumer<Consumer<ActivityLog>> source, String filePath,
+                                       boolean gzip, LongConsumer progress) {
+        long[] rows = {0};
+        try (Writer writer = openExportWriter(Paths.get(filePath), gzip)) {
+            writer.write(CSV_HEADER);
+            writer.write(CSV_LINE_END);
+
+            source.accept(log -> {
+                try {
+                    writeLogRow(writer, log);
+                } catch (IOException e) {
+                    // Consumer cannot throw checked exceptions; unwrapped again below
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+                if (progress != null && rows[0] % EXPORT_PROGRESS_INTERVAL == 0) {
+                    progress.accept(rows[0]);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
             e.printStackTrace();
-            return false;
+            return -1;
+        }
+
+        if (progress != null) {
+            progress.accept(rows[0]);
+        }
+        return rows[0];
+    }
+
+    // Buffered UTF-8 writer over the file channel, gzip-compressed if requested
+    private static Writer openExportWriter(Path path, boolean gzip) throws IOException {
+        OutputStream out = Channels.newOutputStream(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+        if (gzip) {
+            out = new GZIPOutputStream(out, EXPORT_BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+    }
+
+    // Writes fields straight into the buffered writer (no per-row string building)
+    private static void writeLogRow(Writer writer, ActivityLog log) throws IOException {
+        writer.write(escapeCsv(log.getLogId()));
+        writer.write(',');
+        writer.write(escapeCsv(log.getUserId()));
+        writer.write(',');
+        writer.write(escapeCsv(log.getAction()));
+        writer.write(',');
+        writer.write(escapeCsv(log.getDetails()));
+        writer.write(',');
+        writer.write(log.getTimestamp() == null ? "" : log.getTimestamp().format(DATE_FORMATTER));
+        writer.write(',');
+        writer.write(escapeCsv(log.getActorName()));
+        writer.write(CSV_LINE_END);
+    }
+
+    // Escapes one CSV field as described in RFC 4180: fields containing a comma, quote or line break
+    // are wrapped in double quotes, with any quotes inside doubled. Null is written as an empty field.
+    public static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                needsQuotes = true;
+                break;
+            }
+        }
+        if (!needsQuotes) {
+            return value;
         }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
     }
 
     // Saves an uploaded image file to the application's image directory. Generates a unique filename using itemId and timestamp. Creates the upload directory if it doesn't exist.
@@ -1,15 +1,171 @@
 package net.javaguids.lost_and_found.utils;
 
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 
- // Utility class for password hashing and verification. Uses SHA-256 algorithm for password security.
+ // Utility class for password hashing and verification.
+ //
+ // Passwords are hashed with PBKDF2-HMAC-SHA256 and a random 16-byte salt, stored as
+ // "pbkdf2$<iterations>$<salt>$<hash>" (Base64), so the cost can be raised later without breaking
+ // existing hashes: each hash is verified with the iterations it was made with, and needsRehash()
+ // tells the login to store a new hash. Hashes from before PBKDF2 (plain unsalted SHA-256) still
+ // verify and are always reported as needing a rehash.
+ //
+ // Hashing is deliberately slow (100 ms or more per hash), so logins and registrations hash on a
+ // small bounded executor (one thread less than the cores, at most VERIFY_QUEUE_CAPACITY waiting):
+ // a burst of logins queues up there instead of taking every core from the UI and database threads.
 public class PasswordUtil {
+    // System property that overrides the PBKDF2 iterations for new hashes
+    // (see PasswordHashBenchmark.main to calibrate it for a machine)
+    public static final String ITERATIONS_PROPERTY = "lostandfound.password.iterations";
+    public static final int DEFAULT_ITERATIONS = 210_000;
+    // Verifications allowed to wait for a thread; more than this are rejected
+    public static final int VERIFY_QUEUE_CAPACITY = 64;
 
-     // Hashes a plain text password using SHA-256 algorithm.
+    private static final String PREFIX = "pbkdf2";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final int iterations = Integer.getInteger(ITERATIONS_PROPERTY, DEFAULT_ITERATIONS);
+
+    private static final int VERIFY_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final ThreadPoolExecutor verifier = createVerifier();
+
+    // time spent in PBKDF2, for every hash and verification
+    private static final LongAdder hashCount = new LongAdder();
+    private static final LongAdder hashNanos = new LongAdder();
+    private static final AtomicLong maxHashNanos = new AtomicLong();
+
+    private static ThreadPoolExecutor createVerifier() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(VERIFY_THREADS, VERIFY_THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(VERIFY_QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "password-verifier-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        // idle threads go away between login bursts
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+     // Hashes a plain text password with a new random salt and the current iterations.
     public static String hashPassword(String password) {
+        return hashPassword(password, iterations);
+    }
+
+    public static String hashPassword(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+
+     // Verifies if a plain text password matches a hashed password (PBKDF2 or legacy SHA-256).
+     // Runs on the calling thread; logins use verifyPasswordAsync.
+    public static boolean verifyPassword(String password, String hashedPassword) {
+        if (hashedPassword == null) {
+            return false;
+        }
+        String[] parts = hashedPassword.split("\\$");
+        if (parts.length == 4 && parts[0].equals(PREFIX)) {
+            try {
+                int storedIterations = Integer.parseInt(parts[1]);
+                byte[] salt = Base64.getDecoder().decode(parts[2]);
+                byte[] expected = Base64.getDecoder().decode(parts[3]);
+                return MessageDigest.isEqual(pbkdf2(password, salt, storedIterations), expected);
+            } catch (IllegalArgumentException e) {
+                // malformed stored hash: nothing can match it
+                return false;
+            }
+        }
+        return MessageDigest.isEqual(legacyHash(password).getBytes(StandardCharsets.UTF_8),
+                hashedPassword.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Verifies on the verifier executor. Throws RejectedExecutionException (and does no work) when
+    // VERIFY_QUEUE_CAPACITY verifications are already waiting.
+    public static CompletableFuture<Boolean> verifyPasswordAsync(String password, String hashedPassword) {
+        return CompletableFuture.supplyAsync(() -> verifyPassword(password, hashedPassword), verifier);
+    }
+
+    // Hashes on the verifier executor, for new and rehashed passwords. Throws
+    // RejectedExecutionException (and does no work) like verifyPasswordAsync.
+    public static CompletableFuture<String> hashPasswordAsync(String password) {
+        return CompletableFuture.supplyAsync(() -> hashPassword(password), verifier);
+    }
+
+    // True if the hash should be replaced at the next successful login:
+    // a legacy SHA-256 hash, or PBKDF2 with fewer iterations than currently configured
+    public static boolean needsRehash(String hashedPassword) {
+        if (hashedPassword == null) {
+            return false;
+        }
+        String[] parts = hashedPassword.split("\\$");
+        if (parts.length != 4 || !parts[0].equals(PREFIX)) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    // Iterations used for new hashes
+    public static int getIterations() {
+        return iterations;
+    }
+
+    public static long getHashCount() {
+        return hashCount.sum();
+    }
+
+    public static double getAverageHashMillis() {
+        long count = hashCount.sum();
+        return count == 0 ? 0.0 : hashNanos.sum() / 1e6 / count;
+    }
+
+    public static double getMaxHashMillis() {
+        return maxHashNanos.get() / 1e6;
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        long start = System.nanoTime();
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Error hashing password", e);
+        } finally {
+            spec.clearPassword();
+            long elapsed = System.nanoTime() - start;
+            hashCount.increment();
+            hashNanos.add(elapsed);
+            maxHashNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+     // The original scheme: unsalted SHA-256, kept only to verify hashes stored before PBKDF2.
+    private static String legacyHash(String password) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
             byte[] hashedBytes = md.digest(password.getBytes());
@@ -18,11 +174,4 @@ public class PasswordUtil {
             throw new RuntimeException("Error hashing password", e);
         }
     }
-
-
-     // Verifies if a plain text password matches a hashed password.
-    public static boolean verifyPassword(String password, String hashedPassword) {
-        String hashedInput = hashPassword(password);
-        return hashedInput.equals(hashedPassword);
-    }
-}
\ No newline at end of file
+}
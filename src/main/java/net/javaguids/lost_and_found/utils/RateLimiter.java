@@ -0,0 +1,123 @@
+package net.javaguids.lost_and_found.utils;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Per-key rate limiter: each key may do `permits` operations per `period`, in bursts of up to
+// `permits` (a token bucket, kept as the generic cell rate algorithm).
+//
+// The whole state of a key is one long, the time its bucket will be full again ("theoretical
+// arrival time"); an operation pushes it forward by period / permits and is refused if that would
+// put it more than a full bucket ahead of now. Updates are a single compare-and-set, so there are
+// no locks. A key whose bucket is full again holds no information and can be forgotten.
+//
+// Memory is bounded: at most maxKeys keys are tracked. When a new key arrives and the map is full,
+// forgotten keys are swept out first; if it is still full (a flood of distinct keys), untracked keys
+// share one overflow bucket of `overflowPermits` per period, so the flood is throttled as a whole
+// instead of growing the map or evicting keys that are being limited.
+public class RateLimiter {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long overflowIntervalNanos;
+    private final long overflowBurstNanos;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflowBucket = new AtomicLong(Long.MIN_VALUE);
+    // time of the last sweep, so a flood triggers at most one sweep per interval
+    private final AtomicLong lastSweepNanos;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    public RateLimiter(int permits, Duration period, int maxKeys, int overflowPermits) {
+        this(permits, period, maxKeys, overflowPermits, System::nanoTime);
+    }
+
+    public RateLimiter(int permits, Duration period, int maxKeys, int overflowPermits, LongSupplier nanoClock) {
+        if (permits <= 0 || overflowPermits <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("permits and maxKeys must be positive");
+        }
+        this.intervalNanos = period.toNanos() / permits;
+        this.burstNanos = intervalNanos * permits;
+        this.overflowIntervalNanos = period.toNanos() / overflowPermits;
+        this.overflowBurstNanos = overflowIntervalNanos * overflowPermits;
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        this.lastSweepNanos = new AtomicLong(nanoClock.getAsLong() - intervalNanos);
+    }
+
+    // Takes one permit for the key; false means the key is over its limit and nothing was taken
+    public boolean tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        boolean acquired;
+        if (bucket == null && !hasRoomForNewKey(now)) {
+            overflowed.increment();
+            acquired = tryAcquire(overflowBucket, now, overflowIntervalNanos, overflowBurstNanos);
+        } else {
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+            }
+            acquired = tryAcquire(bucket, now, intervalNanos, burstNanos);
+        }
+        (acquired ? allowed : rejected).increment();
+        return acquired;
+    }
+
+    private static boolean tryAcquire(AtomicLong bucket, long now, long interval, long burst) {
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + interval;
+            if (next - now > burst) {
+                return false;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean hasRoomForNewKey(long now) {
+        if (buckets.size() < maxKeys) {
+            return true;
+        }
+        long lastSweep = lastSweepNanos.get();
+        if (now - lastSweep >= intervalNanos && lastSweepNanos.compareAndSet(lastSweep, now)) {
+            sweep(now);
+        }
+        return buckets.size() < maxKeys;
+    }
+
+    // Forgets every key whose bucket is full again (it would behave exactly like a new key).
+    // A permit taken concurrently with its removal may be lost, which only ever favours the key by one.
+    public void sweep() {
+        sweep(nanoClock.getAsLong());
+    }
+
+    private void sweep(long now) {
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() <= now);
+    }
+
+    public int getTrackedKeys() {
+        return buckets.size();
+    }
+
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    // Requests for keys that could not be tracked because the map was full
+    public long getOverflowed() {
+        return overflowed.sum();
+    }
+}
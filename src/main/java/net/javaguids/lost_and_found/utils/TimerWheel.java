@@ -0,0 +1,89 @@
+package net.javaguids.lost_and_found.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Hashed timer wheel: a ring of `size` slots, each covering one tick of `tickMillis`.
+// An item due at tick t goes into slot t % size (items more than one turn away share the slot and
+// wait for their turn), so scheduling is O(1) and advancing the clock only looks at the slots of
+// the ticks that passed, however many items are scheduled. Deadlines are rounded up to whole ticks.
+//
+// Used to expire many timeouts (e.g. sessions) from one thread instead of a timer per item.
+// Thread safe.
+public class TimerWheel<T> {
+    private final long tickMillis;
+    private final List<List<Entry<T>>> slots;
+    // last tick that has been processed
+    private long currentTick;
+    private int size;
+
+    public TimerWheel(long tickMillis, int slotCount, long startMillis) {
+        if (tickMillis <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("tick and slot count must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    // Schedules the item to come due at the first tick at or after deadlineMillis
+    // (or the next tick, if that has already passed)
+    public synchronized void schedule(T item, long deadlineMillis) {
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        slots.get(slotOf(tick)).add(new Entry<>(item, tick));
+        size++;
+    }
+
+    // Moves the clock to nowMillis and returns the items that came due, removing them from the wheel
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> due = new ArrayList<>();
+        if (targetTick - currentTick >= slots.size()) {
+            // a full turn or more has passed: every slot is visited once
+            for (List<Entry<T>> slot : slots) {
+                collectDue(slot, targetTick, due);
+            }
+        } else {
+            for (long tick = currentTick + 1; tick <= targetTick; tick++) {
+                collectDue(slots.get(slotOf(tick)), tick, due);
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return due;
+    }
+
+    // Number of items waiting
+    public synchronized int size() {
+        return size;
+    }
+
+    private void collectDue(List<Entry<T>> slot, long upToTick, List<T> due) {
+        Iterator<Entry<T>> entries = slot.iterator();
+        while (entries.hasNext()) {
+            Entry<T> entry = entries.next();
+            if (entry.tick <= upToTick) {
+                due.add(entry.item);
+                entries.remove();
+                size--;
+            }
+        }
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long tick;
+
+        Entry(T item, long tick) {
+            this.item = item;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package net.javaguids.lost_and_found.analytics;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for HeavyHitterSketch class. Tests top-N accuracy over a long tail, error bounds and merging
+class HeavyHitterSketchTest {
+
+    // 5 heavy keys over 20,000 one-off keys: far more distinct keys than the sketch can hold
+    private static void addSkewedStream(HeavyHitterSketch sketch, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < 20000; i++) {
+            sketch.add("tail-" + seed + "-" + i);
+            if (random.nextInt(4) == 0) {
+                sketch.add("heavy-" + random.nextInt(5));
+            }
+        }
+        for (int i = 0; i < 5; i++) {
+            sketch.add("heavy-" + i, 1000L * (5 - i));
+        }
+    }
+
+    @Test
+    void testTopKeysFoundAmongLongTail() {
+        HeavyHitterSketch sketch = new HeavyHitterSketch();
+        addSkewedStream(sketch, 1);
+
+        List<HeavyHitter> top = sketch.top(5);
+
+        assertEquals(5, top.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("heavy-" + i, top.get(i).getKey(), "Top keys in order of count");
+        }
+    }
+
+    @Test
+    void testEstimatesNeverUndercountAndStayWithinBound() {
+        HeavyHitterSketch sketch = new HeavyHitterSketch();
+        for (int i = 0; i < 10000; i++) {
+            sketch.add("key-" + (i % 1000));
+        }
+
+        assertEquals(10000, sketch.getTotal());
+        for (int i = 0; i < 1000; i++) {
+            long estimate = sketch.estimate("key-" + i);
+            assertTrue(estimate >= 10, "Count-Min never undercounts");
+            assertTrue(estimate <= 10 + sketch.getErrorBound() * 2, "Estimate far above the error bound: " + estimate);
+        }
+    }
+
+    @Test
+    void testMergeMatchesCombinedStream() {
+        HeavyHitterSketch first = new HeavyHitterSketch();
+        HeavyHitterSketch second = new HeavyHitterSketch();
+        HeavyHitterSketch combined = new HeavyHitterSketch();
+        addSkewedStream(first, 1);
+        addSkewedStream(second, 2);
+        addSkewedStream(combined, 1);
+        addSkewedStream(combined, 2);
+
+        first.merge(second);
+
+        assertEquals(combined.getTotal(), first.getTotal());
+        assertEquals(combined.estimate("heavy-0"), first.estimate("heavy-0"));
+        assertEquals(combined.top(5).stream().map(HeavyHitter::getKey).toList(),
+                first.top(5).stream().map(HeavyHitter::getKey).toList());
+    }
+
+    @Test
+    void testEmptySketch() {
+        HeavyHitterSketch sketch = new HeavyHitterSketch();
+
+        assertTrue(sketch.top(5).isEmpty());
+        assertEquals(0, sketch.estimate("missing"));
+    }
+}
@@ -0,0 +1,61 @@
+package net.javaguids.lost_and_found.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for HeavyHitters class. Tests the hour/day/week windows and what counts as user activity
+class HeavyHittersTest {
+    private HeavyHitters heavyHitters;
+
+    @BeforeEach
+    void setUp() {
+        heavyHitters = new HeavyHitters();
+    }
+
+    private static List<String> keys(List<HeavyHitter> top) {
+        return top.stream().map(HeavyHitter::getKey).toList();
+    }
+
+    @Test
+    void testWindowsOnlyCountTheirOwnBuckets() {
+        LocalDateTime now = LocalDateTime.now();
+        heavyHitters.record(HeavyHitters.Dimension.LOCATIONS, "Library", now);
+        heavyHitters.record(HeavyHitters.Dimension.LOCATIONS, "Library", now);
+        heavyHitters.record(HeavyHitters.Dimension.LOCATIONS, "Gym", now.minusHours(3));
+        heavyHitters.record(HeavyHitters.Dimension.LOCATIONS, "Gym", now.minusHours(3));
+        heavyHitters.record(HeavyHitters.Dimension.LOCATIONS, "Gym", now.minusHours(3));
+        heavyHitters.record(HeavyHitters.Dimension.LOCATIONS, "Cafeteria", now.minusDays(3));
+        heavyHitters.record(HeavyHitters.Dimension.LOCATIONS, "Parking", now.minusDays(30));
+
+        assertEquals(List.of("Library"),
+                keys(heavyHitters.top(HeavyHitters.Dimension.LOCATIONS, HeavyHitterWindow.LAST_HOUR, 5, now)));
+        assertEquals(List.of("Gym", "Library"),
+                keys(heavyHitters.top(HeavyHitters.Dimension.LOCATIONS, HeavyHitterWindow.LAST_DAY, 5, now)));
+        assertEquals(List.of("Gym", "Library", "Cafeteria"),
+                keys(heavyHitters.top(HeavyHitters.Dimension.LOCATIONS, HeavyHitterWindow.LAST_WEEK, 5, now)),
+                "Events older than a week are never counted");
+        assertEquals(2, heavyHitters.top(HeavyHitters.Dimension.LOCATIONS, HeavyHitterWindow.LAST_HOUR, 5, now)
+                .get(0).getCount());
+
+        // two hours later the last-hour window has moved past everything
+        assertTrue(heavyHitters.top(HeavyHitters.Dimension.LOCATIONS, HeavyHitterWindow.LAST_HOUR, 5,
+                now.plusHours(2)).isEmpty());
+    }
+
+    @Test
+    void testActivityCountsActorsButNotSystem() {
+        ActivityLog login = new ActivityLog("log-1", "user-1", "LOGIN", "Logged in");
+        login.setActorName("alice");
+        heavyHitters.activityLogged(login);
+        heavyHitters.activityLogged(login);
+        heavyHitters.activityLogged(new ActivityLog("log-2", "user-2", "LOGIN", "Logged in"));
+        heavyHitters.activityLogged(new ActivityLog("log-3", "SYSTEM", "CLEANUP", "Nightly job"));
+
+        List<HeavyHitter> top = heavyHitters.top(HeavyHitters.Dimension.ACTIVE_USERS, HeavyHitterWindow.LAST_DAY, 5);
+
+        assertEquals(List.of("alice", "user-2"), keys(top), "Falls back to the user ID without a name");
+    }
+}
@@ -0,0 +1,80 @@
+package net.javaguids.lost_and_found.analytics;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for HyperLogLog class. Tests estimate accuracy, union merging and serialization
+class HyperLogLogTest {
+
+    @Test
+    void testEstimateWithinErrorForLargeCounts() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 100000; i++) {
+            sketch.add("user-" + i);
+            // repeats must not count twice
+            sketch.add("user-" + (i / 2));
+        }
+
+        long estimate = sketch.estimate();
+        assertTrue(Math.abs(estimate - 100000) <= 100000 * HyperLogLog.RELATIVE_ERROR * 3,
+                "Expected ~100000 but was " + estimate);
+    }
+
+    @Test
+    void testSmallCountsAreNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 50; i++) {
+            sketch.add("user-" + (i % 10));
+        }
+
+        assertEquals(10, sketch.estimate());
+        assertFalse(sketch.add("user-3"), "A repeat value does not change the sketch");
+    }
+
+    @Test
+    void testCoversMatchesAddWithoutChangingTheSketch() {
+        HyperLogLog sketch = new HyperLogLog();
+        sketch.add("alice");
+        HyperLogLog before = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertTrue(sketch.covers("alice"));
+        assertFalse(sketch.covers("bob"), "A new value would change an almost empty sketch");
+        assertEquals(before, sketch, "covers() does not add the value");
+        assertTrue(sketch.add("bob"));
+        assertTrue(sketch.covers("bob"));
+    }
+
+    @Test
+    void testMergeCountsTheUnionOnce() {
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        HyperLogLog week = new HyperLogLog();
+        for (int i = 0; i < 3000; i++) {
+            monday.add("user-" + i);
+            tuesday.add("user-" + (i + 2000));
+            week.add("user-" + i);
+            week.add("user-" + (i + 2000));
+        }
+
+        monday.merge(tuesday);
+
+        assertEquals(week, monday, "Merging equals sketching the combined stream");
+        long estimate = monday.estimate();
+        assertTrue(Math.abs(estimate - 5000) <= 5000 * HyperLogLog.RELATIVE_ERROR * 3,
+                "Expected ~5000 but was " + estimate);
+    }
+
+    @Test
+    void testBytesRoundTrip() {
+        HyperLogLog sketch = new HyperLogLog();
+        sketch.add("alice");
+        sketch.add("bob");
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertEquals(sketch, restored);
+        assertEquals(2, restored.estimate());
+        assertTrue(new HyperLogLog().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[10]));
+    }
+}
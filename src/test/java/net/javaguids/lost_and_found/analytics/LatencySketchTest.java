@@ -0,0 +1,67 @@
+package net.javaguids.lost_and_found.analytics;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for LatencySketch class. Tests quantile accuracy, merging and edge cases
+class LatencySketchTest {
+
+    @Test
+    void testQuantilesWithinRelativeAccuracy() {
+        LatencySketch sketch = new LatencySketch();
+        for (int minutes = 1; minutes <= 10000; minutes++) {
+            sketch.add(minutes);
+        }
+
+        assertEquals(10000, sketch.getCount());
+        for (double q : new double[] {0.5, 0.9, 0.99}) {
+            double exact = Math.floor(q * 9999) + 1;
+            double estimate = sketch.quantile(q);
+            assertTrue(Math.abs(estimate - exact) <= exact * LatencySketch.RELATIVE_ACCURACY,
+                    "q=" + q + " expected ~" + exact + " but was " + estimate);
+        }
+    }
+
+    @Test
+    void testMergeEqualsCombinedSketch() {
+        LatencySketch monday = new LatencySketch();
+        LatencySketch tuesday = new LatencySketch();
+        LatencySketch combined = new LatencySketch();
+        for (int i = 1; i <= 500; i++) {
+            monday.add(i * 3);
+            tuesday.add(i * 7);
+            combined.add(i * 3);
+            combined.add(i * 7);
+        }
+
+        monday.merge(tuesday);
+
+        assertEquals(combined.getBuckets(), monday.getBuckets());
+        assertEquals(combined.quantile(0.9), monday.quantile(0.9));
+    }
+
+    @Test
+    void testEmptySketch() {
+        LatencySketch sketch = new LatencySketch();
+
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        assertEquals("n=0", sketch.generateSummary());
+    }
+
+    @Test
+    void testInvalidQuantileThrows() {
+        LatencySketch sketch = new LatencySketch();
+        sketch.add(10);
+
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(-0.1));
+    }
+
+    @Test
+    void testSummaryFormatsUnits() {
+        LatencySketch sketch = new LatencySketch();
+        sketch.add(3 * 24 * 60);
+
+        assertTrue(sketch.generateSummary().startsWith("n=1 p50=3.0d"), sketch.generateSummary());
+    }
+}
@@ -0,0 +1,133 @@
+package net.javaguids.lost_and_found.analytics;
+
+import net.javaguids.lost_and_found.model.enums.ItemStatus;
+import net.javaguids.lost_and_found.model.enums.ItemType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for StatisticsCounters class. Tests incremental updates, snapshots, drift reconciliation and
+// the ordering of counted writes against count-and-reset
+class StatisticsCountersTest {
+    private StatisticsCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new StatisticsCounters();
+        counters.reset(new Statistics(), Map.of());
+    }
+
+    @Test
+    void testItemCountersFollowWrites() {
+        counters.itemAdded(ItemType.LOST, ItemStatus.ACTIVE, "Keys");
+        counters.itemAdded(ItemType.FOUND, ItemStatus.ACTIVE, "Keys");
+        counters.itemChanged(ItemStatus.ACTIVE, "Keys", ItemStatus.RESOLVED, "Bags");
+
+        Statistics stats = counters.snapshot();
+        assertEquals(2, stats.getTotalItems());
+        assertEquals(1, stats.getTotalLostItems());
+        assertEquals(1, stats.getTotalFoundItems());
+        assertEquals(1, stats.getSuccessfulMatches());
+        assertEquals(1, stats.getItemsByCategory().get("Keys"));
+        assertEquals(1, stats.getItemsByCategory().get("Bags"));
+
+        counters.itemRemoved(ItemType.FOUND, ItemStatus.RESOLVED, "Bags");
+        stats = counters.snapshot();
+        assertEquals(1, stats.getTotalItems());
+        assertFalse(stats.getItemsByCategory().containsKey("Bags"), "Empty categories are not reported");
+    }
+
+    @Test
+    void testConversationsCountUserPairs() {
+        counters.messageAdded("alice", "bob");
+        counters.messageAdded("bob", "alice");
+        counters.messageAdded("alice", "carol");
+        assertEquals(3, counters.snapshot().getTotalMessages());
+        assertEquals(2, counters.snapshot().getTotalConversations());
+
+        counters.messageRemoved("alice", "carol");
+        assertEquals(1, counters.snapshot().getTotalConversations());
+    }
+
+    @Test
+    void testReconcileReportsAndFixesDrift() {
+        counters.userAdded();
+        Statistics counted = new Statistics();
+        counted.setTotalUsers(3);
+
+        List<String> drift = counters.reconcile(counted, Map.of());
+
+        assertEquals(1, drift.size());
+        assertTrue(drift.get(0).startsWith("users"));
+        assertEquals(3, counters.snapshot().getTotalUsers(), "Counters are reset to the counted values");
+        assertTrue(counters.reconcile(counted, Map.of()).isEmpty());
+    }
+
+    @Test
+    void testInvalidate() {
+        assertTrue(counters.isLoaded());
+        counters.invalidate();
+        assertFalse(counters.isLoaded());
+    }
+
+    @Test
+    void testConcurrentAddAndRemoveKeepTheConversation() throws Exception {
+        counters.messageAdded("alice", "bob");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 2000; i++) {
+                CountDownLatch start = new CountDownLatch(1);
+                // one message removed while another is added: one message left, in one conversation
+                Future<?> remove = executor.submit(() -> {
+                    start.await();
+                    counters.messageRemoved("alice", "bob");
+                    return null;
+                });
+                Future<?> add = executor.submit(() -> {
+                    start.await();
+                    counters.messageAdded("bob", "alice");
+                    return null;
+                });
+                start.countDown();
+                remove.get(5, TimeUnit.SECONDS);
+                add.get(5, TimeUnit.SECONDS);
+                assertEquals(1, counters.snapshot().getTotalConversations(), "Round " + i);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExclusiveWaitsForCountedWrites() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch finishWrite = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> writer = executor.submit(() -> counters.counted(() -> {
+                writing.countDown();
+                finishWrite.await();
+                counters.userAdded();
+                return null;
+            }));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            // a recount started now must not see the counters before the write has moved them
+            Future<Integer> recount = executor.submit(() -> counters.exclusively(() -> counters.snapshot().getTotalUsers()));
+            Thread.sleep(100);
+            assertFalse(recount.isDone(), "The recount should wait for the write in progress");
+
+            finishWrite.countDown();
+            writer.get(5, TimeUnit.SECONDS);
+            assertEquals(1, recount.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
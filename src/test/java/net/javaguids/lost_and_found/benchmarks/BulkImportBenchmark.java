@@ -0,0 +1,135 @@
+package net.javaguids.lost_and_found.benchmarks;
+
+import net.javaguids.lost_and_found.analytics.ImportReport;
+import net.javaguids.lost_and_found.database.BulkFormat;
+import net.javaguids.lost_and_found.database.BulkTransfer;
+import net.javaguids.lost_and_found.database.DatabaseInitializer;
+import net.javaguids.lost_and_found.database.DatabaseManager;
+import net.javaguids.lost_and_found.search.LocationPath;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Measures how long it takes to seed the items table from a bulk file, per format.
+// Each iteration empties the table and imports all rows again (one transaction, batched
+// inserts, secondary indexes rebuilt at the end), then exports them back out.
+// Run with the main method below (needs the test classpath), not through surefire;
+// pass -p itemCount=1000000 for the full-size seeding run.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkImportBenchmark {
+
+    @Param({"100000"})
+    private int itemCount;
+
+    @Param({"CSV", "JSONL", "BINARY"})
+    private BulkFormat format;
+
+    private File dbFile;
+    private final Map<BulkFormat, Path> files = new EnumMap<>(BulkFormat.class);
+    private BulkTransfer bulkTransfer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        dbFile = File.createTempFile("lostandfound-bench", ".db");
+        // must be set before DatabaseManager is first used in this JVM
+        System.setProperty(DatabaseManager.DB_PATH_PROPERTY, dbFile.getAbsolutePath());
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath())) {
+            DatabaseInitializer.createTables(connection);
+        }
+        bulkTransfer = BulkTransfer.getInstance();
+        Path file = Files.createTempFile("items", format.getExtension());
+        writeItems(file);
+        files.put(format, file);
+    }
+
+    // Generates itemCount items in the same column layout as an export of the items table
+    private void writeItems(Path file) throws IOException {
+        List<String> columns = List.of("item_id", "title", "description", "category", "location", "date_posted",
+                "status", "posted_by_user_id", "image_path", "type", "date_lost_found", "reward", "day_bucket",
+                "location_path");
+        String[] categories = {"Electronics", "Clothing", "Keys", "Bags", "Other"};
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        try (OutputStream out = Files.newOutputStream(file);
+             BulkFormat.RowWriter writer = format.openWriter(out, columns)) {
+            for (int i = 0; i < itemCount; i++) {
+                LocalDateTime date = now.minusMinutes(random.nextInt(365 * 24 * 60));
+                String location = "Campus > Building " + (i % 50) + " > Room " + (i % 7);
+                writer.write(new String[] {
+                        UUID.randomUUID().toString(), "Item " + i, "Bulk benchmark item number " + i,
+                        categories[i % categories.length], location, now.toString(), "ACTIVE", "bench-user",
+                        null, i % 2 == 0 ? "LOST" : "FOUND", date.toString(), i % 2 == 0 ? "10.0" : "0.0",
+                        String.valueOf(date.toLocalDate().toEpochDay()), LocationPath.parse(location).getKey()
+                });
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearItems() throws SQLException {
+        DatabaseManager.getInstance().inTransaction(tx -> {
+            try (Statement stmt = tx.createStatement()) {
+                stmt.execute("DELETE FROM items");
+            }
+            return null;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        DatabaseManager.getInstance().closeConnection();
+        dbFile.delete();
+        for (Path file : files.values()) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public long importItems() {
+        ImportReport report = bulkTransfer.importTable("items", files.get(format), format);
+        if (report == null || report.getRowsImported() != itemCount) {
+            throw new IllegalStateException("Imported " + report + ", expected " + itemCount + " items");
+        }
+        return report.getRowsImported();
+    }
+
+    @Benchmark
+    public long importThenExportItems() throws IOException {
+        importItems();
+        Path out = Files.createTempFile("items-export", format.getExtension());
+        try {
+            return bulkTransfer.exportTable("items", out, format);
+        } finally {
+            Files.deleteIfExists(out);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BulkImportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,187 @@
+package net.javaguids.lost_and_found.benchmarks;
+
+import net.javaguids.lost_and_found.analytics.ActivityLog;
+import net.javaguids.lost_and_found.database.DatabaseInitializer;
+import net.javaguids.lost_and_found.database.DatabaseManager;
+import net.javaguids.lost_and_found.database.ItemRepository;
+import net.javaguids.lost_and_found.exceptions.ItemConflictException;
+import net.javaguids.lost_and_found.model.enums.ItemStatus;
+import net.javaguids.lost_and_found.model.items.FoundItem;
+import net.javaguids.lost_and_found.model.items.Item;
+import net.javaguids.lost_and_found.model.items.LostItem;
+import net.javaguids.lost_and_found.services.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Many users claiming the same lost/found pairs at once. Each iteration posts pairCount fresh
+// pairs, then `claimers` threads each try to claim every pair, in their own random order, so
+// every pair is fought over. Compares ItemService.resolveMatch (both items, the match and the
+// audit log in one transaction) with the previous way: two separate updateItem calls in
+// autocommit mode and a separate log write.
+// After each iteration it checks that every pair was claimed exactly once and that no pair is
+// left half-resolved, and prints the claims and conflicts.
+// Run with the main method below (needs the test classpath), not through surefire.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClaimContentionBenchmark {
+
+    @Param({"500"})
+    private int pairCount;
+
+    @Param({"1", "8"})
+    private int claimers;
+
+    @Param({"transaction", "separate"})
+    private String mode;
+
+    private File dbFile;
+    private ItemRepository itemRepository;
+    private ItemService itemService;
+    private final List<String[]> pairs = new ArrayList<>();
+    private final AtomicInteger claims = new AtomicInteger();
+    private final AtomicInteger conflicts = new AtomicInteger();
+    private int matchesBefore;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        dbFile = File.createTempFile("lostandfound-bench", ".db");
+        // must be set before DatabaseManager is first used in this JVM
+        System.setProperty(DatabaseManager.DB_PATH_PROPERTY, dbFile.getAbsolutePath());
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath())) {
+            DatabaseInitializer.createTables(connection);
+        }
+        itemRepository = ItemRepository.getInstance();
+        itemService = new ItemService();
+    }
+
+    @Setup(Level.Iteration)
+    public void postPairs() throws SQLException {
+        matchesBefore = countMatches();
+        pairs.clear();
+        claims.set(0);
+        conflicts.set(0);
+        LocalDateTime lostAt = LocalDateTime.now().minusDays(2);
+        for (int i = 0; i < pairCount; i++) {
+            LostItem lost = new LostItem(UUID.randomUUID().toString(), "Wallet " + i, "Brown wallet",
+                    "Accessories", "Campus > Library", "bench-owner", lostAt, 0.0);
+            FoundItem found = new FoundItem(UUID.randomUUID().toString(), "Wallet " + i, "Found a wallet",
+                    "Accessories", "Campus > Library", "bench-finder", lostAt.plusHours(3));
+            itemRepository.saveItem(lost);
+            itemRepository.saveItem(found);
+            pairs.add(new String[] {lost.getItemId(), found.getItemId()});
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkPairs() throws SQLException {
+        int halfResolved = 0;
+        for (String[] pair : pairs) {
+            boolean lostResolved = itemRepository.getItemById(pair[0]).getStatus() == ItemStatus.RESOLVED;
+            boolean foundResolved = itemRepository.getItemById(pair[1]).getStatus() == ItemStatus.RESOLVED;
+            if (lostResolved != foundResolved) {
+                halfResolved++;
+            }
+        }
+        int matches = countMatches() - matchesBefore;
+        System.out.printf("%n%s, %d claimers: %d claims, %d conflicts, %d half-resolved pairs, %d matches recorded%n",
+                mode, claimers, claims.get(), conflicts.get(), halfResolved, matches);
+        if (claims.get() != pairCount || halfResolved > 0) {
+            throw new IllegalStateException(claims.get() + " claims of " + pairCount + " pairs, "
+                    + halfResolved + " half-resolved");
+        }
+    }
+
+    private int countMatches() throws SQLException {
+        try (Statement stmt = DatabaseManager.getInstance().getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM item_matches")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseManager.getInstance().closeConnection();
+        dbFile.delete();
+    }
+
+    @Benchmark
+    public int claimAll() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(claimers);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < claimers; t++) {
+                List<String[]> order = new ArrayList<>(pairs);
+                Collections.shuffle(order);
+                results.add(executor.submit(() -> {
+                    for (String[] pair : order) {
+                        claim(pair);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return claims.get();
+    }
+
+    private void claim(String[] pair) {
+        Item lost = itemRepository.getItemById(pair[0]);
+        Item found = itemRepository.getItemById(pair[1]);
+        if (lost.getStatus() == ItemStatus.RESOLVED || found.getStatus() == ItemStatus.RESOLVED) {
+            return;
+        }
+        try {
+            if (mode.equals("transaction")) {
+                if (itemService.resolveMatch(lost, found)) {
+                    claims.incrementAndGet();
+                }
+            } else {
+                lost.setStatus(ItemStatus.RESOLVED);
+                if (!itemRepository.updateItem(lost)) {
+                    return;
+                }
+                found.setStatus(ItemStatus.RESOLVED);
+                itemRepository.updateItem(found);
+                ActivityLog.log(lost.getPostedByUserId(), "RESOLVE_ITEM", "Resolved item: " + lost.getTitle());
+                claims.incrementAndGet();
+            }
+        } catch (ItemConflictException e) {
+            // another claimer resolved the pair first
+            conflicts.incrementAndGet();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ClaimContentionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,134 @@
+package net.javaguids.lost_and_found.benchmarks;
+
+import net.javaguids.lost_and_found.database.DatabaseInitializer;
+import net.javaguids.lost_and_found.database.DatabaseManager;
+import net.javaguids.lost_and_found.database.ItemRepository;
+import net.javaguids.lost_and_found.search.SearchCriteria;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks date-range searches against a scratch database with items spread over a year.
+// Compares the day_bucket index range scan (narrow: last 3 days, wide: last 180 days)
+// with the old approach of loading every item and filtering with matches().
+// Run with the main method below (needs the test classpath), not through surefire.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateRangeSearchBenchmark {
+
+    @Param({"10000"})
+    private int itemCount;
+
+    private static final int DAYS_SPREAD = 365;
+
+    private File dbFile;
+    private ItemRepository itemRepository;
+    private SearchCriteria narrowRange;
+    private SearchCriteria wideRange;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        dbFile = File.createTempFile("lostandfound-bench", ".db");
+        // must be set before DatabaseManager is first used in this JVM
+        System.setProperty(DatabaseManager.DB_PATH_PROPERTY, dbFile.getAbsolutePath());
+
+        LocalDateTime now = LocalDateTime.now();
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath())) {
+            DatabaseInitializer.createTables(connection);
+            insertItems(connection, now);
+        }
+        itemRepository = ItemRepository.getInstance();
+
+        narrowRange = new SearchCriteria();
+        narrowRange.setDateFrom(now.minusDays(3));
+        narrowRange.setDateTo(now);
+
+        wideRange = new SearchCriteria();
+        wideRange.setDateFrom(now.minusDays(180));
+        wideRange.setDateTo(now);
+    }
+
+    // Inserts items with dates spread evenly over the last DAYS_SPREAD days, in one transaction
+    private void insertItems(Connection connection, LocalDateTime now) throws SQLException {
+        String query = "INSERT INTO items (item_id, title, description, category, location, date_posted, status, " +
+                "posted_by_user_id, image_path, type, date_lost_found, reward, day_bucket) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 'ACTIVE', 'bench-user', NULL, ?, ?, 0.0, ?)";
+        Random random = new Random(42);
+        connection.setAutoCommit(false);
+        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+            for (int i = 0; i < itemCount; i++) {
+                LocalDateTime date = now.minusMinutes(random.nextInt(DAYS_SPREAD * 24 * 60));
+                pstmt.setString(1, UUID.randomUUID().toString());
+                pstmt.setString(2, "Item " + i);
+                pstmt.setString(3, "Benchmark item number " + i);
+                pstmt.setString(4, "Other");
+                pstmt.setString(5, "Building " + (i % 20));
+                pstmt.setString(6, now.toString());
+                pstmt.setString(7, i % 2 == 0 ? "LOST" : "FOUND");
+                pstmt.setString(8, date.toString());
+                pstmt.setLong(9, date.toLocalDate().toEpochDay());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseManager.getInstance().closeConnection();
+        dbFile.delete();
+    }
+
+    @Benchmark
+    public void narrowRangeIndexed(Blackhole blackhole) {
+        itemRepository.forEachMatchingItem(narrowRange, blackhole::consume);
+    }
+
+    @Benchmark
+    public void wideRangeIndexed(Blackhole blackhole) {
+        itemRepository.forEachMatchingItem(wideRange, blackhole::consume);
+    }
+
+    // Baseline: what a date-range search cost before the bucket index (read everything, filter in Java)
+    @Benchmark
+    public void narrowRangeFullScan(Blackhole blackhole) {
+        itemRepository.forEachMatchingItem(null, item -> {
+            if (item.matches(narrowRange)) {
+                blackhole.consume(item);
+            }
+        });
+    }
+
+    @Benchmark
+    public void wideRangeFullScan(Blackhole blackhole) {
+        itemRepository.forEachMatchingItem(null, item -> {
+            if (item.matches(wideRange)) {
+                blackhole.consume(item);
+            }
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DateRangeSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,123 @@
+package net.javaguids.lost_and_found.benchmarks;
+
+import net.javaguids.lost_and_found.database.DatabaseInitializer;
+import net.javaguids.lost_and_found.database.DatabaseManager;
+import net.javaguids.lost_and_found.database.ItemRepository;
+import net.javaguids.lost_and_found.database.ReadConnectionPool;
+import net.javaguids.lost_and_found.model.items.LostItem;
+import net.javaguids.lost_and_found.utils.StripedLocks;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Benchmarks a short read-modify-write on random keys from 8 threads, as ItemService does per
+// item. Compares the 64 striped locks ItemService uses with a single global lock (StripedLocks
+// with one stripe, so both report the same contention metrics), for few and many distinct keys.
+// `path` "memory" does CPU work on an array inside the lock; "database" reads the item and saves
+// it through ItemRepository inside the lock, on a scratch database, so the comparison includes
+// the real read, the transaction and SQLite's own write lock.
+// Prints the contention metrics after each trial.
+// Run with the main method below (needs the test classpath), not through surefire.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LockStripingBenchmark {
+
+    @Param({"16", "10000"})
+    private int keyCount;
+
+    @Param({"striped", "global"})
+    private String lockType;
+
+    @Param({"memory", "database"})
+    private String path;
+
+    // CPU work done inside the lock, in JMH tokens ("memory" path)
+    @Param({"100"})
+    private int work;
+
+    private String[] keys;
+    private AtomicLongArray values;
+    private StripedLocks locks;
+    private File dbFile;
+    private ItemRepository itemRepository;
+    private ReadConnectionPool readPool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = UUID.randomUUID().toString();
+        }
+        values = new AtomicLongArray(keyCount);
+        locks = new StripedLocks(lockType.equals("global") ? 1 : 64);
+        if (path.equals("database")) {
+            dbFile = File.createTempFile("lostandfound-bench", ".db");
+            // must be set before DatabaseManager is first used in this JVM
+            System.setProperty(DatabaseManager.DB_PATH_PROPERTY, dbFile.getAbsolutePath());
+            try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath())) {
+                DatabaseInitializer.createTables(connection);
+            }
+            itemRepository = ItemRepository.getInstance();
+            readPool = DatabaseManager.getInstance().getReadPool();
+            LocalDateTime lostAt = LocalDateTime.now().minusDays(1);
+            for (String key : keys) {
+                itemRepository.saveItem(new LostItem(key, "Umbrella", "Black umbrella", "Accessories",
+                        "Campus > Library", "bench-owner", lostAt, 0.0));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s, %s, %d keys: %s%n", path, lockType, keyCount, locks.generateSummary());
+        if (dbFile != null) {
+            DatabaseManager.getInstance().closeConnection();
+            dbFile.delete();
+        }
+    }
+
+    @Benchmark
+    public long readModifyWrite() throws Exception {
+        int index = ThreadLocalRandom.current().nextInt(keyCount);
+        if (path.equals("database")) {
+            return locks.withLock(keys[index], () -> {
+                // a pooled read connection: 8 threads on the shared one would also share a snapshot
+                LostItem item = (LostItem) readPool.withConnection(() -> itemRepository.getItemById(keys[index]));
+                item.setReward(item.getReward() + 1);
+                // under the item's lock the version cannot have moved, so this never conflicts
+                itemRepository.updateItem(item);
+                return item.getVersion();
+            });
+        }
+        return locks.withLock(keys[index], () -> {
+            long read = values.get(index);
+            Blackhole.consumeCPU(work);
+            values.set(index, read + 1);
+            return read;
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LockStripingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
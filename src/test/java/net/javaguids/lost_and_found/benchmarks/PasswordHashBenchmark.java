@@ -0,0 +1,67 @@
+package net.javaguids.lost_and_found.benchmarks;
+
+import net.javaguids.lost_and_found.utils.PasswordUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks PBKDF2 password verification at several iteration counts (cost grows linearly).
+// Run with the main method below (needs the test classpath), not through surefire.
+//
+// `main calibrate [targetMillis]` instead measures this machine and prints the iterations that
+// make one hash take about targetMillis (default 100), to pass as -Dlostandfound.password.iterations.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHashBenchmark {
+
+    @Param({"100000", "210000", "600000"})
+    private int iterations;
+
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hash = PasswordUtil.hashPassword("correct horse battery staple", iterations);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return PasswordUtil.verifyPassword("correct horse battery staple", hash);
+    }
+
+    // Iterations for the target latency, scaled from the measured time of a known count
+    static int calibrate(long targetMillis) {
+        int probe = 50_000;
+        // warm up the JIT before timing
+        for (int i = 0; i < 5; i++) {
+            PasswordUtil.hashPassword("calibration", probe);
+        }
+        int runs = 10;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            PasswordUtil.hashPassword("calibration", probe);
+        }
+        double millisPerHash = (System.nanoTime() - start) / 1e6 / runs;
+        // round down to a thousand, never below the PBKDF2 minimum worth having
+        return (int) Math.max(10_000, Math.floor(probe * targetMillis / millisPerHash / 1000) * 1000);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        if (args.length > 0 && args[0].equals("calibrate")) {
+            long targetMillis = args.length > 1 ? Long.parseLong(args[1]) : 100;
+            int iterations = calibrate(targetMillis);
+            System.out.printf("~%d ms per hash: -D%s=%d%n", targetMillis, PasswordUtil.ITERATIONS_PROPERTY, iterations);
+            return;
+        }
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,62 @@
+package net.javaguids.lost_and_found.benchmarks;
+
+import net.javaguids.lost_and_found.utils.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks RateLimiter.tryAcquire from 4 threads over millions of distinct keys, as in a
+// credential-stuffing flood. Compares a limiter bounded to 100k keys (the login default, where most
+// keys go to the overflow bucket) with one allowed to track every key.
+// Prints the number of tracked keys after each trial to show the bound holds.
+// Run with the main method below (needs the test classpath), not through surefire.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@Threads(4)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    @Param({"1000000", "4000000"})
+    private int keyCount;
+
+    @Param({"100000", "unbounded"})
+    private String maxKeys;
+
+    private String[] keys;
+    private RateLimiter limiter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = "user-" + i + "@example.com";
+        }
+        int bound = maxKeys.equals("unbounded") ? Integer.MAX_VALUE : Integer.parseInt(maxKeys);
+        limiter = new RateLimiter(5, Duration.ofMinutes(1), bound, 50);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%ntracked keys: %d, allowed: %d, rejected: %d, overflowed: %d%n",
+                limiter.getTrackedKeys(), limiter.getAllowed(), limiter.getRejected(), limiter.getOverflowed());
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(keys.length)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -4,10 +4,13 @@ import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableView;
-import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
 import net.javaguids.lost_and_found.analytics.ActivityLog;
+import net.javaguids.lost_and_found.analytics.ActivityLogFilter;
 import net.javaguids.lost_and_found.database.ItemRepository;
 import net.javaguids.lost_and_found.database.MessageRepository;
 import net.javaguids.lost_and_found.database.UserRepository;
@@ -66,7 +69,25 @@ class AdminDashboardControllerTest {
     private TableView<Item> mockItemsTable;
 
     @Mock
-    private TextArea mockLogsArea;
+    private TableView<ActivityLog> mockLogsTable;
+
+    @Mock
+    private TextField mockLogUserField;
+
+    @Mock
+    private ComboBox<String> mockLogActionBox;
+
+    @Mock
+    private ComboBox<String> mockLogWindowBox;
+
+    @Mock
+    private Label mockLogsPageLabel;
+
+    @Mock
+    private Button mockNewerLogsButton;
+
+    @Mock
+    private Button mockOlderLogsButton;
 
     @Mock
     private Label mockTotalUsersLabel;
@@ -101,9 +122,33 @@ class AdminDashboardControllerTest {
             itemsTableField.setAccessible(true);
             itemsTableField.set(controller, mockItemsTable);
 
-            var logsAreaField = AdminDashboardController.class.getDeclaredField("logsArea");
-            logsAreaField.setAccessible(true);
-            logsAreaField.set(controller, mockLogsArea);
+            var logsTableField = AdminDashboardController.class.getDeclaredField("logsTable");
+            logsTableField.setAccessible(true);
+            logsTableField.set(controller, mockLogsTable);
+
+            var logUserField = AdminDashboardController.class.getDeclaredField("logUserField");
+            logUserField.setAccessible(true);
+            logUserField.set(controller, mockLogUserField);
+
+            var logActionBoxField = AdminDashboardController.class.getDeclaredField("logActionBox");
+            logActionBoxField.setAccessible(true);
+            logActionBoxField.set(controller, mockLogActionBox);
+
+            var logWindowBoxField = AdminDashboardController.class.getDeclaredField("logWindowBox");
+            logWindowBoxField.setAccessible(true);
+            logWindowBoxField.set(controller, mockLogWindowBox);
+
+            var logsPageLabelField = AdminDashboardController.class.getDeclaredField("logsPageLabel");
+            logsPageLabelField.setAccessible(true);
+            logsPageLabelField.set(controller, mockLogsPageLabel);
+
+            var newerLogsButtonField = AdminDashboardController.class.getDeclaredField("newerLogsButton");
+            newerLogsButtonField.setAccessible(true);
+            newerLogsButtonField.set(controller, mockNewerLogsButton);
+
+            var olderLogsButtonField = AdminDashboardController.class.getDeclaredField("olderLogsButton");
+            olderLogsButtonField.setAccessible(true);
+            olderLogsButtonField.set(controller, mockOlderLogsButton);
 
             var totalUsersLabelField = AdminDashboardController.class.getDeclaredField("totalUsersLabel");
             totalUsersLabelField.setAccessible(true);
@@ -282,23 +327,19 @@ class AdminDashboardControllerTest {
     }
 
     @Test
-    @DisplayName("Should load activity logs and display them formatted")
+    @DisplayName("Should load the first page of activity logs into the log table")
     void testLoadLogs() {
         ActivityLog log1 = new ActivityLog("log1", "user1", "LOGIN", "User logged in");
         log1.setTimestamp(LocalDateTime.now());
-        ActivityLog log2 = new ActivityLog("log2", "user2", "POST_ITEM", "Posted lost item");
-        log2.setTimestamp(LocalDateTime.now());
+        log1.setActorName("testuser");
+        ActivityLog log2 = new ActivityLog("log2", "user1", "POST_ITEM", "Posted lost item");
+        log2.setTimestamp(LocalDateTime.now().minusMinutes(1));
+        log2.setActorName("testuser");
         List<ActivityLog> logs = Arrays.asList(log1, log2);
 
-        User user1 = mock(User.class);
-        when(user1.getUsername()).thenReturn("testuser");
-        when(mockUserRepository.getUserById("user1")).thenReturn(user1);
-
-        User user2 = mock(User.class);
-        when(user2.getUsername()).thenReturn("otheruser");
-        when(mockUserRepository.getUserById("user2")).thenReturn(user2);
-
-        when(mockMessageRepository.getActivityLogs(any(), any())).thenReturn(logs);
+        when(mockMessageRepository.countActivityLogs(any(ActivityLogFilter.class))).thenReturn(2);
+        when(mockMessageRepository.getActivityLogsPage(any(ActivityLogFilter.class), isNull(), anyInt()))
+                .thenReturn(logs);
 
         try {
             var method = AdminDashboardController.class.getDeclaredMethod("loadLogs");
@@ -308,7 +349,23 @@ class AdminDashboardControllerTest {
             fail("Failed to invoke loadLogs: " + e.getMessage());
         }
 
-        verify(mockLogsArea).setText(contains("Activity Logs"));
+        verify(mockLogsTable).setItems(argThat(items -> items.size() == 2));
+        verify(mockLogsPageLabel).setText("Logs 1-2 of 2");
+        verify(mockOlderLogsButton).setDisable(true);
+        // usernames are stored with the logs, so no users are looked up
+        verify(mockUserRepository, never()).getUserById(anyString());
+    }
+
+    @Test
+    @DisplayName("Should show a message when filtering by an unknown username")
+    void testLoadLogsUnknownUser() {
+        when(mockLogUserField.getText()).thenReturn("nobody");
+        when(mockUserRepository.getUserByUsername("nobody")).thenReturn(null);
+
+        controller.handleApplyLogFilter();
+
+        verify(mockMessageRepository, never()).getActivityLogsPage(any(), any(), anyInt());
+        verify(mockLogsPageLabel).setText(contains("nobody"));
     }
 
     @Test
@@ -168,7 +168,7 @@ class ClaimItemControllerTest {
 
     @Test
     @DisplayName("Test 2: HandleClaim shows success message")
-    void testHandleClaimMarksItemResolved() {
+    void testHandleClaimMarksItemResolved() throws Exception {
         // Arrange
         Item lostItem = new LostItem(
                 UUID.randomUUID().toString(),
@@ -212,13 +212,17 @@ class ClaimItemControllerTest {
             injectField("currentUser", mockCurrentUser);
             injectField("messageRepository", mockMessageRepository);
             injectField("userRepository", mockUserRepository);
+            // resolves through ItemService, which picks up the mocked ItemRepository
+            injectField("itemService", new ItemService());
+            when(mockItemRepository.resolveMatch(any(), any(), any())).thenReturn(true);
 
             controller.setItem(lostItem, null);
 
             // Act
             controller.handleClaim();
 
-            // Assert - Verify success alert is shown
+            // Assert - Both items are resolved together and the success alert is shown
+            verify(mockItemRepository).resolveMatch(eq(lostItem), eq(foundItem), any());
             alertMock.verify(() -> AlertUtil.showAlert("Success", "Item claimed successfully!", Alert.AlertType.INFORMATION));
             navMock.verify(NavigationManager::goBack);
         }
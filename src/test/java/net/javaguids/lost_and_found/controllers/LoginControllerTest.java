@@ -4,6 +4,8 @@ import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
 import net.javaguids.lost_and_found.model.users.User;
 import net.javaguids.lost_and_found.model.enums.UserRole;
+import net.javaguids.lost_and_found.exceptions.AuthException;
+import net.javaguids.lost_and_found.services.AsyncServices;
 import net.javaguids.lost_and_found.services.AuthService;
 import net.javaguids.lost_and_found.utils.NavigationManager;
 import net.javaguids.lost_and_found.utils.AlertUtil;
@@ -13,6 +15,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.MockedStatic;
 import org.testfx.framework.junit5.ApplicationTest;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 class LoginControllerTest extends ApplicationTest {
@@ -101,7 +107,7 @@ class LoginControllerTest extends ApplicationTest {
             passwordField.setText("wrongpass");
 
             authService.when(() -> AuthService.login("wronguser", "wrongpass"))
-                .thenReturn(null);
+                .thenReturn(CompletableFuture.completedFuture(null));
 
             controller.handleLogin();
 
@@ -110,6 +116,32 @@ class LoginControllerTest extends ApplicationTest {
         }
     }
 
+    @Test
+    @DisplayName("Should show the reason when the login is refused")
+    void testHandleLogin_Refused() {
+        try (MockedStatic<AuthService> authService = mockStatic(AuthService.class);
+             MockedStatic<AlertUtil> alertUtil = mockStatic(AlertUtil.class)) {
+
+            usernameField.setText("busyuser");
+            passwordField.setText("password123");
+
+            authService.when(() -> AuthService.login("busyuser", "password123"))
+                .thenReturn(CompletableFuture.failedFuture(new AuthException("Too many login attempts")));
+            long calls = loginCalls();
+
+            controller.handleLogin();
+
+            alertUtil.verify(() -> AlertUtil.showAlert(eq("Login Failed"),
+                eq("Too many login attempts"), any()));
+            assertEquals(calls + 1, loginCalls(), "The login should run through AsyncServices");
+        }
+    }
+
+    private static long loginCalls() {
+        AsyncServices.CallStats stats = AsyncServices.getInstance().getStats("auth.login");
+        return stats == null ? 0 : stats.getCount();
+    }
+
     @Test
     @DisplayName("Should navigate to user dashboard on successful regular user login")
     void testHandleLogin_SuccessfulLoginAsRegularUser() {
@@ -122,7 +154,7 @@ class LoginControllerTest extends ApplicationTest {
             User mockUser = mock(User.class);
             when(mockUser.getRole()).thenReturn(UserRole.USER);
             authService.when(() -> AuthService.login("regularuser", "password123"))
-                .thenReturn(mockUser);
+                .thenReturn(CompletableFuture.completedFuture(mockUser));
 
             controller.handleLogin();
 
@@ -143,7 +175,7 @@ class LoginControllerTest extends ApplicationTest {
             User mockUser = mock(User.class);
             when(mockUser.getRole()).thenReturn(UserRole.ADMIN);
             authService.when(() -> AuthService.login("admin", "adminpass"))
-                .thenReturn(mockUser);
+                .thenReturn(CompletableFuture.completedFuture(mockUser));
 
             controller.handleLogin();
 
@@ -164,7 +196,7 @@ class LoginControllerTest extends ApplicationTest {
             User mockUser = mock(User.class);
             when(mockUser.getRole()).thenReturn(UserRole.MODERATOR);
             authService.when(() -> AuthService.login("moderator", "modpass"))
-                .thenReturn(mockUser);
+                .thenReturn(CompletableFuture.completedFuture(mockUser));
 
             controller.handleLogin();
 
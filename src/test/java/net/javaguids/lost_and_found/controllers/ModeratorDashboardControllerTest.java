@@ -6,6 +6,7 @@ import javafx.collections.ObservableList;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableView;
+import net.javaguids.lost_and_found.analytics.Statistics;
 import net.javaguids.lost_and_found.database.ItemRepository;
 import net.javaguids.lost_and_found.database.MessageRepository;
 import net.javaguids.lost_and_found.database.UserRepository;
@@ -16,6 +17,7 @@ import net.javaguids.lost_and_found.model.items.LostItem;
 import net.javaguids.lost_and_found.model.items.FoundItem;
 import net.javaguids.lost_and_found.model.users.User;
 import net.javaguids.lost_and_found.services.AuthService;
+import net.javaguids.lost_and_found.services.ItemService;
 import net.javaguids.lost_and_found.utils.NavigationManager;
 import net.javaguids.lost_and_found.utils.AlertUtil;
 import org.junit.jupiter.api.BeforeAll;
@@ -60,6 +62,9 @@ class ModeratorDashboardControllerTest {
     @Mock
     private MessageRepository mockMessageRepository;
 
+    @Mock
+    private ItemService mockItemService;
+
     @Mock
     private User mockUser1;
 
@@ -112,6 +117,7 @@ class ModeratorDashboardControllerTest {
         injectField("userRepository", mockUserRepository);
         injectField("itemRepository", mockItemRepository);
         injectField("messageRepository", mockMessageRepository);
+        when(mockMessageRepository.generateStatistics()).thenReturn(new Statistics());
     }
 
     @Test
@@ -269,11 +275,17 @@ class ModeratorDashboardControllerTest {
         injectField("totalItemsLabel", mockTotalItemsLabel);
         injectField("totalChatsLabel", mockTotalChatsLabel);
 
+        Statistics stats = new Statistics();
+        stats.setTotalItems(2);
+        stats.setTotalConversations(1);
+        when(mockMessageRepository.generateStatistics()).thenReturn(stats);
+
         // Act
         controller.initialize();
 
-        // Assert - controller initializes without errors
-        assertNotNull(controller);
+        // Assert - labels come from the statistics counters
+        verify(mockTotalItemsLabel).setText("Total Items: 2");
+        verify(mockTotalChatsLabel).setText("Total Conversations: 1");
     }
 
     @Test
@@ -291,11 +303,12 @@ class ModeratorDashboardControllerTest {
             0.0
         );
 
-        when(mockItemRepository.deleteItem(item.getItemId())).thenReturn(true);
+        when(mockItemService.deleteItem(item.getItemId())).thenReturn(true);
         when(mockItemRepository.searchItems(null)).thenReturn(Collections.emptyList());
         when(mockMessageRepository.getAllMessages()).thenReturn(Collections.emptyList());
 
         injectField("itemRepository", mockItemRepository);
+        injectField("itemService", mockItemService);
         injectField("messageRepository", mockMessageRepository);
         injectField("userRepository", mockUserRepository);
         injectField("itemsTable", mockItemsTable);
@@ -328,7 +341,7 @@ class ModeratorDashboardControllerTest {
             0.0
         );
 
-        when(mockItemRepository.deleteItem(itemId)).thenReturn(true);
+        when(mockItemService.deleteItem(itemId)).thenReturn(true);
         when(mockItemRepository.searchItems(null))
             .thenReturn(Collections.emptyList()) // First call during initialize
             .thenReturn(Collections.emptyList()); // Second call after delete
@@ -336,6 +349,7 @@ class ModeratorDashboardControllerTest {
         when(mockMessageRepository.getAllMessages()).thenReturn(Collections.emptyList());
 
         injectField("itemRepository", mockItemRepository);
+        injectField("itemService", mockItemService);
         injectField("messageRepository", mockMessageRepository);
         injectField("userRepository", mockUserRepository);
         injectField("itemsTable", mockItemsTable);
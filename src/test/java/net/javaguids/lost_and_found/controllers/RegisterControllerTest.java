@@ -13,6 +13,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.MockedStatic;
 import org.testfx.framework.junit5.ApplicationTest;
+
+import java.util.concurrent.CompletableFuture;
+
 import static org.mockito.Mockito.*;
 
 class RegisterControllerTest extends ApplicationTest {
@@ -171,7 +174,7 @@ class RegisterControllerTest extends ApplicationTest {
 
             User mockUser = mock(User.class);
             authService.when(() -> AuthService.register("newuser", "newuser@example.com", "password123"))
-                .thenReturn(mockUser);
+                .thenReturn(CompletableFuture.completedFuture(mockUser));
 
             controller.handleRegister();
 
@@ -195,7 +198,7 @@ class RegisterControllerTest extends ApplicationTest {
             confirmPasswordField.setText("password123");
 
             authService.when(() -> AuthService.register("existinguser", "test@example.com", "password123"))
-                .thenThrow(new AuthException("Username already exists"));
+                .thenReturn(CompletableFuture.failedFuture(new AuthException("Username already exists")));
 
             controller.handleRegister();
 
@@ -216,7 +219,7 @@ class RegisterControllerTest extends ApplicationTest {
             confirmPasswordField.setText("password123");
 
             authService.when(() -> AuthService.register("newuser", "existing@example.com", "password123"))
-                .thenThrow(new AuthException("Email already exists"));
+                .thenReturn(CompletableFuture.failedFuture(new AuthException("Email already exists")));
 
             controller.handleRegister();
 
@@ -237,7 +240,7 @@ class RegisterControllerTest extends ApplicationTest {
             confirmPasswordField.setText("password123");
 
             authService.when(() -> AuthService.register("newuser", "notanemail", "password123"))
-                .thenThrow(new AuthException("Invalid email format"));
+                .thenReturn(CompletableFuture.failedFuture(new AuthException("Invalid email format")));
 
             controller.handleRegister();
 
@@ -258,7 +261,7 @@ class RegisterControllerTest extends ApplicationTest {
             confirmPasswordField.setText("weak");
 
             authService.when(() -> AuthService.register("newuser", "test@example.com", "weak"))
-                .thenThrow(new AuthException("Password must be at least 8 characters"));
+                .thenReturn(CompletableFuture.failedFuture(new AuthException("Password must be at least 8 characters")));
 
             controller.handleRegister();
 
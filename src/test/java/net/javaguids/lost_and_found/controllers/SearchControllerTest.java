@@ -9,12 +9,17 @@ import net.javaguids.lost_and_found.context.NavigationContext;
 import net.javaguids.lost_and_found.model.enums.ItemType;
 import net.javaguids.lost_and_found.model.items.Item;
 import net.javaguids.lost_and_found.search.SearchCriteria;
+import net.javaguids.lost_and_found.search.SearchFacets;
+import net.javaguids.lost_and_found.search.SearchResults;
 import net.javaguids.lost_and_found.services.ItemService;
 import net.javaguids.lost_and_found.utils.NavigationManager;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
@@ -54,6 +59,12 @@ class SearchControllerTest {
     @Mock
     private ComboBox<String> mockTypeCombo;
 
+    @Mock
+    private DatePicker mockDateFromPicker;
+
+    @Mock
+    private DatePicker mockDateToPicker;
+
     @Mock
     private TableView<Item> mockResultsTable;
 
@@ -69,6 +80,9 @@ class SearchControllerTest {
     @Mock
     private TableColumn<Item, String> mockTypeColumn;
 
+    @Mock
+    private Label mockFacetsLabel;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -77,11 +91,14 @@ class SearchControllerTest {
         injectField("categoryCombo", mockCategoryCombo);
         injectField("locationField", mockLocationField);
         injectField("typeCombo", mockTypeCombo);
+        injectField("dateFromPicker", mockDateFromPicker);
+        injectField("dateToPicker", mockDateToPicker);
         injectField("resultsTable", mockResultsTable);
         injectField("titleColumn", mockTitleColumn);
         injectField("categoryColumn", mockCategoryColumn);
         injectField("locationColumn", mockLocationColumn);
         injectField("typeColumn", mockTypeColumn);
+        injectField("facetsLabel", mockFacetsLabel);
         // common stubbing
         when(mockCategoryCombo.getItems()).thenReturn(FXCollections.observableArrayList());
         when(mockTypeCombo.getItems()).thenReturn(FXCollections.observableArrayList());
@@ -122,8 +139,10 @@ class SearchControllerTest {
         when(mockTypeCombo.getValue()).thenReturn("LOST");
         injectField("itemService", mockItemService);
         Item mockItem = mock(Item.class);
-        when(mockItemService.searchItemsExcludingUser(any(SearchCriteria.class), eq("user1")))
-            .thenReturn(List.of(mockItem));
+        SearchFacets facets = new SearchFacets();
+        facets.add(mockItem);
+        when(mockItemService.searchWithFacetsExcludingUser(any(SearchCriteria.class), eq("user1")))
+            .thenReturn(new SearchResults(List.of(mockItem), facets));
 
         try (MockedStatic<net.javaguids.lost_and_found.services.AuthService> authMock = mockStatic(net.javaguids.lost_and_found.services.AuthService.class)) {
             var mockUser = mock(net.javaguids.lost_and_found.model.users.User.class);
@@ -134,7 +153,7 @@ class SearchControllerTest {
         }
 
         ArgumentCaptor<SearchCriteria> criteriaCaptor = ArgumentCaptor.forClass(SearchCriteria.class);
-        verify(mockItemService).searchItemsExcludingUser(criteriaCaptor.capture(), eq("user1"));
+        verify(mockItemService).searchWithFacetsExcludingUser(criteriaCaptor.capture(), eq("user1"));
         SearchCriteria criteria = criteriaCaptor.getValue();
         assertEquals("wallet", criteria.getKeywords());
         assertEquals("Accessories", criteria.getCategory());
@@ -144,6 +163,7 @@ class SearchControllerTest {
         ArgumentCaptor<ObservableList<Item>> resultsCaptor = ArgumentCaptor.forClass(ObservableList.class);
         verify(mockResultsTable).setItems(resultsCaptor.capture());
         assertEquals(1, resultsCaptor.getValue().size(), "Results table should receive returned items");
+        verify(mockFacetsLabel).setText(startsWith("1 result(s)"));
     }
 
     @Test
@@ -154,8 +174,8 @@ class SearchControllerTest {
         when(mockLocationField.getText()).thenReturn("");
         when(mockTypeCombo.getValue()).thenReturn("All");
         injectField("itemService", mockItemService);
-        when(mockItemService.searchItemsExcludingUser(any(SearchCriteria.class), eq("u1")))
-            .thenReturn(List.of());
+        when(mockItemService.searchWithFacetsExcludingUser(any(SearchCriteria.class), eq("u1")))
+            .thenReturn(new SearchResults(List.of(), new SearchFacets()));
 
         try (MockedStatic<net.javaguids.lost_and_found.services.AuthService> authMock = mockStatic(net.javaguids.lost_and_found.services.AuthService.class)) {
             var mockUser = mock(net.javaguids.lost_and_found.model.users.User.class);
@@ -166,18 +186,48 @@ class SearchControllerTest {
         }
 
         ArgumentCaptor<SearchCriteria> criteriaCaptor = ArgumentCaptor.forClass(SearchCriteria.class);
-        verify(mockItemService).searchItemsExcludingUser(criteriaCaptor.capture(), eq("u1"));
+        verify(mockItemService).searchWithFacetsExcludingUser(criteriaCaptor.capture(), eq("u1"));
         SearchCriteria criteria = criteriaCaptor.getValue();
         assertNull(criteria.getKeywords(), "Keywords should remain unset");
         assertNull(criteria.getCategory(), "Category should remain unset");
         assertNull(criteria.getLocation(), "Location should remain unset");
         assertNull(criteria.getType(), "Type should remain unset");
+        assertNull(criteria.getDateFrom(), "Date from should remain unset");
+        assertNull(criteria.getDateTo(), "Date to should remain unset");
 
         ArgumentCaptor<ObservableList<Item>> resultsCaptor = ArgumentCaptor.forClass(ObservableList.class);
         verify(mockResultsTable).setItems(resultsCaptor.capture());
         assertEquals(0, resultsCaptor.getValue().size(), "Results should be empty");
     }
 
+    @Test
+    @DisplayName("handleSearch turns the picked days into an inclusive date range")
+    void testHandleSearchSetsDateRange() {
+        when(mockKeywordsField.getText()).thenReturn("");
+        when(mockCategoryCombo.getValue()).thenReturn("All");
+        when(mockLocationField.getText()).thenReturn("");
+        when(mockTypeCombo.getValue()).thenReturn("All");
+        when(mockDateFromPicker.getValue()).thenReturn(LocalDate.of(2024, 3, 1));
+        when(mockDateToPicker.getValue()).thenReturn(LocalDate.of(2024, 3, 3));
+        injectField("itemService", mockItemService);
+        when(mockItemService.searchWithFacetsExcludingUser(any(SearchCriteria.class), eq("u1")))
+            .thenReturn(new SearchResults(List.of(), new SearchFacets()));
+
+        try (MockedStatic<net.javaguids.lost_and_found.services.AuthService> authMock = mockStatic(net.javaguids.lost_and_found.services.AuthService.class)) {
+            var mockUser = mock(net.javaguids.lost_and_found.model.users.User.class);
+            authMock.when(net.javaguids.lost_and_found.services.AuthService::getCurrentUser).thenReturn(mockUser);
+            when(mockUser.getUserId()).thenReturn("u1");
+
+            controller.handleSearch();
+        }
+
+        ArgumentCaptor<SearchCriteria> criteriaCaptor = ArgumentCaptor.forClass(SearchCriteria.class);
+        verify(mockItemService).searchWithFacetsExcludingUser(criteriaCaptor.capture(), eq("u1"));
+        SearchCriteria criteria = criteriaCaptor.getValue();
+        assertEquals(LocalDateTime.of(2024, 3, 1, 0, 0), criteria.getDateFrom());
+        assertEquals(LocalDate.of(2024, 3, 3).atTime(LocalTime.MAX), criteria.getDateTo());
+    }
+
     @Test
     @DisplayName("handleGoBack delegates to NavigationManager")
     void testHandleGoBack() {
@@ -0,0 +1,42 @@
+package net.javaguids.lost_and_found.database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for ActiveUserRepository class. Tests daily recording and distinct counts across days
+class ActiveUserRepositoryTest {
+    private ActiveUserRepository repository;
+    // a random day long ago, so the sketches of real activity are not involved
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        repository = ActiveUserRepository.getInstance();
+        day = LocalDate.of(1900, 1, 1).plusDays(new Random().nextInt(36500));
+    }
+
+    @Test
+    void testDistinctUsersPerDayAndAcrossDays() {
+        String alice = "user-" + UUID.randomUUID();
+        String bob = "user-" + UUID.randomUUID();
+        String carol = "user-" + UUID.randomUUID();
+        assertTrue(repository.recordActivity(alice, day));
+        assertTrue(repository.recordActivity(alice, day));
+        assertTrue(repository.recordActivity(bob, day));
+        assertTrue(repository.recordActivity(bob, day.plusDays(1)));
+        assertTrue(repository.recordActivity(carol, day.plusDays(1)));
+
+        assertEquals(2, repository.countActiveUsers(day, day));
+        assertEquals(2, repository.countActiveUsers(day.plusDays(1), day.plusDays(1)));
+        assertEquals(3, repository.countActiveUsers(day, day.plusDays(1)), "Bob is counted once over both days");
+    }
+
+    @Test
+    void testNoActivity() {
+        assertEquals(0, repository.countActiveUsers(LocalDate.of(1800, 1, 1), LocalDate.of(1800, 1, 31)));
+    }
+}
@@ -0,0 +1,212 @@
+package net.javaguids.lost_and_found.database;
+
+import net.javaguids.lost_and_found.analytics.ActivityLog;
+import net.javaguids.lost_and_found.analytics.ImportReport;
+import net.javaguids.lost_and_found.model.items.Item;
+import net.javaguids.lost_and_found.search.LocationPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for BulkTransfer and BulkFormat classes. Tests round trips through every format and
+// importing/exporting against the database
+class BulkTransferTest {
+    private static final List<String> COLUMNS = List.of("log_id", "user_id", "action", "details", "timestamp");
+
+    private BulkTransfer bulkTransfer;
+
+    @BeforeEach
+    void setUp() {
+        bulkTransfer = BulkTransfer.getInstance();
+    }
+
+    private static List<String[]> sampleRows(String prefix) {
+        String now = LocalDateTime.now().toString();
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {prefix + "-1", "user-1", "LOGIN", "plain", now});
+        rows.add(new String[] {prefix + "-2", "user-1", "POST_ITEM", "Keys, \"car\"\r\nsecond line", now});
+        rows.add(new String[] {prefix + "-3", "user-2", "LOGOUT", null, now});
+        rows.add(new String[] {prefix + "-4", "user-2", "MESSAGE", "", now});
+        rows.add(new String[] {prefix + "-5", "user-3", "NOTE", "tab\there \\ café \u0001", now});
+        return rows;
+    }
+
+    private static byte[] write(BulkFormat format, List<String[]> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BulkFormat.RowWriter writer = format.openWriter(out, COLUMNS)) {
+            for (String[] row : rows) {
+                writer.write(row);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    void testFormatRoundTripKeepsNullsAndSpecialCharacters() throws IOException {
+        List<String[]> rows = sampleRows("log");
+
+        for (BulkFormat format : BulkFormat.values()) {
+            byte[] data = write(format, rows);
+
+            try (BulkFormat.RowReader reader = format.openReader(new ByteArrayInputStream(data))) {
+                assertEquals(COLUMNS, reader.getColumns(), format.name());
+                for (String[] expected : rows) {
+                    assertArrayEquals(expected, reader.next(), format.name());
+                }
+                assertNull(reader.next(), format + ": no rows after the last one");
+            }
+        }
+    }
+
+    @Test
+    void testJsonlMatchesKeysByName() throws IOException {
+        String data = "{\"log_id\":\"a\",\"action\":\"LOGIN\"}\n" +
+                "\n" +
+                "{\"action\":\"LOGOUT\", \"log_id\":\"b\"}\n";
+
+        try (BulkFormat.RowReader reader = BulkFormat.JSONL.openReader(
+                new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)))) {
+            assertEquals(List.of("log_id", "action"), reader.getColumns());
+            assertArrayEquals(new String[] {"a", "LOGIN"}, reader.next());
+            assertArrayEquals(new String[] {"b", "LOGOUT"}, reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void testFromFileName() {
+        assertEquals(BulkFormat.CSV, BulkFormat.fromFileName("users.CSV"));
+        assertEquals(BulkFormat.JSONL, BulkFormat.fromFileName("items.jsonl"));
+        assertEquals(BulkFormat.BINARY, BulkFormat.fromFileName("messages.bin"));
+        assertNull(BulkFormat.fromFileName("items.xml"));
+    }
+
+    @Test
+    void testImportThenExportActivityLogs() throws Exception {
+        String prefix = "bulk-" + UUID.randomUUID().toString().substring(0, 8);
+        List<String[]> rows = sampleRows(prefix);
+
+        ImportReport report = bulkTransfer.importTable("activity_logs",
+                new ByteArrayInputStream(write(BulkFormat.CSV, rows)), BulkFormat.CSV);
+
+        assertEquals(rows.size(), report.getRowsImported());
+        assertEquals(0, report.getRowsSkipped());
+        assertEquals(1, report.getBatchCount());
+        List<ActivityLog> logs = MessageRepository.getInstance().getActivityLogs(
+                LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1));
+        ActivityLog multiline = logs.stream()
+                .filter(log -> log.getLogId().equals(prefix + "-2"))
+                .findFirst().orElse(null);
+        assertNotNull(multiline, "Imported log should be readable through the repository");
+        assertEquals("Keys, \"car\"\r\nsecond line", multiline.getDetails());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = bulkTransfer.exportTable("activity_logs", out, BulkFormat.JSONL);
+        assertTrue(exported >= rows.size());
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("\"log_id\":\"" + prefix + "-4\""));
+    }
+
+    @Test
+    void testFailingRowRollsBackItsBatch() throws IOException {
+        String prefix = "bulk-" + UUID.randomUUID().toString().substring(0, 8);
+        // second row has a NULL action, which the table does not allow
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {prefix + "-ok", "user-1", "LOGIN", "fine", LocalDateTime.now().toString()});
+        rows.add(new String[] {prefix + "-bad", "user-1", null, "broken", LocalDateTime.now().toString()});
+
+        assertThrows(Exception.class, () -> bulkTransfer.importTable("activity_logs",
+                new ByteArrayInputStream(write(BulkFormat.BINARY, rows)), BulkFormat.BINARY));
+
+        boolean present = MessageRepository.getInstance().getActivityLogs(
+                        LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1)).stream()
+                .anyMatch(log -> log.getLogId().startsWith(prefix));
+        assertFalse(present, "The failing row's batch should not leave any rows behind");
+    }
+
+    private static byte[] csv(String... lines) {
+        return (String.join("\r\n", lines) + "\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testImportSkipsRowsThatClashWithAnotherUser() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        String existingId = "bulk-user-" + suffix;
+        String otherId = "bulk-other-" + suffix;
+        String header = "user_id,username,email,password_hash,role,created_at";
+        String now = LocalDateTime.now().toString();
+        UserRepository users = UserRepository.getInstance();
+        try {
+            bulkTransfer.importTable("users", new ByteArrayInputStream(csv(header,
+                    existingId + ",bulk_" + suffix + ",old-" + suffix + "@x.org,hash,USER," + now)), BulkFormat.CSV);
+            assertEquals("bulk_" + suffix, users.getUsername(existingId));
+
+            // same key: updated in place; other key with a taken username: skipped, not replacing
+            ImportReport report = bulkTransfer.importTable("users", new ByteArrayInputStream(csv(header,
+                    existingId + ",bulk_" + suffix + ",new-" + suffix + "@x.org,hash,USER," + now,
+                    otherId + ",bulk_" + suffix + ",other-" + suffix + "@x.org,hash,USER," + now)), BulkFormat.CSV);
+
+            assertEquals(1, report.getRowsImported());
+            assertEquals(1, report.getRowsSkipped());
+            assertTrue(report.getConflicts().get(0).startsWith(otherId), report.getConflicts().toString());
+            assertEquals("new-" + suffix + "@x.org", users.getUserById(existingId).getEmail());
+            assertNull(users.getUserById(otherId));
+        } finally {
+            users.deleteUser(existingId);
+            users.deleteUser(otherId);
+        }
+    }
+
+    @Test
+    void testItemImportDerivesColumnsAndBumpsVersion() throws Exception {
+        String itemId = "bulk-item-" + UUID.randomUUID().toString().substring(0, 8);
+        LocalDateTime lostAt = LocalDateTime.of(2024, 3, 5, 14, 30);
+        String header = "item_id,title,location,date_posted,status,posted_by_user_id,type,date_lost_found";
+        String row = itemId + ",%s,Campus > Library > Room 2," + LocalDateTime.now() + ",ACTIVE,U1,LOST," + lostAt;
+        ItemRepository items = ItemRepository.getInstance();
+        try {
+            bulkTransfer.importTable("items", new ByteArrayInputStream(csv(header, String.format(row, "Scarf"))),
+                    BulkFormat.CSV);
+            String query = "SELECT day_bucket, location_path FROM items WHERE item_id = ?";
+            try (PreparedStatement pstmt = DatabaseManager.getInstance().getConnection().prepareStatement(query)) {
+                pstmt.setString(1, itemId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals(lostAt.toLocalDate().toEpochDay(), rs.getLong("day_bucket"));
+                    assertEquals(LocationPath.parse("Campus > Library > Room 2").getKey(), rs.getString("location_path"));
+                }
+            }
+            Item before = items.getItemById(itemId);
+
+            bulkTransfer.importTable("items", new ByteArrayInputStream(csv(header, String.format(row, "Red scarf"))),
+                    BulkFormat.CSV);
+
+            Item after = items.getItemById(itemId);
+            assertEquals("Red scarf", after.getTitle());
+            assertEquals(before.getVersion() + 1, after.getVersion(), "A copy read before the import must conflict");
+        } finally {
+            items.deleteItem(itemId);
+        }
+    }
+
+    @Test
+    void testImportRejectsUnknownColumnsAndTables() {
+        String data = "log_id,not_a_column\r\nx,y\r\n";
+
+        assertThrows(IOException.class, () -> bulkTransfer.importTable("activity_logs",
+                new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), BulkFormat.CSV));
+        assertThrows(Exception.class, () -> bulkTransfer.importTable("sqlite_master",
+                new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), BulkFormat.CSV));
+    }
+}
@@ -1,9 +1,20 @@
 package net.javaguids.lost_and_found.database;
 
+import net.javaguids.lost_and_found.model.items.LostItem;
 import org.junit.jupiter.api.*;
 import java.io.File;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -72,10 +83,80 @@ class DatabaseManagerTest {
     @Test
     @DisplayName("Test closeConnection closes the connection")
     void testCloseConnection() throws SQLException {
-        // Create a new instance for this test to avoid affecting other tests
+        // Close a second instance: every repository holds the shared connection for the whole run
+        DatabaseManager shared = DatabaseManager.replaceInstance(null);
+        try {
+            DatabaseManager own = DatabaseManager.getInstance();
+            assertNotSame(shared, own);
+            Connection connection = own.getConnection();
+            own.closeConnection();
+            assertTrue(connection.isClosed(),
+                "Connection should be closed after calling closeConnection()");
+            assertFalse(shared.getConnection().isClosed(), "The shared connection should stay open");
+        } finally {
+            DatabaseManager.replaceInstance(shared);
+        }
+    }
+
+    @Test
+    @DisplayName("Test getInstance returns one instance to threads racing on first use")
+    void testGetInstanceFromManyThreads() throws Exception {
+        // start from no instance, so the threads race to create it
+        DatabaseManager shared = DatabaseManager.replaceInstance(null);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<DatabaseManager>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return DatabaseManager.getInstance();
+                }));
+            }
+            start.countDown();
+            DatabaseManager created = results.get(0).get();
+            assertNotSame(shared, created, "The threads should have created a new instance");
+            for (Future<DatabaseManager> result : results) {
+                assertSame(created, result.get(), "Every thread should see the same instance");
+            }
+        } finally {
+            pool.shutdown();
+            DatabaseManager created = DatabaseManager.replaceInstance(shared);
+            if (created != null && created != shared) {
+                created.closeConnection();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test the database uses write-ahead logging and can be checkpointed")
+    void testWriteAheadLogCheckpoint() throws SQLException {
         Connection connection = dbManager.getConnection();
-        dbManager.closeConnection();
-        assertTrue(connection.isClosed(),
-            "Connection should be closed after calling closeConnection()");
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA journal_mode")) {
+            assertTrue(rs.next());
+            assertEquals("wal", rs.getString(1).toLowerCase());
+        }
+        assertTrue(dbManager.checkpoint(), "Checkpoint should complete with no other readers");
+    }
+
+    @Test
+    @DisplayName("Test a write from another thread waits for an open transaction instead of joining it")
+    void testWriteWaitsForOpenTransaction() throws Exception {
+        LostItem item = new LostItem("TX-" + UUID.randomUUID(), "Scarf", "Red scarf", "Clothing",
+                "Library", "U1", LocalDateTime.now(), 0.0);
+        Thread writer = new Thread(() -> ItemRepository.getInstance().saveItem(item));
+        // another thread's transaction, rolled back while the write is pending
+        assertThrows(IllegalStateException.class, () -> dbManager.inTransaction(tx -> {
+            writer.start();
+            writer.join(200);
+            assertTrue(writer.isAlive(), "The write should wait for the write lock");
+            throw new IllegalStateException("roll back");
+        }));
+        writer.join(5000);
+
+        assertNotNull(ItemRepository.getInstance().getItemById(item.getItemId()),
+            "The write should not have been rolled back with the other transaction");
+        ItemRepository.getInstance().deleteItem(item.getItemId());
     }
 }
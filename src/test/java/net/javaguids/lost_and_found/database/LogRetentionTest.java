@@ -0,0 +1,67 @@
+package net.javaguids.lost_and_found.database;
+
+import net.javaguids.lost_and_found.analytics.ActivityLog;
+import net.javaguids.lost_and_found.analytics.ActivityLogFilter;
+import net.javaguids.lost_and_found.analytics.RetentionReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for LogRetention class. Tests batched deletion of old activity logs and the report
+class LogRetentionTest {
+    // far enough in the past that no real log is affected
+    private static final LocalDateTime OLD = LocalDateTime.of(1990, 6, 1, 12, 0);
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(1991, 1, 1, 0, 0);
+
+    private MessageRepository messageRepository;
+    private String userId;
+
+    @BeforeEach
+    void setUp() {
+        messageRepository = MessageRepository.getInstance();
+        userId = "retention-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private void saveLog(LocalDateTime timestamp) {
+        ActivityLog log = new ActivityLog("log-" + UUID.randomUUID(), userId, "TEST_ACTION", "Retention test");
+        log.setTimestamp(timestamp);
+        messageRepository.saveActivityLog(log);
+    }
+
+    @Test
+    void testPurgeDeletesOldLogsInBatches() {
+        for (int i = 0; i < 5; i++) {
+            saveLog(OLD.plusMinutes(i));
+        }
+        saveLog(CUTOFF.plusDays(1));
+        ActivityLogFilter filter = new ActivityLogFilter();
+        filter.setUserId(userId);
+
+        RetentionReport report = LogRetention.getInstance().purgeBefore(CUTOFF, 2);
+
+        assertEquals(5, report.getRowsDeleted());
+        // 2 + 2 + 1; the short batch shows nothing is left
+        assertEquals(3, report.getBatchCount());
+        assertEquals(report.getBatchCount(), report.getBatchPauseMillis().size());
+        assertEquals(1, messageRepository.countActivityLogs(filter), "Logs after the cutoff are kept");
+        assertTrue(report.getBytesReclaimed() >= 0);
+    }
+
+    @Test
+    void testDatabaseUsesIncrementalVacuum() throws SQLException {
+        // switched at startup, so retention runs never have to rewrite the whole file
+        assertTrue(LogRetention.getInstance().isIncrementalVacuum());
+    }
+
+    @Test
+    void testPurgeWithNothingToDelete() {
+        RetentionReport report = LogRetention.getInstance().purgeBefore(LocalDateTime.of(1970, 1, 1, 0, 0), 100);
+
+        assertEquals(0, report.getRowsDeleted());
+        assertEquals(1, report.getBatchCount());
+        assertEquals(0, report.getBytesReclaimed());
+    }
+}
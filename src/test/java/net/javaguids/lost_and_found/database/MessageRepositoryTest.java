@@ -2,8 +2,11 @@ package net.javaguids.lost_and_found.database;
 
 import net.javaguids.lost_and_found.messaging.Message;
 import net.javaguids.lost_and_found.analytics.ActivityLog;
+import net.javaguids.lost_and_found.analytics.ActivityLogFilter;
+import net.javaguids.lost_and_found.analytics.Statistics;
 import org.junit.jupiter.api.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -209,6 +212,28 @@ class MessageRepositoryTest {
         assertTrue(result, "saveActivityLog should return true on success");
     }
 
+    @Test
+    @DisplayName("Test saveActivityLog stores the actor name with the log")
+    void testSaveActivityLogStoresActorName() {
+        // Arrange
+        String logId = "log-" + UUID.randomUUID().toString().substring(0, 8);
+        ActivityLog userLog = new ActivityLog(logId, testSenderId, "TEST_ACTION", "Named log");
+        userLog.setActorName("named-actor");
+        String systemLogId = "log-" + UUID.randomUUID().toString().substring(0, 8);
+        ActivityLog systemLog = new ActivityLog(systemLogId, "SYSTEM", "TEST_ACTION", "System log");
+
+        // Act
+        repository.saveActivityLog(userLog);
+        repository.saveActivityLog(systemLog);
+        List<ActivityLog> logs = repository.getActivityLogs(LocalDateTime.now().minusMinutes(5),
+                LocalDateTime.now().plusMinutes(5));
+
+        // Assert
+        assertTrue(logs.stream().anyMatch(l -> l.getLogId().equals(logId) && "named-actor".equals(l.getActorName())));
+        assertTrue(logs.stream().anyMatch(l -> l.getLogId().equals(systemLogId) && "SYSTEM".equals(l.getActorName())),
+                "Actor name should be filled in when the log has none");
+    }
+
     @Test
     @DisplayName("Test getActivityLogs retrieves logs within time range")
     void testGetActivityLogs() {
@@ -228,6 +253,55 @@ class MessageRepositoryTest {
         // Might be empty if no logs in that time range
     }
 
+    @Test
+    @DisplayName("Test forEachActivityLog streams the logs in the time range")
+    void testForEachActivityLog() {
+        // Arrange
+        String logId = "log-" + UUID.randomUUID().toString().substring(0, 8);
+        repository.saveActivityLog(new ActivityLog(logId, testSenderId, "TEST_ACTION", "Streamed, \"quoted\""));
+        LocalDateTime from = LocalDateTime.now().minusMinutes(5);
+        LocalDateTime to = LocalDateTime.now().plusMinutes(5);
+        List<ActivityLog> streamed = new ArrayList<>();
+
+        // Act
+        boolean result = repository.forEachActivityLog(from, to, streamed::add);
+
+        // Assert
+        assertTrue(result, "forEachActivityLog should return true on success");
+        assertTrue(streamed.stream().anyMatch(l -> l.getLogId().equals(logId)), "Saved log should be streamed");
+        assertEquals(repository.getActivityLogs(from, to).size(), streamed.size());
+    }
+
+    @Test
+    @DisplayName("Test getActivityLogsPage pages through filtered logs without gaps or repeats")
+    void testGetActivityLogsPage() {
+        // Arrange: 5 logs for a fresh user, one minute apart
+        String userId = "user-" + UUID.randomUUID().toString().substring(0, 8);
+        LocalDateTime base = LocalDateTime.now().minusHours(1);
+        for (int i = 0; i < 5; i++) {
+            ActivityLog log = new ActivityLog("log-" + UUID.randomUUID(), userId, i % 2 == 0 ? "LOGIN" : "LOGOUT", "Log " + i);
+            log.setTimestamp(base.plusMinutes(i));
+            repository.saveActivityLog(log);
+        }
+        ActivityLogFilter filter = new ActivityLogFilter(base.minusMinutes(1), LocalDateTime.now());
+        filter.setUserId(userId);
+
+        // Act
+        List<ActivityLog> first = repository.getActivityLogsPage(filter, null, 2);
+        List<ActivityLog> second = repository.getActivityLogsPage(filter, first.get(1), 2);
+        List<ActivityLog> third = repository.getActivityLogsPage(filter, second.get(1), 2);
+
+        // Assert: newest first, each page continues where the last one stopped
+        assertEquals(List.of("Log 4", "Log 3"), first.stream().map(ActivityLog::getDetails).toList());
+        assertEquals(List.of("Log 2", "Log 1"), second.stream().map(ActivityLog::getDetails).toList());
+        assertEquals(List.of("Log 0"), third.stream().map(ActivityLog::getDetails).toList());
+        assertEquals(5, repository.countActivityLogs(filter));
+
+        filter.setAction("LOGIN");
+        assertEquals(3, repository.countActivityLogs(filter));
+        assertTrue(repository.getActivityLogActions().contains("LOGOUT"));
+    }
+
     @Test
     @DisplayName("Test message timestamp is preserved when saved and retrieved")
     void testMessageTimestampPreservation() {
@@ -250,13 +324,35 @@ class MessageRepositoryTest {
     }
 
     @Test
-    @DisplayName("Test generateStatistics returns null (Statistics class not implemented)")
+    @DisplayName("Test generateStatistics returns counters matching the tables")
     void testGenerateStatistics() {
         // Act
-        Object result = repository.generateStatistics();
+        Statistics result = repository.generateStatistics();
+
+        // Assert - the live counters agree with a full recount
+        Statistics counted = repository.countStatistics();
+        assertNotNull(result, "generateStatistics should return a statistics snapshot");
+        assertEquals(counted.getTotalUsers(), result.getTotalUsers());
+        assertEquals(counted.getTotalItems(), result.getTotalItems());
+        assertEquals(counted.getTotalMessages(), result.getTotalMessages());
+    }
 
-        // Assert
-        assertNull(result, "generateStatistics should return null until Statistics class is implemented");
+    @Test
+    @DisplayName("Test statistics counters follow message saves and deletes")
+    void testStatisticsCountersFollowMessageWrites() {
+        // Arrange
+        int before = repository.generateStatistics().getTotalMessages();
+
+        // Act & Assert
+        assertTrue(repository.saveMessage(new Message(testMessageId, testSenderId, testReceiverId, testContent)));
+        assertEquals(before + 1, repository.generateStatistics().getTotalMessages());
+        // saving the same message again replaces it and must not count twice
+        assertTrue(repository.saveMessage(new Message(testMessageId, testSenderId, testReceiverId, testContent)));
+        assertEquals(before + 1, repository.generateStatistics().getTotalMessages());
+
+        assertTrue(repository.deleteMessage(testMessageId));
+        assertEquals(before, repository.generateStatistics().getTotalMessages());
+        assertTrue(repository.reconcileStatistics().isEmpty(), "Counters should not drift");
     }
 }
 
@@ -0,0 +1,115 @@
+package net.javaguids.lost_and_found.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for ReadConnectionPool class. Tests parallel reads, the pool limit, thread binding and read-only connections
+class ReadConnectionPoolTest {
+    private static final String URL = "jdbc:sqlite:lostandfound.db";
+
+    private final ReadConnectionPool pool = new ReadConnectionPool(URL, 2);
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void testBoundConnectionIsUsedInsideWithConnection() throws Exception {
+        Connection shared = DatabaseManager.getInstance().getConnection();
+
+        Connection bound = pool.withConnection(() -> ReadConnectionPool.boundOr(shared));
+
+        assertNotNull(bound);
+        assertNotSame(shared, bound, "Reads inside withConnection should use a pooled connection");
+        assertSame(shared, ReadConnectionPool.boundOr(shared), "Outside withConnection the shared one is used");
+    }
+
+    @Test
+    void testConnectionsAreReadOnly() throws Exception {
+        int users = pool.withConnection(() -> {
+            try (Statement stmt = ReadConnectionPool.boundOr(null).createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users")) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        });
+        assertTrue(users >= 0);
+
+        assertThrows(SQLException.class, () -> pool.withConnection(() -> {
+            try (Statement stmt = ReadConnectionPool.boundOr(null).createStatement()) {
+                return stmt.executeUpdate("DELETE FROM users WHERE user_id = 'no-such-user'");
+            }
+        }));
+    }
+
+    @Test
+    void testNestedCallsKeepTheSameConnection() throws Exception {
+        boolean same = pool.withConnection(() -> {
+            Connection outer = ReadConnectionPool.boundOr(null);
+            return pool.withConnection(() -> ReadConnectionPool.boundOr(null) == outer);
+        });
+        assertTrue(same);
+    }
+
+    @Test
+    void testReadsRunInParallelUpToThePoolSize() throws Exception {
+        int threads = 6;
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+        Set<Connection> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return pool.withConnection(() -> {
+                        seen.add(ReadConnectionPool.boundOr(null));
+                        maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                        try (Statement stmt = ReadConnectionPool.boundOr(null).createStatement();
+                             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM items")) {
+                            Thread.sleep(50);
+                            return rs.next() ? rs.getInt(1) : -1;
+                        } finally {
+                            inUse.decrementAndGet();
+                        }
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS) >= 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, maxInUse.get(), "Two reads should run at once, never more than the pool size");
+        assertEquals(2, seen.size(), "Connections should be reused rather than reopened");
+    }
+
+    @Test
+    void testClosedPoolRefusesWork() {
+        pool.close();
+        assertThrows(SQLException.class, () -> pool.withConnection(() -> 1));
+    }
+}
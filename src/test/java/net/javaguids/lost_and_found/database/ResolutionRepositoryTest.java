@@ -0,0 +1,78 @@
+package net.javaguids.lost_and_found.database;
+
+import net.javaguids.lost_and_found.analytics.LatencySketch;
+import net.javaguids.lost_and_found.model.items.FoundItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for ResolutionRepository class. Tests recording resolutions and reading percentiles per dimension
+class ResolutionRepositoryTest {
+    private ResolutionRepository resolutionRepository;
+    private String category;
+    private String campus;
+
+    @BeforeEach
+    void setUp() {
+        resolutionRepository = ResolutionRepository.getInstance();
+        // unique dimensions so earlier runs against the same database do not affect the counts
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        category = "TestCategory-" + suffix;
+        campus = "Campus " + suffix;
+    }
+
+    private FoundItem item(String location) {
+        return new FoundItem("RES-" + UUID.randomUUID(), "Umbrella", "Black umbrella", category,
+                location, "U1", LocalDateTime.now());
+    }
+
+    @Test
+    void testDimensionsIncludeEveryLocationLevel() {
+        List<String> dimensions = ResolutionRepository.dimensionsFor(item(campus + " > Library > Room 2"));
+
+        assertTrue(dimensions.contains(ResolutionRepository.ALL));
+        assertTrue(dimensions.contains(ResolutionRepository.categoryDimension(category)));
+        assertTrue(dimensions.contains(ResolutionRepository.locationDimension(campus)));
+        assertTrue(dimensions.contains(ResolutionRepository.locationDimension(campus + " > Library")));
+        assertTrue(dimensions.contains(ResolutionRepository.locationDimension(campus + " > Library > Room 2")));
+    }
+
+    @Test
+    void testRecordAndReadPercentiles() {
+        LocalDateTime resolvedAt = LocalDateTime.now();
+        assertTrue(resolutionRepository.recordResolution(item(campus + " > Library"),
+                resolvedAt.minusHours(2), resolvedAt));
+        assertTrue(resolutionRepository.recordResolution(item(campus + " > Gym"),
+                resolvedAt.minusDays(3), resolvedAt));
+
+        LocalDate today = resolvedAt.toLocalDate();
+        LatencySketch byCategory = resolutionRepository.getLatencySketch(
+                ResolutionRepository.categoryDimension(category), today, today);
+        assertEquals(2, byCategory.getCount());
+        assertEquals(3 * 24 * 60, byCategory.quantile(1.0), 3 * 24 * 60 * LatencySketch.RELATIVE_ACCURACY);
+
+        LatencySketch library = resolutionRepository.getLatencySketch(
+                ResolutionRepository.locationDimension(campus + ", library"), today, today);
+        assertEquals(1, library.getCount());
+        assertEquals(120, library.quantile(0.5), 120 * LatencySketch.RELATIVE_ACCURACY);
+
+        LatencySketch wholeCampus = resolutionRepository.getLatencySketch(
+                ResolutionRepository.locationDimension(campus), today, today);
+        assertEquals(2, wholeCampus.getCount());
+    }
+
+    @Test
+    void testDaysOutsideRangeAreExcluded() {
+        LocalDateTime resolvedAt = LocalDateTime.now().minusDays(10);
+        resolutionRepository.recordResolution(item(campus), resolvedAt.minusHours(1), resolvedAt);
+
+        LocalDate today = LocalDate.now();
+        LatencySketch recent = resolutionRepository.getLatencySketch(
+                ResolutionRepository.categoryDimension(category), today.minusDays(2), today);
+        assertEquals(0, recent.getCount());
+    }
+}
@@ -0,0 +1,94 @@
+package net.javaguids.lost_and_found.database;
+
+import net.javaguids.lost_and_found.analytics.RollupGranularity;
+import net.javaguids.lost_and_found.analytics.TrendPoint;
+import org.junit.jupiter.api.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for RollupRepository - uses actual DB, every test writes its own random metric name
+@DisplayName("RollupRepository Tests")
+class RollupRepositoryTest {
+
+    private RollupRepository repository;
+    private String metric;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        repository = RollupRepository.getInstance();
+        metric = "TEST_" + UUID.randomUUID().toString().substring(0, 8);
+        // half past the previous hour: recent enough that compaction keeps it per minute
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(1).plusMinutes(30);
+    }
+
+    @Test
+    @DisplayName("Test record counts events per minute bucket")
+    void testRecordCountsPerMinute() {
+        repository.record(metric, "Keys", now.withSecond(5));
+        repository.record(metric, "Keys", now.withSecond(40));
+        repository.record(metric, "Bags", now.plusMinutes(1));
+
+        List<TrendPoint> series = repository.getSeries(metric, null, now.minusHours(1), now.plusHours(1),
+                RollupGranularity.MINUTE);
+
+        assertEquals(2, series.size());
+        assertEquals(now, series.get(0).getBucketStart());
+        assertEquals(2, series.get(0).getCount());
+        assertEquals(1, series.get(1).getCount());
+
+        Map<String, Long> byCategory = repository.getTotalsByDimension(metric, now.minusDays(1), now.plusDays(1));
+        assertEquals(2L, byCategory.get("Keys"));
+        assertEquals(1L, byCategory.get("Bags"));
+    }
+
+    @Test
+    @DisplayName("Test compaction folds old minutes into hours and old hours into days without losing counts")
+    void testCompactionKeepsTotals() {
+        LocalDateTime old = now.minusDays(120);
+        repository.record(metric, "", old);
+        repository.record(metric, "", old.plusMinutes(10));
+        LocalDateTime recent = now.minusDays(5);
+        repository.record(metric, "", recent);
+        repository.record(metric, "", recent.plusMinutes(1));
+        repository.record(metric, "", now);
+
+        repository.compact(now);
+
+        assertEquals(1, repository.countRows(RollupGranularity.MINUTE, metric), "Only the last 2 days stay per minute");
+        assertEquals(1, repository.countRows(RollupGranularity.HOUR, metric));
+        assertEquals(1, repository.countRows(RollupGranularity.DAY, metric));
+
+        List<TrendPoint> daily = repository.getSeries(metric, null, now.minusYears(1), now.plusDays(1),
+                RollupGranularity.DAY);
+        assertEquals(3, daily.size());
+        assertEquals(2, daily.get(0).getCount());
+        assertEquals(old.toLocalDate().atStartOfDay(), daily.get(0).getBucketStart());
+        assertEquals(5, daily.stream().mapToLong(TrendPoint::getCount).sum());
+    }
+
+    @Test
+    @DisplayName("Test record leaves compaction to the background schedule")
+    void testCompactionRunsOnlyOnTheSchedule() throws InterruptedException {
+        repository.record(metric, "", now.minusDays(10));
+        assertEquals(1, repository.countRows(RollupGranularity.MINUTE, metric), "Recording never compacts");
+
+        repository.start(0, 1, TimeUnit.HOURS);
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (repository.countRows(RollupGranularity.MINUTE, metric) > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+        } finally {
+            repository.stop();
+        }
+        assertEquals(0, repository.countRows(RollupGranularity.MINUTE, metric));
+        assertEquals(1, repository.countRows(RollupGranularity.HOUR, metric));
+    }
+}
@@ -5,9 +5,16 @@ import net.javaguids.lost_and_found.model.users.RegularUser;
 import net.javaguids.lost_and_found.model.users.Admin;
 import net.javaguids.lost_and_found.model.users.Moderator;
 import net.javaguids.lost_and_found.model.enums.UserRole;
+import net.javaguids.lost_and_found.exceptions.DatabaseException;
+import net.javaguids.lost_and_found.exceptions.DuplicateUserException;
 import org.junit.jupiter.api.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -79,6 +86,27 @@ class UserRepositoryTest {
         assertEquals(UserRole.USER, savedUser.getRole());
     }
 
+    @Test
+    @DisplayName("Test getUsername follows saves, renames and deletes")
+    void testGetUsername() {
+        // Arrange
+        User testUser = new RegularUser(testUserId, testUsername, testEmail, "hashedPassword123");
+        repository.saveUser(testUser);
+
+        // Act & Assert
+        assertEquals(testUsername, repository.getUsername(testUserId));
+        assertEquals("SYSTEM", repository.getUsername("SYSTEM"));
+        assertNull(repository.getUsername("missing-" + UUID.randomUUID()));
+
+        testUser.setUsername(testUsername + "-renamed");
+        repository.updateUser(testUser);
+        assertEquals(testUsername + "-renamed", repository.getUsername(testUserId),
+            "Cached username should follow a rename");
+
+        repository.deleteUser(testUserId);
+        assertNull(repository.getUsername(testUserId), "Deleted users should not stay cached");
+    }
+
     @Test
     @DisplayName("Test getUserById retrieves existing user")
     void testGetUserById_UserExists() {
@@ -333,5 +361,85 @@ class UserRepositoryTest {
         assertEquals(UserRole.ADMIN, updatedUser.getRole());
         assertTrue(updatedUser instanceof Admin);
     }
-}
 
+    @Test
+    @DisplayName("Test createUser rejects a username that differs only in case")
+    void testCreateUser_DuplicateUsernameIgnoringCase() throws DatabaseException {
+        repository.createUser(new RegularUser(testUserId, testUsername, testEmail, "hashedPassword123"));
+
+        String otherId = "test-" + UUID.randomUUID().toString().substring(0, 8);
+        User duplicate = new RegularUser(otherId, testUsername.toUpperCase(), "other-" + testEmail, "hashedPassword123");
+        DuplicateUserException e = assertThrows(DuplicateUserException.class, () -> repository.createUser(duplicate));
+        assertFalse(e.isEmailTaken(), "The username should be reported as taken");
+        assertEquals("Username already exists", e.getMessage());
+        assertNull(repository.getUserById(otherId), "The duplicate should not be saved");
+    }
+
+    @Test
+    @DisplayName("Test createUser rejects an email that differs only in case")
+    void testCreateUser_DuplicateEmailIgnoringCase() throws DatabaseException {
+        repository.createUser(new RegularUser(testUserId, testUsername, testEmail, "hashedPassword123"));
+
+        String otherId = "test-" + UUID.randomUUID().toString().substring(0, 8);
+        User duplicate = new RegularUser(otherId, "other-" + testUsername, testEmail.toUpperCase(), "hashedPassword123");
+        DuplicateUserException e = assertThrows(DuplicateUserException.class, () -> repository.createUser(duplicate));
+        assertTrue(e.isEmailTaken(), "The email should be reported as taken");
+        assertEquals("Email already exists", e.getMessage());
+        assertNull(repository.getUserById(otherId), "The duplicate should not be saved");
+    }
+
+    @Test
+    @DisplayName("Test saveUser returns false for a duplicate username")
+    void testSaveUser_DuplicateReturnsFalse() {
+        assertTrue(repository.saveUser(new RegularUser(testUserId, testUsername, testEmail, "hashedPassword123")));
+
+        String otherId = "test-" + UUID.randomUUID().toString().substring(0, 8);
+        assertFalse(repository.saveUser(new RegularUser(otherId, testUsername, "other-" + testEmail, "hashedPassword123")));
+    }
+
+    @Test
+    @DisplayName("Test concurrent registrations of the same names create exactly one user per name")
+    void testCreateUser_ConcurrentRegistrations() throws Exception {
+        int names = 50;
+        int attemptsPerName = 4;
+        String prefix = "race-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        List<Callable<String>> attempts = new ArrayList<>();
+        for (int n = 0; n < names; n++) {
+            for (int a = 0; a < attemptsPerName; a++) {
+                // Vary the case so only the case-insensitive indexes can catch the duplicates
+                String username = a % 2 == 0 ? prefix + n : (prefix + n).toUpperCase();
+                String email = prefix + n + "@race.test";
+                attempts.add(() -> {
+                    String userId = "test-" + UUID.randomUUID();
+                    try {
+                        repository.createUser(new RegularUser(userId, username, email, "hashedPassword123"));
+                        return userId;
+                    } catch (DuplicateUserException e) {
+                        return null;
+                    }
+                });
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<String> created = new ArrayList<>();
+        try {
+            for (Future<String> result : pool.invokeAll(attempts)) {
+                if (result.get() != null) {
+                    created.add(result.get());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        try {
+            assertEquals(names, created.size(), "Each name should be registered exactly once");
+            for (int n = 0; n < names; n++) {
+                assertNotNull(repository.getUserByEmail(prefix + n + "@race.test"));
+            }
+        } finally {
+            created.forEach(repository::deleteUser);
+        }
+    }
+}
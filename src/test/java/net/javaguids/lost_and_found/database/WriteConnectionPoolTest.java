@@ -0,0 +1,120 @@
+package net.javaguids.lost_and_found.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for WriteConnectionPool class. Tests commit and rollback, joining a transaction, thread binding and closing
+class WriteConnectionPoolTest {
+    private static final String URL = "jdbc:sqlite:lostandfound.db";
+
+    private final WriteConnectionPool pool = new WriteConnectionPool(URL, 2);
+    private final String key = "test-" + UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        pool.close();
+        DatabaseManager.getInstance().inTransaction(tx -> {
+            try (PreparedStatement pstmt = tx.prepareStatement("DELETE FROM activity_rollups WHERE metric = ?")) {
+                pstmt.setString(1, key);
+                return pstmt.executeUpdate();
+            }
+        });
+    }
+
+    private int insertRow(Connection tx) throws SQLException {
+        String query = "INSERT INTO activity_rollups (granularity, bucket_start, metric, dimension, count) " +
+                "VALUES ('MINUTE', '2024-01-01T00:00', ?, '', 1)";
+        try (PreparedStatement pstmt = tx.prepareStatement(query)) {
+            pstmt.setString(1, key);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    private int countRows(Connection source) throws SQLException {
+        try (PreparedStatement pstmt = source.prepareStatement("SELECT COUNT(*) FROM activity_rollups WHERE metric = ?")) {
+            pstmt.setString(1, key);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getInt(1) : -1;
+        }
+    }
+
+    @Test
+    void testCommitsWhenTheWorkReturns() throws Exception {
+        Connection shared = DatabaseManager.getInstance().getConnection();
+
+        pool.inTransaction(this::insertRow);
+
+        assertEquals(1, countRows(shared), "The row should be visible to other connections after commit");
+    }
+
+    @Test
+    void testRollsBackWhenTheWorkThrows() throws Exception {
+        Connection shared = DatabaseManager.getInstance().getConnection();
+
+        assertThrows(IllegalStateException.class, () -> pool.inTransaction(tx -> {
+            insertRow(tx);
+            assertEquals(0, countRows(shared), "Other connections should not see the open transaction");
+            throw new IllegalStateException("fail");
+        }));
+
+        assertEquals(0, countRows(shared));
+        // the connection went back to the pool usable
+        pool.inTransaction(this::insertRow);
+        assertEquals(1, countRows(shared));
+    }
+
+    @Test
+    void testNestedCallsJoinTheTransaction() throws Exception {
+        Connection shared = DatabaseManager.getInstance().getConnection();
+
+        assertThrows(IllegalStateException.class, () -> pool.inTransaction(outer -> {
+            boolean same = pool.inTransaction(inner -> {
+                insertRow(inner);
+                return inner == outer;
+            });
+            assertTrue(same, "Nested work should run on the outer transaction's connection");
+            assertEquals(1, countRows(outer), "The outer transaction sees what the nested work wrote");
+            throw new IllegalStateException("fail");
+        }));
+
+        assertEquals(0, countRows(shared), "Nested work should roll back with the outer transaction");
+    }
+
+    @Test
+    void testBoundConnectionIsUsedInsideInTransaction() throws Exception {
+        Connection shared = DatabaseManager.getInstance().getConnection();
+
+        Connection bound = pool.inTransaction(tx -> WriteConnectionPool.boundOr(shared));
+
+        assertNotSame(shared, bound, "Writes inside inTransaction should use the transaction's connection");
+        assertSame(shared, WriteConnectionPool.boundOr(shared), "Outside inTransaction the shared one is used");
+        assertFalse(WriteConnectionPool.inTransaction());
+    }
+
+    @Test
+    void testWithConnectionRunsOutsideATransaction() throws Exception {
+        boolean checkpointed = pool.withConnection(connection -> {
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(PASSIVE)")) {
+                return rs.next();
+            }
+        });
+        assertTrue(checkpointed);
+        assertFalse(WriteConnectionPool.inTransaction());
+    }
+
+    @Test
+    void testClosedPoolRefusesWork() {
+        pool.close();
+        assertThrows(SQLException.class, () -> pool.inTransaction(tx -> 1));
+    }
+}
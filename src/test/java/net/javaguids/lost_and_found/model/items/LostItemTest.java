@@ -81,6 +81,23 @@ class LostItemTest {
         assertFalse(lostItem.matches(criteria));
     }
 
+    @Test
+    @DisplayName("Match by date range (inclusive on both ends)")
+    void testMatchesDateRange() {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setDateFrom(testDate);
+        criteria.setDateTo(testDate.plusDays(3));
+        assertTrue(lostItem.matches(criteria));
+        assertEquals(testDate, lostItem.getDateLostFound());
+
+        criteria.setDateFrom(testDate.plusMinutes(1));
+        assertFalse(lostItem.matches(criteria), "Item before dateFrom should not match");
+
+        criteria.setDateFrom(null);
+        criteria.setDateTo(testDate.minusDays(1));
+        assertFalse(lostItem.matches(criteria), "Item after dateTo should not match");
+    }
+
     @Test
     @DisplayName("Get search keywords and toString")
     void testSearchKeywordsAndToString() {
@@ -0,0 +1,70 @@
+package net.javaguids.lost_and_found.search;
+
+import net.javaguids.lost_and_found.model.items.FoundItem;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for LocationPath class. Tests normalization of free-text locations and subtree matching
+class LocationPathTest {
+
+    @Test
+    void testParseNormalizesSeparatorsAndWhitespace() {
+        LocationPath path = LocationPath.parse("  North Campus,Science   Building / Room 12 ");
+
+        assertEquals(List.of("North Campus", "Science Building", "Room 12"), path.getSegments());
+        assertEquals("North Campus > Science Building > Room 12", path.toDisplayString());
+        assertEquals("north campus/science building/room 12", path.getKey());
+        assertEquals(3, path.getDepth());
+    }
+
+    @Test
+    void testParseFoldsLevelsBelowRoom() {
+        LocationPath path = LocationPath.parse("Campus > Library > Room 2 > Desk 5");
+
+        assertEquals(LocationPath.MAX_DEPTH, path.getDepth());
+        assertEquals("Campus > Library > Room 2 Desk 5", path.toDisplayString());
+    }
+
+    @Test
+    void testParseBlankIsEmpty() {
+        assertTrue(LocationPath.parse(null).isEmpty());
+        assertTrue(LocationPath.parse(" , / ").isEmpty());
+    }
+
+    @Test
+    void testIsWithinMatchesSubtreeOnly() {
+        LocationPath building = LocationPath.parse("Campus > Library");
+
+        assertTrue(LocationPath.parse("campus/library").isWithin(building), "Same place, different spelling");
+        assertTrue(LocationPath.parse("Campus > Library > Room 2").isWithin(building));
+        assertFalse(LocationPath.parse("Campus > Library Annex").isWithin(building), "Sibling with common prefix");
+        assertFalse(LocationPath.parse("Campus").isWithin(building), "Parent is not within child");
+    }
+
+    @Test
+    void testSubtreeBoundsExcludeSiblingsWithCommonPrefix() {
+        String key = LocationPath.parse("Campus > Library").getKey();
+        String lower = LocationPath.getSubtreeLowerBound(key);
+        String upper = LocationPath.getSubtreeUpperBound(key);
+
+        String child = LocationPath.parse("Campus > Library > Room 2").getKey();
+        String sibling = LocationPath.parse("Campus > Library Annex").getKey();
+        assertTrue(child.compareTo(lower) >= 0 && child.compareTo(upper) < 0);
+        assertFalse(sibling.compareTo(lower) >= 0 && sibling.compareTo(upper) < 0);
+    }
+
+    @Test
+    void testItemMatchesLocationPath() {
+        FoundItem item = new FoundItem("F1", "Keys", "Car keys", "Keys",
+                "Campus > Library > Room 2", "U1", LocalDateTime.now());
+        SearchCriteria criteria = new SearchCriteria();
+
+        criteria.setLocationPath("campus, library");
+        assertTrue(item.matches(criteria));
+
+        criteria.setLocationPath("Campus > Gym");
+        assertFalse(item.matches(criteria));
+    }
+}
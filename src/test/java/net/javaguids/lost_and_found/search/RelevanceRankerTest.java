@@ -0,0 +1,79 @@
+package net.javaguids.lost_and_found.search;
+
+import net.javaguids.lost_and_found.model.enums.ItemStatus;
+import net.javaguids.lost_and_found.model.items.LostItem;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for RelevanceRanker class. Tests scoring weights and bounded top-K selection
+class RelevanceRankerTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 11, 20, 12, 0);
+
+    private LostItem item(String id, String title, String description, String location) {
+        return new LostItem(id, title, description, "Other", location, "user-1", now, 0.0);
+    }
+
+    private SearchCriteria keywords(String keywords) {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setKeywords(keywords);
+        return criteria;
+    }
+
+    @Test
+    void testTitleMatchOutranksDescriptionMatch() {
+        RelevanceRanker ranker = new RelevanceRanker(keywords("wallet"), now, 10);
+        LostItem inTitle = item("a", "Wallet", "brown leather", "Gym");
+        LostItem inDescription = item("b", "Purse", "has a wallet inside", "Gym");
+
+        assertTrue(ranker.score(inTitle) > ranker.score(inDescription));
+    }
+
+    @Test
+    void testTermFrequencyIncreasesScore() {
+        RelevanceRanker ranker = new RelevanceRanker(keywords("keys"), now, 10);
+        LostItem once = item("a", "Keys", "blue ring", "Gym");
+        LostItem twice = item("b", "Keys", "car keys on a ring", "Gym");
+
+        assertTrue(ranker.score(twice) > ranker.score(once));
+    }
+
+    @Test
+    void testActiveItemsAreBoosted() {
+        RelevanceRanker ranker = new RelevanceRanker(keywords("phone"), now, 10);
+        LostItem active = item("a", "Phone", "black", "Gym");
+        LostItem resolved = item("b", "Phone", "black", "Gym");
+        resolved.setStatus(ItemStatus.RESOLVED);
+
+        assertEquals(RelevanceRanker.ACTIVE_BOOST, ranker.score(active) - ranker.score(resolved), 0.0001);
+    }
+
+    @Test
+    void testKeepsOnlyTopKBestFirst() {
+        RelevanceRanker ranker = new RelevanceRanker(keywords("bag"), now, 2);
+        ranker.offer(item("low", "Umbrella", "left near a bag", "Gym"));
+        ranker.offer(item("high", "Bag", "bag with bag tag", "Gym"));
+        ranker.offer(item("mid", "Bag", "black", "Gym"));
+        ranker.offer(item("none", "Umbrella", "red", "Gym"));
+
+        List<ScoredItem> results = ranker.getResults();
+
+        assertEquals(4, ranker.getOfferedCount());
+        assertEquals(2, results.size(), "Only K results should be kept");
+        assertEquals("high", results.get(0).getItem().getItemId());
+        assertEquals("mid", results.get(1).getItem().getItemId());
+    }
+
+    @Test
+    void testCountOccurrences() {
+        assertEquals(2, RelevanceRanker.countOccurrences("keys and more keys", "keys"));
+        assertEquals(0, RelevanceRanker.countOccurrences("wallet", "keys"));
+    }
+
+    @Test
+    void testInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new RelevanceRanker(null, now, 0));
+    }
+}
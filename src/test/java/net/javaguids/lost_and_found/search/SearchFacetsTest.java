@@ -0,0 +1,69 @@
+package net.javaguids.lost_and_found.search;
+
+import net.javaguids.lost_and_found.model.enums.ItemStatus;
+import net.javaguids.lost_and_found.model.enums.ItemType;
+import net.javaguids.lost_and_found.model.items.FoundItem;
+import net.javaguids.lost_and_found.model.items.LostItem;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for SearchFacets class. Tests facet counting over a result set
+class SearchFacetsTest {
+
+    @Test
+    void testEmptyFacets() {
+        SearchFacets facets = new SearchFacets();
+
+        assertEquals(0, facets.getTotalCount());
+        assertTrue(facets.getCategoryCounts().isEmpty());
+        assertEquals("", facets.generateSummary());
+    }
+
+    @Test
+    void testCountsPerFacet() {
+        SearchFacets facets = new SearchFacets();
+        LostItem wallet = new LostItem("i1", "Wallet", "Brown", "Accessories", "Library",
+                "u1", LocalDateTime.now(), 0.0);
+        LostItem keys = new LostItem("i2", "Keys", "Car keys", "Keys", "Library",
+                "u1", LocalDateTime.now(), 0.0);
+        FoundItem phone = new FoundItem("i3", "Phone", "Black", "Electronics", "Gym",
+                "u2", LocalDateTime.now());
+        phone.setStatus(ItemStatus.RESOLVED);
+
+        facets.add(wallet);
+        facets.add(keys);
+        facets.add(phone);
+
+        assertEquals(3, facets.getTotalCount());
+        assertEquals(1, facets.getCategoryCount("Keys"));
+        assertEquals(2, facets.getLocationCounts().get("Library"));
+        assertEquals(2, facets.getTypeCount(ItemType.LOST));
+        assertEquals(1, facets.getTypeCount(ItemType.FOUND));
+        assertEquals(2, facets.getStatusCount(ItemStatus.ACTIVE));
+        assertEquals(1, facets.getStatusCount(ItemStatus.RESOLVED));
+    }
+
+    @Test
+    void testLocationCountsIgnoreCaseAndBlanks() {
+        SearchFacets facets = new SearchFacets();
+        facets.add(new LostItem("i1", "A", "a", "Other", "library", "u1", LocalDateTime.now(), 0.0));
+        facets.add(new LostItem("i2", "B", "b", "Other", "Library ", "u1", LocalDateTime.now(), 0.0));
+        facets.add(new LostItem("i3", "C", "c", "Other", "  ", "u1", LocalDateTime.now(), 0.0));
+
+        assertEquals(1, facets.getLocationCounts().size());
+        assertEquals(2, facets.getLocationCounts().values().iterator().next());
+        assertEquals(3, facets.getTotalCount());
+    }
+
+    @Test
+    void testSummaryListsFacets() {
+        SearchFacets facets = new SearchFacets();
+        facets.add(new LostItem("i1", "Wallet", "Brown", "Accessories", "Gym", "u1", LocalDateTime.now(), 0.0));
+
+        String summary = facets.generateSummary();
+
+        assertTrue(summary.contains("Category: Accessories (1)"));
+        assertTrue(summary.contains("Type: LOST (1)"));
+    }
+}
@@ -0,0 +1,75 @@
+package net.javaguids.lost_and_found.search;
+
+import net.javaguids.lost_and_found.model.enums.ItemType;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for SearchResultCache class. Tests hits, generation invalidation and LRU bounds
+class SearchResultCacheTest {
+
+    @Test
+    void testMissThenHit() {
+        SearchResultCache cache = new SearchResultCache(4);
+
+        assertNull(cache.get("k", 0), "Empty cache should miss");
+        cache.put("k", List.of("a", "b"), 0);
+
+        assertEquals(List.of("a", "b"), cache.get("k", 0));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRatio(), 0.0001);
+    }
+
+    @Test
+    void testWriteGenerationInvalidatesEntry() {
+        SearchResultCache cache = new SearchResultCache(4);
+        cache.put("k", List.of("a"), 3);
+
+        assertNull(cache.get("k", 4), "Entry filled before a write must not be served");
+        assertEquals(1, cache.getStaleDrops());
+        assertEquals(0, cache.size(), "Stale entry should be dropped");
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        SearchResultCache cache = new SearchResultCache(2);
+        cache.put("a", List.of("1"), 0);
+        cache.put("b", List.of("2"), 0);
+        cache.get("a", 0); // touch a so b becomes the eldest
+        cache.put("c", List.of("3"), 0);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNotNull(cache.get("a", 0));
+        assertNull(cache.get("b", 0));
+    }
+
+    @Test
+    void testMemoryEstimateGrowsWithEntries() {
+        SearchResultCache cache = new SearchResultCache(4);
+        assertEquals(0, cache.getEstimatedMemoryBytes());
+
+        cache.put("k", List.of("item-1", "item-2"), 0);
+
+        assertTrue(cache.getEstimatedMemoryBytes() > 0);
+        assertTrue(cache.generateReport().contains("1/4 entries"));
+    }
+
+    @Test
+    void testCacheKeyIgnoresCase() {
+        SearchCriteria first = new SearchCriteria();
+        first.setKeywords("Phone");
+        first.setLocation("Library");
+        first.setType(ItemType.LOST);
+        SearchCriteria second = new SearchCriteria();
+        second.setKeywords("phone");
+        second.setLocation("LIBRARY");
+        second.setType(ItemType.LOST);
+        SearchCriteria other = new SearchCriteria();
+        other.setKeywords("phone");
+
+        assertEquals(first.toCacheKey(), second.toCacheKey());
+        assertNotEquals(first.toCacheKey(), other.toCacheKey());
+    }
+}
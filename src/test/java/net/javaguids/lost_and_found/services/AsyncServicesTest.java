@@ -0,0 +1,153 @@
+package net.javaguids.lost_and_found.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for AsyncServices class. Tests background calls, timeouts, cancellation and metrics
+class AsyncServicesTest {
+    private final AsyncServices async = new AsyncServices();
+
+    @AfterEach
+    void tearDown() {
+        async.shutdown();
+    }
+
+    @Test
+    void testSupplyRunsOnVirtualThread() throws Exception {
+        CompletableFuture<Boolean> result = async.supply("test.thread", () -> Thread.currentThread().isVirtual());
+
+        assertTrue(result.get(5, TimeUnit.SECONDS));
+        assertEquals(1, async.getStats("test.thread").getCount());
+    }
+
+    @Test
+    void testSupplyPassesOnFailure() {
+        CompletableFuture<String> result = async.supply("test.failure", () -> {
+            throw new IllegalStateException("query failed");
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(1, async.getStats("test.failure").getFailed());
+    }
+
+    @Test
+    void testTimeoutInterruptsWorker() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<String> result = async.supply("test.timeout", () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "too late";
+        }, Duration.ofMillis(50));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "The worker should be interrupted");
+        assertEquals(1, async.getStats("test.timeout").getTimedOut());
+    }
+
+    @Test
+    void testCancelInterruptsWorker() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<String> result = async.supply("test.cancel", () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "cancelled";
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(result.cancel(true));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "The worker should be interrupted");
+        assertEquals(1, async.getStats("test.cancel").getCancelled());
+    }
+
+    @Test
+    void testLoadOffFxThreadRunsInline() {
+        Thread caller = Thread.currentThread();
+        AtomicReference<Thread> workThread = new AtomicReference<>();
+        AtomicReference<String> delivered = new AtomicReference<>();
+
+        CompletableFuture<String> result = async.load("test.inline", () -> {
+            workThread.set(Thread.currentThread());
+            return "items";
+        }, delivered::set);
+
+        assertSame(caller, workThread.get(), "Work should run on the calling thread");
+        assertEquals("items", delivered.get(), "The callback should have run before load returned");
+        assertTrue(result.isDone());
+        assertEquals(1, async.getStats("test.inline").getCount());
+    }
+
+    @Test
+    void testLoadOffFxThreadPassesFailure() {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        CompletableFuture<String> result = async.load("test.inlineFailure", () -> {
+            throw new IllegalStateException("query failed");
+        }, value -> fail("onSuccess should not run"), failure::set);
+
+        assertInstanceOf(IllegalStateException.class, failure.get());
+        assertTrue(result.isCompletedExceptionally());
+    }
+
+    @Test
+    void testSummaryListsEachCallName() throws Exception {
+        assertEquals("no calls yet", async.generateSummary());
+
+        async.supply("items.search", () -> 1).get(5, TimeUnit.SECONDS);
+        async.supply("messages.inbox", () -> 2).get(5, TimeUnit.SECONDS);
+
+        String summary = async.generateSummary();
+        assertTrue(summary.startsWith("items.search: 1 calls"), summary);
+        assertTrue(summary.contains("\nmessages.inbox: 1 calls"), summary);
+    }
+
+    @Test
+    void testWritesRunOneAtATimeInOrder() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Integer>> writes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int id = i;
+            writes.add(async.supplyWrite("test.write", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(2);
+                order.add(id);
+                running.decrementAndGet();
+                return id;
+            }));
+        }
+        for (CompletableFuture<Integer> write : writes) {
+            write.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, maxRunning.get(), "Writes should never overlap");
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, order.get(i), "Writes should run in submission order");
+        }
+        assertEquals(20, async.getStats("test.write").getCount());
+    }
+}
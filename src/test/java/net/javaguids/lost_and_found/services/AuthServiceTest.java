@@ -0,0 +1,74 @@
+package net.javaguids.lost_and_found.services;
+
+import net.javaguids.lost_and_found.database.UserRepository;
+import net.javaguids.lost_and_found.exceptions.AuthException;
+import net.javaguids.lost_and_found.model.users.RegularUser;
+import net.javaguids.lost_and_found.model.users.User;
+import net.javaguids.lost_and_found.utils.PasswordUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for AuthService class. Tests that login and registration complete their futures
+// with the user, null or an AuthException, and that outdated hashes are replaced on login
+class AuthServiceTest {
+    private static final String PASSWORD = "correct horse";
+
+    private String userId;
+
+    @AfterEach
+    void tearDown() {
+        AuthService.logout();
+        if (userId != null) {
+            UserRepository.getInstance().deleteUser(userId);
+        }
+    }
+
+    private static String uniqueName() {
+        return "auth_" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    void testRegisterThenLogin() throws Exception {
+        String username = uniqueName();
+
+        User registered = AuthService.register(username, username + "@example.com", PASSWORD)
+                .get(10, TimeUnit.SECONDS);
+        userId = registered.getUserId();
+
+        User loggedIn = AuthService.login(username, PASSWORD).get(10, TimeUnit.SECONDS);
+        assertEquals(userId, loggedIn.getUserId());
+        assertEquals(userId, AuthService.getCurrentUser().getUserId());
+        assertNull(AuthService.login(username, "wrong password").get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testInvalidRegistrationFailsTheFuture() {
+        CompletableFuture<User> result = AuthService.register(" ", "someone@example.com", PASSWORD);
+
+        assertTrue(result.isCompletedExceptionally(), "Validation fails before any hashing");
+        ExecutionException error = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(AuthException.class, error.getCause());
+        assertEquals("Username cannot be empty", error.getCause().getMessage());
+    }
+
+    @Test
+    void testLoginReplacesAnOutdatedHash() throws Exception {
+        String username = uniqueName();
+        userId = UUID.randomUUID().toString();
+        UserRepository.getInstance().createUser(new RegularUser(userId, username, username + "@example.com",
+                PasswordUtil.hashPassword(PASSWORD, 1_000)));
+
+        assertNotNull(AuthService.login(username, PASSWORD).get(10, TimeUnit.SECONDS));
+
+        String stored = UserRepository.getInstance().getUserById(userId).getPasswordHash();
+        assertFalse(PasswordUtil.needsRehash(stored), "The login should have stored a current hash");
+        assertTrue(PasswordUtil.verifyPassword(PASSWORD, stored));
+    }
+}
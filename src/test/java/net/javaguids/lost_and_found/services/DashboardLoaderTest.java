@@ -0,0 +1,62 @@
+package net.javaguids.lost_and_found.services;
+
+import net.javaguids.lost_and_found.database.DatabaseManager;
+import net.javaguids.lost_and_found.database.ReadConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for DashboardLoader class. Tests panel delivery, pooled read connections, failures and the open-time metric
+class DashboardLoaderTest {
+    private final AsyncServices async = new AsyncServices();
+    private final DashboardLoader loader = new DashboardLoader("test", async);
+
+    @AfterEach
+    void tearDown() {
+        async.shutdown();
+    }
+
+    @Test
+    void testPanelReadsWithPooledConnection() {
+        Connection shared = DatabaseManager.getInstance().getConnection();
+        AtomicReference<Connection> used = new AtomicReference<>();
+
+        loader.panel("users", () -> ReadConnectionPool.boundOr(shared), used::set);
+
+        assertNotNull(used.get(), "The panel should have been filled");
+        assertNotSame(shared, used.get(), "The panel should read on a pooled connection");
+        assertEquals(1, async.getStats("test.users").getCount());
+    }
+
+    @Test
+    void testFailingPanelDoesNotStopTheOthers() throws Exception {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicReference<String> items = new AtomicReference<>();
+
+        loader.panel("logs", () -> {
+            throw new IllegalStateException("query failed");
+        }, value -> fail("onLoaded should not run"), failure::set);
+        loader.panel("items", () -> "items", items::set);
+        loader.whenLoaded().get(5, TimeUnit.SECONDS);
+
+        assertInstanceOf(IllegalStateException.class, failure.get());
+        assertEquals("items", items.get());
+        assertEquals(1, async.getStats("test.logs").getFailed());
+    }
+
+    @Test
+    void testWhenLoadedRecordsOpenTime() throws Exception {
+        loader.panel("counters", () -> 42, value -> { });
+
+        CompletableFuture<Void> loaded = loader.whenLoaded();
+        loaded.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, async.getStats("dashboard.test").getCount());
+    }
+}
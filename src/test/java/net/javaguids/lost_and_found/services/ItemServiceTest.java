@@ -1,14 +1,26 @@
 package net.javaguids.lost_and_found.services;
 
+import net.javaguids.lost_and_found.database.ItemRepository;
+import net.javaguids.lost_and_found.exceptions.ItemConflictException;
 import net.javaguids.lost_and_found.model.items.Item;
 import net.javaguids.lost_and_found.model.items.LostItem;
 import net.javaguids.lost_and_found.search.SearchCriteria;
+import net.javaguids.lost_and_found.model.enums.ItemStatus;
 import net.javaguids.lost_and_found.model.enums.ItemType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 // Test suite for ItemService class. Tests business logic for item operations
 class ItemServiceTest {
@@ -71,4 +83,142 @@ class ItemServiceTest {
         assertNotNull(results, "Should return a list, not null");
         assertTrue(results.isEmpty(), "Should return empty list when no items exist");
     }
-}
\ No newline at end of file
+
+    private LostItem saveTestItem() {
+        LostItem item = new LostItem("OCC-" + UUID.randomUUID(), "Umbrella", "Black umbrella", "Accessories",
+                "Library", "U1", LocalDateTime.now().minusDays(1), 0.0);
+        assertTrue(ItemRepository.getInstance().saveItem(item));
+        return item;
+    }
+
+    @Test
+    void testStaleCopyIsNotSaved() throws Exception {
+        LostItem saved = saveTestItem();
+        try {
+            Item first = itemService.getItemById(saved.getItemId());
+            Item second = itemService.getItemById(saved.getItemId());
+
+            first.setTitle("Blue umbrella");
+            assertTrue(itemService.updateItem(first));
+            assertEquals(second.getVersion() + 1, first.getVersion());
+
+            second.setTitle("Red umbrella");
+            assertThrows(ItemConflictException.class, () -> itemService.updateItem(second));
+            assertEquals("Blue umbrella", itemService.getItemById(saved.getItemId()).getTitle(),
+                    "The first update must not be overwritten");
+        } finally {
+            itemService.deleteItem(saved.getItemId());
+        }
+    }
+
+    @Test
+    void testConcurrentModificationsLoseNoUpdate() throws Exception {
+        LostItem saved = saveTestItem();
+        int threads = 8;
+        int incrementsPerThread = 20;
+        AtomicInteger applied = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < incrementsPerThread; i++) {
+                        // read-modify-write of the same item from every thread
+                        itemService.modifyItem(saved.getItemId(), item -> {
+                            applied.incrementAndGet();
+                            LostItem lostItem = (LostItem) item;
+                            lostItem.setReward(lostItem.getReward() + 1);
+                        });
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+
+            int expected = threads * incrementsPerThread;
+            LostItem stored = (LostItem) itemService.getItemById(saved.getItemId());
+            assertEquals(expected, stored.getReward(), 0.0, "Every increment should have been kept");
+            assertEquals(expected, stored.getVersion());
+            assertTrue(applied.get() >= expected, "A conflicting modification is retried, never dropped");
+        } finally {
+            executor.shutdownNow();
+            itemService.deleteItem(saved.getItemId());
+        }
+    }
+
+    @Test
+    void testModifyItemRetriesAfterAConflictingWrite() throws Exception {
+        LostItem saved = saveTestItem();
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            Item result = itemService.modifyItem(saved.getItemId(), item -> {
+                if (calls.incrementAndGet() == 1) {
+                    // another writer saves the item between this attempt's read and its save
+                    LostItem other = (LostItem) itemService.getItemById(saved.getItemId());
+                    other.setReward(other.getReward() + 1);
+                    try {
+                        assertTrue(itemService.updateItem(other));
+                    } catch (ItemConflictException e) {
+                        fail("The interleaved write should not conflict");
+                    }
+                }
+                LostItem lostItem = (LostItem) item;
+                lostItem.setReward(lostItem.getReward() + 1);
+            });
+
+            assertEquals(2, calls.get(), "The stale first attempt should be re-read and applied again");
+            LostItem stored = (LostItem) itemService.getItemById(saved.getItemId());
+            assertEquals(2.0, stored.getReward(), 0.0, "Neither increment should be lost");
+            assertEquals(2, stored.getVersion());
+            assertEquals(stored.getVersion(), result.getVersion());
+        } finally {
+            itemService.deleteItem(saved.getItemId());
+        }
+    }
+
+    @Test
+    void testResolveMatchResolvesBothItems() throws Exception {
+        LostItem lost = saveTestItem();
+        LostItem found = saveTestItem();
+        try {
+            assertTrue(itemService.resolveMatch(lost, found));
+
+            assertEquals(ItemStatus.RESOLVED, itemService.getItemById(lost.getItemId()).getStatus());
+            assertEquals(ItemStatus.RESOLVED, itemService.getItemById(found.getItemId()).getStatus());
+            assertEquals(1, lost.getVersion(), "The caller's copy should be at the stored version");
+            assertEquals(found.getItemId(), ItemRepository.getInstance().getMatchedItemId(lost.getItemId()));
+            assertEquals(lost.getItemId(), ItemRepository.getInstance().getMatchedItemId(found.getItemId()));
+        } finally {
+            itemService.deleteItem(lost.getItemId());
+            itemService.deleteItem(found.getItemId());
+        }
+    }
+
+    @Test
+    void testResolveMatchWithStaleItemResolvesNeither() throws Exception {
+        LostItem lost = saveTestItem();
+        LostItem found = saveTestItem();
+        try {
+            // someone edits the matching item after the claim form read it
+            Item edited = itemService.getItemById(found.getItemId());
+            edited.setTitle("Grey umbrella");
+            assertTrue(itemService.updateItem(edited));
+
+            assertThrows(ItemConflictException.class, () -> itemService.resolveMatch(lost, found));
+
+            assertEquals(ItemStatus.ACTIVE, itemService.getItemById(lost.getItemId()).getStatus(),
+                    "The first item must not stay resolved when the second could not be");
+            assertEquals(ItemStatus.ACTIVE, itemService.getItemById(found.getItemId()).getStatus());
+            assertNull(ItemRepository.getInstance().getMatchedItemId(lost.getItemId()));
+        } finally {
+            itemService.deleteItem(lost.getItemId());
+            itemService.deleteItem(found.getItemId());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package net.javaguids.lost_and_found.services;
+
+import net.javaguids.lost_and_found.exceptions.AuthException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for LoginThrottle class. Tests the per-username and per-client limits
+class LoginThrottleTest {
+
+    @Test
+    void testUsernameLimitIgnoresCase() throws AuthException {
+        LoginThrottle throttle = new LoginThrottle(3, 100);
+
+        throttle.checkAttempt("alice", "10.0.0.1");
+        throttle.checkAttempt("Alice", "10.0.0.2");
+        throttle.checkAttempt("ALICE", "10.0.0.3");
+
+        assertThrows(AuthException.class, () -> throttle.checkAttempt("alice", "10.0.0.4"));
+        throttle.checkAttempt("bob", "10.0.0.4");
+    }
+
+    @Test
+    void testClientLimitDoesNotUseUpUsernames() throws AuthException {
+        LoginThrottle throttle = new LoginThrottle(3, 2);
+
+        throttle.checkAttempt("user1", "attacker");
+        throttle.checkAttempt("user2", "attacker");
+        for (int i = 0; i < 5; i++) {
+            assertThrows(AuthException.class, () -> throttle.checkAttempt("alice", "attacker"));
+        }
+
+        // the blocked client's attempts did not count against alice
+        for (int i = 0; i < 3; i++) {
+            throttle.checkAttempt("alice", "client-" + i);
+        }
+        assertTrue(throttle.generateSummary().contains("rejected 5"));
+    }
+}
@@ -0,0 +1,106 @@
+package net.javaguids.lost_and_found.services;
+
+import net.javaguids.lost_and_found.model.users.RegularUser;
+import net.javaguids.lost_and_found.model.users.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Test suite for SessionManager class. Tests tokens, idle and absolute expiry, sweeping and the session context
+class SessionManagerTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private SessionManager manager;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        manager = new SessionManager(Duration.ofMinutes(30), Duration.ofHours(12), clock::get);
+        alice = new RegularUser("user-a", "alice", "alice@example.com", "hash");
+        bob = new RegularUser("user-b", "bob", "bob@example.com", "hash");
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toMillis());
+    }
+
+    @Test
+    void testConcurrentSessionsHaveDistinctTokens() {
+        Session first = manager.createSession(alice);
+        Session second = manager.createSession(bob);
+
+        assertNotEquals(first.getToken(), second.getToken());
+        assertTrue(first.getToken().length() >= 40, "Token should be long and random");
+        assertSame(alice, manager.getSession(first.getToken()).getUser());
+        assertSame(bob, manager.getSession(second.getToken()).getUser());
+        assertNull(manager.getSession("not-a-token"));
+        assertNull(manager.getSession(null));
+    }
+
+    @Test
+    void testIdleTimeoutIsExtendedByUse() {
+        Session session = manager.createSession(alice);
+
+        advance(Duration.ofMinutes(20));
+        assertNotNull(manager.getSession(session.getToken()));
+        advance(Duration.ofMinutes(20));
+        assertNotNull(manager.getSession(session.getToken()), "Use 20 minutes ago keeps it alive");
+        advance(Duration.ofMinutes(31));
+        assertNull(manager.getSession(session.getToken()), "Idle for more than 30 minutes");
+        assertEquals(0, manager.getSessionCount());
+    }
+
+    @Test
+    void testAbsoluteTimeoutEndsActiveSession() {
+        Session session = manager.createSession(alice);
+
+        for (int i = 0; i < 12 * 4; i++) {
+            advance(Duration.ofMinutes(15));
+            manager.getSession(session.getToken());
+        }
+
+        assertNull(manager.getSession(session.getToken()));
+    }
+
+    @Test
+    void testSweepRemovesOnlyExpiredSessions() {
+        Session idle = manager.createSession(alice);
+        Session active = manager.createSession(bob);
+
+        advance(Duration.ofMinutes(25));
+        manager.getSession(active.getToken());
+        advance(Duration.ofMinutes(6));
+        manager.expireSessions();
+
+        assertEquals(1, manager.getSessionCount(), "The idle session is swept without a lookup");
+        assertNotNull(manager.getSession(active.getToken()));
+        assertNull(manager.getSession(idle.getToken()));
+    }
+
+    @Test
+    void testSessionWithoutTimeoutLastsUntilInvalidated() {
+        Session session = manager.createSession(alice, Duration.ZERO, Duration.ZERO);
+
+        advance(Duration.ofDays(3));
+        manager.expireSessions();
+        assertNotNull(manager.getSession(session.getToken()));
+
+        manager.invalidate(session.getToken());
+        assertNull(manager.getSession(session.getToken()));
+    }
+
+    @Test
+    void testContextBindsTokenPerThread() {
+        String before = SessionContext.getDefaultToken();
+        try {
+            SessionContext.setDefaultToken("desktop-token");
+            SessionContext.runAs("request-token", () ->
+                    assertEquals("request-token", SessionContext.getToken()));
+            assertEquals("desktop-token", SessionContext.getToken(), "Binding is restored after runAs");
+        } finally {
+            SessionContext.setDefaultToken(before);
+        }
+    }
+}
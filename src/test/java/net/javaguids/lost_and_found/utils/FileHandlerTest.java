@@ -6,12 +6,16 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,6 +26,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class FileHandlerTest {
 
     private static final String TEST_CSV_PATH = "test_logs.csv";
+    private static final String TEST_GZIP_PATH = "test_logs.csv.gz";
     private static final String TEST_IMAGE_DIR = "uploads/images/";
 
     @AfterEach
@@ -32,6 +37,7 @@ class FileHandlerTest {
             if (testCsv.exists()) {
                 testCsv.delete();
             }
+            new File(TEST_GZIP_PATH).delete();
         } catch (Exception e) {
             // Ignore cleanup errors
         }
@@ -195,4 +201,48 @@ class FileHandlerTest {
         // Header + 5 data rows = 6 lines
         assertTrue(lines.length >= 6, "CSV should contain header + 5 data rows");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testEscapeCsv_QuotesFieldsWithSpecialCharacters() {
+        assertEquals("plain", FileHandler.escapeCsv("plain"));
+        assertEquals("\"a,b\"", FileHandler.escapeCsv("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", FileHandler.escapeCsv("say \"hi\""));
+        assertEquals("\"line1\nline2\"", FileHandler.escapeCsv("line1\nline2"));
+        assertEquals("", FileHandler.escapeCsv(null));
+    }
+
+    @Test
+    void testExportLogsToCSV_EscapesDetails() throws IOException {
+        List<ActivityLog> logs = new ArrayList<>();
+        logs.add(new ActivityLog("log-1", "user-1", "POST_ITEM", "[bob] Posted \"Keys, car\""));
+
+        FileHandler.exportLogsToCSV(logs, TEST_CSV_PATH);
+
+        String content = Files.readString(Paths.get(TEST_CSV_PATH));
+        assertTrue(content.contains("log-1,user-1,POST_ITEM,\"[bob] Posted \"\"Keys, car\"\"\","),
+                "Details with commas and quotes should be quoted");
+    }
+
+    @Test
+    void testExportLogsToCSV_StreamingGzipWithProgress() throws IOException {
+        int count = FileHandler.EXPORT_PROGRESS_INTERVAL * 2 + 5;
+        // rows are generated while writing, never collected into a list
+        Consumer<Consumer<ActivityLog>> source = action -> {
+            for (int i = 0; i < count; i++) {
+                action.accept(new ActivityLog("log-" + i, "user-1", "ACTION", "Details " + i));
+            }
+        };
+        List<Long> progress = new ArrayList<>();
+
+        long exported = FileHandler.exportLogsToCSV(source, TEST_GZIP_PATH, true, progress::add);
+
+        assertEquals(count, exported);
+        assertEquals(List.of((long) FileHandler.EXPORT_PROGRESS_INTERVAL,
+                (long) FileHandler.EXPORT_PROGRESS_INTERVAL * 2, (long) count), progress);
+        try (GZIPInputStream in = new GZIPInputStream(new FileInputStream(TEST_GZIP_PATH))) {
+            String[] lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\r\n");
+            assertEquals(count + 1, lines.length, "Header + one line per log");
+            assertTrue(lines[count].startsWith("log-" + (count - 1) + ","));
+        }
+    }
+}
@@ -19,12 +19,52 @@ class PasswordUtilTest {
     }
 
     @Test
-    void testHashPassword_Deterministic() {
+    void testHashPassword_SaltedButVerifiable() {
         String password = "samePassword";
         String hash1 = PasswordUtil.hashPassword(password);
         String hash2 = PasswordUtil.hashPassword(password);
 
-        assertEquals(hash1, hash2, "Same password should produce same hash");
+        assertNotEquals(hash1, hash2, "Each hash should use a new salt");
+        assertTrue(PasswordUtil.verifyPassword(password, hash1));
+        assertTrue(PasswordUtil.verifyPassword(password, hash2));
+    }
+
+    @Test
+    void testHashPassword_StoresCost() {
+        String hash = PasswordUtil.hashPassword("password", 1000);
+
+        assertTrue(hash.startsWith("pbkdf2$1000$"), "Hash should record its iterations: " + hash);
+        assertTrue(PasswordUtil.verifyPassword("password", hash), "Verified with the stored iterations");
+        assertTrue(PasswordUtil.needsRehash(hash), "Fewer iterations than configured needs a rehash");
+        assertFalse(PasswordUtil.needsRehash(PasswordUtil.hashPassword("password")));
+    }
+
+    @Test
+    void testVerifyPassword_LegacySha256Hash() {
+        // unsalted SHA-256 of "password", as stored before PBKDF2
+        String legacy = "XohImNooBHFR0OVvjcYpJ3NgPQ1qq73WKhHvch0VQtg=";
+
+        assertTrue(PasswordUtil.verifyPassword("password", legacy));
+        assertFalse(PasswordUtil.verifyPassword("Password", legacy));
+        assertTrue(PasswordUtil.needsRehash(legacy), "Legacy hashes are upgraded on the next login");
+    }
+
+    @Test
+    void testVerifyPassword_MalformedHash() {
+        assertFalse(PasswordUtil.verifyPassword("password", "pbkdf2$x$y$z"));
+        assertFalse(PasswordUtil.verifyPassword("password", null));
+    }
+
+    @Test
+    void testVerifyPasswordAsync_RecordsLatency() {
+        String hash = PasswordUtil.hashPassword("mySecurePassword");
+        long before = PasswordUtil.getHashCount();
+
+        assertTrue(PasswordUtil.verifyPasswordAsync("mySecurePassword", hash).join());
+        assertFalse(PasswordUtil.verifyPasswordAsync("wrongPassword", hash).join());
+
+        assertTrue(PasswordUtil.getHashCount() >= before + 2);
+        assertTrue(PasswordUtil.getMaxHashMillis() > 0);
     }
 
     @Test
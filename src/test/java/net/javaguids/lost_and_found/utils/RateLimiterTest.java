@@ -0,0 +1,90 @@
+package net.javaguids.lost_and_found.utils;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for RateLimiter class.
+ * Tests bursts, refill over time, bounded key tracking and concurrent use.
+ */
+class RateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(0);
+
+    private RateLimiter limiter(int permits, int maxKeys, int overflowPermits) {
+        return new RateLimiter(permits, Duration.ofMinutes(1), maxKeys, overflowPermits, clock::get);
+    }
+
+    @Test
+    void testBurstThenOnePermitPerInterval() {
+        RateLimiter limiter = limiter(5, 100, 50);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("alice"), "Burst of 5 is allowed");
+        }
+        assertFalse(limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("bob"), "Keys are limited separately");
+
+        clock.addAndGet(Duration.ofSeconds(12).toNanos());
+        assertTrue(limiter.tryAcquire("alice"), "One permit back every 12 seconds");
+        assertFalse(limiter.tryAcquire("alice"));
+
+        assertEquals(7, limiter.getAllowed());
+        assertEquals(2, limiter.getRejected());
+    }
+
+    @Test
+    void testKeyFloodIsBoundedAndSharesOverflowBucket() {
+        RateLimiter limiter = limiter(5, 10, 3);
+
+        int allowed = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (limiter.tryAcquire("key-" + i)) {
+                allowed++;
+            }
+        }
+
+        assertEquals(10, limiter.getTrackedKeys(), "No more than maxKeys are tracked");
+        assertEquals(10 + 3, allowed, "Untracked keys share the overflow bucket");
+        assertEquals(990, limiter.getOverflowed());
+    }
+
+    @Test
+    void testIdleKeysAreSweptToMakeRoom() {
+        RateLimiter limiter = limiter(5, 10, 1);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("key-" + i);
+        }
+
+        // a bucket is full again 12 seconds after a single use
+        clock.addAndGet(Duration.ofSeconds(13).toNanos());
+        assertTrue(limiter.tryAcquire("newcomer"));
+
+        assertEquals(1, limiter.getTrackedKeys(), "Full buckets were forgotten, the new key tracked");
+        assertEquals(0, limiter.getOverflowed());
+    }
+
+    @Test
+    void testConcurrentAcquiresNeverExceedTheBurst() throws InterruptedException {
+        RateLimiter limiter = limiter(100, 10, 1);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                if (limiter.tryAcquire("shared")) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, allowed.get());
+        assertEquals(900, limiter.getRejected());
+    }
+}
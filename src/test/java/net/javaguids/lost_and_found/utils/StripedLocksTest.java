@@ -0,0 +1,125 @@
+package net.javaguids.lost_and_found.utils;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for StripedLocks class.
+ * Tests stripe mapping, mutual exclusion per key, deadlock-free pair locking and contention metrics.
+ */
+class StripedLocksTest {
+
+    @Test
+    void testStripesRoundedUpAndKeysMapToOneStripe() {
+        StripedLocks locks = new StripedLocks(50);
+
+        assertEquals(64, locks.getStripes());
+        assertEquals(locks.stripeOf("item-1"), locks.stripeOf(new String("item-1")));
+        assertTrue(locks.stripeOf("item-1") >= 0 && locks.stripeOf("item-1") < 64);
+        assertThrows(IllegalArgumentException.class, () -> new StripedLocks(0));
+    }
+
+    @Test
+    void testReadModifyWriteOnOneKeyLosesNoUpdate() throws Exception {
+        StripedLocks locks = new StripedLocks(16);
+        int[] counter = {0};
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        locks.withLock("item-1", () -> {
+                            int read = counter[0];
+                            Thread.yield();
+                            counter[0] = read + 1;
+                            return null;
+                        });
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(8000, counter[0]);
+        assertEquals(8000, locks.getAcquisitions());
+    }
+
+    @Test
+    void testPairsLockedInEitherOrderDoNotDeadlock() throws Exception {
+        StripedLocks locks = new StripedLocks(64);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> forward = executor.submit(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    locks.withLocks("lost-" + (i % 10), "found-" + (i % 10), () -> null);
+                }
+                return null;
+            });
+            Future<?> backward = executor.submit(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    locks.withLocks("found-" + (i % 10), "lost-" + (i % 10), () -> null);
+                }
+                return null;
+            });
+            forward.get(10, TimeUnit.SECONDS);
+            backward.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testCheckedExceptionPassesThroughAndReleasesLock() {
+        StripedLocks locks = new StripedLocks(4);
+
+        assertThrows(IOException.class, () -> locks.withLock("item-1", () -> {
+            throw new IOException("disk full");
+        }));
+        assertEquals("ok", locks.withLock("item-1", () -> "ok"));
+    }
+
+    @Test
+    void testWaitingForAHeldLockIsCounted() throws Exception {
+        StripedLocks locks = new StripedLocks(4);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> locks.withLock("item-1", () -> {
+            held.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        holder.start();
+        held.await();
+
+        Thread waiter = new Thread(() -> locks.withLock("item-1", () -> null));
+        waiter.start();
+        Thread.sleep(50);
+        release.countDown();
+        waiter.join(5000);
+        holder.join(5000);
+
+        assertEquals(2, locks.getAcquisitions());
+        assertEquals(1, locks.getContended());
+        assertEquals(0.5, locks.getContentionRate());
+        assertTrue(locks.getMaxWaitMicros() > 0);
+        assertTrue(locks.generateSummary().startsWith("2 acquisitions, 1 contended"));
+    }
+}
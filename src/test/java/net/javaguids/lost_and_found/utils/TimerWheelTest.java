@@ -0,0 +1,48 @@
+package net.javaguids.lost_and_found.utils;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for TimerWheel class.
+ * Tests that items come due at their tick, including deadlines more than one turn away.
+ */
+class TimerWheelTest {
+
+    @Test
+    void testItemsComeDueAtTheirTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(100, 8, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 300);
+        wheel.schedule("c", 1250); // same slot as "a", one turn later
+
+        assertTrue(wheel.advance(200).isEmpty());
+        assertEquals(List.of("a", "b"), wheel.advance(300), "Deadlines round up to whole ticks");
+        assertTrue(wheel.advance(1200).isEmpty(), "Later turns wait in the slot");
+        assertEquals(List.of("c"), wheel.advance(1300));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testLongJumpVisitsEverySlotOnce() {
+        TimerWheel<String> wheel = new TimerWheel<>(100, 4, 0);
+        wheel.schedule("soon", 100);
+        wheel.schedule("later", 700);
+        wheel.schedule("much later", 5000);
+
+        List<String> due = wheel.advance(1000);
+
+        assertEquals(2, due.size());
+        assertTrue(due.containsAll(List.of("soon", "later")));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void testPastDeadlineIsDueOnNextTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(100, 4, 1000);
+        wheel.schedule("late", 500);
+
+        assertEquals(List.of("late"), wheel.advance(1100));
+    }
+}